@@ -0,0 +1,142 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.aop.AspectLog;
+import com.akamai.socialnetwork.aop.AsyncLogWriter;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of service tracing: no aspect, the previous eager INFO logging and
+ * {@link AspectLog} at different sample rates, for a list result and for the same
+ * posts wrapped in a page DTO. Appenders are detached so only the cost paid on the
+ * calling thread is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectLogBenchmark {
+
+    @Param({"1.0", "0.01"})
+    public double sampleRate;
+
+    @Param({"10", "1000"})
+    public int resultSize;
+
+    private PostFetcher plain;
+    private PostFetcher eager;
+    private PostFetcher traced;
+    private AsyncLogWriter asyncLogWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ch.qos.logback.classic.Logger root =
+                (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+
+        List<PostDTO> posts = new ArrayList<>(resultSize);
+        for (long id = 1; id <= resultSize; id++) {
+            posts.add(PostDTO.builder().id(id).date(Instant.now()).author("author-" + id)
+                    .content("Benchmark post content " + id).viewCount(id).build());
+        }
+        plain = new PostFetcher(posts);
+        eager = proxy(new PostFetcher(posts), new EagerAspectLog());
+        asyncLogWriter = new AsyncLogWriter(10_000);
+        traced = proxy(new PostFetcher(posts), new AspectLog(asyncLogWriter, true, 256, sampleRate, ""));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        asyncLogWriter.shutdown();
+    }
+
+    @Benchmark
+    public List<PostDTO> noAspect() {
+        return plain.fetchAllPosts("author");
+    }
+
+    @Benchmark
+    public List<PostDTO> eagerLogging() {
+        return eager.fetchAllPosts("author");
+    }
+
+    @Benchmark
+    public List<PostDTO> sampledAsyncTracing() {
+        return traced.fetchAllPosts("author");
+    }
+
+    @Benchmark
+    public PostPageDTO eagerLoggingPage() {
+        return eager.fetchPostsPage("author");
+    }
+
+    @Benchmark
+    public PostPageDTO sampledAsyncTracingPage() {
+        return traced.fetchPostsPage("author");
+    }
+
+    private static PostFetcher proxy(PostFetcher target, Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Service
+    public static class PostFetcher {
+
+        private final List<PostDTO> posts;
+
+        public PostFetcher(List<PostDTO> posts) {
+            this.posts = posts;
+        }
+
+        public List<PostDTO> fetchAllPosts(String author) {
+            return posts;
+        }
+
+        public PostPageDTO fetchPostsPage(String author) {
+            return new PostPageDTO(posts, "next");
+        }
+    }
+
+    /**
+     * The logging the application shipped with before tracing was sampled.
+     */
+    @Aspect
+    public static class EagerAspectLog {
+
+        private static final Logger log = LoggerFactory.getLogger(EagerAspectLog.class);
+
+        @Before("within(@org.springframework.stereotype.Service *)")
+        public void logEnterMethod(JoinPoint thisJoinPoint) {
+            List<String> list = new ArrayList<>();
+            for (Object signatureArg : thisJoinPoint.getArgs()) {
+                list.add(String.valueOf(signatureArg));
+            }
+            log.info(thisJoinPoint.getSignature().getName() + " requst value " + list);
+        }
+
+        @AfterReturning(pointcut = "within(@org.springframework.stereotype.Service *)", returning = "result")
+        public void logExitMethod(JoinPoint thisJoinPoint, Object result) {
+            log.info(thisJoinPoint.getSignature().getName() + " return value = " + result);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.BatchItemResultDTO;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.service.PostService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts created per second through the batch endpoint's service method compared
+ * with one createPost call per post. Scores are per post thanks to
+ * {@link OperationsPerInvocation}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchCreateBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private List<PostDTO> posts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        postService = context.getBean(PostService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void preparePosts() {
+        // fresh dates on every invocation, posts must be dated within the current second
+        posts = new ArrayList<>(BATCH_SIZE);
+        Instant now = Instant.now();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            posts.add(PostDTO.builder()
+                    .date(now)
+                    .author("Batch Author " + (i % 50))
+                    .content("Imported post number " + i)
+                    .viewCount(0)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void createOneByOne(Blackhole blackhole) {
+        for (PostDTO post : posts) {
+            blackhole.consume(postService.createPost(post));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchItemResultDTO> createBatch() {
+        return postService.createPosts(posts);
+    }
+}
@@ -0,0 +1,56 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.SocialnetworkApplication;
+import com.akamai.socialnetwork.index.TopPostsIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application against the in-memory H2 database and seeds it with a
+ * synthetic dataset, so benchmarks measure the real wiring of controllers, services
+ * and repositories.
+ */
+final class BenchmarkApplication {
+
+    private static final String SEED_POSTS =
+            "INSERT INTO post_entity (id, date, author, content, view_count) "
+                    + "SELECT X, DATEADD('SECOND', -MOD(X * 7919, ?), CURRENT_TIMESTAMP), 'author-' || MOD(X, 1000), "
+                    + "'Benchmark post number ' || X || ' with some representative content.', "
+                    + "MOD(X * 7919, 100000) FROM SYSTEM_RANGE(1, ?)";
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        // hibernate.properties is read by Hibernate directly, system properties take precedence
+        System.setProperty("hibernate.show_sql", "false");
+        return new SpringApplicationBuilder(SocialnetworkApplication.class)
+                .web(webApplicationType)
+                .properties("logging.level.root=WARN", "server.port=0")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Inserts {@code count} posts with ids 1..count and moves the id sequence past them.
+     */
+    static void seed(ConfigurableApplicationContext context, int count) {
+        seed(context, count, 0);
+    }
+
+    /**
+     * Same as {@link #seed(ConfigurableApplicationContext, int)}, with post dates spread
+     * over the last {@code days} days instead of all being the current time.
+     */
+    static void seed(ConfigurableApplicationContext context, int count, int days) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(SEED_POSTS, Math.max(1L, days * 86_400L), count);
+        jdbcTemplate.execute("ALTER SEQUENCE post_seq RESTART WITH " + (count + 51));
+        jdbcTemplate.update("DELETE FROM author_stats");
+        jdbcTemplate.update("INSERT INTO author_stats (author, post_count) "
+                + "SELECT author, COUNT(*) FROM post_entity GROUP BY author");
+        context.getBean(TopPostsIndex.class).rebuild();
+    }
+}
@@ -0,0 +1,115 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.CommentPageDTO;
+import com.akamai.socialnetwork.repository.CommentJdbcRepository;
+import com.akamai.socialnetwork.service.CommentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the replies of one comment, either as pages of the materialized path range or
+ * one query per comment for its children, the way a parent_id tree is read without
+ * paths. In a wide thread every reply answers the root; in a deep thread replies are
+ * chained as deep as allowed, in as many chains as it takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CommentThreadBenchmark {
+
+    private static final long POST_ID = 1;
+    private static final long ROOT_ID = 1;
+    private static final int PAGE_SIZE = 50;
+    private static final int FULL_PAGE_SIZE = 1000;
+
+    @Param({"wide", "deep"})
+    public String shape;
+
+    @Param({"1000", "20000"})
+    public int replies;
+
+    private ConfigurableApplicationContext context;
+    private CommentService commentService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        BenchmarkApplication.seed(context, 1000);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seedThread();
+        commentService = context.getBean(CommentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CommentPageDTO firstPage() {
+        return commentService.fetchReplies(POST_ID, ROOT_ID, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int wholeThread() {
+        int read = 0;
+        String cursor = null;
+        do {
+            CommentPageDTO page = commentService.fetchReplies(POST_ID, ROOT_ID, cursor, FULL_PAGE_SIZE);
+            read += page.getComments().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return read;
+    }
+
+    @Benchmark
+    public int wholeThreadByParent() {
+        // one query per comment, the N+1 the paths avoid
+        int read = 0;
+        List<Long> level = List.of(ROOT_ID);
+        while (!level.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (Long parentId : level) {
+                next.addAll(jdbcTemplate.queryForList(
+                        "SELECT id FROM post_comment WHERE parent_id = ? ORDER BY id", Long.class, parentId));
+            }
+            read += next.size();
+            level = next;
+        }
+        return read;
+    }
+
+    private void seedThread() {
+        List<Object[]> rows = new ArrayList<>();
+        String rootPath = CommentJdbcRepository.pathOf(null, ROOT_ID);
+        rows.add(new Object[]{ROOT_ID, POST_ID, null, rootPath});
+        long parentId = ROOT_ID;
+        String parentPath = rootPath;
+        for (long id = ROOT_ID + 1; id <= ROOT_ID + replies; id++) {
+            if (shape.equals("wide") || CommentJdbcRepository.depthOf(parentPath) + 1 >= CommentJdbcRepository.MAX_DEPTH) {
+                parentId = ROOT_ID;
+                parentPath = rootPath;
+            }
+            String path = CommentJdbcRepository.pathOf(parentPath, id);
+            rows.add(new Object[]{id, POST_ID, parentId, path});
+            if (shape.equals("deep")) {
+                parentId = id;
+                parentPath = path;
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO post_comment (id, post_id, parent_id, path, author, content) "
+                + "VALUES (?, ?, ?, ?, 'author-1', 'Benchmark comment with some representative content.')", rows);
+        jdbcTemplate.execute("ALTER SEQUENCE comment_seq RESTART WITH " + (ROOT_ID + replies + 1));
+        jdbcTemplate.execute("ANALYZE TABLE post_comment");
+    }
+}
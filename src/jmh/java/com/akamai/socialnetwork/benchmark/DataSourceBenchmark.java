@@ -0,0 +1,76 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Borrow, run a primary key lookup and return, under concurrent load, against a
+ * pooled and an unpooled H2 data source. A TCP server is used so that opening a
+ * physical connection costs a socket handshake and login as it would in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class DataSourceBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"pooled", "unpooled"})
+    public String dataSourceType;
+
+    private org.h2.tools.Server server;
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = org.h2.tools.Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:" + server.getURL() + "/mem:datasource-benchmark;DB_CLOSE_DELAY=-1";
+        if ("pooled".equals(dataSourceType)) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(url);
+            config.setUsername("sa");
+            config.setMaximumPoolSize(20);
+            dataSource = new HikariDataSource(config);
+        } else {
+            dataSource = new DriverManagerDataSource(url, "sa", "");
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS post_entity (id BIGINT PRIMARY KEY, author VARCHAR(255))");
+            statement.execute("MERGE INTO post_entity SELECT X, 'author-' || X FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+        server.stop();
+    }
+
+    @Benchmark
+    public String findById() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT author FROM post_entity WHERE id = ?")) {
+            statement.setLong(1, ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+}
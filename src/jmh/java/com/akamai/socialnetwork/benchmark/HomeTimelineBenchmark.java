@@ -0,0 +1,123 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.TimelineStatsDTO;
+import com.akamai.socialnetwork.graph.FollowGraph;
+import com.akamai.socialnetwork.service.PostService;
+import com.akamai.socialnetwork.service.UserService;
+import com.akamai.socialnetwork.timeline.HomeTimelineIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Home timeline reads and post creation over the seeded authors, each following a
+ * number of authors drawn from a Zipf distribution, so a few authors have most of the
+ * followers. With a threshold of 0 only authors without followers are fanned out and
+ * timelines are merged from the author index on read; with the default threshold every
+ * author is fanned out and reads come from the buffers. The write amplification of each
+ * trial, buffer entries written per post, is printed on tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HomeTimelineBenchmark {
+
+    private static final int DATASET_SIZE = 200_000;
+    private static final int AUTHORS = 1000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"0", "100", "10000"})
+    public int fanOutThreshold;
+
+    @Param({"20", "200"})
+    public int followsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private PostService postService;
+    private HomeTimelineIndex homeTimelineIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "posts.timeline.fan-out-threshold=" + fanOutThreshold);
+        BenchmarkApplication.seed(context, DATASET_SIZE, 30);
+        follow(context.getBean(JdbcTemplate.class));
+        context.getBean(FollowGraph.class).rebuild();
+        userService = context.getBean(UserService.class);
+        postService = context.getBean(PostService.class);
+        homeTimelineIndex = context.getBean(HomeTimelineIndex.class);
+        // fill every buffer, so the measured reads are warm
+        for (int user = 0; user < AUTHORS; user++) {
+            userService.fetchHomeTimeline("author-" + user, null, PAGE_SIZE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TimelineStatsDTO stats = homeTimelineIndex.getStats();
+        System.out.printf("%nfan-out threshold %d: %d posts fanned out, %d buffer writes (%.1f per post), "
+                        + "%d posts fanned in, %d buffer reads, %d database reads%n",
+                fanOutThreshold, stats.getFannedOutPosts(), stats.getFanOutWrites(),
+                stats.getFannedOutPosts() == 0 ? 0.0 : (double) stats.getFanOutWrites() / stats.getFannedOutPosts(),
+                stats.getSkippedPosts(), stats.getBufferReads(), stats.getDatabaseReads());
+        context.close();
+    }
+
+    @Benchmark
+    public Object readTimeline() {
+        return userService.fetchHomeTimeline(randomUser(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Long createPost() {
+        PostDTO postDTO = new PostDTO();
+        // the most followed authors post the most as well
+        postDTO.setAuthor("author-" + zipf(ThreadLocalRandom.current()));
+        postDTO.setContent("Benchmark post with some representative content.");
+        postDTO.setDate(Instant.now());
+        return postService.createPost(postDTO);
+    }
+
+    private void follow(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        List<Object[]> edges = new ArrayList<>();
+        for (int user = 0; user < AUTHORS; user++) {
+            boolean[] followed = new boolean[AUTHORS];
+            followed[user] = true;
+            for (int i = 0; i < followsPerUser; i++) {
+                int followee = zipf(random);
+                if (!followed[followee]) {
+                    followed[followee] = true;
+                    edges.add(new Object[]{"author-" + user, "author-" + followee});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_follow (follower, followee) VALUES (?, ?)", edges);
+    }
+
+    private static String randomUser() {
+        return "author-" + ThreadLocalRandom.current().nextInt(AUTHORS);
+    }
+
+    /**
+     * Author index with probability proportional to 1 / (index + 1).
+     */
+    private static int zipf(Random random) {
+        // inverse of the continuous approximation of the harmonic series
+        double harmonic = Math.log(AUTHORS + 1.0);
+        return Math.min(AUTHORS - 1, (int) Math.exp(random.nextDouble() * harmonic) - 1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.aop.MetricsAspect;
+import com.akamai.socialnetwork.metrics.LatencyHistogram;
+import com.akamai.socialnetwork.metrics.MetricsRegistry;
+import com.akamai.socialnetwork.metrics.RequestMetricsFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one measurement, alone and through {@link RequestMetricsFilter} and
+ * {@link MetricsAspect}. Run with {@code -prof gc} to confirm that the record path
+ * allocates nothing ({@code gc.alloc.rate.norm} of 0 B/op). A proxied call allocates
+ * its invocation in Spring AOP whatever the aspect, so the aspect's own share is the
+ * difference to the same call through a pass-through aspect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private RequestMetricsFilter filter;
+    private AttributeRequest request;
+    private MockHttpServletResponse response;
+    private PostLookup timed;
+    private PostLookup untimed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metricsRegistry.getHttpRequests().get("GET", "/posts/{id}");
+        filter = new RequestMetricsFilter(metricsRegistry);
+        request = new AttributeRequest(new MockHttpServletRequest("GET", "/posts/1"));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/posts/{id:\\d+}");
+        response = new MockHttpServletResponse();
+        timed = proxy(new MetricsAspect(metricsRegistry));
+        untimed = proxy(new PassThroughAspect());
+    }
+
+    @Benchmark
+    public void recordHistogram() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1_000, 10_000_000));
+    }
+
+    @Benchmark
+    public void recordTimer() {
+        metricsRegistry.getHttpRequests().get("GET", "/posts/{id}")
+                .record(ThreadLocalRandom.current().nextLong(1_000, 10_000_000), false);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordTimerContended() {
+        metricsRegistry.getHttpRequests().get("GET", "/posts/{id}")
+                .record(ThreadLocalRandom.current().nextLong(1_000, 10_000_000), false);
+    }
+
+    @Benchmark
+    public void filterRequest() throws ServletException, IOException {
+        filter.doFilter(request, response, CHAIN);
+    }
+
+    @Benchmark
+    public long timedServiceCall() {
+        return timed.findPost(1L);
+    }
+
+    @Benchmark
+    public long untimedServiceCall() {
+        return untimed.findPost(1L);
+    }
+
+    @Benchmark
+    public String scrape() {
+        return metricsRegistry.scrape();
+    }
+
+    private static PostLookup proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new PostLookup());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Service
+    public static class PostLookup {
+
+        public long findPost(long id) {
+            return id;
+        }
+    }
+
+    @Aspect
+    public static class PassThroughAspect {
+
+        @Around("within(@org.springframework.stereotype.Service *)")
+        public Object proceed(ProceedingJoinPoint joinPoint) throws Throwable {
+            return joinPoint.proceed();
+        }
+    }
+
+    /**
+     * Keeps the few attributes the filter touches in fields, so the request itself does
+     * not allocate the way a map of attributes would.
+     */
+    private static final class AttributeRequest extends HttpServletRequestWrapper {
+
+        private final String[] names = new String[4];
+        private final Object[] values = new Object[4];
+
+        private AttributeRequest(MockHttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (name.equals(names[i])) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            int free = -1;
+            for (int i = 0; i < names.length; i++) {
+                if (name.equals(names[i])) {
+                    values[i] = value;
+                    return;
+                }
+                if (names[i] == null && free < 0) {
+                    free = i;
+                }
+            }
+            names[free] = name;
+            values[free] = value;
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (name.equals(names[i])) {
+                    names[i] = null;
+                    values[i] = null;
+                }
+            }
+        }
+    }
+}
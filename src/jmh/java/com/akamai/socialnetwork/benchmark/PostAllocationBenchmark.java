@@ -0,0 +1,177 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of turning loaded posts into a JSON response body, the work behind every
+ * read request. {@code legacy} is the model as it was before, boxed {@code Number} view
+ * counts and {@code java.util.Date} dates serialized by Jackson's bean serializer, kept
+ * here as a private copy. {@code current} is {@link PostMapper} and the hand-written
+ * serializer of {@link PostDTO}.
+ * <p>
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the bytes allocated
+ * per request:
+ * <pre>
+ * mvn -Pbenchmark -DskipTests verify -Djmh.args="PostAllocationBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostAllocationBenchmark {
+
+    @Param({"1", "10"})
+    public int posts;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PostMapper postMapper = Mappers.getMapper(PostMapper.class);
+
+    private List<PostEntity> entities;
+    private List<LegacyPostEntity> legacyEntities;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        entities = new ArrayList<>(posts);
+        legacyEntities = new ArrayList<>(posts);
+        long now = System.currentTimeMillis();
+        for (long id = 1; id <= posts; id++) {
+            PostEntity entity = new PostEntity();
+            entity.setId(id);
+            entity.setDate(Instant.ofEpochMilli(now));
+            entity.setAuthor("Benchmark Author " + id);
+            entity.setContent("Benchmark content of a typical length for a post in this network.");
+            entity.setViewCount(id * 100);
+            entities.add(entity);
+
+            LegacyPostEntity legacyEntity = new LegacyPostEntity();
+            legacyEntity.setId(id);
+            legacyEntity.setDate(new Date(now));
+            legacyEntity.setAuthor(entity.getAuthor());
+            legacyEntity.setContent(entity.getContent());
+            legacyEntity.setViewCount(id * 100);
+            legacyEntities.add(legacyEntity);
+        }
+        System.out.printf("%nlegacy body: %d bytes, current body: %d bytes%n",
+                legacy().length, current().length);
+    }
+
+    @Benchmark
+    public byte[] legacy() throws JsonProcessingException {
+        List<LegacyPostDTO> body = new ArrayList<>(legacyEntities.size());
+        for (LegacyPostEntity entity : legacyEntities) {
+            body.add(LegacyPostDTO.of(entity));
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] current() throws JsonProcessingException {
+        List<PostDTO> body = new ArrayList<>(entities.size());
+        for (PostEntity entity : entities) {
+            body.add(postMapper.toPostDTO(entity));
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    public static class LegacyPostEntity {
+        private Long id;
+        private Date date;
+        private String author;
+        private String content;
+        private Long viewCount;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(String author) {
+            this.author = author;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+
+        public Long getViewCount() {
+            return viewCount;
+        }
+
+        public void setViewCount(Long viewCount) {
+            this.viewCount = viewCount;
+        }
+    }
+
+    public static class LegacyPostDTO {
+        private Long id;
+        private Date date;
+        private String author;
+        private String content;
+        private Number viewCount;
+
+        // what the generated mapper did, the count went through toViewCount(Number) and was boxed again
+        static LegacyPostDTO of(LegacyPostEntity entity) {
+            LegacyPostDTO post = new LegacyPostDTO();
+            post.id = entity.getId();
+            post.date = entity.getDate();
+            post.author = entity.getAuthor();
+            post.content = entity.getContent();
+            post.viewCount = entity.getViewCount() == null ? null : Long.valueOf(entity.getViewCount().longValue());
+            return post;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Date getDate() {
+            return date;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public Number getViewCount() {
+            return viewCount;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * End-to-end request throughput through the MVC stack, including argument
+ * resolution, validation and JSON serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class PostControllerBenchmark {
+
+    @Param({"10000"})
+    public int datasetSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET);
+        BenchmarkApplication.seed(context, datasetSize);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getPostById() throws Exception {
+        return mockMvc.perform(get("/posts/{id}", ThreadLocalRandom.current().nextLong(1, datasetSize + 1)))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getMostViewed() throws Exception {
+        return mockMvc.perform(get("/posts/getMostViewed")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getPostsPage() throws Exception {
+        return mockMvc.perform(get("/posts/page").param("size", "50")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createPost() throws Exception {
+        PostDTO postDTO = PostDTO.builder()
+                .date(Instant.now())
+                .author("Benchmark Author")
+                .content("Benchmark content of a typical length for a post in this network.")
+                .viewCount(0)
+                .build();
+        return mockMvc.perform(post("/posts/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(postDTO)))
+                .andReturn();
+    }
+}
@@ -0,0 +1,30 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.validation.PostDateValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostDateValidatorBenchmark {
+
+    private final PostDateValidator validator = new PostDateValidator();
+
+    private final Instant pastDate = Instant.EPOCH;
+
+    @Benchmark
+    public boolean validDate() {
+        return validator.isValid(Instant.now(), null);
+    }
+
+    @Benchmark
+    public boolean invalidDate() {
+        return validator.isValid(pastDate, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostJsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PostDTO post;
+    private List<PostDTO> topPosts;
+    private byte[] postJson;
+    private byte[] topPostsJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        post = post(1);
+        topPosts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            topPosts.add(post(i));
+        }
+        postJson = objectMapper.writeValueAsBytes(post);
+        topPostsJson = objectMapper.writeValueAsBytes(topPosts);
+    }
+
+    @Benchmark
+    public byte[] serializePost() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public byte[] serializeTopPosts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(topPosts);
+    }
+
+    @Benchmark
+    public PostDTO deserializePost() throws Exception {
+        return objectMapper.readValue(postJson, PostDTO.class);
+    }
+
+    @Benchmark
+    public List<PostDTO> deserializeTopPosts() throws Exception {
+        return objectMapper.readValue(topPostsJson, new TypeReference<List<PostDTO>>() {});
+    }
+
+    private static PostDTO post(long id) {
+        return PostDTO.builder()
+                .id(id)
+                .date(Instant.now())
+                .author("Benchmark Author " + id)
+                .content("Benchmark content of a typical length for a post in this network.")
+                .viewCount(id * 100)
+                .build();
+    }
+}
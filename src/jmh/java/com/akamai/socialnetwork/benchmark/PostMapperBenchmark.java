@@ -0,0 +1,45 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostMapperBenchmark {
+
+    private final PostMapper postMapper = Mappers.getMapper(PostMapper.class);
+
+    private PostEntity postEntity;
+    private PostDTO postDTO;
+
+    @Setup
+    public void setUp() {
+        postEntity = new PostEntity();
+        postEntity.setId(42L);
+        postEntity.setDate(Instant.now());
+        postEntity.setAuthor("Benchmark Author");
+        postEntity.setContent("Benchmark content of a typical length for a post in this network.");
+        postEntity.setViewCount(1234L);
+        postDTO = postMapper.toPostDTO(postEntity);
+    }
+
+    @Benchmark
+    public PostDTO toPostDTO() {
+        return postMapper.toPostDTO(postEntity);
+    }
+
+    @Benchmark
+    public PostEntity toPostEntity() {
+        return postMapper.toPostEntity(postDTO);
+    }
+}
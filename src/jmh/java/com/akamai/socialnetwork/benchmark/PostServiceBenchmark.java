@@ -0,0 +1,75 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.service.PostService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service layer hot paths over a seeded H2 dataset; run with
+ * {@code -p datasetSize=...} to change the table size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        BenchmarkApplication.seed(context, datasetSize);
+        postService = context.getBean(PostService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostDTO> fetchTopPosts() {
+        return postService.fetchTopPosts();
+    }
+
+    @Benchmark
+    public PostDTO fetchPost() {
+        return postService.fetchPost(ThreadLocalRandom.current().nextLong(1, datasetSize + 1));
+    }
+
+    @Benchmark
+    public PostPageDTO fetchPostsPage() {
+        return postService.fetchPostsPage(null, 50);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public List<PostDTO> fetchAllPosts() {
+        return postService.fetchAllPosts();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public void streamAllPosts(Blackhole blackhole) {
+        postService.streamAllPosts(blackhole::consume);
+    }
+}
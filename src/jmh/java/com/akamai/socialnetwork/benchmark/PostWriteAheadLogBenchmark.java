@@ -0,0 +1,79 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.service.PostService;
+import com.akamai.socialnetwork.wal.PostWriteAheadLog;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates posts under concurrent load, either in a transaction per post or appended to
+ * the write-ahead log and committed in batches behind the caller, with and without
+ * forcing each append to disk. After every iteration the time to commit what the log
+ * still holds is printed, the lag a reader of new posts would see.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(8)
+public class PostWriteAheadLogBenchmark {
+
+    @Param({"transaction", "log", "log-fsync"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostWriteAheadLog postWriteAheadLog;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("post-wal-benchmark");
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "posts.wal.enabled=" + !mode.equals("transaction"),
+                "posts.wal.fsync=" + mode.equals("log-fsync"),
+                "posts.wal.directory=" + directory,
+                // measures how far appends can run ahead of the committer, not the cap
+                "posts.wal.max-pending=" + Long.MAX_VALUE);
+        BenchmarkApplication.seed(context, 10_000);
+        postService = context.getBean(PostService.class);
+        postWriteAheadLog = context.getBean(PostWriteAheadLog.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        long started = System.nanoTime();
+        long uncommitted = postWriteAheadLog.getStats().getUncommittedPosts();
+        postWriteAheadLog.commit();
+        System.out.printf("%n[%s] committed %d logged posts in %d ms%n", mode, uncommitted,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Long createPost() {
+        PostDTO post = PostDTO.builder()
+                .author("author-" + ThreadLocalRandom.current().nextInt(100))
+                .content("Benchmark post with some representative content.")
+                .date(Instant.now())
+                .build();
+        return mode.equals("transaction") ? postService.createPost(post) : postWriteAheadLog.append(post);
+    }
+}
@@ -0,0 +1,110 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.search.PostSearchIndex;
+import com.akamai.socialnetwork.service.PostService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Search query latency over posts written from a skewed vocabulary, and index lag:
+ * the time from a createPost call returning until the post is found by search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 5000;
+    private static final int WORDS_PER_POST = 40;
+
+    @Param({"100000"})
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private final AtomicLong uniqueWords = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        BenchmarkApplication.seed(context, datasetSize);
+        writeContent(context.getBean(JdbcTemplate.class));
+        PostSearchIndex postSearchIndex = context.getBean(PostSearchIndex.class);
+        postSearchIndex.rebuild();
+        postSearchIndex.awaitIndexed(10, TimeUnit.MINUTES);
+        postService = context.getBean(PostService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PostPageDTO searchCommonTerm() {
+        return postService.searchPosts("w1", null, 20);
+    }
+
+    @Benchmark
+    public PostPageDTO searchRareTerms() {
+        return postService.searchPosts("w1500 w2500", null, 20);
+    }
+
+    @Benchmark
+    public PostPageDTO searchPhrase() {
+        return postService.searchPosts("\"w1 w2\"", null, 20);
+    }
+
+    @Benchmark
+    public PostPageDTO searchPrefix() {
+        return postService.searchPosts("w12*", null, 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public PostPageDTO indexLag() {
+        String word = "lag" + uniqueWords.incrementAndGet();
+        postService.createPost(PostDTO.builder()
+                .date(Instant.now())
+                .author("Search Author")
+                .content("Freshly written " + word)
+                .viewCount(0)
+                .build());
+        while (true) {
+            PostPageDTO page = postService.searchPosts(word, null, 1);
+            if (!page.getPosts().isEmpty()) {
+                return page;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void writeContent(JdbcTemplate jdbcTemplate) {
+        // word ranks follow a Zipf-like distribution, as in natural language
+        Random random = new Random(42);
+        List<Object[]> arguments = new ArrayList<>(datasetSize);
+        for (long id = 1; id <= datasetSize; id++) {
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < WORDS_PER_POST; i++) {
+                int rank = (int) Math.min(VOCABULARY_SIZE, Math.floor(Math.exp(random.nextDouble() * Math.log(VOCABULARY_SIZE))));
+                content.append('w').append(rank).append(' ');
+            }
+            arguments.add(new Object[]{content.toString().trim(), id});
+        }
+        jdbcTemplate.batchUpdate("UPDATE post_entity SET content = ? WHERE id = ?", arguments);
+    }
+}
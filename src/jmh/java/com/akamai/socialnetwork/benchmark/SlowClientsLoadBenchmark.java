@@ -0,0 +1,111 @@
+package com.akamai.socialnetwork.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet versus reactive stack while hundreds of slow clients keep /posts/getAll
+ * streams open. Each slow client reads one kilobyte every 10 milliseconds. The measured
+ * operation is a fast GET /posts/{id} from other clients; server thread count and heap
+ * usage are printed after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class SlowClientsLoadBenchmark {
+
+    private static final int DATASET_SIZE = 100_000;
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    @Param({"500"})
+    public int slowClients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService slowClientExecutor;
+    private volatile boolean running;
+    private HttpClient httpClient;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean reactive = "reactive".equals(stack);
+        context = BenchmarkApplication.start(reactive ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET,
+                "spring.profiles.active=" + (reactive ? "reactive" : "default"),
+                "posts.tracing.enabled=false");
+        BenchmarkApplication.seed(context, DATASET_SIZE);
+        port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        running = true;
+        slowClientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < slowClients; i++) {
+            slowClientExecutor.submit(this::readSlowly);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.out.printf("%n[%s] live platform threads: %d, heap used: %d MB%n", stack,
+                threads.getThreadCount(), memory.getHeapMemoryUsage().getUsed() >> 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        running = false;
+        slowClientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int getPostById() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/posts/"
+                + ThreadLocalRandom.current().nextLong(1, DATASET_SIZE + 1))).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private void readSlowly() {
+        byte[] buffer = new byte[1024];
+        while (running) {
+            try (Socket socket = new Socket("localhost", port)) {
+                OutputStream out = socket.getOutputStream();
+                out.write(("GET /posts/getAll HTTP/1.1\r\nHost: localhost\r\nAccept: application/x-ndjson\r\n"
+                        + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                InputStream in = socket.getInputStream();
+                while (running && in.read(buffer) != -1) {
+                    Thread.sleep(10);
+                }
+            } catch (IOException e) {
+                // the server dropped the connection, open a new one
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.akamai.socialnetwork.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of platform versus virtual request threads. 400 client threads exceed the
+ * default 200 Tomcat workers; every request runs a keyset page query, so a request
+ * spends most of its time blocked on JDBC. Sample mode reports the latency
+ * distribution, use {@code -p threadMode=...} to run one mode only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(400)
+public class ThreadModeLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threadMode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "posts.threads.virtual.enabled=" + "virtual".equals(threadMode),
+                "posts.tracing.enabled=false");
+        BenchmarkApplication.seed(context, 100_000);
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/posts/page?size=50")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getPostsPage() throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,82 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.service.PostService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timeline range reads over a table with posts spread across a year, comparing the
+ * per-day bucket scans against a single range scan of the plain date index. The large
+ * dataset needs a big heap; run a single size with {@code -p datasetSize=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class TimelineBenchmark {
+
+    private static final int SPREAD_DAYS = 365;
+
+    private static final String SELECT_RANGE_BY_DATE =
+            "SELECT id, date, author, content, view_count FROM post_entity "
+                    + "WHERE date >= ? AND date < ? ORDER BY date DESC, id DESC";
+
+    @Param({"1000000", "20000000"})
+    public int datasetSize;
+
+    @Param({"1", "7"})
+    public int rangeDays;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private JdbcTemplate jdbcTemplate;
+    private Instant now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        BenchmarkApplication.seed(context, datasetSize, SPREAD_DAYS);
+        postService = context.getBean(PostService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        now = Instant.now();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void streamTimeline(Blackhole blackhole) {
+        Instant to = randomEnd();
+        postService.streamTimeline(to.minus(Duration.ofDays(rangeDays)), to, blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamDateRange(Blackhole blackhole) {
+        Instant to = randomEnd();
+        jdbcTemplate.query(SELECT_RANGE_BY_DATE, (RowCallbackHandler) resultSet -> {
+            blackhole.consume(resultSet.getLong("id"));
+            blackhole.consume(resultSet.getTimestamp("date"));
+            blackhole.consume(resultSet.getString("author"));
+            blackhole.consume(resultSet.getString("content"));
+            blackhole.consume(resultSet.getLong("view_count"));
+        }, Timestamp.from(to.minus(Duration.ofDays(rangeDays))), Timestamp.from(to));
+    }
+
+    private Instant randomEnd() {
+        return now.minus(Duration.ofDays(ThreadLocalRandom.current().nextInt(rangeDays, SPREAD_DAYS)));
+    }
+}
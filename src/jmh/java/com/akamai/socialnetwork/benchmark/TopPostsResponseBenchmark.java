@@ -0,0 +1,68 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.service.PostService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the top posts response body: serializing the list on every request,
+ * as before, against writing the pre-encoded JSON or gzip bytes. Run with
+ * {@code -prof gc} to compare the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TopPostsResponseBenchmark {
+
+    @Param({"10000"})
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private ObjectMapper objectMapper;
+    private OutputStream responseBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // ten seeded posts stay below the default threshold, which would leave no gzip bytes
+        context = BenchmarkApplication.start(WebApplicationType.NONE, "server.compression.min-response-size=0");
+        BenchmarkApplication.seed(context, datasetSize);
+        postService = context.getBean(PostService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        responseBody = OutputStream.nullOutputStream();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void serializePerRequest() throws IOException {
+        objectMapper.writeValue(responseBody, postService.fetchTopPosts());
+    }
+
+    @Benchmark
+    public byte[] writePreEncodedJson() throws IOException {
+        byte[] json = postService.fetchEncodedTopPosts().getJson();
+        responseBody.write(json);
+        return json;
+    }
+
+    @Benchmark
+    public byte[] writePreEncodedGzip() throws IOException {
+        byte[] gzippedJson = postService.fetchEncodedTopPosts().getGzippedJson();
+        responseBody.write(gzippedJson);
+        return gzippedJson;
+    }
+}
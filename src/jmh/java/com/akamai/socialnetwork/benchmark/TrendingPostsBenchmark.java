@@ -0,0 +1,67 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.dto.TrendingStatsDTO;
+import com.akamai.socialnetwork.trending.TrendingPostsIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Views recorded in the trending index, in views per minute, over a million posts whose
+ * popularity follows a Zipf distribution, with a concurrent reader of the ranking. The
+ * admissions and evictions of each trial are printed on tear down: with a long tail most
+ * views should be rejected by the sketch rather than churn the tracked posts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TrendingPostsBenchmark {
+
+    private static final int POSTS = 1_000_000;
+    private static final int SAMPLES = 1 << 22;
+
+    @Param({"256", "1024", "8192"})
+    public int capacity;
+
+    private TrendingPostsIndex index;
+    private long[] postIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new TrendingPostsIndex(60, 30, capacity, 16384, 4);
+        // drawn up front, so the measured time is the index's own
+        Random random = new Random(42);
+        double harmonic = Math.log(POSTS + 1.0);
+        postIds = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            postIds[i] = Math.min(POSTS, (long) Math.exp(random.nextDouble() * harmonic));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TrendingStatsDTO stats = index.getStats();
+        System.out.printf("%ncapacity %d: %d views, %d tracked, %d admissions, %d evictions%n",
+                capacity, stats.getViews(), stats.getTrackedPosts(), stats.getAdmissions(), stats.getEvictions());
+    }
+
+    @Benchmark
+    @Group("trending")
+    @GroupThreads(7)
+    public void record() {
+        index.record(postIds[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+
+    @Benchmark
+    @Group("trending")
+    @GroupThreads(1)
+    public List<Long> getTrending() {
+        return index.getTrending(10);
+    }
+}
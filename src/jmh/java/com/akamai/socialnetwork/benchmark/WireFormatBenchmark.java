@@ -0,0 +1,89 @@
+package com.akamai.socialnetwork.benchmark;
+
+import com.akamai.socialnetwork.converter.PostProtobufCodec;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of a page of posts in each wire format. The payload size of
+ * every format is printed once per trial, as it does not depend on the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<PostDTO>> POST_LIST = new TypeReference<>() {};
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    @Param({"1", "50"})
+    public int posts;
+
+    private ObjectMapper objectMapper;
+    private List<PostDTO> page;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> null;
+        };
+        page = new ArrayList<>();
+        for (int i = 0; i < posts; i++) {
+            page.add(post(i));
+        }
+        encoded = encode();
+        System.out.printf("%n%s payload of %d posts: %d bytes%n", format, posts, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (objectMapper != null) {
+            return objectMapper.writeValueAsBytes(page);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        PostProtobufCodec.writePostList(output, page);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<PostDTO> decode() throws IOException {
+        if (objectMapper != null) {
+            return objectMapper.readValue(encoded, POST_LIST);
+        }
+        return PostProtobufCodec.readPostList(CodedInputStream.newInstance(encoded));
+    }
+
+    private static PostDTO post(long id) {
+        return PostDTO.builder()
+                .id(id)
+                .date(Instant.now())
+                .author("Benchmark Author " + id)
+                .content("Benchmark content of a typical length for a post in this network.")
+                .viewCount(id * 100)
+                .build();
+    }
+}
@@ -2,6 +2,8 @@ package com.akamai.socialnetwork.advice;
 
 
 import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.exception.ServiceUnavailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -14,4 +16,14 @@ public class PostControllerAdvice {
     protected ResponseEntity<Object> handleNotFoundException(ElementNotFoundException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(value = {InvalidRequestException.class})
+    protected ResponseEntity<Object> handleInvalidRequestException(InvalidRequestException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = {ServiceUnavailableException.class})
+    protected ResponseEntity<Object> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
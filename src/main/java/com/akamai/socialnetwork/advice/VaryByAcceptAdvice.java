@@ -0,0 +1,43 @@
+package com.akamai.socialnetwork.advice;
+
+import com.akamai.socialnetwork.controller.PostController;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Posts are read as JSON, CBOR, Smile or Protobuf depending on the Accept header, so a
+ * cache must not answer one client with the format another one asked for.
+ */
+@ControllerAdvice(assignableTypes = PostController.class)
+public class VaryByAcceptAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (HttpMethod.GET.equals(request.getMethod())) {
+            List<String> vary = response.getHeaders().getVary();
+            if (!vary.contains(HttpHeaders.ACCEPT)) {
+                List<String> values = new ArrayList<>(vary);
+                values.add(HttpHeaders.ACCEPT);
+                response.getHeaders().setVary(values);
+            }
+        }
+        return body;
+    }
+}
@@ -1,46 +1,194 @@
 package com.akamai.socialnetwork.aop;
 
+import com.akamai.socialnetwork.dto.PostDTO;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Traces calls to service methods.
+ * <p>
+ * Nothing is rendered unless INFO is enabled and the call is sampled; the sample rate
+ * can be set per method name. Arguments and results are rendered on the calling thread,
+ * so later mutations are not observed, but are capped at a maximum length and
+ * collections, also those held by DTOs, are never rendered past that cap. The log
+ * statements themselves run on
+ * {@link AsyncLogWriter}. Exceptions are always logged.
+ */
 @Slf4j
 @Aspect
 @Component
 public class AspectLog {
 
+    private static final Field[] NO_FIELDS = new Field[0];
+
+    // fields of the DTOs, in the order their Lombok toString() renders them
+    private static final ClassValue<Field[]> DTO_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            if (!type.getPackageName().equals(PostDTO.class.getPackageName()) || type.isEnum()
+                    || type.getEnclosingClass() != null) {
+                return NO_FIELDS;
+            }
+            Field[] fields = Stream.of(type.getDeclaredFields())
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                    .toArray(Field[]::new);
+            for (Field field : fields) {
+                field.setAccessible(true);
+            }
+            return fields;
+        }
+    };
+
+    private final AsyncLogWriter asyncLogWriter;
+    private final boolean enabled;
+    private final int maxValueLength;
+    private final double defaultSampleRate;
+    private final Map<String, Double> sampleRates;
+
+    public AspectLog(AsyncLogWriter asyncLogWriter,
+                     @Value("${posts.tracing.enabled:true}") boolean enabled,
+                     @Value("${posts.tracing.max-value-length:256}") int maxValueLength,
+                     @Value("${posts.tracing.default-sample-rate:1.0}") double defaultSampleRate,
+                     @Value("${posts.tracing.sample-rates:}") String sampleRates) {
+        if (maxValueLength <= 0) {
+            throw new IllegalArgumentException("posts.tracing.max-value-length must be positive: " + maxValueLength);
+        }
+        this.asyncLogWriter = asyncLogWriter;
+        this.enabled = enabled;
+        this.maxValueLength = maxValueLength;
+        this.defaultSampleRate = checkRate(defaultSampleRate);
+        this.sampleRates = parseSampleRates(sampleRates);
+    }
 
     @Pointcut("within(@org.springframework.stereotype.Service *)")
     public void repositoryClassMethods() {};
 
+    @Around("repositoryClassMethods()")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled || !log.isInfoEnabled()) {
+            return joinPoint.proceed();
+        }
+        String methodName = joinPoint.getSignature().getName();
+        boolean sampled = isSampled(methodName);
+        if (sampled) {
+            String arguments = render(joinPoint.getArgs());
+            asyncLogWriter.submit(() -> log.info("{} request value {}", methodName, arguments));
+        }
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Exception exception) {
+            String message = exception.getMessage();
+            asyncLogWriter.submit(() -> log.info("{} ERROR {}", methodName, message));
+            throw exception;
+        }
+        if (sampled) {
+            String rendered = render(result);
+            asyncLogWriter.submit(() -> log.info("{} return value = {}", methodName, rendered));
+        }
+        return result;
+    }
+
+    boolean isSampled(String methodName) {
+        double rate = sampleRates.getOrDefault(methodName, defaultSampleRate);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
 
-    @Before("repositoryClassMethods()")
-    public void logEnterMethod(JoinPoint thisJoinPoint) {
-        Object[] signatureArgs = thisJoinPoint.getArgs();
-        ArrayList<String> list = new ArrayList<>();
-        for (Object signatureArg: signatureArgs) {
-            try {
-                list.add(signatureArg.toString());
-            }catch (NullPointerException e){
-                list.add("null");
-            }
+    /**
+     * Renders a value the way {@code toString()} would, stopping at the length cap.
+     * Collections and arrays are rendered element by element and DTOs field by field,
+     * so a large result is never turned into a string as a whole.
+     */
+    String render(Object value) {
+        StringBuilder builder = new StringBuilder(Math.min(maxValueLength, 64));
+        append(builder, value);
+        if (builder.length() > maxValueLength) {
+            builder.setLength(maxValueLength);
+            builder.append("...");
+        }
+        return builder.toString();
+    }
 
+    private void append(StringBuilder builder, Object value) {
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            builder.append("(size=").append(collection.size()).append(")[");
+            Iterator<?> iterator = collection.iterator();
+            while (iterator.hasNext() && builder.length() <= maxValueLength) {
+                append(builder, iterator.next());
+                if (iterator.hasNext()) {
+                    builder.append(", ");
+                }
+            }
+            builder.append(']');
+        } else if (value != null && value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            builder.append('[');
+            for (int i = 0; i < length && builder.length() <= maxValueLength; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                append(builder, Array.get(value, i));
+            }
+            builder.append(']');
+        } else if (value != null && DTO_FIELDS.get(value.getClass()).length > 0) {
+            Field[] fields = DTO_FIELDS.get(value.getClass());
+            builder.append(value.getClass().getSimpleName()).append('(');
+            for (int i = 0; i < fields.length && builder.length() <= maxValueLength; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(fields[i].getName()).append('=');
+                append(builder, read(fields[i], value));
+            }
+            builder.append(')');
+        } else {
+            String string = String.valueOf(value);
+            int room = Math.max(0, maxValueLength - builder.length() + 1);
+            builder.append(string, 0, Math.min(string.length(), room));
         }
-        log.info(thisJoinPoint.getSignature().getName() +" requst value " + list);
     }
 
-    @AfterReturning(pointcut = "repositoryClassMethods()", returning = "result")
-    public void logExitMethod(JoinPoint thisJoinPoint, Object result) {
-        log.info(thisJoinPoint.getSignature().getName() +" return value = " + result);
+    private static Object read(Field field, Object value) {
+        try {
+            return field.get(value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    @AfterThrowing(pointcut = "repositoryClassMethods()", throwing = "exception")
-    public void logException(JoinPoint thisJoinPoint, Exception exception) {
-        log.info(thisJoinPoint.getSignature().getName() + " ERROR  " + exception.getMessage());
+    private static Map<String, Double> parseSampleRates(String sampleRates) {
+        Map<String, Double> rates = new HashMap<>();
+        for (String entry : sampleRates.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("posts.tracing.sample-rates entries must be method:rate, got " + entry);
+            }
+            rates.put(parts[0].trim(), checkRate(Double.parseDouble(parts[1].trim())));
+        }
+        return rates;
     }
 
-}
\ No newline at end of file
+    private static double checkRate(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + rate);
+        }
+        return rate;
+    }
+}
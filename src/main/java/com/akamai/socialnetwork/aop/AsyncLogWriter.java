@@ -0,0 +1,87 @@
+package com.akamai.socialnetwork.aop;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs log statements on a dedicated thread. The queue is bounded and submitting never
+ * blocks: when the writer falls behind, new statements are dropped and counted instead
+ * of stalling the request thread on appender I/O.
+ */
+@Component
+public class AsyncLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncLogWriter.class);
+
+    private final BlockingQueue<Runnable> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLogWriter(@Value("${posts.tracing.queue-capacity:10000}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("posts.tracing.queue-capacity must be positive: " + capacity);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "trace-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the statement; returns false if it was dropped because the queue is full.
+     */
+    public boolean submit(Runnable logStatement) {
+        if (queue.offer(logStatement)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        List<Runnable> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::runQuietly);
+        if (dropped.sum() > 0) {
+            logger.warn("{} trace log statements were dropped because the queue was full", dropped.sum());
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                runQuietly(queue.take());
+            } catch (InterruptedException e) {
+                // shutdown drains what is left
+                return;
+            }
+        }
+    }
+
+    private void runQuietly(Runnable logStatement) {
+        try {
+            logStatement.run();
+        } catch (RuntimeException e) {
+            logger.warn("Trace log statement failed", e);
+        }
+    }
+}
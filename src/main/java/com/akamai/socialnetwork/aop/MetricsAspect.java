@@ -0,0 +1,78 @@
+package com.akamai.socialnetwork.aop;
+
+import com.akamai.socialnetwork.metrics.LatencyTimer;
+import com.akamai.socialnetwork.metrics.MetricsRegistry;
+import com.akamai.socialnetwork.metrics.TimerFamily;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times service, repository and mapper calls so request latency can be split by layer.
+ * The timer of a method is looked up once and then found by the method itself, so
+ * timing a call builds no label.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricsAspect {
+
+    private final MetricsRegistry metricsRegistry;
+    private final Map<Method, LatencyTimer> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<Method, LatencyTimer> repositoryTimers = new ConcurrentHashMap<>();
+    private final Map<Method, LatencyTimer> mapperTimers = new ConcurrentHashMap<>();
+
+    @Pointcut("within(@org.springframework.stereotype.Service *)")
+    public void serviceMethods() {}
+
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " || within(@org.springframework.stereotype.Repository *)")
+    public void repositoryMethods() {}
+
+    @Pointcut("within(com.akamai.socialnetwork.mapper..*)")
+    public void mapperMethods() {}
+
+    @Around("serviceMethods()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, metricsRegistry.getServiceMethods(), serviceTimers);
+    }
+
+    @Around("repositoryMethods()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, metricsRegistry.getRepositoryMethods(), repositoryTimers);
+    }
+
+    @Around("mapperMethods()")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, metricsRegistry.getMapperMethods(), mapperTimers);
+    }
+
+    private static Object time(ProceedingJoinPoint joinPoint, TimerFamily family, Map<Method, LatencyTimer> timers)
+            throws Throwable {
+        // the invocation Spring exposes to aspects, getSignature() would build a signature per call
+        Method method = ExposeInvocationInterceptor.currentInvocation().getMethod();
+        LatencyTimer timer = timers.get(method);
+        if (timer == null) {
+            // the method name alone would merge the series of, say, every save() of every repository
+            timer = timers.computeIfAbsent(method,
+                    key -> family.get(key.getDeclaringClass().getSimpleName() + "." + key.getName()));
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.akamai.socialnetwork.cache;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The top posts response, serialized once and shared by every request until the top
+ * posts change. The byte arrays must be treated as read-only.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EncodedTopPosts {
+
+    private final List<PostDTO> posts;
+    private final byte[] json;
+    /** {@code null} when the JSON is below the compression threshold. */
+    private final byte[] gzippedJson;
+    private final String eTag;
+    private final long lastModified;
+
+    /**
+     * ETag of the gzip-encoded representation; a strong tag must differ per encoding.
+     */
+    public String getGzipETag() {
+        return eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+    }
+}
@@ -0,0 +1,196 @@
+package com.akamai.socialnetwork.cache;
+
+import com.akamai.socialnetwork.dto.CacheStatsDTO;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.event.PostsChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache of {@link PostDTO} by post id.
+ * <p>
+ * Entries are evicted least-recently-used once a segment is full and expire after a
+ * fixed time to live. Missing ids are cached too, with a shorter time to live, so
+ * repeated lookups of unknown ids do not reach the database. Writes invalidate the
+ * affected ids after commit; a load that started before an invalidation of its segment
+ * is not stored, so a slow reader can never put back a value that a writer replaced.
+ * <p>
+ * Cached posts are shared between callers and must be treated as read-only.
+ */
+@Component
+public class PostCache {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public PostCache(@Value("${posts.cache.max-size:10000}") int maxSize,
+                     @Value("${posts.cache.ttl-ms:60000}") long ttlMillis,
+                     @Value("${posts.cache.negative-ttl-ms:5000}") long negativeTtlMillis) {
+        this(maxSize, ttlMillis, negativeTtlMillis, Math.min(DEFAULT_SEGMENTS, maxSize), System::nanoTime);
+    }
+
+    PostCache(int maxSize, long ttlMillis, long negativeTtlMillis, int segmentCount, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("posts.cache.max-size must be positive: " + maxSize);
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.clock = clock;
+        this.segments = new Segment[segmentCount];
+        int segmentSize = (maxSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Returns the cached post, loading and caching it on a miss. An empty result means
+     * the post does not exist.
+     */
+    public Optional<PostDTO> get(Long postId, Function<Long, Optional<PostDTO>> loader) {
+        Segment segment = segmentFor(postId);
+        long generation;
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(postId);
+            if (entry != null) {
+                if (entry.expiresAt - clock.getAsLong() > 0) {
+                    if (entry.value == null) {
+                        negativeHits.increment();
+                        return Optional.empty();
+                    }
+                    hits.increment();
+                    return Optional.of(entry.value);
+                }
+                segment.entries.remove(postId);
+                evictions.increment();
+            }
+            misses.increment();
+            generation = segment.generation;
+        } finally {
+            segment.lock.unlock();
+        }
+
+        Optional<PostDTO> loaded = loader.apply(postId);
+
+        segment.lock.lock();
+        try {
+            if (segment.generation == generation) {
+                long ttl = loaded.isPresent() ? ttlNanos : negativeTtlNanos;
+                segment.entries.put(postId, new Entry(loaded.orElse(null), clock.getAsLong() + ttl));
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the cached post without loading it on a miss. Not counted in the
+     * statistics, the caller falls back to a cheaper lookup than a load.
+     */
+    public Optional<PostDTO> peek(Long postId) {
+        Segment segment = segmentFor(postId);
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(postId);
+            if (entry == null || entry.value == null || entry.expiresAt - clock.getAsLong() <= 0) {
+                return Optional.empty();
+            }
+            return Optional.of(entry.value);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(Collection<Long> postIds) {
+        for (Long postId : postIds) {
+            Segment segment = segmentFor(postId);
+            segment.lock.lock();
+            try {
+                segment.generation++;
+                segment.entries.remove(postId);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsChanged(PostsChangedEvent event) {
+        invalidate(event.getPostIds());
+    }
+
+    public CacheStatsDTO getStats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new CacheStatsDTO(hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private Segment segmentFor(Long postId) {
+        int hash = postId.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Entry> entries;
+        // bumped by every invalidation so that loads racing with a write are discarded
+        private long generation;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final class Entry {
+
+        private final PostDTO value;
+        private final long expiresAt;
+
+        private Entry(PostDTO value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
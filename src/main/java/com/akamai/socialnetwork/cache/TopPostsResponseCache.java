@@ -0,0 +1,105 @@
+package com.akamai.socialnetwork.cache;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.index.TopPostsIndex;
+import com.akamai.socialnetwork.util.PostETags;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-encoded top posts response.
+ * <p>
+ * {@link TopPostsIndex} hands out the same snapshot until the top posts change, so the
+ * JSON and gzip encodings of a snapshot are computed by the first request that sees it
+ * and then served as bytes, without mapping or serializing again. Writes that do not
+ * affect the top posts leave the encoding in place.
+ * <p>
+ * The gzip encoding is only kept for bodies of at least
+ * {@code server.compression.min-response-size}, the threshold the server applies to
+ * every other response. It is computed once per snapshot, so it uses the best
+ * compression level instead of the server's per-request one.
+ */
+@Component
+public class TopPostsResponseCache {
+
+    private final TopPostsIndex topPostsIndex;
+    private final ObjectMapper objectMapper;
+    private final long minCompressedSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder encodings = new LongAdder();
+    private volatile EncodedTopPosts encoded;
+
+    public TopPostsResponseCache(TopPostsIndex topPostsIndex,
+                                 ObjectMapper objectMapper,
+                                 @Value("${server.compression.min-response-size:2KB}") DataSize minCompressedSize) {
+        this.topPostsIndex = topPostsIndex;
+        this.objectMapper = objectMapper;
+        this.minCompressedSize = minCompressedSize.toBytes();
+    }
+
+    public EncodedTopPosts get() {
+        EncodedTopPosts current = encoded;
+        if (current != null && current.getPosts() == topPostsIndex.getTopPosts()) {
+            return current;
+        }
+        lock.lock();
+        try {
+            // concurrent requests that saw the same new snapshot encode it only once
+            List<PostDTO> topPosts = topPostsIndex.getTopPosts();
+            current = encoded;
+            if (current == null || current.getPosts() != topPosts) {
+                current = encode(topPosts);
+                encoded = current;
+                encodings.increment();
+            }
+            return current;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of times a snapshot was encoded.
+     */
+    public long getEncodings() {
+        return encodings.sum();
+    }
+
+    private EncodedTopPosts encode(List<PostDTO> topPosts) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(topPosts);
+            byte[] gzippedJson = json.length >= minCompressedSize ? gzip(json) : null;
+            return new EncodedTopPosts(topPosts, json, gzippedJson,
+                    PostETags.of(topPosts), PostETags.lastModified(topPosts));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Top posts could not be serialized", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,58 +1,80 @@
 package com.akamai.socialnetwork.config;
 
+import com.akamai.socialnetwork.metrics.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
-import org.springframework.orm.hibernate5.HibernateTransactionManager;
-import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
-import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
-import java.util.Properties;
 
+/**
+ * The connection pools. Boot's JPA configuration builds the EntityManagerFactory and the
+ * JpaTransactionManager on top of the primary one, whose transactions JdbcTemplate joins
+ * through the same connection. Cursors streamed to clients get a small pool of their own,
+ * so a slow reader holds none of the request connections and the leak detection of the
+ * primary pool can stay short.
+ */
 @Configuration
-@EnableTransactionManagement
+@PropertySource("classpath:hibernate.properties")
 public class HibernateConfig {
 
     @Autowired
     private Environment env;
 
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(env.getProperty("hibernate.connection.driver_class"));
-        dataSource.setUrl(env.getProperty("hibernate.connection.url"));
-        dataSource.setUsername(env.getProperty("hibernate.connection.username"));
-        dataSource.setPassword(env.getProperty("hibernate.connection.password"));
-        return dataSource;
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
     }
 
     @Bean
-    public LocalSessionFactoryBean sessionFactory() {
-        LocalSessionFactoryBean sessionFactory = new LocalSessionFactoryBean();
-        sessionFactory.setDataSource(dataSource());
-        sessionFactory.setPackagesToScan("com.example.domain");
-        sessionFactory.setHibernateProperties(hibernateProperties());
-        return sessionFactory;
+    @Primary
+    public DataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("posts-pool");
+        config.setDriverClassName(env.getProperty("hibernate.hikari.driverClassName"));
+        config.setJdbcUrl(env.getProperty("hibernate.hikari.jdbcUrl"));
+        config.setUsername(env.getProperty("hibernate.hikari.username"));
+        config.setPassword(env.getProperty("hibernate.hikari.password"));
+        config.setMinimumIdle(env.getProperty("hibernate.hikari.minimumIdle", Integer.class, 5));
+        config.setMaximumPoolSize(maximumPoolSize());
+        config.setConnectionTimeout(env.getProperty("hibernate.hikari.connectionTimeout", Long.class, 30_000L));
+        config.setIdleTimeout(env.getProperty("hibernate.hikari.idleTimeout", Long.class, 600_000L));
+        config.setMaxLifetime(env.getProperty("hibernate.hikari.maxLifetime", Long.class, 1_800_000L));
+        config.setLeakDetectionThreshold(env.getProperty("hibernate.hikari.leakDetectionThreshold", Long.class, 0L));
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return new HikariDataSource(config);
     }
 
     @Bean
-    public HibernateTransactionManager transactionManager() {
-        HibernateTransactionManager transactionManager = new HibernateTransactionManager();
-        transactionManager.setSessionFactory(sessionFactory().getObject());
-        return transactionManager;
+    public DataSource streamingDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("posts-stream-pool");
+        config.setDriverClassName(env.getProperty("hibernate.hikari.driverClassName"));
+        config.setJdbcUrl(env.getProperty("hibernate.hikari.jdbcUrl"));
+        config.setUsername(env.getProperty("hibernate.hikari.username"));
+        config.setPassword(env.getProperty("hibernate.hikari.password"));
+        config.setMinimumIdle(0);
+        config.setMaximumPoolSize(env.getProperty("hibernate.hikari.stream.maximumPoolSize", Integer.class, 4));
+        config.setConnectionTimeout(env.getProperty("hibernate.hikari.connectionTimeout", Long.class, 30_000L));
+        config.setIdleTimeout(env.getProperty("hibernate.hikari.idleTimeout", Long.class, 600_000L));
+        config.setMaxLifetime(env.getProperty("hibernate.hikari.maxLifetime", Long.class, 1_800_000L));
+        config.setLeakDetectionThreshold(env.getProperty("hibernate.hikari.stream.leakDetectionThreshold", Long.class, 0L));
+        return new HikariDataSource(config);
     }
 
-    private Properties hibernateProperties() {
-        Properties properties = new Properties();
-        properties.setProperty("hibernate.dialect", env.getProperty("hibernate.dialect"));
-        properties.setProperty("hibernate.show_sql", env.getProperty("hibernate.show_sql"));
-        properties.setProperty("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto"));
-        return properties;
+    /**
+     * With virtual threads the request pool no longer caps concurrency, so the connection
+     * pool becomes the limit and gets its own size.
+     */
+    private int maximumPoolSize() {
+        if (env.getProperty(VirtualThreadConfig.ENABLED_PROPERTY, Boolean.class, false)) {
+            return env.getProperty("posts.threads.virtual.pool-size", Integer.class, 50);
+        }
+        return env.getProperty("hibernate.hikari.maximumPoolSize", Integer.class, 20);
     }
 }
-
-
-
@@ -0,0 +1,21 @@
+package com.akamai.socialnetwork.config;
+
+import com.akamai.socialnetwork.metrics.MetricsRegistry;
+import com.akamai.socialnetwork.metrics.TimedMappingJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Replaces Spring Boot's default Jackson converter.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MetricsRegistry metricsRegistry) {
+        return new TimedMappingJackson2HttpMessageConverter(objectMapper, metricsRegistry);
+    }
+}
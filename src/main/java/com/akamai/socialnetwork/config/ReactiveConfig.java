@@ -0,0 +1,63 @@
+package com.akamai.socialnetwork.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Wiring of the reactive stack, enabled with the {@code reactive} profile.
+ * <p>
+ * The R2DBC pool points at the same in-memory database as the JDBC pool, so the
+ * schema created by Hibernate and the in-memory indexes are shared by both stacks.
+ * The reactive transaction manager is not registered as a bean, otherwise
+ * {@code @Transactional} on the blocking service could no longer pick its manager.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Tomcat is on the classpath for the servlet stack and would otherwise be preferred.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(@Value("${posts.r2dbc.url}") String url,
+                                            @Value("${posts.r2dbc.username}") String username,
+                                            @Value("${posts.r2dbc.password}") String password,
+                                            @Value("${posts.r2dbc.pool.initial-size:5}") int initialSize,
+                                            @Value("${posts.r2dbc.pool.max-size:20}") int maxSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("posts-r2dbc-pool")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,34 @@
+package com.akamai.socialnetwork.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode that runs Tomcat request handling and MVC async work, such as the
+ * streamed /posts/getAll response, on virtual threads. A request blocked on JDBC
+ * then parks its virtual thread instead of holding a platform thread, and the
+ * connection pool becomes the effective concurrency limit.
+ */
+@Configuration
+@ConditionalOnProperty(name = VirtualThreadConfig.ENABLED_PROPERTY, havingValue = "true")
+public class VirtualThreadConfig {
+
+    static final String ENABLED_PROPERTY = "posts.threads.virtual.enabled";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
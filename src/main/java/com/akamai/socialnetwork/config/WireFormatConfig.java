@@ -0,0 +1,49 @@
+package com.akamai.socialnetwork.config;
+
+import com.akamai.socialnetwork.converter.PostProtobufHttpMessageConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Compact binary representations, chosen through the Accept and Content-Type headers.
+ * <p>
+ * CBOR and Smile cover every endpoint and are built from the same Jackson settings as
+ * JSON. Protobuf covers the post bodies described in {@code post.proto}. JSON stays
+ * first, so a client that accepts anything keeps getting JSON.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    /**
+     * Replaces the CBOR converter Spring MVC registers with its own defaults.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Replaces the Smile converter Spring MVC registers with its own defaults.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // appended rather than declared as a bean, which Spring Boot would put in front of JSON
+        converters.add(new PostProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,40 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.dto.CommentDTO;
+import com.akamai.socialnetwork.dto.CommentPageDTO;
+import com.akamai.socialnetwork.service.CommentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/posts")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class CommentController {
+
+    private final CommentService commentService;
+
+    @PostMapping("/{id}/comments")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Long addComment(@PathVariable("id") Long id, @RequestBody @Validated CommentDTO comment) {
+        return commentService.addComment(id, comment);
+    }
+
+    @GetMapping("/{id}/comments")
+    public CommentPageDTO getComments(@PathVariable("id") Long id,
+                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                      @RequestParam(value = "size", defaultValue = "50") int size) {
+        return commentService.fetchComments(id, cursor, size);
+    }
+
+    @GetMapping("/{id}/comments/{commentId}/replies")
+    public CommentPageDTO getReplies(@PathVariable("id") Long id,
+                                     @PathVariable("commentId") Long commentId,
+                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                     @RequestParam(value = "size", defaultValue = "50") int size) {
+        return commentService.fetchReplies(id, commentId, cursor, size);
+    }
+}
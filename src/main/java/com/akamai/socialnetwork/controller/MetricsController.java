@@ -0,0 +1,20 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.metrics.MetricsRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    static final String PROMETHEUS_CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MetricsRegistry metricsRegistry;
+
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_CONTENT_TYPE)
+    public String getMetrics() {
+        return metricsRegistry.scrape();
+    }
+}
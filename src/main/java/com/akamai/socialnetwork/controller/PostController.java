@@ -1,27 +1,79 @@
 package com.akamai.socialnetwork.controller;
 
+import com.akamai.socialnetwork.cache.EncodedTopPosts;
+import com.akamai.socialnetwork.converter.PostMediaTypes;
+import com.akamai.socialnetwork.dto.AuthorStatsDTO;
+import com.akamai.socialnetwork.dto.BatchItemResultDTO;
 import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.dto.PostVersionDTO;
+import com.akamai.socialnetwork.dto.PostWithCommentsDTO;
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
 import com.akamai.socialnetwork.service.PostService;
+import com.akamai.socialnetwork.util.PostETags;
+import com.akamai.socialnetwork.wal.PostWriteAheadLog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/posts")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class PostController {
 
     private final PostService postService;
+    private final PostStreamWriter postStreamWriter;
+    private final PostWriteAheadLog postWriteAheadLog;
+
+    // digits only, a named route such as /getMostViewed that cannot produce the accepted type
+    // is then answered with a 406 instead of being read as a malformed id
+    @GetMapping("/{id:\\d+}")
+    public ResponseEntity<PostDTO> getPostById(@PathVariable("id") Long id,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                               ServletWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        // negotiated here rather than by the converters, the tag has to name the format it is sent in;
+        // the Vary header goes on a 304 too
+        MediaType mediaType = postStreamWriter.negotiate(accept);
+        request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // a revalidation is answered from the version alone, the post is only loaded when it changed
+        PostVersionDTO current = postService.fetchPostVersion(id);
+        if (request.checkNotModified(PostETags.of(current, mediaType), PostETags.lastModified(current.getLastModified()))) {
+            return null;
+        }
+        PostDTO post = postService.fetchPost(id);
+        if (!Objects.equals(post.getVersion(), current.getVersion())) {
+            // written in between, the validators must describe the body actually sent
+            request.getResponse().setHeader(HttpHeaders.ETAG, PostETags.of(post, mediaType));
+            request.getResponse().setDateHeader(HttpHeaders.LAST_MODIFIED, PostETags.lastModified(post.getLastModified()));
+        }
+        return ResponseEntity.ok().contentType(mediaType).body(post);
+    }
 
-    @GetMapping("/{id}")
-    public PostDTO getPostById(@PathVariable("id") Long id) {
-        return postService.fetchPost(id);
+    @GetMapping(value = "/{id:\\d+}", params = "comments")
+    public PostWithCommentsDTO getPostWithComments(@PathVariable("id") Long id,
+                                                   @RequestParam("comments") int commentPageSize) {
+        // no validators, comments are added without touching the post's version
+        return postService.fetchPost(id, commentPageSize);
     }
 
     @PostMapping("/create")
     public Long createPost(@RequestBody @Validated PostDTO post) {
-        return postService.createPost(post);
+        // logged without a database round trip, readable once the committer has written it
+        return postWriteAheadLog.isEnabled() ? postWriteAheadLog.append(post) : postService.createPost(post);
     }
 
     @PutMapping("/update/{id}")
@@ -34,12 +86,131 @@ public class PostController {
        return postService.deletePost(id);
     }
 
-    @GetMapping("/getMostViewed")
-    public List<PostDTO> getTopPosts() {
-        return postService.fetchTopPosts();
+    @PostMapping("/batch")
+    public List<BatchItemResultDTO> createPosts(@RequestBody List<PostDTO> posts) {
+        return postService.createPosts(posts);
+    }
+
+    @PutMapping("/batch")
+    public List<BatchItemResultDTO> updatePosts(@RequestBody List<PostDTO> posts) {
+        return postService.updatePosts(posts);
+    }
+
+    @DeleteMapping("/batch")
+    public List<BatchItemResultDTO> deletePosts(@RequestBody List<Long> ids) {
+        return postService.deletePosts(ids);
+    }
+
+    @PostMapping("/{id}/view")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Long recordView(@PathVariable("id") Long id) {
+        postService.recordView(id);
+        return id;
+    }
+
+    @GetMapping(value = "/getMostViewed", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getTopPosts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // pre-encoded bytes go straight to the response, a matching If-None-Match gets a 304;
+        // the server does not compress them again, the strong ETag opts them out
+        EncodedTopPosts topPosts = postService.fetchEncodedTopPosts();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .lastModified(topPosts.getLastModified());
+        if (topPosts.getGzippedJson() != null && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .eTag(topPosts.getGzipETag())
+                    .body(topPosts.getGzippedJson());
+        }
+        return response.eTag(topPosts.getETag()).body(topPosts.getJson());
+    }
+
+    @GetMapping(value = "/getMostViewed", produces = {PostMediaTypes.APPLICATION_PROTOBUF_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, PostMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<PostDTO>> getTopPostsNegotiated() {
+        // clients that do not accept JSON get the list through the message converters; a wildcard
+        // Accept ties with the JSON mapping and Spring breaks the tie by the first media type here,
+        // which has to sort after application/json
+        EncodedTopPosts topPosts = postService.fetchEncodedTopPosts();
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .lastModified(topPosts.getLastModified())
+                .body(topPosts.getPosts());
     }
 
     @GetMapping("/getAll")
-    public List<PostDTO> getAllPosts() {return postService.fetchAllPosts();}
-}
+    public ResponseEntity<StreamingResponseBody> getAllPosts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        MediaType mediaType = postStreamWriter.negotiate(accept);
+        if (!postService.hasPosts()) {
+            throw new ElementNotFoundException("No records were found.");
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(outputStream -> postStreamWriter.write(outputStream, mediaType, postService::streamAllPosts));
+    }
 
+    @GetMapping("/timeline")
+    public ResponseEntity<StreamingResponseBody> getTimeline(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        // the body is written after this method returns, so a bad range has to fail here
+        postService.checkTimelineRange(from, to);
+        MediaType mediaType = postStreamWriter.negotiate(accept);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(outputStream -> postStreamWriter.write(outputStream, mediaType,
+                        consumer -> postService.streamTimeline(from, to, consumer)));
+    }
+
+    @GetMapping("/trending")
+    public List<PostDTO> getTrendingPosts(@RequestParam(value = "size", defaultValue = "10") int size) {
+        return postService.fetchTrendingPosts(size);
+    }
+
+    @GetMapping("/page")
+    public PostPageDTO getPostsPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                    @RequestParam(value = "size", defaultValue = "50") int size) {
+        return postService.fetchPostsPage(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public PostPageDTO searchPosts(@RequestParam("q") String query,
+                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                   @RequestParam(value = "size", defaultValue = "20") int size) {
+        return postService.searchPosts(query, cursor, size);
+    }
+
+    @GetMapping("/by-author/{author}")
+    public PostPageDTO getPostsByAuthor(@PathVariable("author") String author,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "size", defaultValue = "50") int size) {
+        return postService.fetchPostsByAuthor(author, cursor, size);
+    }
+
+    @GetMapping("/by-author/{author}/count")
+    public AuthorStatsDTO getAuthorStats(@PathVariable("author") String author) {
+        return postService.fetchAuthorStats(author);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                // gzip;q=0 explicitly refuses it
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
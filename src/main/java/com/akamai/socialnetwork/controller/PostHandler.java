@@ -0,0 +1,101 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.service.ReactivePostService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * WebFlux handlers of the reactive stack, mirroring {@link PostController}.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class PostHandler {
+
+    private static final List<MediaType> STREAMING_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
+    private final ReactivePostService postService;
+    private final Validator validator;
+
+    public Mono<ServerResponse> getPostById(ServerRequest request) {
+        return postService.fetchPost(postId(request))
+                .flatMap(postDTO -> ServerResponse.ok().bodyValue(postDTO));
+    }
+
+    public Mono<ServerResponse> createPost(ServerRequest request) {
+        return validBody(request)
+                .flatMap(postService::createPost)
+                .flatMap(postId -> ServerResponse.ok().bodyValue(postId));
+    }
+
+    public Mono<ServerResponse> updatePost(ServerRequest request) {
+        Long postId = postId(request);
+        return validBody(request)
+                .flatMap(postDTO -> postService.updatePost(postId, postDTO))
+                .flatMap(id -> ServerResponse.ok().bodyValue(id));
+    }
+
+    public Mono<ServerResponse> deletePost(ServerRequest request) {
+        return postService.deletePost(postId(request))
+                .flatMap(postId -> ServerResponse.ok().bodyValue(postId));
+    }
+
+    public Mono<ServerResponse> getTopPosts(ServerRequest request) {
+        return postService.fetchTopPosts()
+                .flatMap(topPosts -> ServerResponse.ok().bodyValue(topPosts));
+    }
+
+    /**
+     * Streams every post. Clients asking for NDJSON or server-sent events get one
+     * element per line or event, everyone else a JSON array; either way rows are read
+     * only as fast as the client consumes them.
+     */
+    public Mono<ServerResponse> getAllPosts(ServerRequest request) {
+        MediaType contentType = STREAMING_MEDIA_TYPES.stream()
+                .filter(streaming -> request.headers().accept().stream().anyMatch(streaming::equalsTypeAndSubtype))
+                .findFirst()
+                .orElse(MediaType.APPLICATION_JSON);
+        return postService.hasPosts()
+                .flatMap(hasPosts -> hasPosts
+                        ? ServerResponse.ok().contentType(contentType).body(postService.fetchAllPosts(), PostDTO.class)
+                        : Mono.error(new ElementNotFoundException("No records were found.")));
+    }
+
+    private Mono<PostDTO> validBody(ServerRequest request) {
+        return request.bodyToMono(PostDTO.class)
+                .switchIfEmpty(Mono.error(() -> new InvalidRequestException("Request body is missing")))
+                .flatMap(postDTO -> {
+                    Set<ConstraintViolation<PostDTO>> violations = validator.validate(postDTO);
+                    if (violations.isEmpty()) {
+                        return Mono.just(postDTO);
+                    }
+                    return Mono.error(new InvalidRequestException(violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", "))));
+                });
+    }
+
+    private static Long postId(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid post id: " + request.pathVariable("id"));
+        }
+    }
+}
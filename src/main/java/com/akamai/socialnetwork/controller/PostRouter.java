@@ -0,0 +1,40 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.exception.ServiceUnavailableException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Routes of the reactive stack. Errors are mapped the same way as in
+ * {@link com.akamai.socialnetwork.advice.PostControllerAdvice}.
+ */
+@Configuration
+@Profile("reactive")
+public class PostRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> postRoutes(PostHandler postHandler) {
+        return RouterFunctions.route()
+                .path("/posts", builder -> builder
+                        .GET("/getMostViewed", postHandler::getTopPosts)
+                        .GET("/getAll", postHandler::getAllPosts)
+                        .POST("/create", postHandler::createPost)
+                        .PUT("/update/{id}", postHandler::updatePost)
+                        .DELETE("/delete/{id}", postHandler::deletePost)
+                        .GET("/{id}", postHandler::getPostById))
+                .onError(ElementNotFoundException.class, (exception, request) ->
+                        ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(exception.getMessage()))
+                .onError(InvalidRequestException.class, (exception, request) ->
+                        ServerResponse.status(HttpStatus.BAD_REQUEST).bodyValue(exception.getMessage()))
+                .onError(ServiceUnavailableException.class, (exception, request) ->
+                        ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).bodyValue(exception.getMessage()))
+                .build();
+    }
+}
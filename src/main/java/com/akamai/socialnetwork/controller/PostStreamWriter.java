@@ -0,0 +1,147 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.converter.PostMediaTypes;
+import com.akamai.socialnetwork.converter.PostProtobufCodec;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes posts to a response body one at a time, so the full result never has to be
+ * held in memory.
+ * <p>
+ * A streamed body bypasses the message converters, so the format is negotiated here:
+ * JSON, CBOR and Smile are written as an array, Protobuf as a PostList.
+ */
+@Component
+public class PostStreamWriter {
+
+    // in order of preference when the client accepts several of them equally
+    private final Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+    private final List<MediaType> mediaTypes = new ArrayList<>();
+
+    @Autowired
+    public PostStreamWriter(ObjectMapper objectMapper,
+                            MappingJackson2CborHttpMessageConverter cborConverter,
+                            MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this(objectMapper, cborConverter.getObjectMapper(), smileConverter.getObjectMapper());
+    }
+
+    PostStreamWriter(ObjectMapper objectMapper, ObjectMapper cborMapper, ObjectMapper smileMapper) {
+        objectMappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        objectMappers.put(MediaType.APPLICATION_CBOR, cborMapper);
+        objectMappers.put(PostMediaTypes.APPLICATION_SMILE, smileMapper);
+        mediaTypes.addAll(objectMappers.keySet());
+        mediaTypes.add(PostMediaTypes.APPLICATION_PROTOBUF);
+    }
+
+    /**
+     * Picks the format with the highest quality in the Accept header, JSON when the
+     * header is missing or accepts anything.
+     */
+    public MediaType negotiate(@Nullable String accept) throws HttpMediaTypeNotAcceptableException {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotAcceptableException(e.getMessage());
+        }
+        MediaType best = null;
+        double bestQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            double quality = qualityOf(mediaType, acceptable);
+            if (quality > bestQuality) {
+                best = mediaType;
+                bestQuality = quality;
+            }
+        }
+        if (best == null) {
+            throw new HttpMediaTypeNotAcceptableException(mediaTypes);
+        }
+        return best;
+    }
+
+    /**
+     * Writes every post produced by the source in the given negotiated format.
+     */
+    public void write(OutputStream outputStream, MediaType mediaType, Consumer<Consumer<PostDTO>> source)
+            throws IOException {
+        if (PostMediaTypes.APPLICATION_PROTOBUF.equals(mediaType)) {
+            writePostList(outputStream, source);
+        } else {
+            writeArray(outputStream, objectMappers.get(mediaType), source);
+        }
+    }
+
+    private static void writeArray(OutputStream outputStream, ObjectMapper objectMapper,
+                                   Consumer<Consumer<PostDTO>> source) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            source.accept(post -> {
+                try {
+                    generator.writeObject(post);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writePostList(OutputStream outputStream, Consumer<Consumer<PostDTO>> source)
+            throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+        try {
+            source.accept(post -> {
+                try {
+                    PostProtobufCodec.writePostField(output, PostProtobufCodec.POSTS, post);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.flush();
+    }
+
+    private static double qualityOf(MediaType mediaType, List<MediaType> acceptable) {
+        // the most specific range that includes the type decides, so "*/*, application/cbor;q=0" refuses CBOR
+        double quality = 0;
+        int specificity = -1;
+        for (MediaType range : acceptable) {
+            if (range.includes(mediaType)) {
+                int rangeSpecificity = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+                if (rangeSpecificity > specificity) {
+                    specificity = rangeSpecificity;
+                    quality = range.getQualityValue();
+                }
+            }
+        }
+        return quality;
+    }
+}
@@ -0,0 +1,50 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.dto.Reaction;
+import com.akamai.socialnetwork.service.ReactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/posts")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ReactionController {
+
+    private final ReactionService reactionService;
+
+    @PutMapping("/{id}/likes/{user}")
+    public ResponseEntity<Void> like(@PathVariable("id") Long id, @PathVariable("user") String user) {
+        return applyReaction(id, user, Reaction.LIKE);
+    }
+
+    @DeleteMapping("/{id}/likes/{user}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unlike(@PathVariable("id") Long id, @PathVariable("user") String user) {
+        reactionService.unreact(id, user, Reaction.LIKE);
+    }
+
+    @PutMapping("/{id}/reactions/{reaction}/{user}")
+    public ResponseEntity<Void> react(@PathVariable("id") Long id,
+                                      @PathVariable("reaction") String reaction,
+                                      @PathVariable("user") String user) {
+        return applyReaction(id, user, Reaction.parse(reaction));
+    }
+
+    @DeleteMapping("/{id}/reactions/{reaction}/{user}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unreact(@PathVariable("id") Long id,
+                        @PathVariable("reaction") String reaction,
+                        @PathVariable("user") String user) {
+        reactionService.unreact(id, user, Reaction.parse(reaction));
+    }
+
+    private ResponseEntity<Void> applyReaction(Long id, String user, Reaction reaction) {
+        return reactionService.react(id, user, reaction)
+                ? ResponseEntity.status(HttpStatus.CREATED).build()
+                : ResponseEntity.noContent().build();
+    }
+}
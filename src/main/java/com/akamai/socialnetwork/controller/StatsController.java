@@ -0,0 +1,61 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.cache.PostCache;
+import com.akamai.socialnetwork.dto.CacheStatsDTO;
+import com.akamai.socialnetwork.dto.PoolStatsDTO;
+import com.akamai.socialnetwork.dto.SearchIndexStatsDTO;
+import com.akamai.socialnetwork.dto.TimelineStatsDTO;
+import com.akamai.socialnetwork.dto.TrendingStatsDTO;
+import com.akamai.socialnetwork.dto.WriteAheadLogStatsDTO;
+import com.akamai.socialnetwork.metrics.ConnectionPoolMetrics;
+import com.akamai.socialnetwork.search.PostSearchIndex;
+import com.akamai.socialnetwork.timeline.HomeTimelineIndex;
+import com.akamai.socialnetwork.trending.TrendingPostsIndex;
+import com.akamai.socialnetwork.wal.PostWriteAheadLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final PostCache postCache;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final PostSearchIndex postSearchIndex;
+    private final HomeTimelineIndex homeTimelineIndex;
+    private final TrendingPostsIndex trendingPostsIndex;
+    private final PostWriteAheadLog postWriteAheadLog;
+
+    @GetMapping("/cache")
+    public CacheStatsDTO getCacheStats() {
+        return postCache.getStats();
+    }
+
+    @GetMapping("/pool")
+    public PoolStatsDTO getPoolStats() {
+        return connectionPoolMetrics.getStats();
+    }
+
+    @GetMapping("/search")
+    public SearchIndexStatsDTO getSearchIndexStats() {
+        return postSearchIndex.getStats();
+    }
+
+    @GetMapping("/timeline")
+    public TimelineStatsDTO getTimelineStats() {
+        return homeTimelineIndex.getStats();
+    }
+
+    @GetMapping("/trending")
+    public TrendingStatsDTO getTrendingStats() {
+        return trendingPostsIndex.getStats();
+    }
+
+    @GetMapping("/wal")
+    public WriteAheadLogStatsDTO getWriteAheadLogStats() {
+        return postWriteAheadLog.getStats();
+    }
+}
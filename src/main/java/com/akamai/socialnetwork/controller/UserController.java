@@ -0,0 +1,53 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.dto.UserPageDTO;
+import com.akamai.socialnetwork.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/users")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserService userService;
+
+    @PutMapping("/{user}/following/{followee}")
+    public ResponseEntity<Void> follow(@PathVariable("user") String user, @PathVariable("followee") String followee) {
+        return userService.follow(user, followee)
+                ? ResponseEntity.status(HttpStatus.CREATED).build()
+                : ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{user}/following/{followee}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unfollow(@PathVariable("user") String user, @PathVariable("followee") String followee) {
+        userService.unfollow(user, followee);
+    }
+
+    @GetMapping("/{user}/following")
+    public UserPageDTO getFollowing(@PathVariable("user") String user,
+                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                    @RequestParam(value = "size", defaultValue = "100") int size) {
+        return userService.fetchFollowing(user, cursor, size);
+    }
+
+    @GetMapping("/{user}/followers")
+    public UserPageDTO getFollowers(@PathVariable("user") String user,
+                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                    @RequestParam(value = "size", defaultValue = "100") int size) {
+        return userService.fetchFollowers(user, cursor, size);
+    }
+
+    @GetMapping("/{user}/timeline")
+    public PostPageDTO getHomeTimeline(@PathVariable("user") String user,
+                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                       @RequestParam(value = "size", defaultValue = "50") int size) {
+        return userService.fetchHomeTimeline(user, cursor, size);
+    }
+}
@@ -0,0 +1,92 @@
+package com.akamai.socialnetwork.converter;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads a {@link PostDTO} written by {@link PostJsonSerializer}.
+ * <p>
+ * Dates are accepted as ISO-8601 strings, which is how they are written, or as epoch
+ * milliseconds. Tokens of an unexpected type fall
+ * back to Jackson's own coercion rules. The view count is required, as a missing or null
+ * one is rejected rather than read as 0.
+ */
+public class PostJsonDeserializer extends StdDeserializer<PostDTO> {
+
+    public PostJsonDeserializer() {
+        super(PostDTO.class);
+    }
+
+    @Override
+    public PostDTO deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (PostDTO) context.handleUnexpectedToken(PostDTO.class, parser);
+        }
+        PostDTO post = new PostDTO();
+        boolean hasViewCount = false;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            boolean isNull = parser.nextToken() == JsonToken.VALUE_NULL;
+            switch (field) {
+                case "id" -> post.setId(isNull ? null : readLong(parser, context));
+                case "date" -> post.setDate(isNull ? null : readInstant(parser, context));
+                case "author" -> post.setAuthor(isNull ? null : readString(parser, context));
+                case "content" -> post.setContent(isNull ? null : readString(parser, context));
+                case "viewCount" -> {
+                    hasViewCount = !isNull;
+                    post.setViewCount(isNull ? 0 : readLong(parser, context));
+                }
+                case "likeCount" -> post.setLikeCount(isNull ? 0 : readLong(parser, context));
+                case "loveCount" -> post.setLoveCount(isNull ? 0 : readLong(parser, context));
+                case "laughCount" -> post.setLaughCount(isNull ? 0 : readLong(parser, context));
+                case "wowCount" -> post.setWowCount(isNull ? 0 : readLong(parser, context));
+                case "sadCount" -> post.setSadCount(isNull ? 0 : readLong(parser, context));
+                case "angryCount" -> post.setAngryCount(isNull ? 0 : readLong(parser, context));
+                // sent as the ETag and Last-Modified headers, never read from a body
+                case "version", "lastModified" -> parser.skipChildren();
+                default -> context.handleUnknownProperty(parser, this, PostDTO.class, field);
+            }
+        }
+        if (!hasViewCount) {
+            // a primitive cannot tell 0 from absent, and an update writes the count it is sent
+            return context.reportInputMismatch(PostDTO.class, "Missing required property 'viewCount'");
+        }
+        return post;
+    }
+
+    private static long readLong(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        return context.readValue(parser, Long.TYPE);
+    }
+
+    private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        return context.readValue(parser, String.class);
+    }
+
+    private static Instant readInstant(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return Instant.ofEpochMilli(parser.getLongValue());
+        }
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            String text = parser.getText();
+            try {
+                return Instant.parse(text);
+            } catch (DateTimeParseException e) {
+                return (Instant) context.handleWeirdStringValue(Instant.class, text, e.getMessage());
+            }
+        }
+        return (Instant) context.handleUnexpectedToken(Instant.class, parser);
+    }
+}
@@ -0,0 +1,75 @@
+package com.akamai.socialnetwork.converter;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a {@link PostDTO} field by field, for JSON, CBOR and Smile alike.
+ * <p>
+ * Posts are serialized on every list and page response, so this skips the bean
+ * serializer's per-property dispatch: the field names are encoded once and the counts are
+ * written as primitives. The date stays an ISO-8601 string, as clients have always read it.
+ */
+public class PostJsonSerializer extends StdSerializer<PostDTO> {
+
+    static final SerializableString ID = new SerializedString("id");
+    static final SerializableString DATE = new SerializedString("date");
+    static final SerializableString AUTHOR = new SerializedString("author");
+    static final SerializableString CONTENT = new SerializedString("content");
+    static final SerializableString VIEW_COUNT = new SerializedString("viewCount");
+    static final SerializableString LIKE_COUNT = new SerializedString("likeCount");
+    static final SerializableString LOVE_COUNT = new SerializedString("loveCount");
+    static final SerializableString LAUGH_COUNT = new SerializedString("laughCount");
+    static final SerializableString WOW_COUNT = new SerializedString("wowCount");
+    static final SerializableString SAD_COUNT = new SerializedString("sadCount");
+    static final SerializableString ANGRY_COUNT = new SerializedString("angryCount");
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_INSTANT;
+
+    public PostJsonSerializer() {
+        super(PostDTO.class);
+    }
+
+    @Override
+    public void serialize(PostDTO post, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(post);
+        generator.writeFieldName(ID);
+        if (post.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(post.getId().longValue());
+        }
+        generator.writeFieldName(DATE);
+        if (post.getDate() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(DATE_FORMAT.format(post.getDate()));
+        }
+        generator.writeFieldName(AUTHOR);
+        generator.writeString(post.getAuthor());
+        generator.writeFieldName(CONTENT);
+        generator.writeString(post.getContent());
+        generator.writeFieldName(VIEW_COUNT);
+        generator.writeNumber(post.getViewCount());
+        generator.writeFieldName(LIKE_COUNT);
+        generator.writeNumber(post.getLikeCount());
+        generator.writeFieldName(LOVE_COUNT);
+        generator.writeNumber(post.getLoveCount());
+        generator.writeFieldName(LAUGH_COUNT);
+        generator.writeNumber(post.getLaughCount());
+        generator.writeFieldName(WOW_COUNT);
+        generator.writeNumber(post.getWowCount());
+        generator.writeFieldName(SAD_COUNT);
+        generator.writeNumber(post.getSadCount());
+        generator.writeFieldName(ANGRY_COUNT);
+        generator.writeNumber(post.getAngryCount());
+        generator.writeEndObject();
+    }
+}
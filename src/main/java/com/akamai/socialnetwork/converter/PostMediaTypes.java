@@ -0,0 +1,18 @@
+package com.akamai.socialnetwork.converter;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types of the compact wire formats, besides {@link MediaType#APPLICATION_CBOR}.
+ */
+public final class PostMediaTypes {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf(APPLICATION_PROTOBUF_VALUE);
+
+    private PostMediaTypes() {
+    }
+}
@@ -0,0 +1,193 @@
+package com.akamai.socialnetwork.converter;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes posts as the messages declared in {@code src/main/proto/post.proto}.
+ * <p>
+ * The messages are small and flat, so they are written field by field with the protobuf
+ * runtime instead of going through generated classes and a copy into {@link PostDTO}.
+ * Absent fields are not written, which matches the presence semantics of the
+ * {@code optional} fields in the schema.
+ */
+public final class PostProtobufCodec {
+
+    static final int POST_ID = 1;
+    static final int POST_DATE = 2;
+    static final int POST_AUTHOR = 3;
+    static final int POST_CONTENT = 4;
+    static final int POST_VIEW_COUNT = 5;
+    static final int POST_LIKE_COUNT = 6;
+    static final int POST_LOVE_COUNT = 7;
+    static final int POST_LAUGH_COUNT = 8;
+    static final int POST_WOW_COUNT = 9;
+    static final int POST_SAD_COUNT = 10;
+    static final int POST_ANGRY_COUNT = 11;
+
+    /** Field of both PostList and PostPage. */
+    public static final int POSTS = 1;
+    static final int PAGE_NEXT_CURSOR = 2;
+
+    private PostProtobufCodec() {
+    }
+
+    /**
+     * Writes a Post message without any framing.
+     */
+    public static void writePost(CodedOutputStream output, PostDTO post) throws IOException {
+        if (post.getId() != null) {
+            output.writeInt64(POST_ID, post.getId());
+        }
+        if (post.getDate() != null) {
+            output.writeInt64(POST_DATE, post.getDate().toEpochMilli());
+        }
+        if (post.getAuthor() != null) {
+            output.writeString(POST_AUTHOR, post.getAuthor());
+        }
+        if (post.getContent() != null) {
+            output.writeString(POST_CONTENT, post.getContent());
+        }
+        output.writeInt64(POST_VIEW_COUNT, post.getViewCount());
+        writeCount(output, POST_LIKE_COUNT, post.getLikeCount());
+        writeCount(output, POST_LOVE_COUNT, post.getLoveCount());
+        writeCount(output, POST_LAUGH_COUNT, post.getLaughCount());
+        writeCount(output, POST_WOW_COUNT, post.getWowCount());
+        writeCount(output, POST_SAD_COUNT, post.getSadCount());
+        writeCount(output, POST_ANGRY_COUNT, post.getAngryCount());
+    }
+
+    /**
+     * Writes a Post as a length-delimited entry of the given repeated field.
+     */
+    public static void writePostField(CodedOutputStream output, int field, PostDTO post) throws IOException {
+        output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(postSize(post));
+        writePost(output, post);
+    }
+
+    public static void writePostList(CodedOutputStream output, List<PostDTO> posts) throws IOException {
+        for (PostDTO post : posts) {
+            writePostField(output, POSTS, post);
+        }
+    }
+
+    public static void writePostPage(CodedOutputStream output, PostPageDTO page) throws IOException {
+        if (page.getPosts() != null) {
+            writePostList(output, page.getPosts());
+        }
+        if (page.getNextCursor() != null) {
+            output.writeString(PAGE_NEXT_CURSOR, page.getNextCursor());
+        }
+    }
+
+    public static PostDTO readPost(CodedInputStream input) throws IOException {
+        PostDTO post = new PostDTO();
+        boolean hasViewCount = false;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case POST_ID -> post.setId(input.readInt64());
+                case POST_DATE -> post.setDate(Instant.ofEpochMilli(input.readInt64()));
+                case POST_AUTHOR -> post.setAuthor(input.readString());
+                case POST_CONTENT -> post.setContent(input.readString());
+                case POST_VIEW_COUNT -> {
+                    hasViewCount = true;
+                    post.setViewCount(input.readInt64());
+                }
+                case POST_LIKE_COUNT -> post.setLikeCount(input.readInt64());
+                case POST_LOVE_COUNT -> post.setLoveCount(input.readInt64());
+                case POST_LAUGH_COUNT -> post.setLaughCount(input.readInt64());
+                case POST_WOW_COUNT -> post.setWowCount(input.readInt64());
+                case POST_SAD_COUNT -> post.setSadCount(input.readInt64());
+                case POST_ANGRY_COUNT -> post.setAngryCount(input.readInt64());
+                default -> input.skipField(tag);
+            }
+        }
+        if (!hasViewCount) {
+            // writePost always writes it, even when 0; a missing one is rejected, not read as 0
+            throw new InvalidProtocolBufferException("Post is missing its view count");
+        }
+        return post;
+    }
+
+    public static List<PostDTO> readPostList(CodedInputStream input) throws IOException {
+        List<PostDTO> posts = new ArrayList<>();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == POSTS) {
+                posts.add(readPostField(input));
+            } else {
+                input.skipField(tag);
+            }
+        }
+        return posts;
+    }
+
+    public static PostPageDTO readPostPage(CodedInputStream input) throws IOException {
+        PostPageDTO page = new PostPageDTO(new ArrayList<>(), null);
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case POSTS -> page.getPosts().add(readPostField(input));
+                case PAGE_NEXT_CURSOR -> page.setNextCursor(input.readString());
+                default -> input.skipField(tag);
+            }
+        }
+        return page;
+    }
+
+    private static PostDTO readPostField(CodedInputStream input) throws IOException {
+        int limit = input.pushLimit(input.readRawVarint32());
+        PostDTO post = readPost(input);
+        input.popLimit(limit);
+        return post;
+    }
+
+    /**
+     * Size of the Post message {@link #writePost} writes.
+     */
+    public static int postSize(PostDTO post) {
+        int size = 0;
+        if (post.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(POST_ID, post.getId());
+        }
+        if (post.getDate() != null) {
+            size += CodedOutputStream.computeInt64Size(POST_DATE, post.getDate().toEpochMilli());
+        }
+        if (post.getAuthor() != null) {
+            size += CodedOutputStream.computeStringSize(POST_AUTHOR, post.getAuthor());
+        }
+        if (post.getContent() != null) {
+            size += CodedOutputStream.computeStringSize(POST_CONTENT, post.getContent());
+        }
+        size += CodedOutputStream.computeInt64Size(POST_VIEW_COUNT, post.getViewCount());
+        size += countSize(POST_LIKE_COUNT, post.getLikeCount());
+        size += countSize(POST_LOVE_COUNT, post.getLoveCount());
+        size += countSize(POST_LAUGH_COUNT, post.getLaughCount());
+        size += countSize(POST_WOW_COUNT, post.getWowCount());
+        size += countSize(POST_SAD_COUNT, post.getSadCount());
+        size += countSize(POST_ANGRY_COUNT, post.getAngryCount());
+        return size;
+    }
+
+    // most posts have few kinds of reactions, zero is the proto3 default and is left out
+    private static void writeCount(CodedOutputStream output, int field, long count) throws IOException {
+        if (count != 0) {
+            output.writeInt64(field, count);
+        }
+    }
+
+    private static int countSize(int field, long count) {
+        return count != 0 ? CodedOutputStream.computeInt64Size(field, count) : 0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.akamai.socialnetwork.converter;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes {@link PostDTO}, {@code List<PostDTO>} and {@link PostPageDTO} as
+ * application/x-protobuf. Other bodies, such as ids and batch results, are left to the
+ * Jackson converters.
+ */
+public class PostProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public PostProtobufHttpMessageConverter() {
+        super(PostMediaTypes.APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == PostDTO.class || clazz == PostPageDTO.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return isPostType(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return isPostType(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        // asked with the raw body class when the producible types are collected, after a
+        // canWrite with the declared type; a List is only offered once that accepted it
+        return supports(clazz) || List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return decode(ResolvableType.forType(type).resolve(Object.class), inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return decode(clazz, inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (object instanceof PostDTO post) {
+            PostProtobufCodec.writePost(output, post);
+        } else if (object instanceof PostPageDTO page) {
+            PostProtobufCodec.writePostPage(output, page);
+        } else {
+            PostProtobufCodec.writePostList(output, (List<PostDTO>) object);
+        }
+        output.flush();
+    }
+
+    private Object decode(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody());
+        try {
+            if (clazz == PostDTO.class) {
+                return PostProtobufCodec.readPost(input);
+            }
+            if (clazz == PostPageDTO.class) {
+                return PostProtobufCodec.readPostPage(input);
+            }
+            return PostProtobufCodec.readPostList(input);
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Malformed protobuf body: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    private static boolean isPostType(Type type) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        Class<?> rawClass = resolvableType.resolve();
+        if (rawClass == PostDTO.class || rawClass == PostPageDTO.class) {
+            return true;
+        }
+        // only a declared List<PostDTO>, a List of anything else is left to Jackson
+        return rawClass != null && List.class.isAssignableFrom(rawClass)
+                && resolvableType.asCollection().resolveGeneric(0) == PostDTO.class;
+    }
+}
@@ -0,0 +1,200 @@
+package com.akamai.socialnetwork.counter;
+
+import com.akamai.socialnetwork.dto.Reaction;
+import com.akamai.socialnetwork.event.PostsChangedEvent;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for the reaction counts of the post row.
+ * <p>
+ * Same scheme as {@link ViewCountBuffer}: every post has one striped {@link LongAdder}
+ * per {@link Reaction}, so thousands of users liking a hot post at once do not queue
+ * on its row, and the net deltas are written in one JDBC batch of relative updates
+ * every flush interval, as soon as enough changes are pending, and once more on
+ * shutdown. Deltas are negative when reactions are taken back. The counts read with a
+ * post lag behind the reaction rows by at most one flush.
+ */
+@Component
+public class ReactionCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactionCountBuffer.class);
+
+    private static final int REACTIONS = Reaction.values().length;
+
+    private final PostJdbcRepository postJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long maxUnflushedChanges;
+    private final boolean flushOnShutdown;
+
+    private final Map<Long, LongAdder[]> counters = new ConcurrentHashMap<>();
+    private final LongAdder unflushed = new LongAdder();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    public ReactionCountBuffer(PostJdbcRepository postJdbcRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${posts.reactions.flush-interval-ms:1000}") long flushIntervalMillis,
+                               @Value("${posts.reactions.max-unflushed-changes:10000}") long maxUnflushedChanges,
+                               @Value("${posts.reactions.flush-on-shutdown:true}") boolean flushOnShutdown) {
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("posts.reactions.flush-interval-ms must be positive: " + flushIntervalMillis);
+        }
+        if (maxUnflushedChanges <= 0) {
+            throw new IllegalArgumentException("posts.reactions.max-unflushed-changes must be positive: " + maxUnflushedChanges);
+        }
+        this.postJdbcRepository = postJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxUnflushedChanges = maxUnflushedChanges;
+        this.flushOnShutdown = flushOnShutdown;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reaction-count-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a reaction added to ({@code delta} 1) or taken back from ({@code delta} -1)
+     * the given post.
+     */
+    public void add(Long postId, Reaction reaction, long delta) {
+        addTo(postId, reaction.ordinal(), delta);
+        unflushed.increment();
+        if (unflushed.sum() >= maxUnflushedChanges && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Returns the number of changes recorded but not yet written to the database,
+     * including changes that cancel each other out.
+     */
+    public long getUnflushed() {
+        return unflushed.sum();
+    }
+
+    /**
+     * Writes all buffered deltas to the database. Deltas that fail to write are kept
+     * and retried on the next flush.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            // changes recorded after this point may be flushed now but are only
+            // uncounted by the next flush
+            long changes = unflushed.sum();
+            SortedMap<Long, long[]> deltas = new TreeMap<>();
+            for (Map.Entry<Long, LongAdder[]> entry : counters.entrySet()) {
+                long[] delta = null;
+                LongAdder[] adders = entry.getValue();
+                for (int i = 0; i < REACTIONS; i++) {
+                    long value = adders[i].sumThenReset();
+                    if (value != 0) {
+                        if (delta == null) {
+                            delta = new long[REACTIONS];
+                        }
+                        delta[i] = value;
+                    }
+                }
+                if (delta != null) {
+                    deltas.put(entry.getKey(), delta);
+                } else if (counters.remove(entry.getKey(), adders)) {
+                    // no reactions since the last flush, drop it rather than keep every post ever
+                    // reacted to; changes that reached it since the sum move to new counters
+                    for (int i = 0; i < REACTIONS; i++) {
+                        addTo(entry.getKey(), i, adders[i].sumThenReset());
+                    }
+                }
+            }
+            if (deltas.isEmpty()) {
+                unflushed.add(-changes);
+                return;
+            }
+
+            Set<Long> missing;
+            try {
+                missing = postJdbcRepository.incrementReactionCounts(deltas);
+            } catch (DataAccessException e) {
+                deltas.forEach((postId, delta) -> {
+                    for (int i = 0; i < REACTIONS; i++) {
+                        addTo(postId, i, delta[i]);
+                    }
+                });
+                throw e;
+            }
+            unflushed.add(-changes);
+            // the reaction rows of a deleted post are gone with it
+            for (Long postId : missing) {
+                counters.remove(postId);
+            }
+            logger.info("Flushed reaction counts of {} posts", deltas.size());
+            eventPublisher.publishEvent(new PostsChangedEvent(deltas.keySet()));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Adds to one counter of the given post, like {@link ViewCountBuffer} does: what is
+     * left in counters a flush dropped meanwhile is taken out and added again.
+     */
+    private void addTo(Long postId, int reaction, long delta) {
+        while (delta != 0) {
+            LongAdder[] adders = counters.computeIfAbsent(postId, id -> newCounters());
+            adders[reaction].add(delta);
+            if (counters.get(postId) == adders) {
+                return;
+            }
+            delta = adders[reaction].sumThenReset();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        if (flushOnShutdown) {
+            flush();
+        } else if (getUnflushed() > 0) {
+            logger.warn("Discarding {} unflushed reaction changes on shutdown", getUnflushed());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush reaction counts, will retry", e);
+        }
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] adders = new LongAdder[REACTIONS];
+        for (int i = 0; i < REACTIONS; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,172 @@
+package com.akamai.socialnetwork.counter;
+
+import com.akamai.socialnetwork.event.PostsChangedEvent;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for post views.
+ * <p>
+ * Each view is added to a striped per-post {@link LongAdder}, so recording a view costs
+ * no database round trip and does not contend with other threads viewing the same post.
+ * Accumulated deltas are written in one JDBC batch of relative updates every flush
+ * interval, as soon as the unflushed total reaches the configured maximum, and once
+ * more on shutdown.
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private final PostJdbcRepository postJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long maxUnflushedDelta;
+    private final boolean flushOnShutdown;
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+    private final LongAdder unflushed = new LongAdder();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    public ViewCountBuffer(PostJdbcRepository postJdbcRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${posts.views.flush-interval-ms:1000}") long flushIntervalMillis,
+                           @Value("${posts.views.max-unflushed-delta:10000}") long maxUnflushedDelta,
+                           @Value("${posts.views.flush-on-shutdown:true}") boolean flushOnShutdown) {
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("posts.views.flush-interval-ms must be positive: " + flushIntervalMillis);
+        }
+        if (maxUnflushedDelta <= 0) {
+            throw new IllegalArgumentException("posts.views.max-unflushed-delta must be positive: " + maxUnflushedDelta);
+        }
+        this.postJdbcRepository = postJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxUnflushedDelta = maxUnflushedDelta;
+        this.flushOnShutdown = flushOnShutdown;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "view-count-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records one view of the given post.
+     */
+    public void increment(Long postId) {
+        add(postId, 1);
+        unflushed.increment();
+        if (unflushed.sum() >= maxUnflushedDelta && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Returns the number of views recorded but not yet written to the database.
+     */
+    public long getUnflushed() {
+        return unflushed.sum();
+    }
+
+    /**
+     * Writes all buffered deltas to the database. Deltas that fail to write are kept
+     * and retried on the next flush.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            SortedMap<Long, Long> deltas = new TreeMap<>();
+            long total = 0;
+            for (Map.Entry<Long, LongAdder> entry : counters.entrySet()) {
+                long delta = entry.getValue().sumThenReset();
+                if (delta != 0) {
+                    deltas.put(entry.getKey(), delta);
+                    total += delta;
+                } else if (counters.remove(entry.getKey(), entry.getValue())) {
+                    // not viewed since the last flush, drop it rather than keep every post ever
+                    // viewed; views that reached it since the sum move to a new counter
+                    add(entry.getKey(), entry.getValue().sumThenReset());
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            Set<Long> missing;
+            try {
+                missing = postJdbcRepository.incrementViewCounts(deltas);
+            } catch (DataAccessException e) {
+                deltas.forEach(this::add);
+                throw e;
+            }
+            unflushed.add(-total);
+            // views of posts that no longer exist have nothing to count against
+            for (Long postId : missing) {
+                LongAdder removed = counters.remove(postId);
+                if (removed != null) {
+                    unflushed.add(-removed.sumThenReset());
+                }
+            }
+            logger.info("Flushed {} views for {} posts", total, deltas.size());
+            eventPublisher.publishEvent(new PostsChangedEvent(deltas.keySet()));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Adds to the counter of the given post. A counter a flush drops while the delta is
+     * added to it is no longer read by any flush, so whatever neither the flush nor
+     * another caller has moved out of it yet is taken out and added again.
+     */
+    private void add(Long postId, long delta) {
+        while (delta != 0) {
+            LongAdder adder = counters.computeIfAbsent(postId, id -> new LongAdder());
+            adder.add(delta);
+            if (counters.get(postId) == adder) {
+                return;
+            }
+            delta = adder.sumThenReset();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        if (flushOnShutdown) {
+            flush();
+        } else if (getUnflushed() > 0) {
+            logger.warn("Discarding {} unflushed views on shutdown", getUnflushed());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush view counts, will retry", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorStatsDTO {
+    private String author;
+    private long postCount;
+}
@@ -0,0 +1,28 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch request: the post id on success, or the error that
+ * kept the item from being applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDTO {
+    private int index;
+    private Long id;
+    private String error;
+
+    public static BatchItemResultDTO success(int index, Long id) {
+        return new BatchItemResultDTO(index, id, null);
+    }
+
+    public static BatchItemResultDTO failure(int index, String error) {
+        return new BatchItemResultDTO(index, null, error);
+    }
+}
@@ -0,0 +1,18 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private long hits;
+    private long negativeHits;
+    private long misses;
+    private long evictions;
+    private long size;
+}
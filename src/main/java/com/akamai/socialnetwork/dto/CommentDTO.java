@@ -0,0 +1,45 @@
+package com.akamai.socialnetwork.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentDTO {
+    private Long id;
+
+    private Long postId;
+
+    /** Comment replied to, {@code null} for a top-level comment. */
+    private Long parentId;
+
+    /** 0 for a top-level comment, one more than the parent for a reply. */
+    private int depth;
+
+    @NotNull
+    @NotBlank
+    @Size(max = 50)
+    private String author;
+
+    @NotNull
+    @NotBlank
+    @Size(max = 500)
+    private String content;
+
+    // set when the comment is stored
+    private Instant created;
+
+    // not part of the representation, the position in the thread is sent as a page cursor
+    @JsonIgnore
+    private String path;
+}
@@ -0,0 +1,20 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageDTO {
+    /** Depth first: every comment is followed by its replies, oldest first. */
+    private List<CommentDTO> comments;
+
+    /** Opaque token for the next page, {@code null} on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStatsDTO {
+    private int active;
+    private int idle;
+    private int total;
+    private int pending;
+    private int maxSize;
+    private long acquisitions;
+    private long averageWaitMicros;
+    private long maxWaitMicros;
+    private long timeouts;
+    private long averageUsageMillis;
+    private long connectionsCreated;
+}
@@ -1,6 +1,10 @@
 package com.akamai.socialnetwork.dto;
 
+import com.akamai.socialnetwork.converter.PostJsonDeserializer;
+import com.akamai.socialnetwork.converter.PostJsonSerializer;
 import com.akamai.socialnetwork.validation.PostDateConstraint;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,18 +14,20 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Date;
+import java.time.Instant;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonSerialize(using = PostJsonSerializer.class)
+@JsonDeserialize(using = PostJsonDeserializer.class)
 public class PostDTO {
     private Long id;
 
     @NotNull
     @PostDateConstraint
-    private Date date;
+    private Instant date;
 
     @NotNull
     @NotBlank
@@ -33,7 +39,19 @@ public class PostDTO {
     @Size(max = 500)
     private String content;
 
-    @NotNull
     @Min(0)
-    private Number viewCount;
+    private long viewCount;
+
+    // reaction counts, read-only: ignored when a post is created or updated
+    private long likeCount;
+    private long loveCount;
+    private long laughCount;
+    private long wowCount;
+    private long sadCount;
+    private long angryCount;
+
+    // not part of the representation, the version is sent as the ETag
+    private Long version;
+
+    private Instant lastModified;
 }
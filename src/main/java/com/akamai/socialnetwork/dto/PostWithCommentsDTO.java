@@ -0,0 +1,19 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostWithCommentsDTO {
+    private PostDTO post;
+
+    /** Comments and replies at every depth. */
+    private long commentCount;
+
+    private CommentPageDTO comments;
+}
@@ -0,0 +1,29 @@
+package com.akamai.socialnetwork.dto;
+
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * Reactions a user can leave on a post, each at most once. A like is the
+ * {@link #LIKE} reaction.
+ */
+public enum Reaction {
+    LIKE,
+    LOVE,
+    LAUGH,
+    WOW,
+    SAD,
+    ANGRY;
+
+    /**
+     * Reads a reaction name as it appears in a path, in any case.
+     */
+    public static Reaction parse(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown reaction: " + name);
+        }
+    }
+}
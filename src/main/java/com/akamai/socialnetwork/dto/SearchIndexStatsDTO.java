@@ -0,0 +1,16 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStatsDTO {
+    private long documents;
+    private long terms;
+    private long pendingUpdates;
+}
@@ -0,0 +1,26 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineStatsDTO {
+    private long users;
+    private long follows;
+    private long buffers;
+    /** Posts pushed into the buffers of their author's followers. */
+    private long fannedOutPosts;
+    /** Buffer entries written by those posts; divided by them, the write amplification. */
+    private long fanOutWrites;
+    /** Posts of authors above the fan-out threshold, read from the database instead. */
+    private long skippedPosts;
+    private long bufferReads;
+    private long databaseReads;
+    /** Buffers dropped as the least recently read once {@code posts.timeline.max-buffers} were held. */
+    private long evictedBuffers;
+}
@@ -0,0 +1,18 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingStatsDTO {
+    private long views;
+    /** Posts with a ring of per-minute counts, at most the configured capacity. */
+    private long trackedPosts;
+    private long admissions;
+    private long evictions;
+}
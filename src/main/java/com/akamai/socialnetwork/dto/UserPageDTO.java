@@ -0,0 +1,19 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDTO {
+    private List<String> users;
+
+    /** Opaque token for the next page, {@code null} on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.akamai.socialnetwork.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteAheadLogStatsDTO {
+    private boolean enabled;
+    private long appendedPosts;
+    /** Posts read back from the log on startup. */
+    private long replayedPosts;
+    private long committedPosts;
+    /** Database transactions, each committing a batch of posts. */
+    private long commits;
+    private long uncommittedPosts;
+    /** Posts the database refused, moved out of the log to its dead-letter segments. */
+    private long deadLetteredPosts;
+}
@@ -1,25 +1,65 @@
 package com.akamai.socialnetwork.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
-import java.util.Date;
+import java.time.Instant;
 
 @Entity
+@Table(name = "post_entity", indexes = {
+        @Index(name = "idx_post_view_count", columnList = "view_count DESC, id"),
+        @Index(name = "idx_post_author_date", columnList = "author, date DESC, id"),
+        @Index(name = "idx_post_date", columnList = "date")
+})
 @Getter
 @Setter
 public class PostEntity {
 
+    /** Ids reserved by every value of post_seq, the increment of the sequence. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // a pooled sequence lets Hibernate batch inserts, which IDENTITY columns prevent
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
-    private Date date;
+    private Instant date;
+    @Column(length = 50)
     private String author;
+    @Column(length = 500)
     private String content;
-    private Number viewCount;
+    // named explicitly, index column lists refer to column names before the naming strategy
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+    // aggregates of post_reaction, maintained by ReactionCountBuffer only
+    @Column(nullable = false)
+    private long likeCount;
+    @Column(nullable = false)
+    private long loveCount;
+    @Column(nullable = false)
+    private long laughCount;
+    @Column(nullable = false)
+    private long wowCount;
+    @Column(nullable = false)
+    private long sadCount;
+    @Column(nullable = false)
+    private long angryCount;
+    // writers lock the row first (PostRepository#findLockedById), so the check never fails
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant lastModified;
 
 }
@@ -0,0 +1,19 @@
+package com.akamai.socialnetwork.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Published whenever posts change, including flushes of their view and reaction counts.
+ * Content changes publish {@link PostsContentChangedEvent} instead.
+ * Listeners receive it after the surrounding transaction has committed.
+ */
+@Getter
+@AllArgsConstructor
+public class PostsChangedEvent {
+
+    private final Collection<Long> postIds;
+
+}
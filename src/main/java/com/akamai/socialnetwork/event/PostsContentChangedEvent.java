@@ -0,0 +1,15 @@
+package com.akamai.socialnetwork.event;
+
+import java.util.Collection;
+
+/**
+ * Published when the content of posts is created, updated or deleted, as opposed to
+ * their view and reaction counts. Listeners of {@link PostsChangedEvent} receive it as well.
+ */
+public class PostsContentChangedEvent extends PostsChangedEvent {
+
+    public PostsContentChangedEvent(Collection<Long> postIds) {
+        super(postIds);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.akamai.socialnetwork.event;
+
+import com.akamai.socialnetwork.entity.PostEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Published by the service layer when posts are created, next to
+ * {@link PostsChangedEvent}, for listeners that need the author and date of a new post
+ * without reading it back. Listeners receive it after the surrounding transaction has
+ * committed.
+ */
+@Getter
+@AllArgsConstructor
+public class PostsCreatedEvent {
+
+    private final Collection<PostEntity> posts;
+
+}
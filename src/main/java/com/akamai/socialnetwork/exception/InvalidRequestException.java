@@ -0,0 +1,13 @@
+package com.akamai.socialnetwork.exception;
+
+public class InvalidRequestException extends RuntimeException{
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+}
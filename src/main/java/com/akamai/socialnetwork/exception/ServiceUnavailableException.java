@@ -0,0 +1,13 @@
+package com.akamai.socialnetwork.exception;
+
+public class ServiceUnavailableException extends RuntimeException{
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,265 @@
+package com.akamai.socialnetwork.graph;
+
+import com.akamai.socialnetwork.repository.FollowJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory follow graph, both directions of every edge.
+ * <p>
+ * Every user name is stored once and numbered; an adjacency list is an array of those
+ * numbers kept sorted by name, so a list costs four bytes per edge, membership is a
+ * binary search and pages of it are keyset ranges by name. Reads run concurrently under
+ * the read lock; updates take the write lock. Callers write the durable copy through
+ * {@link FollowJdbcRepository} first and then apply the change here.
+ */
+@Component
+public class FollowGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowGraph.class);
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final FollowJdbcRepository followJdbcRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<User> users = new ArrayList<>();
+    private long edgeCount;
+
+    private final class User {
+
+        private final String name;
+        private final Adjacency following = new Adjacency();
+        private final Adjacency followers = new Adjacency();
+
+        private User(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * User ids sorted by user name.
+     */
+    private final class Adjacency {
+
+        private int[] ids = NO_IDS;
+        private int size;
+
+        /**
+         * Same contract as {@link Arrays#binarySearch(int[], int)}, by name.
+         */
+        private int search(String name) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = users.get(ids[middle]).name.compareTo(name);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private boolean add(int id) {
+            int position = search(users.get(id).name);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, size + (size >> 1)));
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+            return true;
+        }
+
+        private boolean remove(int id) {
+            int position = search(users.get(id).name);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private List<String> names(String after, int limit) {
+            int from = 0;
+            if (after != null) {
+                int position = search(after);
+                from = position >= 0 ? position + 1 : -position - 1;
+            }
+            int to = (int) Math.min(size, (long) from + limit);
+            List<String> names = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                names.add(users.get(ids[i]).name);
+            }
+            return names;
+        }
+    }
+
+    public FollowGraph(FollowJdbcRepository followJdbcRepository) {
+        this.followJdbcRepository = followJdbcRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            users.clear();
+            edgeCount = 0;
+            followJdbcRepository.streamAll(this::addLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Follow graph loaded with {} users and {} edges", getUserCount(), getEdgeCount());
+    }
+
+    /**
+     * @return false if the edge was already present
+     */
+    public boolean add(String follower, String followee) {
+        lock.writeLock().lock();
+        try {
+            return addLocked(follower, followee);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false if the edge was not present
+     */
+    public boolean remove(String follower, String followee) {
+        lock.writeLock().lock();
+        try {
+            Integer followerId = ids.get(follower);
+            Integer followeeId = ids.get(followee);
+            if (followerId == null || followeeId == null || !users.get(followerId).following.remove(followeeId)) {
+                return false;
+            }
+            users.get(followeeId).followers.remove(followerId);
+            edgeCount--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String follower, String followee) {
+        lock.readLock().lock();
+        try {
+            User user = find(follower);
+            return user != null && user.following.search(followee) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getFollowerCount(String user) {
+        lock.readLock().lock();
+        try {
+            User found = find(user);
+            return found == null ? 0 : found.followers.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getFollowingCount(String user) {
+        lock.readLock().lock();
+        try {
+            User found = find(user);
+            return found == null ? 0 : found.following.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} followers of the user in name order, starting strictly
+     * after the name {@code after}, or from the first one when it is {@code null}.
+     */
+    public List<String> getFollowers(String user, String after, int limit) {
+        lock.readLock().lock();
+        try {
+            User found = find(user);
+            return found == null ? Collections.emptyList() : found.followers.names(after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} users the user follows in name order, starting strictly
+     * after the name {@code after}, or from the first one when it is {@code null}.
+     */
+    public List<String> getFollowing(String user, String after, int limit) {
+        lock.readLock().lock();
+        try {
+            User found = find(user);
+            return found == null ? Collections.emptyList() : found.following.names(after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getUserCount() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getEdgeCount() {
+        lock.readLock().lock();
+        try {
+            return edgeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private User find(String name) {
+        Integer id = ids.get(name);
+        return id == null ? null : users.get(id);
+    }
+
+    private boolean addLocked(String follower, String followee) {
+        int followerId = intern(follower);
+        int followeeId = intern(followee);
+        if (!users.get(followerId).following.add(followeeId)) {
+            return false;
+        }
+        users.get(followeeId).followers.add(followerId);
+        edgeCount++;
+        return true;
+    }
+
+    private int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = users.size();
+            users.add(new User(name));
+            ids.put(name, id);
+        }
+        return id;
+    }
+}
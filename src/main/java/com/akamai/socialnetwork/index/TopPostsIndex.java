@@ -0,0 +1,164 @@
+package com.akamai.socialnetwork.index;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.event.PostsChangedEvent;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of the K most viewed posts.
+ * <p>
+ * Reads return an immutable snapshot and never touch the database. Writes are applied
+ * after commit by re-reading only the changed rows, so the index converges to the
+ * committed state regardless of the order in which concurrent transactions finish.
+ * A full top-K query is only issued at startup and when a member leaves the index
+ * while rows outside of it may exist. A new snapshot is only published when the top
+ * posts actually changed, so consumers can cache whatever they derive from one.
+ */
+@Component
+public class TopPostsIndex {
+
+    /** Same order as {@link PostRepository#findAllByOrderByViewCountDescIdAsc}. */
+    static final Comparator<PostDTO> ORDER = Comparator
+            .comparingLong(PostDTO::getViewCount).reversed()
+            .thenComparing(PostDTO::getId);
+
+    private static final Logger logger = LoggerFactory.getLogger(TopPostsIndex.class);
+
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final int size;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableSet<PostDTO> entries = new TreeSet<>(ORDER);
+    private final Map<Long, PostDTO> entriesById = new HashMap<>();
+    // true when the index holds every row of the table, i.e. the table has fewer than K rows
+    private boolean complete;
+    // set by apply() when the entries were modified since the last publish
+    private boolean changed;
+    private volatile List<PostDTO> snapshot = Collections.emptyList();
+
+    public TopPostsIndex(PostRepository postRepository,
+                         PostMapper postMapper,
+                         @Value("${posts.top.size:10}") int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("posts.top.size must be positive: " + size);
+        }
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+        this.size = size;
+    }
+
+    /**
+     * Returns the current top posts ordered by view count, highest first. The same list
+     * instance is returned until the top posts change.
+     */
+    public List<PostDTO> getTopPosts() {
+        return snapshot;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Top posts index rebuilt with {} entries", snapshot.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsChanged(PostsChangedEvent event) {
+        refresh(event.getPostIds());
+    }
+
+    /**
+     * Re-reads the given posts and moves them in or out of the index.
+     */
+    public void refresh(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Map<Long, PostEntity> rows = new HashMap<>();
+            for (PostEntity row : postRepository.findAllById(postIds)) {
+                rows.put(row.getId(), row);
+            }
+            for (Long postId : postIds) {
+                PostEntity row = rows.get(postId);
+                if (!apply(postId, row == null ? null : postMapper.toPostDTO(row))) {
+                    rebuildLocked();
+                    return;
+                }
+            }
+            if (changed) {
+                publish();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the committed state of one post. Returns false when the index can no
+     * longer tell which post fills the last slot and has to be rebuilt.
+     */
+    private boolean apply(Long postId, PostDTO candidate) {
+        PostDTO floor = entries.size() >= size ? entries.last() : null;
+        PostDTO previous = entriesById.remove(postId);
+        if (previous != null) {
+            entries.remove(previous);
+            changed = true;
+        }
+
+        if (candidate != null && (floor == null || complete || ORDER.compare(candidate, floor) <= 0)) {
+            changed = true;
+            entries.add(candidate);
+            entriesById.put(postId, candidate);
+            if (entries.size() > size) {
+                PostDTO evicted = entries.pollLast();
+                entriesById.remove(evicted.getId());
+                complete = false;
+            }
+            return true;
+        }
+        // a member dropped below the last slot or was deleted; an unknown row may now belong here
+        return previous == null || complete;
+    }
+
+    private void rebuildLocked() {
+        List<PostEntity> rows = postRepository.findAllByOrderByViewCountDescIdAsc(PageRequest.of(0, size));
+        entries.clear();
+        entriesById.clear();
+        for (PostEntity row : rows) {
+            PostDTO postDTO = postMapper.toPostDTO(row);
+            entries.add(postDTO);
+            entriesById.put(postDTO.getId(), postDTO);
+        }
+        complete = rows.size() < size;
+        publish();
+    }
+
+    private void publish() {
+        snapshot = List.copyOf(entries);
+        changed = false;
+    }
+}
@@ -3,15 +3,32 @@ package com.akamai.socialnetwork.mapper;
 
 import com.akamai.socialnetwork.dto.PostDTO;
 import com.akamai.socialnetwork.entity.PostEntity;
+import org.mapstruct.Builder;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
 
-@Mapper
+/**
+ * Both sides hold the same primitive and immutable field types, so the generated code
+ * is a constructor call and plain field copies. The DTO builder is bypassed, it would
+ * be one more object per mapped post.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, builder = @Builder(disableBuilder = true))
 public interface PostMapper {
 
     @Mapping(target = "author", source = "author")
     @Mapping(target = "content", source = "content")
     @Mapping(target = "viewCount", source = "viewCount")
+    // maintained by Hibernate
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    // maintained by ReactionCountBuffer
+    @Mapping(target = "likeCount", ignore = true)
+    @Mapping(target = "loveCount", ignore = true)
+    @Mapping(target = "laughCount", ignore = true)
+    @Mapping(target = "wowCount", ignore = true)
+    @Mapping(target = "sadCount", ignore = true)
+    @Mapping(target = "angryCount", ignore = true)
     PostEntity toPostEntity(PostDTO networkPostDTO);
 
     @Mapping(target = "id", source = "id")
@@ -0,0 +1,74 @@
+package com.akamai.socialnetwork.metrics;
+
+import com.akamai.socialnetwork.dto.PoolStatsDTO;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects connection pool gauges and acquisition timings. Hikari calls the tracker
+ * on every borrow, so all counters are striped to stay off the borrow path.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquisitionNanos = new LongAdder();
+    private final LongAccumulator maxAcquisitionNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                connectionsCreated.increment();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisitions.increment();
+                acquisitionNanos.add(elapsedAcquiredNanos);
+                maxAcquisitionNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public PoolStatsDTO getStats() {
+        PoolStats current = poolStats;
+        long acquired = acquisitions.sum();
+        PoolStatsDTO.PoolStatsDTOBuilder builder = PoolStatsDTO.builder()
+                .acquisitions(acquired)
+                .averageWaitMicros(acquired == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquisitionNanos.sum() / acquired))
+                .maxWaitMicros(TimeUnit.NANOSECONDS.toMicros(maxAcquisitionNanos.get()))
+                .timeouts(timeouts.sum())
+                .averageUsageMillis(acquired == 0 ? 0 : usageMillis.sum() / acquired)
+                .connectionsCreated(connectionsCreated.sum());
+        if (current != null) {
+            builder.active(current.getActiveConnections())
+                    .idle(current.getIdleConnections())
+                    .total(current.getTotalConnections())
+                    .pending(current.getPendingThreads())
+                    .maxSize(current.getMaxConnections());
+        }
+        return builder.build();
+    }
+}
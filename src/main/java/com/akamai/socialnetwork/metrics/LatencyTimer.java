@@ -0,0 +1,27 @@
+package com.akamai.socialnetwork.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count of one operation, e.g. one endpoint.
+ */
+public class LatencyTimer {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long nanos, boolean error) {
+        histogram.record(nanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public LatencyHistogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
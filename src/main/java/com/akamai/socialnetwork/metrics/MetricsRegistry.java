@@ -0,0 +1,63 @@
+package com.akamai.socialnetwork.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Latency and error metrics of the request path, broken down by layer.
+ */
+@Component
+public class MetricsRegistry {
+
+    private final TimerFamily httpRequests = new TimerFamily("posts_http_server_requests_seconds",
+            "Time spent serving HTTP requests, including response serialization.", "method", "uri");
+    private final TimerFamily serviceMethods = new TimerFamily("posts_service_method_seconds",
+            "Time spent in service methods.", "method");
+    private final TimerFamily repositoryMethods = new TimerFamily("posts_repository_method_seconds",
+            "Time spent in repository methods.", "method");
+    private final TimerFamily mapperMethods = new TimerFamily("posts_mapper_method_seconds",
+            "Time spent mapping between entities and DTOs.", "method");
+    private final TimerFamily serialization = new TimerFamily("posts_serialization_seconds",
+            "Time spent writing JSON response bodies.", "type");
+    private final TimerFamily searchIndexLag = new TimerFamily("posts_search_index_lag_seconds",
+            "Time from a committed post write until it is searchable.", "operation");
+
+    private final List<TimerFamily> families =
+            List.of(httpRequests, serviceMethods, repositoryMethods, mapperMethods, serialization, searchIndexLag);
+
+    public TimerFamily getHttpRequests() {
+        return httpRequests;
+    }
+
+    public TimerFamily getServiceMethods() {
+        return serviceMethods;
+    }
+
+    public TimerFamily getRepositoryMethods() {
+        return repositoryMethods;
+    }
+
+    public TimerFamily getMapperMethods() {
+        return mapperMethods;
+    }
+
+    public TimerFamily getSerialization() {
+        return serialization;
+    }
+
+    public TimerFamily getSearchIndexLag() {
+        return searchIndexLag;
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (TimerFamily family : families) {
+            family.writeTo(out);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.akamai.socialnetwork.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Times every request against the handler's URI pattern, so /posts/1 and /posts/2 are
+ * one series. Streaming responses are timed until the async response completes.
+ * Responses with a status of 400 and above count as errors. The label of a pattern is
+ * built once, so timing a request does not allocate.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNMAPPED = "UNMAPPED";
+    private static final String ALREADY_FILTERED = RequestMetricsFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+    private static final String START = RequestMetricsFilter.class.getName() + ".START";
+
+    // {id:\d+} is labelled {id}, the series stays the same when a route gains a constraint
+    private static final Pattern VARIABLE_REGEX = Pattern.compile("\\{(\\w+):[^}]*}");
+
+    private final MetricsRegistry metricsRegistry;
+    private final Map<Object, String> labels = new ConcurrentHashMap<>();
+    // one listener for every streamed request, the start time travels with the request
+    private final AsyncListener asyncListener = new AsyncListener() {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            recordAsync(event, false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            recordAsync(event, true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            recordAsync(event, true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // still the same request
+        }
+    };
+
+    // the default builds the name from the filter name on every request
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.setAttribute(START, start);
+                request.getAsyncContext().addListener(asyncListener, request, response);
+            } else {
+                record(request, response, start, failed);
+            }
+        }
+    }
+
+    private void recordAsync(AsyncEvent event, boolean failed) {
+        HttpServletRequest request = (HttpServletRequest) event.getSuppliedRequest();
+        record(request, (HttpServletResponse) event.getSuppliedResponse(), (Long) request.getAttribute(START), failed);
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start, boolean failed) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNMAPPED : label(pattern);
+        metricsRegistry.getHttpRequests()
+                .get(request.getMethod(), uri)
+                .record(System.nanoTime() - start, failed || response.getStatus() >= 400);
+    }
+
+    private String label(Object pattern) {
+        String label = labels.get(pattern);
+        if (label == null) {
+            label = labels.computeIfAbsent(pattern, key -> VARIABLE_REGEX.matcher(key.toString()).replaceAll("{$1}"));
+        }
+        return label;
+    }
+}
@@ -0,0 +1,37 @@
+package com.akamai.socialnetwork.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that records how long each response body takes to serialize.
+ */
+public class TimedMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final MetricsRegistry metricsRegistry;
+
+    public TimedMappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MetricsRegistry metricsRegistry) {
+        super(objectMapper);
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            super.writeInternal(object, type, outputMessage);
+            failed = false;
+        } finally {
+            metricsRegistry.getSerialization()
+                    .get(object.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.akamai.socialnetwork.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timers sharing a metric name, told apart by one or two label values. Lookups of
+ * existing timers only read from concurrent maps, so they do not allocate.
+ */
+public class TimerFamily {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final String name;
+    private final String help;
+    private final String firstLabel;
+    private final String secondLabel;
+    private final Map<String, Map<String, LatencyTimer>> timers = new ConcurrentHashMap<>();
+
+    public TimerFamily(String name, String help, String firstLabel) {
+        this(name, help, firstLabel, null);
+    }
+
+    public TimerFamily(String name, String help, String firstLabel, String secondLabel) {
+        this.name = name;
+        this.help = help;
+        this.firstLabel = firstLabel;
+        this.secondLabel = secondLabel;
+    }
+
+    public LatencyTimer get(String firstValue) {
+        return get(firstValue, "");
+    }
+
+    public LatencyTimer get(String firstValue, String secondValue) {
+        Map<String, LatencyTimer> byFirst = timers.get(firstValue);
+        if (byFirst == null) {
+            byFirst = timers.computeIfAbsent(firstValue, value -> new ConcurrentHashMap<>());
+        }
+        LatencyTimer timer = byFirst.get(secondValue);
+        if (timer == null) {
+            timer = byFirst.computeIfAbsent(secondValue, value -> new LatencyTimer());
+        }
+        return timer;
+    }
+
+    /**
+     * Appends the family as a Prometheus summary and an error counter.
+     */
+    void writeTo(StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        StringBuilder errors = new StringBuilder();
+        StringBuilder maxima = new StringBuilder();
+        timers.forEach((firstValue, byFirst) -> byFirst.forEach((secondValue, timer) -> {
+            String labels = labels(firstValue, secondValue);
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            for (double quantile : QUANTILES) {
+                out.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(snapshot.getValueAtQuantile(quantile) / NANOS_PER_SECOND).append('\n');
+            }
+            out.append(name).append("_sum{").append(labels).append("} ")
+                    .append(snapshot.getSum() / NANOS_PER_SECOND).append('\n');
+            out.append(name).append("_count{").append(labels).append("} ").append(snapshot.getCount()).append('\n');
+            maxima.append(name).append("_max{").append(labels).append("} ")
+                    .append(snapshot.getMax() / NANOS_PER_SECOND).append('\n');
+            errors.append(name).append("_errors_total{").append(labels).append("} ").append(timer.getErrors()).append('\n');
+        }));
+        out.append("# TYPE ").append(name).append("_max gauge\n").append(maxima);
+        out.append("# TYPE ").append(name).append("_errors_total counter\n").append(errors);
+    }
+
+    private String labels(String firstValue, String secondValue) {
+        StringBuilder labels = new StringBuilder();
+        labels.append(firstLabel).append("=\"").append(escape(firstValue)).append('"');
+        if (secondLabel != null) {
+            labels.append(',').append(secondLabel).append("=\"").append(escape(secondValue)).append('"');
+        }
+        return labels.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,67 @@
+package com.akamai.socialnetwork.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Per-author post counters, so counting an author's posts is a primary key lookup
+ * instead of a {@code COUNT(*)} over the post table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuthorStatsRepository {
+
+    private static final String INCREMENT_POST_COUNT =
+            "UPDATE author_stats SET post_count = post_count + ? WHERE author = ?";
+
+    private static final String INSERT_POST_COUNT = "INSERT INTO author_stats (author, post_count) VALUES (?, ?)";
+
+    private static final String SELECT_POST_COUNT = "SELECT post_count FROM author_stats WHERE author = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the deltas to the authors' counters, the existing ones in one JDBC batch. Must
+     * run in the transaction that writes the posts. Authors are visited in sorted order so
+     * that concurrent transactions lock the counter rows in the same order.
+     */
+    public void adjustPostCounts(SortedMap<String, Long> deltas) {
+        List<Object[]> arguments = new ArrayList<>(deltas.size());
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                arguments.add(new Object[]{delta.getValue(), delta.getKey()});
+            }
+        }
+        if (arguments.isEmpty()) {
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_POST_COUNT, arguments);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                insertPostCount((String) arguments.get(i)[1], (Long) arguments.get(i)[0]);
+            }
+        }
+    }
+
+    private void insertPostCount(String author, long delta) {
+        try {
+            jdbcTemplate.update(INSERT_POST_COUNT, author, delta);
+        } catch (DuplicateKeyException e) {
+            // a concurrent transaction created the counter since the update missed it, a
+            // MERGE would have raced the same way; the row is there to update now
+            jdbcTemplate.update(INCREMENT_POST_COUNT, delta, author);
+        }
+    }
+
+    public long findPostCount(String author) {
+        List<Long> counts = jdbcTemplate.queryForList(SELECT_POST_COUNT, Long.class, author);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+}
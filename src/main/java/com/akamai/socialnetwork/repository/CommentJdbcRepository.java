@@ -0,0 +1,126 @@
+package com.akamai.socialnetwork.repository;
+
+import com.akamai.socialnetwork.dto.CommentDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Comment threads stored as materialized paths. The path of a comment is the path of
+ * its parent followed by its own id, zero-padded to a fixed width, so ordering by path
+ * reads a thread depth first with replies oldest first, and a subtree is a single range
+ * of the (post_id, path) index whatever its depth or width.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommentJdbcRepository {
+
+    /** Digits of the largest id, so paths compare like their ids. */
+    public static final int SEGMENT_LENGTH = 19;
+
+    /** Levels of comments, the top level included; bounded by the path column. */
+    public static final int MAX_DEPTH = 32;
+
+    private static final String COMMENT_COLUMNS = "id, post_id, parent_id, path, author, content, created";
+
+    private static final String NEXT_ID = "SELECT NEXT VALUE FOR comment_seq";
+
+    private static final String INSERT = "INSERT INTO post_comment (id, post_id, parent_id, path, author, content) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_PATH = "SELECT path FROM post_comment WHERE id = ? AND post_id = ?";
+
+    // the post is constant, ordering by it too lets H2 read idx_comment_post_path without a sort
+    private static final String SELECT_AFTER_PATH = "SELECT " + COMMENT_COLUMNS + " FROM post_comment "
+            + "WHERE post_id = ? AND path > ? ORDER BY post_id, path LIMIT ?";
+
+    private static final String SELECT_RANGE = "SELECT " + COMMENT_COLUMNS + " FROM post_comment "
+            + "WHERE post_id = ? AND path > ? AND path < ? ORDER BY post_id, path LIMIT ?";
+
+    private static final String COUNT_BY_POST = "SELECT COUNT(*) FROM post_comment WHERE post_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long nextId() {
+        Long id = jdbcTemplate.queryForObject(NEXT_ID, Long.class);
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * @throws org.springframework.dao.DataIntegrityViolationException if the post does not exist
+     */
+    public void insert(long id, Long postId, Long parentId, String path, String author, String content) {
+        jdbcTemplate.update(INSERT, id, postId, parentId, path, author, content);
+    }
+
+    public Optional<String> findPath(Long postId, Long commentId) {
+        return jdbcTemplate.query(SELECT_PATH, (resultSet, rowNum) -> resultSet.getString("path"), commentId, postId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Reads up to {@code limit} comments of a post in path order, after the given path;
+     * an empty path starts from the first comment.
+     */
+    public List<CommentDTO> findAfter(Long postId, String afterPath, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER_PATH, CommentJdbcRepository::mapRow, postId, afterPath, limit);
+    }
+
+    /**
+     * Reads up to {@code limit} replies of the comment at {@code rootPath}, at every depth,
+     * in path order after the given path.
+     */
+    public List<CommentDTO> findReplies(Long postId, String rootPath, String afterPath, int limit) {
+        String from = afterPath.compareTo(rootPath) > 0 ? afterPath : rootPath;
+        return jdbcTemplate.query(SELECT_RANGE, CommentJdbcRepository::mapRow,
+                postId, from, subtreeEnd(rootPath), limit);
+    }
+
+    /**
+     * Counts the comments of a post at every depth, from the index alone.
+     */
+    public long countByPost(Long postId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_BY_POST, Long.class, postId);
+        return count == null ? 0 : count;
+    }
+
+    public static String pathOf(String parentPath, long id) {
+        String segment = Long.toString(id);
+        return (parentPath == null ? "" : parentPath) + "0".repeat(SEGMENT_LENGTH - segment.length()) + segment;
+    }
+
+    public static int depthOf(String path) {
+        return path.length() / SEGMENT_LENGTH - 1;
+    }
+
+    /**
+     * The path a sibling with the next id would have: every descendant of {@code path}
+     * sorts before it.
+     */
+    static String subtreeEnd(String path) {
+        int parentLength = path.length() - SEGMENT_LENGTH;
+        long id = Long.parseLong(path.substring(parentLength));
+        return pathOf(path.substring(0, parentLength), id + 1);
+    }
+
+    private static CommentDTO mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        String path = resultSet.getString("path");
+        long parentId = resultSet.getLong("parent_id");
+        boolean topLevel = resultSet.wasNull();
+        return CommentDTO.builder()
+                .id(resultSet.getLong("id"))
+                .postId(resultSet.getLong("post_id"))
+                .parentId(topLevel ? null : parentId)
+                .depth(depthOf(path))
+                .author(resultSet.getString("author"))
+                .content(resultSet.getString("content"))
+                .created(resultSet.getTimestamp("created").toInstant())
+                .path(path)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.akamai.socialnetwork.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Durable copy of the follow graph. Reads are served by
+ * {@link com.akamai.socialnetwork.graph.FollowGraph}, this table is only read in full
+ * when the graph is loaded.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FollowJdbcRepository {
+
+    private static final String INSERT = "INSERT INTO user_follow (follower, followee) VALUES (?, ?)";
+
+    private static final String DELETE = "DELETE FROM user_follow WHERE follower = ? AND followee = ?";
+
+    private static final String SELECT_ALL = "SELECT follower, followee FROM user_follow";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return false if the follower already followed the followee
+     */
+    public boolean insert(String follower, String followee) {
+        try {
+            jdbcTemplate.update(INSERT, follower, followee);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return false if the follower did not follow the followee
+     */
+    public boolean delete(String follower, String followee) {
+        return jdbcTemplate.update(DELETE, follower, followee) > 0;
+    }
+
+    /**
+     * Reads every edge through a forward-only cursor as (follower, followee).
+     */
+    public void streamAll(BiConsumer<String, String> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(PostJdbcRepository.STREAM_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getString("follower"), resultSet.getString("followee")));
+    }
+}
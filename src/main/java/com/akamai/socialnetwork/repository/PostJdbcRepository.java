@@ -0,0 +1,275 @@
+package com.akamai.socialnetwork.repository;
+
+import com.akamai.socialnetwork.dto.PostVersionDTO;
+import com.akamai.socialnetwork.dto.Reaction;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.timeline.TimelineEntry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the post table for bulk paths where going through the
+ * persistence context would hold every row in memory.
+ */
+@Repository
+public class PostJdbcRepository {
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String POST_COLUMNS = "id, date, author, content, view_count, like_count, love_count, "
+            + "laugh_count, wow_count, sad_count, angry_count, version, last_modified";
+
+    private static final String SELECT_ALL_ORDER_BY_ID =
+            "SELECT " + POST_COLUMNS + " FROM post_entity ORDER BY id";
+
+    // the bucket is constant, ordering by it too lets H2 read idx_post_day_bucket_date without a sort
+    private static final String SELECT_DAY_BUCKET_ORDER_BY_DATE_DESC =
+            "SELECT " + POST_COLUMNS + " FROM post_entity "
+                    + "WHERE day_bucket = ? AND date >= ? AND date < ? ORDER BY day_bucket, date DESC, id DESC";
+
+    private static final String SELECT_VERSION =
+            "SELECT id, version, last_modified FROM post_entity WHERE id = ?";
+
+    private static final String SELECT_RECENT_BY_AUTHORS =
+            "SELECT id, date FROM post_entity WHERE author IN (%s) AND date IS NOT NULL%s "
+                    + "ORDER BY date DESC, id DESC LIMIT ?";
+
+    private static final String BEFORE_POSITION = " AND (date < ? OR (date = ? AND id < ?))";
+
+    private static final String INCREMENT_VIEW_COUNT =
+            "UPDATE post_entity SET view_count = COALESCE(view_count, 0) + ?, "
+                    + "version = version + 1, last_modified = LOCALTIMESTAMP WHERE id = ?";
+
+    // columns in the order of Reaction
+    private static final String INCREMENT_REACTION_COUNTS =
+            "UPDATE post_entity SET like_count = like_count + ?, love_count = love_count + ?, "
+                    + "laugh_count = laugh_count + ?, wow_count = wow_count + ?, sad_count = sad_count + ?, "
+                    + "angry_count = angry_count + ?, version = version + 1, last_modified = LOCALTIMESTAMP WHERE id = ?";
+
+    private static final String NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR post_seq";
+
+    // a replayed post that was already written is skipped rather than written twice
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO post_entity (id, date, author, content, view_count) "
+                    + "SELECT CAST(? AS BIGINT), CAST(? AS TIMESTAMP(6)), CAST(? AS VARCHAR(50)), "
+                    + "CAST(? AS VARCHAR(500)), CAST(? AS BIGINT) "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM post_entity WHERE id = ?)";
+
+    private static final String SELECT_DATE = "SELECT date FROM post_entity WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    // cursors are read at the pace of the client, on the streaming pool
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate streamingTransactionTemplate;
+
+    public PostJdbcRepository(JdbcTemplate jdbcTemplate,
+                              @Qualifier("streamingDataSource") DataSource streamingDataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(streamingDataSource);
+        this.streamingTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(streamingDataSource));
+        streamingTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Reads every post through a forward-only cursor, handing each row to the consumer
+     * as soon as it is read. The cursor is read in a transaction of its own on a
+     * connection of the streaming pool.
+     */
+    public void streamAll(Consumer<PostEntity> consumer) {
+        streamingTransactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL_ORDER_BY_ID,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapRow(resultSet))));
+    }
+
+    /**
+     * Reads the posts of one day bucket with {@code from <= date < to}, newest first,
+     * through a forward-only cursor over the bucket's slice of the day bucket index, on
+     * the streaming pool like {@link #streamAll(Consumer)}.
+     */
+    public void streamDayBucket(int dayBucket, Timestamp from, Timestamp to, Consumer<PostEntity> consumer) {
+        streamingTransactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_DAY_BUCKET_ORDER_BY_DATE_DESC,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setInt(1, dayBucket);
+            statement.setTimestamp(2, from);
+            statement.setTimestamp(3, to);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapRow(resultSet))));
+    }
+
+    /**
+     * Reads only the version of a post, without its content.
+     */
+    public Optional<PostVersionDTO> findVersion(Long postId) {
+        return jdbcTemplate.query(SELECT_VERSION, resultSet -> resultSet.next()
+                ? Optional.of(new PostVersionDTO(resultSet.getLong("id"), resultSet.getLong("version"),
+                        toInstant(resultSet.getTimestamp("last_modified"))))
+                : Optional.empty(), postId);
+    }
+
+    /**
+     * Reads the timeline positions of the newest posts by any of the given authors that
+     * come strictly after {@code (beforeDate, beforeId)} in timeline order, from the
+     * (author, date DESC, id) index alone. A {@code beforeDate} of {@link Long#MAX_VALUE}
+     * starts from the newest post.
+     */
+    public List<TimelineEntry> findRecentByAuthors(Collection<String> authors, long beforeDate, long beforeId, int limit) {
+        if (authors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        boolean bounded = beforeDate != Long.MAX_VALUE;
+        String sql = String.format(SELECT_RECENT_BY_AUTHORS,
+                String.join(", ", Collections.nCopies(authors.size(), "?")), bounded ? BEFORE_POSITION : "");
+        List<Object> arguments = new ArrayList<>(authors);
+        if (bounded) {
+            Timestamp before = Timestamp.from(TimelineEntry.toInstant(beforeDate));
+            arguments.add(before);
+            arguments.add(before);
+            arguments.add(beforeId);
+        }
+        arguments.add(limit);
+        return jdbcTemplate.query(sql, (resultSet, rowNum) -> new TimelineEntry(
+                TimelineEntry.toMicros(resultSet.getTimestamp("date").toInstant()), resultSet.getLong("id")),
+                arguments.toArray());
+    }
+
+    /**
+     * Adds the given deltas to the stored view counts in a single JDBC batch.
+     *
+     * @return ids of posts that no longer exist
+     */
+    public Set<Long> incrementViewCounts(SortedMap<Long, Long> deltas) {
+        List<Long> postIds = new ArrayList<>(deltas.keySet());
+        List<Object[]> arguments = new ArrayList<>(postIds.size());
+        for (Long postId : postIds) {
+            arguments.add(new Object[]{deltas.get(postId), postId});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_VIEW_COUNT, arguments);
+        Set<Long> missing = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(postIds.get(i));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Adds the given deltas to the stored reaction counts in a single JDBC batch. Each
+     * array holds one delta per {@link Reaction}, indexed by ordinal.
+     *
+     * @return ids of posts that no longer exist
+     */
+    public Set<Long> incrementReactionCounts(SortedMap<Long, long[]> deltas) {
+        List<Long> postIds = new ArrayList<>(deltas.keySet());
+        List<Object[]> arguments = new ArrayList<>(postIds.size());
+        for (Long postId : postIds) {
+            long[] delta = deltas.get(postId);
+            Object[] row = new Object[delta.length + 1];
+            for (int i = 0; i < delta.length; i++) {
+                row[i] = delta[i];
+            }
+            row[delta.length] = postId;
+            arguments.add(row);
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_REACTION_COUNTS, arguments);
+        Set<Long> missing = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(postIds.get(i));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Reads the next value of post_seq. Like every value Hibernate's pooled-lo optimizer
+     * reads, it reserves the {@link PostEntity#ID_ALLOCATION_SIZE} ids from itself up.
+     */
+    public long nextIdBlock() {
+        Long value = jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Inserts posts whose ids were assigned beforehand, in a single JDBC batch. Posts
+     * already written are left alone; an id taken by another post, told apart by its
+     * date, which an update never changes, fails the batch.
+     *
+     * @return the posts actually inserted
+     * @throws DuplicateKeyException if the id of one of the posts belongs to another post
+     */
+    public List<PostEntity> insertAbsent(List<PostEntity> posts) {
+        List<Object[]> arguments = new ArrayList<>(posts.size());
+        for (PostEntity post : posts) {
+            arguments.add(new Object[]{post.getId(), post.getDate() == null ? null : Timestamp.from(post.getDate()),
+                    post.getAuthor(), post.getContent(), post.getViewCount(), post.getId()});
+        }
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, arguments);
+        List<PostEntity> insertedPosts = new ArrayList<>(posts.size());
+        for (int i = 0; i < inserted.length; i++) {
+            PostEntity post = posts.get(i);
+            if (inserted[i] != 0) {
+                insertedPosts.add(post);
+            } else if (!isWritten(post)) {
+                throw new DuplicateKeyException("Post id " + post.getId() + " is taken by another post");
+            }
+        }
+        return insertedPosts;
+    }
+
+    private boolean isWritten(PostEntity post) {
+        List<Timestamp> dates = jdbcTemplate.queryForList(SELECT_DATE, Timestamp.class, post.getId());
+        return !dates.isEmpty() && Objects.equals(toInstant(dates.get(0)), post.getDate());
+    }
+
+    /**
+     * Day bucket of an instant, computed the same way as the generated {@code day_bucket}
+     * column: days since 1970-01-01 of the local timestamp the JDBC driver stores.
+     */
+    public static int dayBucketOf(Instant instant) {
+        return Math.toIntExact(LocalDateTime.ofInstant(instant, ZoneId.systemDefault()).toLocalDate().toEpochDay());
+    }
+
+    static PostEntity mapRow(ResultSet resultSet) throws SQLException {
+        PostEntity postEntity = new PostEntity();
+        postEntity.setId(resultSet.getLong("id"));
+        postEntity.setDate(toInstant(resultSet.getTimestamp("date")));
+        postEntity.setAuthor(resultSet.getString("author"));
+        postEntity.setContent(resultSet.getString("content"));
+        postEntity.setViewCount(resultSet.getLong("view_count"));
+        postEntity.setLikeCount(resultSet.getLong("like_count"));
+        postEntity.setLoveCount(resultSet.getLong("love_count"));
+        postEntity.setLaughCount(resultSet.getLong("laugh_count"));
+        postEntity.setWowCount(resultSet.getLong("wow_count"));
+        postEntity.setSadCount(resultSet.getLong("sad_count"));
+        postEntity.setAngryCount(resultSet.getLong("angry_count"));
+        postEntity.setVersion(resultSet.getLong("version"));
+        postEntity.setLastModified(toInstant(resultSet.getTimestamp("last_modified")));
+        return postEntity;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
@@ -0,0 +1,165 @@
+package com.akamai.socialnetwork.repository;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Non-blocking access to the post table for the reactive stack. Rows are mapped
+ * straight to DTOs, there is no persistence context on this side.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class PostR2dbcRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT id, date, author, content, view_count, "
+            + "like_count, love_count, laugh_count, wow_count, sad_count, angry_count, version, last_modified FROM post_entity";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<PostDTO> findById(Long postId) {
+        return databaseClient.sql(SELECT_COLUMNS + " WHERE id = :id")
+                .bind("id", postId)
+                .map((row, metadata) -> mapRow(row))
+                .one();
+    }
+
+    /**
+     * Emits every post in id order as rows arrive, honouring downstream demand.
+     */
+    public Flux<PostDTO> findAll() {
+        return databaseClient.sql(SELECT_COLUMNS + " ORDER BY id")
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    public Mono<Boolean> existsAny() {
+        return databaseClient.sql("SELECT 1 FROM post_entity LIMIT 1")
+                .map((row, metadata) -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Inserts the post and returns its id. Every value of the pooled sequence reserves a
+     * block of ids for whoever read it; this side only uses the value itself, so it can
+     * never collide with ids Hibernate hands out from its own blocks.
+     */
+    public Mono<Long> insert(PostDTO postDTO) {
+        return databaseClient.sql("SELECT NEXT VALUE FOR post_seq")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .flatMap(postId -> databaseClient.sql("INSERT INTO post_entity (id, date, author, content, view_count) "
+                                + "VALUES (:id, :date, :author, :content, :viewCount)")
+                        .bind("id", postId)
+                        .bind("date", toLocalDateTime(postDTO.getDate()))
+                        .bind("author", postDTO.getAuthor())
+                        .bind("content", postDTO.getContent())
+                        .bind("viewCount", postDTO.getViewCount())
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(postId));
+    }
+
+    /**
+     * Updates author, content and view count, like the blocking service does, and bumps
+     * the version.
+     *
+     * @return number of updated rows, 0 if the post does not exist
+     */
+    public Mono<Long> update(Long postId, PostDTO postDTO) {
+        return databaseClient.sql("UPDATE post_entity SET author = :author, content = :content, "
+                        + "view_count = :viewCount, version = version + 1, last_modified = LOCALTIMESTAMP "
+                        + "WHERE id = :id")
+                .bind("author", postDTO.getAuthor())
+                .bind("content", postDTO.getContent())
+                .bind("viewCount", postDTO.getViewCount())
+                .bind("id", postId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return number of deleted rows, 0 if the post does not exist
+     */
+    public Mono<Long> delete(Long postId) {
+        return databaseClient.sql("DELETE FROM post_entity WHERE id = :id")
+                .bind("id", postId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Emits the post's author, empty if the post does not exist, and locks the row until
+     * the surrounding transaction ends, like {@link PostRepository#findLockedById}; a
+     * concurrent update or delete of the post then adjusts the author counts after this one.
+     */
+    public Mono<Optional<String>> findLockedAuthor(Long postId) {
+        return databaseClient.sql("SELECT author FROM post_entity WHERE id = :id FOR UPDATE")
+                .bind("id", postId)
+                .map((row, metadata) -> Optional.ofNullable(row.get("author", String.class)))
+                .one();
+    }
+
+    /**
+     * Same counter update as {@link AuthorStatsRepository#adjustPostCounts}, for one author.
+     * Two first posts of an author can both miss the row and insert it, the loser merges
+     * again and finds it.
+     */
+    public Mono<Void> adjustPostCount(String author, long delta) {
+        if (author == null || delta == 0) {
+            return Mono.empty();
+        }
+        return mergePostCount(author, delta)
+                .onErrorResume(DuplicateKeyException.class, e -> mergePostCount(author, delta));
+    }
+
+    private Mono<Void> mergePostCount(String author, long delta) {
+        return databaseClient.sql("MERGE INTO author_stats t "
+                        + "USING (SELECT CAST(:author AS VARCHAR(50)) AS author, CAST(:delta AS BIGINT) AS delta) s "
+                        + "ON t.author = s.author "
+                        + "WHEN MATCHED THEN UPDATE SET post_count = t.post_count + s.delta "
+                        + "WHEN NOT MATCHED THEN INSERT (author, post_count) VALUES (s.author, s.delta)")
+                .bind("author", author)
+                .bind("delta", delta)
+                .then();
+    }
+
+    static PostDTO mapRow(Row row) {
+        return PostDTO.builder()
+                .id(row.get("id", Long.class))
+                .date(toInstant(row.get("date", LocalDateTime.class)))
+                .author(row.get("author", String.class))
+                .content(row.get("content", String.class))
+                .viewCount(row.get("view_count", Long.class).longValue())
+                .likeCount(row.get("like_count", Long.class).longValue())
+                .loveCount(row.get("love_count", Long.class).longValue())
+                .laughCount(row.get("laugh_count", Long.class).longValue())
+                .wowCount(row.get("wow_count", Long.class).longValue())
+                .sadCount(row.get("sad_count", Long.class).longValue())
+                .angryCount(row.get("angry_count", Long.class).longValue())
+                .version(row.get("version", Long.class))
+                .lastModified(toInstant(row.get("last_modified", LocalDateTime.class)))
+                .build();
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant date) {
+        return LocalDateTime.ofInstant(date, ZoneId.systemDefault());
+    }
+}
@@ -1,14 +1,57 @@
 package com.akamai.socialnetwork.repository;
 
 import com.akamai.socialnetwork.entity.PostEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
 public interface PostRepository extends JpaRepository<PostEntity, Long> {
     List<PostEntity> findTop10ByOrderByViewCountDesc();
 
+    /**
+     * Loads a post for writing. The row lock orders this writer with the view count
+     * flush, which bumps the version with a plain UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PostEntity> findLockedById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PostEntity> findLockedByIdIn(Collection<Long> ids);
+
+    List<PostEntity> findAllByOrderByViewCountDescIdAsc(Pageable pageable);
+
+    List<PostEntity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Optional<PostEntity> findFirstByOrderByIdAsc();
+
+    /**
+     * First page of an author's feed. The author is constant, ordering by it too lets H2 read
+     * the (author, date DESC, id) index in order instead of sorting the author's posts.
+     */
+    @Query("SELECT p FROM PostEntity p WHERE p.author = :author ORDER BY p.author, p.date DESC, p.id ASC")
+    List<PostEntity> findByAuthorOrderByDateDescIdAsc(@Param("author") String author, Pageable pageable);
+
+    /**
+     * Next page of an author's feed after the given (date, id) position, served by the
+     * (author, date DESC, id) index.
+     */
+    @Query("SELECT p FROM PostEntity p WHERE p.author = :author "
+            + "AND (p.date < :date OR (p.date = :date AND p.id > :id)) "
+            + "ORDER BY p.author, p.date DESC, p.id ASC")
+    List<PostEntity> findByAuthorAfter(@Param("author") String author,
+                                       @Param("date") Instant date,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
 }
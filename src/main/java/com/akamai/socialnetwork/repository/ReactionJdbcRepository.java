@@ -0,0 +1,52 @@
+package com.akamai.socialnetwork.repository;
+
+import com.akamai.socialnetwork.dto.Reaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Who reacted to which post. The counts read with a post are kept in the post row
+ * instead, see {@link com.akamai.socialnetwork.counter.ReactionCountBuffer}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactionJdbcRepository {
+
+    private static final String INSERT = "INSERT INTO post_reaction (post_id, user_name, reaction) VALUES (?, ?, ?)";
+
+    private static final String DELETE = "DELETE FROM post_reaction WHERE post_id = ? AND user_name = ? AND reaction = ?";
+
+    private static final String COUNT = "SELECT COUNT(*) FROM post_reaction WHERE post_id = ? AND reaction = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return false if the user already left this reaction on the post
+     * @throws org.springframework.dao.DataIntegrityViolationException if the post does not exist
+     */
+    public boolean insert(Long postId, String user, Reaction reaction) {
+        try {
+            jdbcTemplate.update(INSERT, postId, user, reaction.name());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return false if the user had not left this reaction on the post
+     */
+    public boolean delete(Long postId, String user, Reaction reaction) {
+        return jdbcTemplate.update(DELETE, postId, user, reaction.name()) > 0;
+    }
+
+    /**
+     * Counts the reactions of one kind on a post from the reaction rows themselves.
+     */
+    public long count(Long postId, Reaction reaction) {
+        Long count = jdbcTemplate.queryForObject(COUNT, Long.class, postId, reaction.name());
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,238 @@
+package com.akamai.socialnetwork.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Positional inverted index over post content, ranked with BM25.
+ * <p>
+ * Each term maps to the posts containing it and the positions it occurs at, which is
+ * enough to answer term, phrase and prefix clauses without touching the database. The
+ * term dictionary is sorted, so a prefix is one range of it. Searches run concurrently
+ * under the read lock; updates take the write lock.
+ */
+class InvertedIndex {
+
+    /** Upper bound on the dictionary terms a single prefix clause expands to. */
+    static final int MAX_PREFIX_EXPANSIONS = 1000;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** Ranking order: score descending, then post id ascending. */
+    static final Comparator<SearchHit> ORDER = Comparator
+            .comparingDouble(SearchHit::getScore).reversed()
+            .thenComparingLong(SearchHit::getPostId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    private static final class Document {
+
+        private final String[] terms;
+        private final int length;
+
+        private Document(String[] terms, int length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Indexes the content of a post, replacing whatever was indexed for it before.
+     */
+    void put(long postId, String content) {
+        List<String> tokens = Tokenizer.tokenize(content);
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            positions.computeIfAbsent(tokens.get(i), term -> new ArrayList<>(1)).add(i);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+                List<Integer> termPositions = entry.getValue();
+                int[] array = new int[termPositions.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = termPositions.get(i);
+                }
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(postId, array);
+            }
+            documents.put(postId, new Document(positions.keySet().toArray(new String[0]), tokens.size()));
+            totalLength += tokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} posts matching every clause of the query, in
+     * {@link #ORDER}, starting strictly after the hit {@code (afterScore, afterId)}.
+     */
+    List<SearchHit> search(SearchQuery query, double afterScore, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return Collections.emptyList();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            List<Map<Long, Double>> matches = new ArrayList<>(query.getClauses().size());
+            for (SearchQuery.Clause clause : query.getClauses()) {
+                Map<Long, Double> clauseMatches = match(clause, averageLength);
+                if (clauseMatches.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                matches.add(clauseMatches);
+            }
+            // intersect starting from the most selective clause
+            matches.sort(Comparator.comparingInt(Map::size));
+            SearchHit after = new SearchHit(afterId, afterScore);
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, ORDER.reversed());
+            for (Map.Entry<Long, Double> candidate : matches.get(0).entrySet()) {
+                double score = candidate.getValue();
+                // a clause that does not match the candidate turns its score into NaN
+                for (int i = 1; i < matches.size() && !Double.isNaN(score); i++) {
+                    score += matches.get(i).getOrDefault(candidate.getKey(), Double.NaN);
+                }
+                if (Double.isNaN(score)) {
+                    continue;
+                }
+                SearchHit hit = new SearchHit(candidate.getKey(), score);
+                if (ORDER.compare(hit, after) <= 0) {
+                    continue;
+                }
+                top.add(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort(ORDER);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> match(SearchQuery.Clause clause, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        switch (clause.getType()) {
+            case TERM -> addScores(scores, postings.get(clause.getTerms().get(0)), averageLength);
+            case PREFIX -> {
+                String prefix = clause.getTerms().get(0);
+                int expansions = 0;
+                for (Map<Long, int[]> termPostings
+                        : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                    if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    addScores(scores, termPostings, averageLength);
+                }
+            }
+            case PHRASE -> matchPhrase(scores, clause.getTerms(), averageLength);
+        }
+        return scores;
+    }
+
+    private void matchPhrase(Map<Long, Double> scores, List<String> terms, double averageLength) {
+        List<Map<Long, int[]>> termPostings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, int[]> candidates = postings.get(term);
+            if (candidates == null) {
+                return;
+            }
+            termPostings.add(candidates);
+        }
+        for (Map.Entry<Long, int[]> candidate : termPostings.get(0).entrySet()) {
+            Long postId = candidate.getKey();
+            if (!containsPhrase(postId, candidate.getValue(), termPostings)) {
+                continue;
+            }
+            double score = 0;
+            for (Map<Long, int[]> postingsOfTerm : termPostings) {
+                score += score(postingsOfTerm.get(postId).length, postingsOfTerm.size(), postId, averageLength);
+            }
+            scores.put(postId, score);
+        }
+    }
+
+    private static boolean containsPhrase(Long postId, int[] firstPositions, List<Map<Long, int[]>> termPostings) {
+        int[][] positions = new int[termPostings.size()][];
+        for (int i = 1; i < positions.length; i++) {
+            positions[i] = termPostings.get(i).get(postId);
+            if (positions[i] == null) {
+                return false;
+            }
+        }
+        for (int start : firstPositions) {
+            boolean found = true;
+            for (int i = 1; i < positions.length && found; i++) {
+                found = Arrays.binarySearch(positions[i], start + i) >= 0;
+            }
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addScores(Map<Long, Double> scores, Map<Long, int[]> termPostings, double averageLength) {
+        if (termPostings == null) {
+            return;
+        }
+        for (Map.Entry<Long, int[]> entry : termPostings.entrySet()) {
+            double score = score(entry.getValue().length, termPostings.size(), entry.getKey(), averageLength);
+            scores.merge(entry.getKey(), score, Double::sum);
+        }
+    }
+
+    private double score(int termFrequency, int documentFrequency, Long postId, double averageLength) {
+        double idf = Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        double normalization = K1 * (1 - B + B * documents.get(postId).length / averageLength);
+        return idf * termFrequency * (K1 + 1) / (termFrequency + normalization);
+    }
+
+    private void removeLocked(long postId) {
+        Document document = documents.remove(postId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Map<Long, int[]> termPostings = postings.get(term);
+            termPostings.remove(postId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length;
+    }
+}
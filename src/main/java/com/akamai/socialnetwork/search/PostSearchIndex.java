@@ -0,0 +1,199 @@
+package com.akamai.socialnetwork.search;
+
+import com.akamai.socialnetwork.dto.SearchIndexStatsDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.event.PostsContentChangedEvent;
+import com.akamai.socialnetwork.metrics.LatencyTimer;
+import com.akamai.socialnetwork.metrics.MetricsRegistry;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import com.akamai.socialnetwork.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Full-text index of post content, kept in sync with the database asynchronously.
+ * <p>
+ * Committed writes only enqueue the changed post ids, so indexing never adds to the
+ * latency of a write. A single indexer thread drains the queue in batches, re-reads
+ * the changed rows and applies their committed state, which makes the result
+ * independent of the order in which concurrent transactions finish. The time from
+ * commit to searchable is recorded as index lag.
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    private final PostRepository postRepository;
+    private final PostJdbcRepository postJdbcRepository;
+    private final int batchSize;
+    private final long retryDelayMillis;
+    private final LatencyTimer lagTimer;
+
+    private final BlockingQueue<PendingUpdate> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService indexer;
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    private static final class PendingUpdate {
+
+        private final Long postId;
+        private final long enqueuedNanos;
+
+        private PendingUpdate(Long postId, long enqueuedNanos) {
+            this.postId = postId;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    public PostSearchIndex(PostRepository postRepository,
+                           PostJdbcRepository postJdbcRepository,
+                           MetricsRegistry metricsRegistry,
+                           @Value("${posts.search.batch-size:500}") int batchSize,
+                           @Value("${posts.search.retry-delay-ms:1000}") long retryDelayMillis) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("posts.search.batch-size must be positive: " + batchSize);
+        }
+        this.postRepository = postRepository;
+        this.postJdbcRepository = postJdbcRepository;
+        this.batchSize = batchSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.lagTimer = metricsRegistry.getSearchIndexLag().get("update");
+        this.indexer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} posts matching the query, best match first, starting
+     * strictly after the hit {@code (afterScore, afterId)}.
+     */
+    public List<SearchHit> search(String query, double afterScore, long afterId, int limit) {
+        return index.search(SearchQuery.parse(query), afterScore, afterId, limit);
+    }
+
+    public SearchIndexStatsDTO getStats() {
+        InvertedIndex current = index;
+        return new SearchIndexStatsDTO(current.getDocumentCount(), current.getTermCount(), queue.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // on the indexer thread, so no queued update can be overwritten by an older row
+        indexer.execute(this::rebuildNow);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsContentChanged(PostsContentChangedEvent event) {
+        long now = System.nanoTime();
+        for (Long postId : event.getPostIds()) {
+            queue.add(new PendingUpdate(postId, now));
+        }
+        scheduleDrain(0);
+    }
+
+    /**
+     * Waits until every update queued before this call is searchable.
+     *
+     * @return false if that did not happen within the timeout
+     */
+    public boolean awaitIndexed(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            try {
+                // the indexer runs one task at a time, so this runs after every drain scheduled so far
+                indexer.submit(() -> { }).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                return false;
+            }
+            if (queue.isEmpty()) {
+                return true;
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            // a failed batch is waiting for its retry
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        indexer.shutdownNow();
+        indexer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void scheduleDrain(long delayMillis) {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                indexer.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // shutting down, the index goes away with the application
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<PendingUpdate> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                apply(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Indexing {} posts failed, retrying in {} ms", batch.size(), retryDelayMillis, e);
+                queue.addAll(batch);
+                scheduleDrain(retryDelayMillis);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void apply(List<PendingUpdate> batch) {
+        Set<Long> postIds = new HashSet<>();
+        for (PendingUpdate update : batch) {
+            postIds.add(update.postId);
+        }
+        Map<Long, PostEntity> rows = new HashMap<>();
+        for (PostEntity row : postRepository.findAllById(postIds)) {
+            rows.put(row.getId(), row);
+        }
+        InvertedIndex current = index;
+        for (Long postId : postIds) {
+            PostEntity row = rows.get(postId);
+            if (row == null) {
+                current.remove(postId);
+            } else {
+                current.put(postId, row.getContent());
+            }
+        }
+        long now = System.nanoTime();
+        for (PendingUpdate update : batch) {
+            lagTimer.record(now - update.enqueuedNanos, false);
+        }
+    }
+
+    private void rebuildNow() {
+        try {
+            InvertedIndex rebuilt = new InvertedIndex();
+            postJdbcRepository.streamAll(row -> rebuilt.put(row.getId(), row.getContent()));
+            index = rebuilt;
+            logger.info("Search index rebuilt with {} posts", rebuilt.getDocumentCount());
+        } catch (RuntimeException e) {
+            logger.error("Search index rebuild failed, only posts written from now on are searchable", e);
+        }
+    }
+}
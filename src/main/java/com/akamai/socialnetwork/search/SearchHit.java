@@ -0,0 +1,19 @@
+package com.akamai.socialnetwork.search;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A matching post and its relevance score; higher scores rank first.
+ */
+@Getter
+@RequiredArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SearchHit {
+
+    private final long postId;
+    private final double score;
+}
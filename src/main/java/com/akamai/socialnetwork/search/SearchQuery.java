@@ -0,0 +1,90 @@
+package com.akamai.socialnetwork.search;
+
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed search query. Every clause must match: a bare word is a term, a word ending
+ * in {@code *} is a prefix and words in double quotes are a phrase that must appear in
+ * that order.
+ */
+final class SearchQuery {
+
+    static final int MAX_QUERY_LENGTH = 200;
+    static final int MAX_CLAUSES = 16;
+
+    private static final Pattern PART = Pattern.compile("\"([^\"]*)\"?|(\\S+)");
+
+    enum Type { TERM, PREFIX, PHRASE }
+
+    static final class Clause {
+
+        private final Type type;
+        private final List<String> terms;
+
+        Clause(Type type, List<String> terms) {
+            this.type = type;
+            this.terms = terms;
+        }
+
+        Type getType() {
+            return type;
+        }
+
+        List<String> getTerms() {
+            return terms;
+        }
+    }
+
+    private final List<Clause> clauses;
+
+    private SearchQuery(List<Clause> clauses) {
+        this.clauses = Collections.unmodifiableList(clauses);
+    }
+
+    List<Clause> getClauses() {
+        return clauses;
+    }
+
+    static SearchQuery parse(String query) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidRequestException("Search query must not exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        List<Clause> clauses = new ArrayList<>();
+        Matcher matcher = PART.matcher(query);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                List<String> terms = Tokenizer.tokenize(matcher.group(1));
+                if (terms.size() == 1) {
+                    clauses.add(new Clause(Type.TERM, terms));
+                } else if (terms.size() > 1) {
+                    clauses.add(new Clause(Type.PHRASE, terms));
+                }
+                continue;
+            }
+            String word = matcher.group(2);
+            boolean prefix = word.endsWith("*");
+            List<String> terms = Tokenizer.tokenize(prefix ? word.substring(0, word.length() - 1) : word);
+            for (int i = 0; i < terms.size(); i++) {
+                // in "e-mai*" only the last term is a prefix
+                Type type = prefix && i == terms.size() - 1 ? Type.PREFIX : Type.TERM;
+                clauses.add(new Clause(type, List.of(terms.get(i))));
+            }
+        }
+        if (clauses.isEmpty()) {
+            throw new InvalidRequestException("Search query must contain at least one letter or digit");
+        }
+        if (clauses.size() > MAX_CLAUSES) {
+            throw new InvalidRequestException("Search query must not have more than " + MAX_CLAUSES + " terms");
+        }
+        return new SearchQuery(clauses);
+    }
+}
@@ -0,0 +1,39 @@
+package com.akamai.socialnetwork.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-case terms at every character that is not a letter or digit.
+ * Indexing and query parsing share it, so both sides always agree on what a term is.
+ */
+final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (start >= 0) {
+            terms.add(text.substring(start).toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,12 @@
+package com.akamai.socialnetwork.service;
+
+import com.akamai.socialnetwork.dto.CommentDTO;
+import com.akamai.socialnetwork.dto.CommentPageDTO;
+
+public interface CommentService {
+    Long addComment(Long postId, CommentDTO commentDTO);
+    CommentPageDTO fetchComments(Long postId, String cursor, int size);
+    CommentPageDTO fetchReplies(Long postId, Long commentId, String cursor, int size);
+    long countComments(Long postId);
+
+}
@@ -1,15 +1,39 @@
 package com.akamai.socialnetwork.service;
 
+import com.akamai.socialnetwork.cache.EncodedTopPosts;
+import com.akamai.socialnetwork.dto.AuthorStatsDTO;
+import com.akamai.socialnetwork.dto.BatchItemResultDTO;
 import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.dto.PostVersionDTO;
+import com.akamai.socialnetwork.dto.PostWithCommentsDTO;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface PostService {
     Long createPost(PostDTO postDTO);
     PostDTO fetchPost(Long postId);
+    PostWithCommentsDTO fetchPost(Long postId, int commentPageSize);
+    PostVersionDTO fetchPostVersion(Long postId);
     Long updatePost(Long id, PostDTO postDTO);
     Long deletePost(Long postId);
     List<PostDTO> fetchTopPosts();
+    List<PostDTO> fetchTrendingPosts(int size);
+    EncodedTopPosts fetchEncodedTopPosts();
     List<PostDTO> fetchAllPosts();
+    PostPageDTO fetchPostsPage(String cursor, int size);
+    PostPageDTO fetchPostsByAuthor(String author, String cursor, int size);
+    PostPageDTO searchPosts(String query, String cursor, int size);
+    AuthorStatsDTO fetchAuthorStats(String author);
+    boolean hasPosts();
+    void streamAllPosts(Consumer<PostDTO> consumer);
+    void checkTimelineRange(Instant from, Instant to);
+    void streamTimeline(Instant from, Instant to, Consumer<PostDTO> consumer);
+    void recordView(Long postId);
+    List<BatchItemResultDTO> createPosts(List<PostDTO> postDTOs);
+    List<BatchItemResultDTO> updatePosts(List<PostDTO> postDTOs);
+    List<BatchItemResultDTO> deletePosts(List<Long> postIds);
 
 }
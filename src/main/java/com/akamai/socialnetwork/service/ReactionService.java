@@ -0,0 +1,9 @@
+package com.akamai.socialnetwork.service;
+
+import com.akamai.socialnetwork.dto.Reaction;
+
+public interface ReactionService {
+    boolean react(Long postId, String user, Reaction reaction);
+    void unreact(Long postId, String user, Reaction reaction);
+
+}
@@ -0,0 +1,17 @@
+package com.akamai.socialnetwork.service;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactivePostService {
+    Mono<Long> createPost(PostDTO postDTO);
+    Mono<PostDTO> fetchPost(Long postId);
+    Mono<Long> updatePost(Long id, PostDTO postDTO);
+    Mono<Long> deletePost(Long postId);
+    Mono<List<PostDTO>> fetchTopPosts();
+    Mono<Boolean> hasPosts();
+    Flux<PostDTO> fetchAllPosts();
+}
@@ -0,0 +1,13 @@
+package com.akamai.socialnetwork.service;
+
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.dto.UserPageDTO;
+
+public interface UserService {
+    boolean follow(String user, String followee);
+    void unfollow(String user, String followee);
+    UserPageDTO fetchFollowers(String user, String cursor, int size);
+    UserPageDTO fetchFollowing(String user, String cursor, int size);
+    PostPageDTO fetchHomeTimeline(String user, String cursor, int size);
+
+}
@@ -0,0 +1,108 @@
+package com.akamai.socialnetwork.service.impl;
+
+import com.akamai.socialnetwork.dto.CommentDTO;
+import com.akamai.socialnetwork.dto.CommentPageDTO;
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.repository.CommentJdbcRepository;
+import com.akamai.socialnetwork.repository.PostRepository;
+import com.akamai.socialnetwork.service.CommentService;
+import com.akamai.socialnetwork.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Threads are paged by the materialized path of the last comment sent, so a page of
+ * comments and their replies at any depth is one index range read, see
+ * {@link CommentJdbcRepository}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentServiceImpl implements CommentService {
+
+    private final CommentJdbcRepository commentJdbcRepository;
+    private final PostRepository postRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentServiceImpl.class);
+
+    @Override
+    public Long addComment(Long postId, CommentDTO commentDTO) {
+        logger.info("Adding comment to post with id: {}", postId);
+        String parentPath = null;
+        if (commentDTO.getParentId() != null) {
+            parentPath = commentJdbcRepository.findPath(postId, commentDTO.getParentId())
+                    .orElseThrow(() -> new ElementNotFoundException(
+                            "Comment " + commentDTO.getParentId() + " not found on post " + postId));
+            if (CommentJdbcRepository.depthOf(parentPath) + 1 >= CommentJdbcRepository.MAX_DEPTH) {
+                throw new InvalidRequestException("Replies cannot be nested deeper than "
+                        + CommentJdbcRepository.MAX_DEPTH + " levels");
+            }
+        }
+        long id = commentJdbcRepository.nextId();
+        try {
+            commentJdbcRepository.insert(id, postId, commentDTO.getParentId(),
+                    CommentJdbcRepository.pathOf(parentPath, id), commentDTO.getAuthor(), commentDTO.getContent());
+        } catch (DataIntegrityViolationException e) {
+            throw new ElementNotFoundException("Element not found with id: " + postId);
+        }
+        logger.info("Comment created with id: {}", id);
+        return id;
+    }
+
+    @Override
+    public CommentPageDTO fetchComments(Long postId, String cursor, int size) {
+        logger.info("Fetching page of {} comments of post {} after cursor: {}", size, postId, cursor);
+        checkPageSize(size);
+        String after = cursor == null ? "" : decodeCursor(cursor);
+        List<CommentDTO> comments = commentJdbcRepository.findAfter(postId, after, size + 1);
+        if (comments.isEmpty() && cursor == null && !postRepository.existsById(postId)) {
+            throw new ElementNotFoundException("Element not found with id: " + postId);
+        }
+        return page(comments, size);
+    }
+
+    @Override
+    public CommentPageDTO fetchReplies(Long postId, Long commentId, String cursor, int size) {
+        logger.info("Fetching page of {} replies to comment {} after cursor: {}", size, commentId, cursor);
+        checkPageSize(size);
+        String root = commentJdbcRepository.findPath(postId, commentId)
+                .orElseThrow(() -> new ElementNotFoundException("Comment " + commentId + " not found on post " + postId));
+        String after = cursor == null ? root : decodeCursor(cursor);
+        return page(commentJdbcRepository.findReplies(postId, root, after, size + 1), size);
+    }
+
+    @Override
+    public long countComments(Long postId) {
+        return commentJdbcRepository.countByPost(postId);
+    }
+
+    private static CommentPageDTO page(List<CommentDTO> comments, int size) {
+        boolean hasNext = comments.size() > size;
+        List<CommentDTO> page = hasNext ? comments.subList(0, size) : comments;
+        String nextCursor = hasNext ? CursorCodec.encodeText(page.get(page.size() - 1).getPath()) : null;
+        return new CommentPageDTO(new ArrayList<>(page), nextCursor);
+    }
+
+    private static String decodeCursor(String cursor) {
+        String path = CursorCodec.decodeText(cursor);
+        // only paths can be compared with the path column the way the pages expect
+        if (path.isEmpty() || path.length() % CommentJdbcRepository.SEGMENT_LENGTH != 0
+                || CommentJdbcRepository.depthOf(path) >= CommentJdbcRepository.MAX_DEPTH
+                || !path.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+        return path;
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > PostServiceImpl.MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + PostServiceImpl.MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -1,18 +1,48 @@
 package com.akamai.socialnetwork.service.impl;
 
+import com.akamai.socialnetwork.cache.EncodedTopPosts;
+import com.akamai.socialnetwork.cache.PostCache;
+import com.akamai.socialnetwork.cache.TopPostsResponseCache;
+import com.akamai.socialnetwork.counter.ViewCountBuffer;
+import com.akamai.socialnetwork.dto.AuthorStatsDTO;
+import com.akamai.socialnetwork.dto.BatchItemResultDTO;
+import com.akamai.socialnetwork.dto.CommentPageDTO;
 import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.dto.PostVersionDTO;
+import com.akamai.socialnetwork.dto.PostWithCommentsDTO;
 import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.event.PostsContentChangedEvent;
+import com.akamai.socialnetwork.event.PostsCreatedEvent;
 import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.index.TopPostsIndex;
 import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.AuthorStatsRepository;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
 import com.akamai.socialnetwork.repository.PostRepository;
+import com.akamai.socialnetwork.search.PostSearchIndex;
+import com.akamai.socialnetwork.search.SearchHit;
+import com.akamai.socialnetwork.service.CommentService;
 import com.akamai.socialnetwork.service.PostService;
+import com.akamai.socialnetwork.trending.TrendingPostsIndex;
+import com.akamai.socialnetwork.util.CursorCodec;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,9 +51,25 @@ public class PostServiceImpl implements PostService {
 
     private final PostMapper postMapper;
     private final PostRepository postRepository;
+    private final PostJdbcRepository postJdbcRepository;
+    private final AuthorStatsRepository authorStatsRepository;
+    private final TopPostsIndex topPostsIndex;
+    private final PostCache postCache;
+    private final TopPostsResponseCache topPostsResponseCache;
+    private final PostSearchIndex postSearchIndex;
+    private final ViewCountBuffer viewCountBuffer;
+    private final TrendingPostsIndex trendingPostsIndex;
+    private final CommentService commentService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Logger logger = LoggerFactory.getLogger(PostServiceImpl.class);
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_TIMELINE_DAYS = 366;
+    static final int MAX_TRENDING_SIZE = 100;
+
     @Override
     @Transactional
     public Long createPost(PostDTO postDTO) {
@@ -31,6 +77,9 @@ public class PostServiceImpl implements PostService {
         PostEntity postEntity =
                 postMapper.toPostEntity(postDTO);
         postRepository.save(postEntity).getId();
+        adjustAuthorCounts(authorDelta(new TreeMap<>(), postEntity.getAuthor(), 1));
+        eventPublisher.publishEvent(new PostsContentChangedEvent(List.of(postEntity.getId())));
+        eventPublisher.publishEvent(new PostsCreatedEvent(List.of(postEntity)));
         logger.info("Post created with id: {}", postEntity.getId());
         return postEntity.getId();
     }
@@ -38,10 +87,32 @@ public class PostServiceImpl implements PostService {
     @Override
     public PostDTO fetchPost(Long postId) {
         logger.info("Fetching post with id: {}", postId);
-        PostEntity optionalSocialNetworkPostEntity = postRepository
-                .findById(postId).orElseThrow( () -> new ElementNotFoundException("Element not found with id: " + postId));
+        PostDTO postDTO = postCache
+                .get(postId, id -> postRepository.findById(id).map(postMapper::toPostDTO))
+                .orElseThrow( () -> new ElementNotFoundException("Element not found with id: " + postId));
         logger.info("Post found with id: {}", postId);
-        return postMapper.toPostDTO(optionalSocialNetworkPostEntity);
+        return postDTO;
+    }
+
+    @Override
+    public PostWithCommentsDTO fetchPost(Long postId, int commentPageSize) {
+        checkPageSize(commentPageSize);
+        PostDTO postDTO = fetchPost(postId);
+        // the count reads the same index as the page, a post without comments skips the page
+        long commentCount = commentService.countComments(postId);
+        CommentPageDTO comments = commentCount == 0
+                ? new CommentPageDTO(List.of(), null)
+                : commentService.fetchComments(postId, null, commentPageSize);
+        return new PostWithCommentsDTO(postDTO, commentCount, comments);
+    }
+
+    @Override
+    public PostVersionDTO fetchPostVersion(Long postId) {
+        // a cached post already knows its version, otherwise read the version column alone
+        return postCache.peek(postId)
+                .map(postDTO -> new PostVersionDTO(postDTO.getId(), postDTO.getVersion(), postDTO.getLastModified()))
+                .or(() -> postJdbcRepository.findVersion(postId))
+                .orElseThrow(() -> new ElementNotFoundException("Element not found with id: " + postId));
     }
 
     @Override
@@ -49,11 +120,16 @@ public class PostServiceImpl implements PostService {
     public Long updatePost(Long postId, PostDTO postDTO) {
         logger.info("Updating post with id: {}", postId);
         PostEntity postEntity = postRepository
-                .findById(postId).orElseThrow(() -> new ElementNotFoundException("Element not found with id: " + postId));
+                .findLockedById(postId).orElseThrow(() -> new ElementNotFoundException("Element not found with id: " + postId));
+            SortedMap<String, Long> authorDeltas = new TreeMap<>();
+            authorDelta(authorDeltas, postEntity.getAuthor(), -1);
+            authorDelta(authorDeltas, postDTO.getAuthor(), 1);
             postEntity.setAuthor(postDTO.getAuthor());
             postEntity.setContent(postDTO.getContent());
             postEntity.setViewCount(postDTO.getViewCount());
             postRepository.save(postEntity);
+            adjustAuthorCounts(authorDeltas);
+            eventPublisher.publishEvent(new PostsContentChangedEvent(List.of(postId)));
             logger.info("Post updated with id: {}", postId);
             return postId;
 
@@ -63,30 +139,67 @@ public class PostServiceImpl implements PostService {
     @Transactional
     public Long deletePost(Long postId) {
         logger.info("Deleting post with id: {}", postId);
-        if (postRepository.existsById(postId)) {
-            postRepository.deleteById(postId);
-            logger.info("Post deleted with id: {}", postId);
-            return postId;
-        } else {
-            throw new ElementNotFoundException("Element not found with id: " + postId);
-        }
+        PostEntity postEntity = postRepository
+                .findLockedById(postId).orElseThrow(() -> new ElementNotFoundException("Element not found with id: " + postId));
+        postRepository.delete(postEntity);
+        adjustAuthorCounts(authorDelta(new TreeMap<>(), postEntity.getAuthor(), -1));
+        eventPublisher.publishEvent(new PostsContentChangedEvent(List.of(postId)));
+        logger.info("Post deleted with id: {}", postId);
+        return postId;
     }
 
     @Override
     public List<PostDTO> fetchTopPosts() {
         logger.info("Fetching top posts...");
-        List<PostEntity> topPosts = postRepository.findTop10ByOrderByViewCountDesc();
+        List<PostDTO> topPosts = topPostsIndex.getTopPosts();
         if (topPosts.isEmpty()) {
             throw new ElementNotFoundException("No records were found.");
         }
         else {
             logger.info("{} top posts fetched successfully.", topPosts.size());
-            return topPosts.stream()
-                    .map(element -> postMapper.toPostDTO(element)).collect(Collectors.toList());
+            return topPosts;
         }
 
     }
 
+    @Override
+    public EncodedTopPosts fetchEncodedTopPosts() {
+        logger.info("Fetching encoded top posts...");
+        EncodedTopPosts topPosts = topPostsResponseCache.get();
+        if (topPosts.getPosts().isEmpty()) {
+            throw new ElementNotFoundException("No records were found.");
+        }
+        logger.info("{} encoded top posts fetched successfully.", topPosts.getPosts().size());
+        return topPosts;
+    }
+
+    @Override
+    public List<PostDTO> fetchTrendingPosts(int size) {
+        logger.info("Fetching {} trending posts...", size);
+        if (size < 1 || size > MAX_TRENDING_SIZE) {
+            throw new InvalidRequestException("Trending size must be between 1 and " + MAX_TRENDING_SIZE);
+        }
+        List<PostDTO> trending;
+        boolean removed;
+        do {
+            // views are recorded for any id; ids of deleted and unknown posts leave the index
+            // once seen here and the ranking is read again, the posts found are cached
+            trending = new ArrayList<>(size);
+            removed = false;
+            for (Long postId : trendingPostsIndex.getTrending(size)) {
+                Optional<PostDTO> post = postCache.get(postId, id -> postRepository.findById(id).map(postMapper::toPostDTO));
+                if (post.isPresent()) {
+                    trending.add(post.get());
+                } else {
+                    trendingPostsIndex.remove(postId);
+                    removed = true;
+                }
+            }
+        } while (removed);
+        logger.info("{} trending posts fetched successfully.", trending.size());
+        return trending;
+    }
+
     @Override
     public List<PostDTO> fetchAllPosts() {
         logger.info("Fetching all posts...");
@@ -101,6 +214,282 @@ public class PostServiceImpl implements PostService {
         }
     }
 
+    @Override
+    public PostPageDTO fetchPostsPage(String cursor, int size) {
+        logger.info("Fetching page of {} posts after cursor: {}", size, cursor);
+        checkPageSize(size);
+        long afterId = cursor == null ? Long.MIN_VALUE : CursorCodec.decode(cursor, 1)[0];
+        // one extra row tells us whether another page follows without a count query
+        List<PostEntity> posts = postRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size + 1));
+        boolean hasNext = posts.size() > size;
+        List<PostDTO> page = posts.stream().limit(size)
+                .map(element -> postMapper.toPostDTO(element)).collect(Collectors.toList());
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+        logger.info("{} posts fetched successfully.", page.size());
+        return new PostPageDTO(page, nextCursor);
+    }
+
+    @Override
+    public PostPageDTO fetchPostsByAuthor(String author, String cursor, int size) {
+        logger.info("Fetching page of {} posts by author {} after cursor: {}", size, author, cursor);
+        checkPageSize(size);
+        List<PostEntity> posts;
+        if (cursor == null) {
+            posts = postRepository.findByAuthorOrderByDateDescIdAsc(author, PageRequest.of(0, size + 1));
+        } else {
+            long[] position = CursorCodec.decode(cursor, 2);
+            // microseconds, the precision of the date column, so ties within a millisecond page correctly
+            Instant date = Instant.EPOCH.plus(position[0], ChronoUnit.MICROS);
+            posts = postRepository.findByAuthorAfter(author, date, position[1], PageRequest.of(0, size + 1));
+        }
+        boolean hasNext = posts.size() > size;
+        List<PostDTO> page = posts.stream().limit(size)
+                .map(element -> postMapper.toPostDTO(element)).collect(Collectors.toList());
+        PostDTO last = hasNext ? page.get(page.size() - 1) : null;
+        String nextCursor = last != null ? CursorCodec.encode(ChronoUnit.MICROS.between(Instant.EPOCH, last.getDate()), last.getId()) : null;
+        logger.info("{} posts by author {} fetched successfully.", page.size(), author);
+        return new PostPageDTO(page, nextCursor);
+    }
+
+    @Override
+    public PostPageDTO searchPosts(String query, String cursor, int size) {
+        logger.info("Searching page of {} posts for '{}' after cursor: {}", size, query, cursor);
+        checkPageSize(size);
+        double afterScore = Double.POSITIVE_INFINITY;
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null) {
+            long[] position = CursorCodec.decode(cursor, 2);
+            afterScore = Double.longBitsToDouble(position[0]);
+            afterId = position[1];
+        }
+        List<SearchHit> hits = postSearchIndex.search(query, afterScore, afterId, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<SearchHit> pageHits = hits.subList(0, Math.min(size, hits.size()));
+        Map<Long, PostEntity> rows = new HashMap<>();
+        for (PostEntity row : postRepository.findAllById(
+                pageHits.stream().map(SearchHit::getPostId).collect(Collectors.toList()))) {
+            rows.put(row.getId(), row);
+        }
+        // keep the ranking; a post deleted since it was indexed is left out
+        List<PostDTO> page = pageHits.stream()
+                .map(hit -> rows.get(hit.getPostId()))
+                .filter(Objects::nonNull)
+                .map(element -> postMapper.toPostDTO(element)).collect(Collectors.toList());
+        SearchHit last = hasNext ? pageHits.get(pageHits.size() - 1) : null;
+        String nextCursor = last != null
+                ? CursorCodec.encode(Double.doubleToLongBits(last.getScore()), last.getPostId()) : null;
+        logger.info("{} posts found for '{}'.", page.size(), query);
+        return new PostPageDTO(page, nextCursor);
+    }
+
+    @Override
+    public AuthorStatsDTO fetchAuthorStats(String author) {
+        return new AuthorStatsDTO(author, authorStatsRepository.findPostCount(author));
+    }
+
+    @Override
+    public boolean hasPosts() {
+        return postRepository.findFirstByOrderByIdAsc().isPresent();
+    }
+
+    @Override
+    public void streamAllPosts(Consumer<PostDTO> consumer) {
+        logger.info("Streaming all posts...");
+        // not transactional, the cursor holds a connection of the streaming pool and no other
+        postJdbcRepository.streamAll(element -> consumer.accept(postMapper.toPostDTO(element)));
+        logger.info("All posts were streamed successfully...");
+    }
+
+    @Override
+    public void checkTimelineRange(Instant from, Instant to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidRequestException("Timeline range must have from before to");
+        }
+        if (Duration.between(from, to).compareTo(Duration.ofDays(MAX_TIMELINE_DAYS)) > 0) {
+            throw new InvalidRequestException("Timeline range must not exceed " + MAX_TIMELINE_DAYS + " days");
+        }
+    }
 
+    @Override
+    public void streamTimeline(Instant from, Instant to, Consumer<PostDTO> consumer) {
+        logger.info("Streaming posts from {} to {}...", from, to);
+        checkTimelineRange(from, to);
+        Timestamp fromTimestamp = Timestamp.from(from);
+        Timestamp toTimestamp = Timestamp.from(to);
+        int firstBucket = PostJdbcRepository.dayBucketOf(from);
+        int lastBucket = PostJdbcRepository.dayBucketOf(to.minusNanos(1));
+        // not transactional like streamAllPosts, every bucket is read on its own streaming connection;
+        // newest bucket first, so the concatenated buckets stay in reverse-chronological order
+        for (int dayBucket = lastBucket; dayBucket >= firstBucket; dayBucket--) {
+            postJdbcRepository.streamDayBucket(dayBucket, fromTimestamp, toTimestamp,
+                    element -> consumer.accept(postMapper.toPostDTO(element)));
+        }
+        logger.info("Posts from {} to {} were streamed successfully...", from, to);
+    }
+
+    @Override
+    public void recordView(Long postId) {
+        // no logging here, this is called once per view
+        viewCountBuffer.increment(postId);
+        trendingPostsIndex.record(postId);
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResultDTO> createPosts(List<PostDTO> postDTOs) {
+        logger.info("Creating {} posts...", postDTOs.size());
+        checkBatchSize(postDTOs.size());
+        List<BatchItemResultDTO> results = new ArrayList<>(postDTOs.size());
+        List<PostEntity> postEntities = new ArrayList<>(postDTOs.size());
+        List<BatchItemResultDTO> created = new ArrayList<>(postDTOs.size());
+        for (int i = 0; i < postDTOs.size(); i++) {
+            String error = validate(postDTOs.get(i));
+            BatchItemResultDTO result = error == null
+                    ? BatchItemResultDTO.success(i, null) : BatchItemResultDTO.failure(i, error);
+            if (error == null) {
+                PostEntity postEntity = postMapper.toPostEntity(postDTOs.get(i));
+                postEntity.setId(null);
+                postEntities.add(postEntity);
+                created.add(result);
+            }
+            results.add(result);
+        }
+        // ids come from the pooled sequence, so the inserts go out as JDBC batches on flush
+        postRepository.saveAll(postEntities);
+        postRepository.flush();
+        SortedMap<String, Long> authorDeltas = new TreeMap<>();
+        postEntities.forEach(postEntity -> authorDelta(authorDeltas, postEntity.getAuthor(), 1));
+        adjustAuthorCounts(authorDeltas);
+        List<Long> postIds = new ArrayList<>(postEntities.size());
+        for (int i = 0; i < postEntities.size(); i++) {
+            Long postId = postEntities.get(i).getId();
+            created.get(i).setId(postId);
+            postIds.add(postId);
+        }
+        eventPublisher.publishEvent(new PostsContentChangedEvent(postIds));
+        eventPublisher.publishEvent(new PostsCreatedEvent(postEntities));
+        logger.info("{} of {} posts created.", postIds.size(), postDTOs.size());
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResultDTO> updatePosts(List<PostDTO> postDTOs) {
+        logger.info("Updating {} posts...", postDTOs.size());
+        checkBatchSize(postDTOs.size());
+        Set<Long> requestedIds = new HashSet<>();
+        for (PostDTO postDTO : postDTOs) {
+            if (postDTO != null && postDTO.getId() != null) {
+                requestedIds.add(postDTO.getId());
+            }
+        }
+        Map<Long, PostEntity> postEntities = new HashMap<>();
+        for (PostEntity postEntity : postRepository.findLockedByIdIn(requestedIds)) {
+            postEntities.put(postEntity.getId(), postEntity);
+        }
+
+        List<BatchItemResultDTO> results = new ArrayList<>(postDTOs.size());
+        Set<Long> updatedIds = new LinkedHashSet<>();
+        SortedMap<String, Long> authorDeltas = new TreeMap<>();
+        for (int i = 0; i < postDTOs.size(); i++) {
+            PostDTO postDTO = postDTOs.get(i);
+            String error = validate(postDTO);
+            if (error == null && postDTO.getId() == null) {
+                error = "id: must not be null";
+            }
+            PostEntity postEntity = error == null ? postEntities.get(postDTO.getId()) : null;
+            if (error == null && postEntity == null) {
+                error = "Element not found with id: " + postDTO.getId();
+            }
+            if (error != null) {
+                results.add(BatchItemResultDTO.failure(i, error));
+                continue;
+            }
+            authorDelta(authorDeltas, postEntity.getAuthor(), -1);
+            authorDelta(authorDeltas, postDTO.getAuthor(), 1);
+            postEntity.setAuthor(postDTO.getAuthor());
+            postEntity.setContent(postDTO.getContent());
+            postEntity.setViewCount(postDTO.getViewCount());
+            updatedIds.add(postDTO.getId());
+            results.add(BatchItemResultDTO.success(i, postDTO.getId()));
+        }
+        // managed entities are written by dirty checking as batched updates
+        postRepository.flush();
+        adjustAuthorCounts(authorDeltas);
+        eventPublisher.publishEvent(new PostsContentChangedEvent(updatedIds));
+        logger.info("{} of {} posts updated.", updatedIds.size(), postDTOs.size());
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResultDTO> deletePosts(List<Long> postIds) {
+        logger.info("Deleting {} posts...", postIds.size());
+        checkBatchSize(postIds.size());
+        Set<Long> existingIds = new HashSet<>();
+        SortedMap<String, Long> authorDeltas = new TreeMap<>();
+        for (PostEntity postEntity : postRepository.findAllById(
+                postIds.stream().filter(Objects::nonNull).collect(Collectors.toSet()))) {
+            existingIds.add(postEntity.getId());
+            authorDelta(authorDeltas, postEntity.getAuthor(), -1);
+        }
+
+        List<BatchItemResultDTO> results = new ArrayList<>(postIds.size());
+        for (int i = 0; i < postIds.size(); i++) {
+            Long postId = postIds.get(i);
+            if (postId == null) {
+                results.add(BatchItemResultDTO.failure(i, "id: must not be null"));
+            } else if (existingIds.contains(postId)) {
+                results.add(BatchItemResultDTO.success(i, postId));
+            } else {
+                results.add(BatchItemResultDTO.failure(i, "Element not found with id: " + postId));
+            }
+        }
+        // a single DELETE ... WHERE id IN (...) instead of one statement per post
+        postRepository.deleteAllByIdInBatch(existingIds);
+        adjustAuthorCounts(authorDeltas);
+        eventPublisher.publishEvent(new PostsContentChangedEvent(existingIds));
+        logger.info("{} of {} posts deleted.", existingIds.size(), postIds.size());
+        return results;
+    }
+
+    private void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static SortedMap<String, Long> authorDelta(SortedMap<String, Long> deltas, String author, long delta) {
+        if (author != null) {
+            deltas.merge(author, delta, Long::sum);
+        }
+        return deltas;
+    }
+
+    private void adjustAuthorCounts(SortedMap<String, Long> deltas) {
+        if (!deltas.isEmpty()) {
+            authorStatsRepository.adjustPostCounts(deltas);
+        }
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
+    }
+
+    private String validate(PostDTO postDTO) {
+        if (postDTO == null) {
+            return "post: must not be null";
+        }
+        Set<ConstraintViolation<PostDTO>> violations = validator.validate(postDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
 
 }
@@ -0,0 +1,53 @@
+package com.akamai.socialnetwork.service.impl;
+
+import com.akamai.socialnetwork.counter.ReactionCountBuffer;
+import com.akamai.socialnetwork.dto.Reaction;
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.repository.ReactionJdbcRepository;
+import com.akamai.socialnetwork.service.ReactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * The reaction rows decide whether a reaction is new, so liking twice counts once; the
+ * count in the post row follows through {@link ReactionCountBuffer}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactionServiceImpl implements ReactionService {
+
+    private final ReactionJdbcRepository reactionJdbcRepository;
+    private final ReactionCountBuffer reactionCountBuffer;
+
+    @Override
+    public boolean react(Long postId, String user, Reaction reaction) {
+        // no logging here, this is called once per reaction
+        checkUser(user);
+        boolean created;
+        try {
+            created = reactionJdbcRepository.insert(postId, user, reaction);
+        } catch (DataIntegrityViolationException e) {
+            throw new ElementNotFoundException("Element not found with id: " + postId);
+        }
+        if (created) {
+            reactionCountBuffer.add(postId, reaction, 1);
+        }
+        return created;
+    }
+
+    @Override
+    public void unreact(Long postId, String user, Reaction reaction) {
+        if (!reactionJdbcRepository.delete(postId, user, reaction)) {
+            throw new ElementNotFoundException(user + " has no " + reaction + " reaction on post " + postId);
+        }
+        reactionCountBuffer.add(postId, reaction, -1);
+    }
+
+    private static void checkUser(String user) {
+        if (user == null || user.isBlank() || user.length() > UserServiceImpl.MAX_USER_LENGTH) {
+            throw new InvalidRequestException("User name must be between 1 and " + UserServiceImpl.MAX_USER_LENGTH + " characters");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.akamai.socialnetwork.service.impl;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.event.PostsContentChangedEvent;
+import com.akamai.socialnetwork.event.PostsCreatedEvent;
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.index.TopPostsIndex;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.PostR2dbcRepository;
+import com.akamai.socialnetwork.service.ReactivePostService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactivePostServiceImpl implements ReactivePostService {
+
+    private final PostR2dbcRepository postR2dbcRepository;
+    private final PostMapper postMapper;
+    private final TopPostsIndex topPostsIndex;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePostServiceImpl.class);
+
+    @Override
+    public Mono<Long> createPost(PostDTO postDTO) {
+        return postR2dbcRepository.insert(postDTO)
+                .flatMap(postId -> postR2dbcRepository.adjustPostCount(postDTO.getAuthor(), 1).thenReturn(postId))
+                .as(transactionalOperator::transactional)
+                .transform(this::publishChanged)
+                .doOnNext(postId -> eventPublisher.publishEvent(new PostsCreatedEvent(List.of(toPostEntity(postId, postDTO)))))
+                .doOnNext(postId -> logger.info("Post created with id: {}", postId));
+    }
+
+    @Override
+    public Mono<PostDTO> fetchPost(Long postId) {
+        return postR2dbcRepository.findById(postId)
+                .switchIfEmpty(Mono.error(() -> new ElementNotFoundException("Element not found with id: " + postId)));
+    }
+
+    @Override
+    public Mono<Long> updatePost(Long postId, PostDTO postDTO) {
+        return postR2dbcRepository.findLockedAuthor(postId)
+                .switchIfEmpty(Mono.error(() -> new ElementNotFoundException("Element not found with id: " + postId)))
+                .flatMap(previousAuthor -> postR2dbcRepository.update(postId, postDTO)
+                        .then(Objects.equals(previousAuthor.orElse(null), postDTO.getAuthor())
+                                ? Mono.<Void>empty()
+                                : postR2dbcRepository.adjustPostCount(previousAuthor.orElse(null), -1)
+                                        .then(postR2dbcRepository.adjustPostCount(postDTO.getAuthor(), 1)))
+                        .thenReturn(postId))
+                .as(transactionalOperator::transactional)
+                .transform(this::publishChanged)
+                .doOnNext(id -> logger.info("Post updated with id: {}", id));
+    }
+
+    @Override
+    public Mono<Long> deletePost(Long postId) {
+        return postR2dbcRepository.findLockedAuthor(postId)
+                .switchIfEmpty(Mono.error(() -> new ElementNotFoundException("Element not found with id: " + postId)))
+                .flatMap(author -> postR2dbcRepository.delete(postId)
+                        .then(postR2dbcRepository.adjustPostCount(author.orElse(null), -1))
+                        .thenReturn(postId))
+                .as(transactionalOperator::transactional)
+                .transform(this::publishChanged)
+                .doOnNext(id -> logger.info("Post deleted with id: {}", id));
+    }
+
+    @Override
+    public Mono<List<PostDTO>> fetchTopPosts() {
+        return Mono.fromSupplier(topPostsIndex::getTopPosts)
+                .filter(topPosts -> !topPosts.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new ElementNotFoundException("No records were found.")));
+    }
+
+    @Override
+    public Mono<Boolean> hasPosts() {
+        return postR2dbcRepository.existsAny();
+    }
+
+    @Override
+    public Flux<PostDTO> fetchAllPosts() {
+        return postR2dbcRepository.findAll();
+    }
+
+    /**
+     * The created post as the blocking service hands it to {@link PostsCreatedEvent}
+     * listeners, without reading it back.
+     */
+    private PostEntity toPostEntity(Long postId, PostDTO postDTO) {
+        PostEntity postEntity = postMapper.toPostEntity(postDTO);
+        postEntity.setId(postId);
+        return postEntity;
+    }
+
+    /**
+     * Listeners refresh the in-memory indexes with blocking JDBC reads, so the event is
+     * published off the event loop once the transaction has committed; a created event
+     * published next in the chain is too.
+     */
+    private Mono<Long> publishChanged(Mono<Long> committed) {
+        return committed
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(postId -> eventPublisher.publishEvent(new PostsContentChangedEvent(List.of(postId))));
+    }
+}
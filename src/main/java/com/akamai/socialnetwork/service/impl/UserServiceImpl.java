@@ -0,0 +1,155 @@
+package com.akamai.socialnetwork.service.impl;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.dto.UserPageDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.graph.FollowGraph;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.FollowJdbcRepository;
+import com.akamai.socialnetwork.repository.PostRepository;
+import com.akamai.socialnetwork.service.UserService;
+import com.akamai.socialnetwork.timeline.HomeTimelineIndex;
+import com.akamai.socialnetwork.timeline.TimelineEntry;
+import com.akamai.socialnetwork.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Users are the authors of posts, identified by the same name.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserServiceImpl implements UserService {
+
+    private final FollowGraph followGraph;
+    private final FollowJdbcRepository followJdbcRepository;
+    private final HomeTimelineIndex homeTimelineIndex;
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
+
+    /** Same bound as the author column. */
+    static final int MAX_USER_LENGTH = 50;
+
+    private static final int FOLLOW_LOCK_STRIPES = 256;
+
+    // serializes the database write and the graph update of one (follower, followee) pair,
+    // so a follow and an unfollow racing cannot leave the graph disagreeing with the table
+    private final Object[] followLocks = newLocks(FOLLOW_LOCK_STRIPES);
+
+    @Override
+    public boolean follow(String user, String followee) {
+        logger.info("User {} follows {}", user, followee);
+        checkUser(user);
+        checkUser(followee);
+        if (user.equals(followee)) {
+            throw new InvalidRequestException("A user cannot follow themselves");
+        }
+        synchronized (followLock(user, followee)) {
+            boolean created = followJdbcRepository.insert(user, followee);
+            followGraph.add(user, followee);
+            homeTimelineIndex.followChanged(user, followee);
+            return created;
+        }
+    }
+
+    @Override
+    public void unfollow(String user, String followee) {
+        logger.info("User {} unfollows {}", user, followee);
+        synchronized (followLock(user, followee)) {
+            if (!followJdbcRepository.delete(user, followee)) {
+                throw new ElementNotFoundException(user + " does not follow " + followee);
+            }
+            followGraph.remove(user, followee);
+            homeTimelineIndex.followChanged(user, followee);
+        }
+    }
+
+    @Override
+    public UserPageDTO fetchFollowers(String user, String cursor, int size) {
+        checkPageSize(size);
+        String after = cursor == null ? null : CursorCodec.decodeText(cursor);
+        return page(followGraph.getFollowers(user, after, size + 1), size);
+    }
+
+    @Override
+    public UserPageDTO fetchFollowing(String user, String cursor, int size) {
+        checkPageSize(size);
+        String after = cursor == null ? null : CursorCodec.decodeText(cursor);
+        return page(followGraph.getFollowing(user, after, size + 1), size);
+    }
+
+    @Override
+    public PostPageDTO fetchHomeTimeline(String user, String cursor, int size) {
+        logger.info("Fetching home timeline page of {} posts for {} after cursor: {}", size, user, cursor);
+        checkPageSize(size);
+        long beforeDate = Long.MAX_VALUE;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null) {
+            long[] position = CursorCodec.decode(cursor, 2);
+            beforeDate = position[0];
+            beforeId = position[1];
+        }
+        List<TimelineEntry> entries = homeTimelineIndex.read(user, beforeDate, beforeId, size + 1);
+        boolean hasNext = entries.size() > size;
+        List<TimelineEntry> pageEntries = entries.subList(0, Math.min(size, entries.size()));
+        Map<Long, PostEntity> rows = new HashMap<>();
+        for (PostEntity row : postRepository.findAllById(
+                pageEntries.stream().map(TimelineEntry::getPostId).collect(Collectors.toList()))) {
+            rows.put(row.getId(), row);
+        }
+        // keep the timeline order; a post deleted or moved to an author no longer followed is left out
+        List<PostDTO> page = pageEntries.stream()
+                .map(entry -> rows.get(entry.getPostId()))
+                .filter(row -> row != null && isInTimeline(user, row.getAuthor()))
+                .map(element -> postMapper.toPostDTO(element)).collect(Collectors.toList());
+        TimelineEntry last = hasNext ? pageEntries.get(pageEntries.size() - 1) : null;
+        String nextCursor = last != null ? CursorCodec.encode(last.getDate(), last.getPostId()) : null;
+        logger.info("{} home timeline posts fetched for {}.", page.size(), user);
+        return new PostPageDTO(page, nextCursor);
+    }
+
+    private Object followLock(String user, String followee) {
+        return followLocks[Math.floorMod(31 * user.hashCode() + followee.hashCode(), followLocks.length)];
+    }
+
+    private static Object[] newLocks(int count) {
+        Object[] locks = new Object[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private boolean isInTimeline(String user, String author) {
+        return user.equals(author) || (author != null && followGraph.contains(user, author));
+    }
+
+    private static UserPageDTO page(List<String> users, int size) {
+        boolean hasNext = users.size() > size;
+        List<String> page = hasNext ? users.subList(0, size) : users;
+        String nextCursor = hasNext ? CursorCodec.encodeText(page.get(page.size() - 1)) : null;
+        return new UserPageDTO(new ArrayList<>(page), nextCursor);
+    }
+
+    private static void checkUser(String user) {
+        if (user == null || user.isBlank() || user.length() > MAX_USER_LENGTH) {
+            throw new InvalidRequestException("User name must be between 1 and " + MAX_USER_LENGTH + " characters");
+        }
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > PostServiceImpl.MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + PostServiceImpl.MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.akamai.socialnetwork.timeline;
+
+import com.akamai.socialnetwork.dto.TimelineStatsDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.event.PostsCreatedEvent;
+import com.akamai.socialnetwork.graph.FollowGraph;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Home timelines: the newest posts of the users someone follows, and their own.
+ * <p>
+ * A new post is fanned out on write: after commit its position is pushed into the
+ * buffer of every follower of its author, so reading a timeline is a range of one
+ * buffer. Authors with more followers than {@code posts.timeline.fan-out-threshold}
+ * are not fanned out, one post would cost that many writes; their posts are fanned
+ * in on read with a query over the author index, and merged with the buffer.
+ * <p>
+ * Buffers are only kept for users who read their timeline, up to
+ * {@code posts.timeline.max-buffers}; past that the buffer read least recently is
+ * evicted. A buffer is filled from the database on the first read and dropped when the
+ * user follows or unfollows someone, to be filled again on the next read. Pages beyond
+ * what a buffer holds are read from the database.
+ */
+@Component
+public class HomeTimelineIndex {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final FollowGraph followGraph;
+    private final PostJdbcRepository postJdbcRepository;
+    private final int capacity;
+    private final int fanOutThreshold;
+
+    private final ConcurrentMap<String, TimelineBuffer> buffers = new ConcurrentHashMap<>();
+    // recency of the same buffers, for eviction; fan-out only needs the lock-free map
+    private final Segment[] segments;
+    private final LongAdder fannedOutPosts = new LongAdder();
+    private final LongAdder fanOutWrites = new LongAdder();
+    private final LongAdder skippedPosts = new LongAdder();
+    private final LongAdder bufferReads = new LongAdder();
+    private final LongAdder databaseReads = new LongAdder();
+    private final LongAdder evictedBuffers = new LongAdder();
+
+    @Autowired
+    public HomeTimelineIndex(FollowGraph followGraph,
+                             PostJdbcRepository postJdbcRepository,
+                             @Value("${posts.timeline.capacity:800}") int capacity,
+                             @Value("${posts.timeline.fan-out-threshold:10000}") int fanOutThreshold,
+                             @Value("${posts.timeline.max-buffers:10000}") int maxBuffers) {
+        this(followGraph, postJdbcRepository, capacity, fanOutThreshold, maxBuffers, Math.min(DEFAULT_SEGMENTS, maxBuffers));
+    }
+
+    HomeTimelineIndex(FollowGraph followGraph, PostJdbcRepository postJdbcRepository,
+                      int capacity, int fanOutThreshold, int maxBuffers, int segmentCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("posts.timeline.capacity must be positive: " + capacity);
+        }
+        if (fanOutThreshold < 0) {
+            throw new IllegalArgumentException("posts.timeline.fan-out-threshold must not be negative: " + fanOutThreshold);
+        }
+        if (maxBuffers <= 0) {
+            throw new IllegalArgumentException("posts.timeline.max-buffers must be positive: " + maxBuffers);
+        }
+        this.followGraph = followGraph;
+        this.postJdbcRepository = postJdbcRepository;
+        this.capacity = capacity;
+        this.fanOutThreshold = fanOutThreshold;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // the remainder spread over the first segments, so together they hold the maximum
+            segments[i] = new Segment(maxBuffers / segmentCount + (i < maxBuffers % segmentCount ? 1 : 0));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsCreated(PostsCreatedEvent event) {
+        for (PostEntity post : event.getPosts()) {
+            if (post.getAuthor() != null && post.getDate() != null) {
+                fanOut(post.getAuthor(), new TimelineEntry(TimelineEntry.toMicros(post.getDate()), post.getId()));
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries of the user's home timeline strictly after
+     * {@code (beforeDate, beforeId)}, newest first. A {@code beforeDate} of
+     * {@link Long#MAX_VALUE} starts from the newest post. The entries may include posts
+     * deleted or moved to another author since they were written.
+     */
+    public List<TimelineEntry> read(String user, long beforeDate, long beforeId, int limit) {
+        List<String> pushed = new ArrayList<>();
+        List<String> pulled = new ArrayList<>();
+        List<String> authors = new ArrayList<>(followGraph.getFollowing(user, null, Integer.MAX_VALUE));
+        authors.add(user);
+        for (String author : authors) {
+            (isFannedOut(author) ? pushed : pulled).add(author);
+        }
+
+        List<TimelineEntry> entries = null;
+        TimelineBuffer buffer = buffer(user, pushed);
+        if (buffer != null) {
+            entries = buffer.before(beforeDate, beforeId, limit);
+            if (entries.size() < limit && buffer.isTruncated()) {
+                // the page runs past the oldest entry held
+                entries = null;
+            } else {
+                bufferReads.increment();
+            }
+        }
+        if (entries == null) {
+            entries = postJdbcRepository.findRecentByAuthors(pushed, beforeDate, beforeId, limit);
+            databaseReads.increment();
+        }
+        if (!pulled.isEmpty()) {
+            entries = merge(entries, postJdbcRepository.findRecentByAuthors(pulled, beforeDate, beforeId, limit), limit);
+        }
+        return entries;
+    }
+
+    /**
+     * Applies a follow or unfollow of {@code followee} by {@code follower}.
+     */
+    public void followChanged(String follower, String followee) {
+        drop(follower);
+        if (followGraph.getFollowerCount(followee) == fanOutThreshold) {
+            // the followee is fanned out again, but none of its posts written meanwhile were
+            for (String other : followGraph.getFollowers(followee, null, Integer.MAX_VALUE)) {
+                drop(other);
+            }
+        }
+    }
+
+    public TimelineStatsDTO getStats() {
+        return new TimelineStatsDTO(followGraph.getUserCount(), followGraph.getEdgeCount(), buffers.size(),
+                fannedOutPosts.sum(), fanOutWrites.sum(), skippedPosts.sum(), bufferReads.sum(), databaseReads.sum(),
+                evictedBuffers.sum());
+    }
+
+    private void fanOut(String author, TimelineEntry entry) {
+        if (!isFannedOut(author)) {
+            skippedPosts.increment();
+            return;
+        }
+        int writes = push(author, entry);
+        for (String follower : followGraph.getFollowers(author, null, Integer.MAX_VALUE)) {
+            writes += push(follower, entry);
+        }
+        fannedOutPosts.increment();
+        fanOutWrites.add(writes);
+    }
+
+    private int push(String user, TimelineEntry entry) {
+        // a user without a buffer gets the post when the buffer is filled on the next read
+        TimelineBuffer buffer = buffers.get(user);
+        return buffer != null && buffer.add(entry.getDate(), entry.getPostId()) ? 1 : 0;
+    }
+
+    private boolean isFannedOut(String author) {
+        return followGraph.getFollowerCount(author) <= fanOutThreshold;
+    }
+
+    /**
+     * Returns the user's warm buffer, registering and filling it on first use, or
+     * {@code null} when the timeline has to be read from the database.
+     */
+    private TimelineBuffer buffer(String user, List<String> pushed) {
+        TimelineBuffer buffer = buffers.get(user);
+        if (buffer != null) {
+            if (!buffer.isWarm()) {
+                return null;
+            }
+            segmentFor(user).touch(user);
+            return buffer;
+        }
+        TimelineBuffer created = new TimelineBuffer(capacity);
+        if (buffers.putIfAbsent(user, created) != null) {
+            // another reader is filling it
+            return null;
+        }
+        segmentFor(user).register(user, created);
+        // registered before the query, so a post committed after it is pushed by fan-out instead
+        try {
+            List<TimelineEntry> entries = postJdbcRepository.findRecentByAuthors(pushed, Long.MAX_VALUE, Long.MAX_VALUE, capacity);
+            for (TimelineEntry entry : entries) {
+                created.add(entry.getDate(), entry.getPostId());
+            }
+            if (entries.size() == capacity) {
+                created.markTruncated();
+            }
+        } catch (RuntimeException e) {
+            if (buffers.remove(user, created)) {
+                segmentFor(user).unregister(user, created);
+            }
+            throw e;
+        }
+        databaseReads.increment();
+        created.markWarm();
+        return created;
+    }
+
+    private void drop(String user) {
+        TimelineBuffer removed = buffers.remove(user);
+        if (removed != null) {
+            segmentFor(user).unregister(user, removed);
+        }
+    }
+
+    private Segment segmentFor(String user) {
+        int hash = user.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    private static List<TimelineEntry> merge(List<TimelineEntry> first, List<TimelineEntry> second, int limit) {
+        List<TimelineEntry> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            TimelineEntry next;
+            if (j >= second.size() || (i < first.size() && TimelineEntry.ORDER.compare(first.get(i), second.get(j)) <= 0)) {
+                next = first.get(i++);
+            } else {
+                next = second.get(j++);
+            }
+            // an author that crossed the threshold can be in both
+            if (merged.isEmpty() || merged.get(merged.size() - 1).getPostId() != next.getPostId()) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, TimelineBuffer> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TimelineBuffer> eldest) {
+                    if (size() > capacity) {
+                        buffers.remove(eldest.getKey(), eldest.getValue());
+                        evictedBuffers.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private void touch(String user) {
+            lock.lock();
+            try {
+                entries.get(user);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void register(String user, TimelineBuffer buffer) {
+            lock.lock();
+            try {
+                // unless it was dropped since it was put into the map
+                if (buffers.get(user) == buffer) {
+                    entries.put(user, buffer);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void unregister(String user, TimelineBuffer buffer) {
+            lock.lock();
+            try {
+                entries.remove(user, buffer);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.akamai.socialnetwork.timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The newest entries of one home timeline, bounded to a fixed capacity.
+ * <p>
+ * Entries are kept oldest first in two parallel ring arrays of dates and post ids, so a
+ * buffer of N entries is 16 * N bytes and one object. Posts usually arrive newest, which
+ * appends at the tail without moving anything; an older arrival is shifted into place.
+ * When the buffer is full the oldest entry is dropped and the buffer is marked
+ * truncated, from then on only the database knows what comes after its oldest entry.
+ */
+final class TimelineBuffer {
+
+    private final long[] dates;
+    private final long[] postIds;
+    private int head;
+    private int size;
+    private boolean truncated;
+    // set once the buffer holds everything written before it was registered
+    private volatile boolean warm;
+
+    TimelineBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        dates = new long[capacity];
+        postIds = new long[capacity];
+    }
+
+    /**
+     * @return false if the entry was already present or is older than every entry of a
+     * full buffer
+     */
+    synchronized boolean add(long date, long postId) {
+        int position = search(date, postId);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (size == dates.length) {
+            truncated = true;
+            if (position == 0) {
+                return false;
+            }
+            head = slot(1);
+            size--;
+            position--;
+        }
+        for (int i = size; i > position; i--) {
+            int to = slot(i);
+            int from = slot(i - 1);
+            dates[to] = dates[from];
+            postIds[to] = postIds[from];
+        }
+        dates[slot(position)] = date;
+        postIds[slot(position)] = postId;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns up to {@code limit} entries strictly older than {@code (date, postId)},
+     * newest first.
+     */
+    synchronized List<TimelineEntry> before(long date, long postId, int limit) {
+        int position = search(date, postId);
+        int end = position >= 0 ? position : -position - 1;
+        List<TimelineEntry> entries = new ArrayList<>(Math.min(limit, end));
+        for (int i = end - 1; i >= 0 && entries.size() < limit; i--) {
+            int slot = slot(i);
+            entries.add(new TimelineEntry(dates[slot], postIds[slot]));
+        }
+        return entries;
+    }
+
+    synchronized void markTruncated() {
+        truncated = true;
+    }
+
+    /**
+     * True when entries older than the oldest one held may exist.
+     */
+    synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    void markWarm() {
+        warm = true;
+    }
+
+    boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Same contract as {@link java.util.Arrays#binarySearch(long[], long)}, over the
+     * entries in ascending (date, post id) order.
+     */
+    private int search(long date, long postId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int slot = slot(middle);
+            int comparison = dates[slot] != date ? Long.compare(dates[slot], date) : Long.compare(postIds[slot], postId);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int slot(int index) {
+        int slot = head + index;
+        return slot < dates.length ? slot : slot - dates.length;
+    }
+}
@@ -0,0 +1,38 @@
+package com.akamai.socialnetwork.timeline;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+
+/**
+ * Position of a post in a home timeline. Timelines are ordered newest first by date,
+ * in microseconds as stored, then by id.
+ */
+@Getter
+@RequiredArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class TimelineEntry {
+
+    /** Timeline order: date descending, then post id descending. */
+    public static final Comparator<TimelineEntry> ORDER = Comparator
+            .comparingLong(TimelineEntry::getDate)
+            .thenComparingLong(TimelineEntry::getPostId)
+            .reversed();
+
+    private final long date;
+    private final long postId;
+
+    public static long toMicros(Instant date) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, date);
+    }
+
+    public static Instant toInstant(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,76 @@
+package com.akamai.socialnetwork.trending;
+
+/**
+ * Count-Min sketch of weights by post id, in a fixed number of cells whatever the
+ * number of posts.
+ * <p>
+ * Every key maps to one cell per row and its estimate is the smallest of those cells,
+ * which never underestimates. Updates are conservative: only the cells below the new
+ * estimate are raised, which keeps collisions from inflating each other. Not thread
+ * safe, callers hold the lock of their segment.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final double[] cells;
+    private final long[] seeds;
+
+    CountMinSketch(int width, int depth) {
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two: " + width);
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be positive: " + depth);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.cells = new double[depth * width];
+        this.seeds = new long[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = mix(0x9E3779B97F4A7C15L * (row + 1));
+        }
+    }
+
+    /**
+     * Adds {@code weight} to the key and returns its new estimate.
+     */
+    double add(long key, double weight) {
+        double updated = estimate(key) + weight;
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(row, key);
+            if (cells[cell] < updated) {
+                cells[cell] = updated;
+            }
+        }
+        return updated;
+    }
+
+    double estimate(long key) {
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, cells[cell(row, key)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Multiplies every weight by {@code factor}.
+     */
+    void scale(double factor) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] *= factor;
+        }
+    }
+
+    private int cell(int row, long key) {
+        return row * width + (int) (mix(key ^ seeds[row]) & (width - 1));
+    }
+
+    // finalizer of SplitMix64, spreads sequential ids over the whole row
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
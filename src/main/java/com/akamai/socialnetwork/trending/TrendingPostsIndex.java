@@ -0,0 +1,310 @@
+package com.akamai.socialnetwork.trending;
+
+import com.akamai.socialnetwork.dto.TrendingStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory ranking of the posts viewed the most recently.
+ * <p>
+ * A view counts 1 in the minute it happened and half as much every
+ * {@code posts.trending.half-life-minutes} after, and nothing once it is older than
+ * {@code posts.trending.window-minutes}. Weights grow with time instead of being
+ * decayed, relative to a landmark minute, so a view adds one precomputed weight and
+ * scores compare without being touched; the landmark moves forward before the weights
+ * leave the range of a double.
+ * <p>
+ * Memory is bounded whatever the number of posts. Every view goes into a Count-Min
+ * sketch, and only the {@code posts.trending.capacity} posts with the highest scores
+ * are tracked, as in Space-Saving: a post enters when its estimate from the sketch
+ * beats the lowest tracked score, which it replaces. A tracked post keeps a ring of
+ * per-minute counts over the window; scores are recomputed from the rings once a
+ * minute and incremented in between, the table is never scanned. Posts are spread
+ * over segments by id, each with its own lock, sketch and share of the capacity.
+ */
+@Component
+public class TrendingPostsIndex {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final long MINUTE_MILLIS = 60_000;
+    // e^200 is far from the largest double, and the sum of a window of weights below it too
+    private static final double MAX_EXPONENT = 200;
+
+    private static final Comparator<Candidate> BY_SCORE = Comparator
+            .comparingDouble((Candidate candidate) -> candidate.score)
+            .thenComparingLong(candidate -> candidate.postId);
+
+    private final int windowMinutes;
+    private final double decayPerMinute;
+    // weight of a view {@code age} minutes old relative to one of the current minute
+    private final double[] decay;
+    private final long landmarkMinutes;
+    private final Segment[] segments;
+    private final LongSupplier clock;
+
+    private final LongAdder views = new LongAdder();
+    private final LongAdder admissions = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public TrendingPostsIndex(@Value("${posts.trending.window-minutes:60}") int windowMinutes,
+                              @Value("${posts.trending.half-life-minutes:30}") double halfLifeMinutes,
+                              @Value("${posts.trending.capacity:1024}") int capacity,
+                              @Value("${posts.trending.sketch-width:16384}") int sketchWidth,
+                              @Value("${posts.trending.sketch-depth:4}") int sketchDepth) {
+        this(windowMinutes, halfLifeMinutes, capacity, sketchWidth, sketchDepth,
+                Math.min(DEFAULT_SEGMENTS, Integer.highestOneBit(Math.max(1, capacity))), System::currentTimeMillis);
+    }
+
+    TrendingPostsIndex(int windowMinutes, double halfLifeMinutes, int capacity, int sketchWidth, int sketchDepth,
+                       int segmentCount, LongSupplier clock) {
+        if (windowMinutes <= 0) {
+            throw new IllegalArgumentException("posts.trending.window-minutes must be positive: " + windowMinutes);
+        }
+        if (!(halfLifeMinutes > 0)) {
+            throw new IllegalArgumentException("posts.trending.half-life-minutes must be positive: " + halfLifeMinutes);
+        }
+        if (capacity < segmentCount) {
+            throw new IllegalArgumentException("posts.trending.capacity must be at least " + segmentCount + ": " + capacity);
+        }
+        if (Integer.bitCount(sketchWidth) != 1 || sketchWidth < segmentCount) {
+            throw new IllegalArgumentException("posts.trending.sketch-width must be a power of two of at least "
+                    + segmentCount + ": " + sketchWidth);
+        }
+        this.windowMinutes = windowMinutes;
+        this.decayPerMinute = Math.log(2) / halfLifeMinutes;
+        this.decay = new double[windowMinutes];
+        for (int age = 0; age < windowMinutes; age++) {
+            decay[age] = Math.exp(-decayPerMinute * age);
+        }
+        this.landmarkMinutes = Math.max(windowMinutes, (long) (MAX_EXPONENT / decayPerMinute));
+        this.clock = clock;
+        this.segments = new Segment[segmentCount];
+        long minute = clock.getAsLong() / MINUTE_MILLIS;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(capacity / segmentCount,
+                    new CountMinSketch(sketchWidth / segmentCount, sketchDepth), minute);
+        }
+    }
+
+    /**
+     * Records one view of the given post.
+     */
+    public void record(Long postId) {
+        long minute = clock.getAsLong() / MINUTE_MILLIS;
+        Segment segment = segmentFor(postId);
+        segment.lock.lock();
+        try {
+            segment.advance(minute);
+            segment.record(postId);
+        } finally {
+            segment.lock.unlock();
+        }
+        views.increment();
+    }
+
+    /**
+     * Stops tracking the given post, for ids that turn out to belong to no post. Its views
+     * stay in the sketch, further views can bring it back.
+     */
+    public void remove(Long postId) {
+        Segment segment = segmentFor(postId);
+        segment.lock.lock();
+        try {
+            Candidate candidate = segment.candidates.remove(postId);
+            if (candidate != null) {
+                segment.byScore.remove(candidate);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} tracked posts with the highest scores,
+     * highest first. Views are recorded for any id, so ids of posts that were deleted or
+     * never existed are included until they are {@link #remove removed}.
+     */
+    public List<Long> getTrending(int limit) {
+        long minute = clock.getAsLong() / MINUTE_MILLIS;
+        List<Ranked> ranked = new ArrayList<>();
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.advance(minute);
+                // scores of different segments are relative to different landmarks
+                double scale = Math.exp(-decayPerMinute * (segment.minute - segment.landmark));
+                Iterator<Candidate> iterator = segment.byScore.descendingIterator();
+                for (int i = 0; i < limit && iterator.hasNext(); i++) {
+                    Candidate candidate = iterator.next();
+                    ranked.add(new Ranked(candidate.postId, candidate.score * scale));
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        ranked.sort(Comparator.comparingDouble((Ranked entry) -> entry.score).reversed()
+                .thenComparingLong(entry -> entry.postId));
+        List<Long> postIds = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < limit && i < ranked.size(); i++) {
+            postIds.add(ranked.get(i).postId);
+        }
+        return postIds;
+    }
+
+    public TrendingStatsDTO getStats() {
+        long tracked = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                tracked += segment.candidates.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new TrendingStatsDTO(views.sum(), tracked, admissions.sum(), evictions.sum());
+    }
+
+    private Segment segmentFor(Long postId) {
+        int hash = postId.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    private int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) windowMinutes);
+    }
+
+    private static final class Candidate {
+
+        private final long postId;
+        // views per minute of the window, the count of minute m is in slot(m)
+        private final int[] counts;
+        // weight of the views before the post was tracked, estimated by the sketch
+        private double prior;
+        private final long admitted;
+        private double score;
+
+        private Candidate(long postId, int window, long admitted) {
+            this.postId = postId;
+            this.counts = new int[window];
+            this.admitted = admitted;
+        }
+    }
+
+    private static final class Ranked {
+
+        private final long postId;
+        private final double score;
+
+        private Ranked(long postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        private final CountMinSketch sketch;
+        private final Map<Long, Candidate> candidates = new HashMap<>();
+        private final TreeSet<Candidate> byScore = new TreeSet<>(BY_SCORE);
+        // minute whose views weigh 1
+        private long landmark;
+        // minute the scores are computed for, and the weight of a view in it
+        private long minute;
+        private double weight = 1;
+
+        private Segment(int capacity, CountMinSketch sketch, long minute) {
+            this.capacity = capacity;
+            this.sketch = sketch;
+            this.landmark = minute;
+            this.minute = minute;
+        }
+
+        private void record(long postId) {
+            double estimate = sketch.add(postId, weight);
+            Candidate candidate = candidates.get(postId);
+            if (candidate != null) {
+                byScore.remove(candidate);
+                candidate.counts[slot(minute)]++;
+                candidate.score += weight;
+                byScore.add(candidate);
+                return;
+            }
+            if (candidates.size() >= capacity) {
+                Candidate lowest = byScore.first();
+                if (estimate <= lowest.score) {
+                    return;
+                }
+                byScore.pollFirst();
+                candidates.remove(lowest.postId);
+                evictions.increment();
+            }
+            candidate = new Candidate(postId, windowMinutes, minute);
+            candidate.counts[slot(minute)] = 1;
+            candidate.prior = estimate - weight;
+            candidate.score = estimate;
+            candidates.put(postId, candidate);
+            byScore.add(candidate);
+            admissions.increment();
+        }
+
+        /**
+         * Moves the scores to the given minute: views that left the window are dropped
+         * and every score is recomputed from its ring.
+         */
+        private void advance(long now) {
+            if (now <= minute) {
+                return;
+            }
+            if (now - landmark > landmarkMinutes) {
+                double factor = Math.exp(-decayPerMinute * (now - landmark));
+                sketch.scale(factor);
+                for (Candidate candidate : candidates.values()) {
+                    candidate.prior *= factor;
+                }
+                landmark = now;
+            }
+            long previous = minute;
+            minute = now;
+            weight = Math.exp(decayPerMinute * (now - landmark));
+            byScore.clear();
+            Iterator<Candidate> iterator = candidates.values().iterator();
+            while (iterator.hasNext()) {
+                Candidate candidate = iterator.next();
+                if (now - previous >= windowMinutes) {
+                    Arrays.fill(candidate.counts, 0);
+                } else {
+                    for (long expired = previous + 1; expired <= now; expired++) {
+                        candidate.counts[slot(expired)] = 0;
+                    }
+                }
+                if (now - candidate.admitted >= windowMinutes) {
+                    candidate.prior = 0;
+                }
+                double score = 0;
+                for (int age = 0; age < windowMinutes; age++) {
+                    int count = candidate.counts[slot(now - age)];
+                    if (count != 0) {
+                        score += count * decay[age];
+                    }
+                }
+                candidate.score = candidate.prior + score * weight;
+                if (candidate.score > 0) {
+                    byScore.add(candidate);
+                } else {
+                    // nothing left in the window, make room for posts viewed now
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
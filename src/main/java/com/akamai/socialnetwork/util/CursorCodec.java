@@ -0,0 +1,61 @@
+package com.akamai.socialnetwork.util;
+
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions into opaque, URL-safe cursor tokens.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = ":";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(long... values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(SEPARATOR);
+            }
+            builder.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Encodes a textual position, such as the last user name of a page.
+     */
+    public static String encodeText(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decodeText(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public static long[] decode(String cursor, int expectedValues) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = decoded.split(SEPARATOR);
+            if (parts.length != expectedValues) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            long[] values = new long[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Long.parseLong(parts[i]);
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.akamai.socialnetwork.util;
+
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostVersionDTO;
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Strong entity tags and modification times of post representations. A post's tag is
+ * its id and row version, which change with every write, and the media type it is sent
+ * in, since a strong tag names one sequence of bytes; a list's tag hashes the tags of
+ * its elements in order.
+ */
+public final class PostETags {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private PostETags() {
+    }
+
+    public static String of(PostVersionDTO postVersion, MediaType mediaType) {
+        return of(postVersion.getId(), postVersion.getVersion(), mediaType);
+    }
+
+    public static String of(PostDTO post, MediaType mediaType) {
+        return of(post.getId(), post.getVersion(), mediaType);
+    }
+
+    public static String of(List<PostDTO> posts) {
+        long hash = FNV_OFFSET_BASIS;
+        for (PostDTO post : posts) {
+            hash = mix(mix(hash, post.getId()), post.getVersion());
+        }
+        return "\"" + posts.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Latest modification time in the list, -1 if none is known.
+     */
+    public static long lastModified(List<PostDTO> posts) {
+        long lastModified = -1;
+        for (PostDTO post : posts) {
+            lastModified = Math.max(lastModified, lastModified(post.getLastModified()));
+        }
+        return lastModified;
+    }
+
+    public static long lastModified(Instant lastModified) {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    private static String of(Long id, Long version, MediaType mediaType) {
+        return "\"" + id + "-" + (version == null ? 0 : version) + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    private static long mix(long hash, Long value) {
+        long bits = value == null ? -1 : value;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ (bits & 0xff)) * FNV_PRIME;
+            bits >>>= 8;
+        }
+        return hash;
+    }
+}
@@ -3,9 +3,9 @@ package com.akamai.socialnetwork.validation;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-import java.util.Date;
+import java.time.Instant;
 
-public class PostDateValidator implements ConstraintValidator<PostDateConstraint, Date> {
+public class PostDateValidator implements ConstraintValidator<PostDateConstraint, Instant> {
 
     @Override
     public void initialize(PostDateConstraint constraintAnnotation) {
@@ -13,14 +13,16 @@ public class PostDateValidator implements ConstraintValidator<PostDateConstraint
     }
 
     @Override
-    public boolean isValid(Date postDate, ConstraintValidatorContext context) {
+    public boolean isValid(Instant postDate, ConstraintValidatorContext context) {
+        // a missing date is reported by @NotNull alone
         if (postDate == null) {
-            return false;
+            return true;
         }
-        Date currentDate = new Date();
+        long currentTimeMillis = System.currentTimeMillis();
 
         // comparing 2 dates (postDate and currentDate) with the precision of seconds
-        // while taking network latency into account
-        return postDate.getTime() / 1000 == currentDate.getTime() / 1000;
+        // while taking network latency into account: a post sent at x.990 and received at
+        // (x+1).010 is still within a second, whichever side of a second boundary it lands
+        return Math.abs(currentTimeMillis - postDate.toEpochMilli()) < 1000;
     }
 }
@@ -0,0 +1,359 @@
+package com.akamai.socialnetwork.wal;
+
+import com.akamai.socialnetwork.converter.PostProtobufCodec;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.WriteAheadLogStatsDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.event.PostsContentChangedEvent;
+import com.akamai.socialnetwork.event.PostsCreatedEvent;
+import com.akamai.socialnetwork.exception.ServiceUnavailableException;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.AuthorStatsRepository;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write path for new posts, enabled with {@code posts.wal.enabled}.
+ * <p>
+ * A post is given its id, appended to a local {@link WriteAheadLog} and acknowledged
+ * without a database round trip. A committer writes what was appended since its last
+ * run in batches of up to {@code posts.wal.batch-size} posts, one transaction per batch
+ * with the author counts, and then moves the log's checkpoint past them. On startup the
+ * posts after the checkpoint are committed again before anything else; a post already
+ * written before the crash is skipped by id, so it is neither duplicated nor counted
+ * twice for its author.
+ * <p>
+ * Ids are reserved from post_seq in the same blocks as Hibernate's pooled optimizer uses,
+ * so they do not collide with posts created through the session. A post can be read once
+ * committed, typically within {@code posts.wal.commit-interval-ms}.
+ * <p>
+ * Appends are refused while {@code posts.wal.max-pending} posts wait to be committed. A
+ * batch the database refuses is committed again post by post, and a post it still refuses
+ * is moved to the dead-letter segments in the {@code dead-letter} directory of the log,
+ * so it does not hold up the posts behind it.
+ */
+@Component
+public class PostWriteAheadLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostWriteAheadLog.class);
+
+    private final boolean enabled;
+    private final PostMapper postMapper;
+    private final PostJdbcRepository postJdbcRepository;
+    private final AuthorStatsRepository authorStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final boolean fsync;
+    private final boolean commitOnShutdown;
+    private final long maxPending;
+    private final WriteAheadLog log;
+    private final WriteAheadLog deadLetters;
+    private final ScheduledExecutorService committer;
+
+    // appended in log order, the committer takes them from the head
+    private final Queue<LoggedPost> uncommitted = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    // ids left in the block reserved last, nextId up to and including lastId
+    private long nextId;
+    private long lastId = -1;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder pending = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    public PostWriteAheadLog(PostMapper postMapper,
+                             PostJdbcRepository postJdbcRepository,
+                             AuthorStatsRepository authorStatsRepository,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${posts.wal.enabled:false}") boolean enabled,
+                             @Value("${posts.wal.directory:wal}") String directory,
+                             @Value("${posts.wal.segment-size:67108864}") int segmentSize,
+                             @Value("${posts.wal.batch-size:1000}") int batchSize,
+                             @Value("${posts.wal.commit-interval-ms:10}") long commitIntervalMillis,
+                             @Value("${posts.wal.fsync:false}") boolean fsync,
+                             @Value("${posts.wal.commit-on-shutdown:true}") boolean commitOnShutdown,
+                             @Value("${posts.wal.max-pending:100000}") long maxPending) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("posts.wal.batch-size must be positive: " + batchSize);
+        }
+        if (commitIntervalMillis <= 0) {
+            throw new IllegalArgumentException("posts.wal.commit-interval-ms must be positive: " + commitIntervalMillis);
+        }
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("posts.wal.max-pending must be positive: " + maxPending);
+        }
+        this.enabled = enabled;
+        this.postMapper = postMapper;
+        this.postJdbcRepository = postJdbcRepository;
+        this.authorStatsRepository = authorStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.fsync = fsync;
+        this.commitOnShutdown = commitOnShutdown;
+        this.maxPending = maxPending;
+        if (!enabled) {
+            this.log = null;
+            this.deadLetters = null;
+            this.committer = null;
+            return;
+        }
+        this.log = new WriteAheadLog(Path.of(directory), segmentSize, fsync);
+        // only ever appended to, the records are there for an operator to look into
+        this.deadLetters = new WriteAheadLog(Path.of(directory, "dead-letter"), segmentSize, true);
+        log.replay((record, position) -> {
+            uncommitted.add(new LoggedPost(toPostEntity(decode(record)), position));
+            replayed.increment();
+            pending.increment();
+        });
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "post-log-committer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (replayed.sum() > 0) {
+            logger.info("Replaying {} uncommitted posts from {}", replayed.sum(), directory);
+            // committed right away, ahead of anything appended after them
+            committer.execute(this::commitQuietly);
+        }
+        committer.scheduleWithFixedDelay(this::commitQuietly, commitIntervalMillis, commitIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns the post an id and appends it to the log. The post is durable once this
+     * returns, and in the database after the next commit.
+     *
+     * @throws ServiceUnavailableException if {@code posts.wal.max-pending} posts are
+     *                                     waiting to be committed
+     */
+    public Long append(PostDTO postDTO) {
+        if (!enabled) {
+            throw new IllegalStateException("posts.wal.enabled is false");
+        }
+        if (pending.sum() >= maxPending) {
+            throw new ServiceUnavailableException("Too many posts are waiting to be committed, try again later");
+        }
+        PostEntity postEntity = toPostEntity(postDTO);
+        long position;
+        appendLock.lock();
+        try {
+            postEntity.setId(nextId());
+            position = log.append(encode(postEntity));
+            uncommitted.add(new LoggedPost(postEntity, position));
+        } finally {
+            appendLock.unlock();
+        }
+        appended.increment();
+        pending.increment();
+        if (fsync) {
+            log.sync(position);
+        }
+        return postEntity.getId();
+    }
+
+    /**
+     * Commits every post appended so far. Posts the database refuses are moved to the
+     * dead letters, posts that fail to commit otherwise stay in the log and are retried
+     * on the next commit.
+     */
+    public void commit() {
+        if (!enabled) {
+            return;
+        }
+        commitLock.lock();
+        try {
+            // posts appended meanwhile wait for the next commit, so this one ends under load too
+            long remaining = pending.sum();
+            List<LoggedPost> batch = new ArrayList<>(batchSize);
+            Iterator<LoggedPost> iterator = uncommitted.iterator();
+            while (remaining > 0 && iterator.hasNext()) {
+                batch.clear();
+                while (batch.size() < batchSize && batch.size() < remaining && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                try {
+                    commitBatch(batch);
+                } catch (NonTransientDataAccessException e) {
+                    // committed again it would fail again, and so would every later commit
+                    logger.warn("Failed to commit a batch of {} logged posts, committing them one by one", batch.size(), e);
+                    for (LoggedPost loggedPost : batch) {
+                        commitOrDeadLetter(loggedPost);
+                    }
+                }
+                // only the committer removes, the head of the queue is still the batch
+                for (int i = 0; i < batch.size(); i++) {
+                    uncommitted.poll();
+                }
+                pending.add(-batch.size());
+                remaining -= batch.size();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    public WriteAheadLogStatsDTO getStats() {
+        return new WriteAheadLogStatsDTO(enabled, appended.sum(), replayed.sum(), committed.sum(), commits.sum(),
+                pending.sum(), deadLettered.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        committer.shutdown();
+        committer.awaitTermination(10, TimeUnit.SECONDS);
+        if (commitOnShutdown) {
+            commit();
+        } else if (pending.sum() > 0) {
+            logger.warn("Leaving {} uncommitted posts in the log for the next start", pending.sum());
+        }
+        log.close();
+        deadLetters.close();
+    }
+
+    private void commitBatch(List<LoggedPost> batch) {
+        List<PostEntity> posts = new ArrayList<>(batch.size());
+        for (LoggedPost loggedPost : batch) {
+            posts.add(loggedPost.post);
+        }
+        List<PostEntity> inserted = transactionTemplate.execute(status -> {
+            List<PostEntity> insertedPosts = postJdbcRepository.insertAbsent(posts);
+            SortedMap<String, Long> authorDeltas = new TreeMap<>();
+            for (PostEntity post : insertedPosts) {
+                if (post.getAuthor() != null) {
+                    authorDeltas.merge(post.getAuthor(), 1L, Long::sum);
+                }
+            }
+            authorStatsRepository.adjustPostCounts(authorDeltas);
+            if (insertedPosts.isEmpty()) {
+                return insertedPosts;
+            }
+            List<Long> postIds = new ArrayList<>(insertedPosts.size());
+            insertedPosts.forEach(post -> postIds.add(post.getId()));
+            eventPublisher.publishEvent(new PostsContentChangedEvent(postIds));
+            eventPublisher.publishEvent(new PostsCreatedEvent(insertedPosts));
+            return insertedPosts;
+        });
+        try {
+            log.checkpoint(batch.get(batch.size() - 1).position);
+        } catch (IOException e) {
+            // the batch is in the database, a replay would skip it
+            logger.warn("Failed to write the log checkpoint", e);
+        }
+        committed.add(inserted == null ? 0 : inserted.size());
+        commits.increment();
+        logger.debug("Committed {} logged posts", batch.size());
+    }
+
+    private void commitOrDeadLetter(LoggedPost loggedPost) {
+        try {
+            commitBatch(List.of(loggedPost));
+        } catch (NonTransientDataAccessException e) {
+            // forced to disk before the checkpoint moves past the post in the log
+            deadLetters.sync(deadLetters.append(encode(loggedPost.post)));
+            deadLettered.increment();
+            logger.error("Moved logged post {} to the dead letters: {}", loggedPost.post.getId(), e.getMessage());
+            try {
+                log.checkpoint(loggedPost.position);
+            } catch (IOException checkpointFailure) {
+                // a replay would move it to the dead letters again
+                logger.warn("Failed to write the log checkpoint", checkpointFailure);
+            }
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to commit logged posts, will retry", e);
+        }
+    }
+
+    private long nextId() {
+        if (nextId > lastId) {
+            // the block Hibernate would take for the same value, which it never gets
+            nextId = postJdbcRepository.nextIdBlock();
+            lastId = nextId + PostEntity.ID_ALLOCATION_SIZE - 1;
+        }
+        return nextId++;
+    }
+
+    private PostEntity toPostEntity(PostDTO postDTO) {
+        PostEntity postEntity = postMapper.toPostEntity(postDTO);
+        postEntity.setId(postDTO.getId());
+        return postEntity;
+    }
+
+    private static byte[] encode(PostEntity postEntity) {
+        PostDTO postDTO = PostDTO.builder()
+                .id(postEntity.getId())
+                .date(postEntity.getDate())
+                .author(postEntity.getAuthor())
+                .content(postEntity.getContent())
+                .viewCount(postEntity.getViewCount())
+                .build();
+        try {
+            byte[] record = new byte[PostProtobufCodec.postSize(postDTO)];
+            CodedOutputStream output = CodedOutputStream.newInstance(record);
+            PostProtobufCodec.writePost(output, postDTO);
+            output.checkNoSpaceLeft();
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PostDTO decode(byte[] record) {
+        try {
+            return PostProtobufCodec.readPost(CodedInputStream.newInstance(record));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class LoggedPost {
+
+        private final PostEntity post;
+        // position after the post in the log
+        private final long position;
+
+        private LoggedPost(PostEntity post, long position) {
+            this.post = post;
+            this.position = position;
+        }
+    }
+}
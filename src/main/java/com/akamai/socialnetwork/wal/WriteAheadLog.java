@@ -0,0 +1,229 @@
+package com.akamai.socialnetwork.wal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of opaque records in memory-mapped segment files.
+ * <p>
+ * A record is its length, the CRC-32 of its bytes and the bytes. Segments are mapped at
+ * their full size, so the unwritten rest of a segment reads as zeros and a record cut
+ * short by a crash fails its checksum; either ends the segment on replay. A position is
+ * the segment number in the high half of a long and the offset in the low half, so
+ * positions of later records compare greater.
+ * <p>
+ * The checkpoint is the position up to which the records have been applied elsewhere.
+ * It is written to its own file, replaced atomically, and the segments entirely before
+ * it are deleted. Writes to the mapping reach the page cache right away and survive the
+ * process being killed; surviving a power loss takes {@link #sync(long)}.
+ * <p>
+ * Not thread safe for appends, callers serialize them; {@link #sync(long)} may be called
+ * concurrently with appends.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final String CHECKPOINT_TEMP = "checkpoint.tmp";
+    private static final int HEADER_SIZE = 8;
+    // written where the next record did not fit, the rest of the segment is unused
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final Object syncLock = new Object();
+
+    private long checkpoint;
+    private long nextSegment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segment = -1;
+    // position after the last appended record, and after the last one forced to disk
+    private volatile long written;
+    private long synced;
+
+    WriteAheadLog(Path directory, int segmentSize, boolean fsync) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("segment size must be larger than " + HEADER_SIZE + ": " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        Path checkpointFile = directory.resolve(CHECKPOINT);
+        this.checkpoint = Files.exists(checkpointFile)
+                ? ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong() : 0;
+        List<Long> segments = segments();
+        this.nextSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1;
+    }
+
+    static long position(long segment, int offset) {
+        return (segment << 32) | offset;
+    }
+
+    static long segmentOf(long position) {
+        return position >>> 32;
+    }
+
+    static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    long getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Hands every record after the checkpoint to the consumer, with the position that
+     * follows it, in the order they were appended. Appends after a replay go to a new
+     * segment, never after a record that may have been cut short.
+     */
+    void replay(BiConsumer<byte[], Long> consumer) throws IOException {
+        for (long replayed : segments()) {
+            if (replayed < segmentOf(checkpoint)) {
+                // only the deletion was lost after the checkpoint was written
+                Files.deleteIfExists(segmentPath(replayed));
+                continue;
+            }
+            int offset = replayed == segmentOf(checkpoint) ? offsetOf(checkpoint) : 0;
+            try (FileChannel replayChannel = FileChannel.open(segmentPath(replayed), StandardOpenOption.READ)) {
+                ByteBuffer records = replayChannel.map(FileChannel.MapMode.READ_ONLY, 0, replayChannel.size());
+                while (offset + HEADER_SIZE <= records.limit()) {
+                    int length = records.getInt(offset);
+                    if (length <= 0 || length > records.limit() - offset - HEADER_SIZE) {
+                        break;
+                    }
+                    byte[] record = new byte[length];
+                    records.get(offset + HEADER_SIZE, record);
+                    if (crc(record) != records.getInt(offset + 4)) {
+                        break;
+                    }
+                    offset += HEADER_SIZE + length;
+                    consumer.accept(record, position(replayed, offset));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a record and returns the position that follows it.
+     */
+    long append(byte[] record) {
+        if (record.length == 0 || record.length > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("record size must be between 1 and "
+                    + (segmentSize - HEADER_SIZE) + ": " + record.length);
+        }
+        if (buffer == null || buffer.remaining() < HEADER_SIZE + record.length) {
+            roll();
+        }
+        int offset = buffer.position();
+        buffer.position(offset + HEADER_SIZE);
+        buffer.put(record);
+        buffer.putInt(offset + 4, crc(record));
+        // the length goes last, a record is not there before it is complete
+        buffer.putInt(offset, record.length);
+        long position = position(segment, buffer.position());
+        written = position;
+        return position;
+    }
+
+    /**
+     * Forces the records up to the given position to disk. Concurrent callers share one
+     * force of everything appended so far.
+     */
+    void sync(long position) {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target = written;
+            buffer.force();
+            synced = target;
+        }
+    }
+
+    /**
+     * Records that everything up to the given position has been applied, and deletes the
+     * segments that only hold records before it.
+     */
+    void checkpoint(long position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_TEMP);
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(position).array();
+        if (fsync) {
+            Files.write(temp, bytes, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        } else {
+            Files.write(temp, bytes);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        checkpoint = position;
+        for (long old : segments()) {
+            if (old < segmentOf(position)) {
+                Files.deleteIfExists(segmentPath(old));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            if (fsync) {
+                buffer.force();
+            }
+            channel.close();
+        }
+    }
+
+    private void roll() {
+        try {
+            synchronized (syncLock) {
+                if (buffer != null) {
+                    if (buffer.remaining() >= Integer.BYTES) {
+                        buffer.putInt(buffer.position(), END_OF_SEGMENT);
+                    }
+                    if (fsync) {
+                        buffer.force();
+                        synced = written;
+                    }
+                    channel.close();
+                }
+                segment = nextSegment++;
+                channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log segment " + segmentPath(nextSegment - 1), e);
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> segments.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+}
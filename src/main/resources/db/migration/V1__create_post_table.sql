@@ -0,0 +1,15 @@
+-- increment matches the allocationSize of the pooled post_seq generator in PostEntity
+CREATE SEQUENCE post_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE post_entity (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    date       TIMESTAMP(6),
+    author     VARCHAR(50),
+    content    VARCHAR(500),
+    view_count BIGINT       DEFAULT 0 NOT NULL
+);
+
+-- top posts: ORDER BY view_count DESC, id reads the index in order and stops after K rows
+CREATE INDEX idx_post_view_count ON post_entity (view_count DESC, id);
+CREATE INDEX idx_post_author ON post_entity (author);
+CREATE INDEX idx_post_date ON post_entity (date);
@@ -0,0 +1,13 @@
+-- author feed: WHERE author = ? ORDER BY date DESC, id reads the index in order
+CREATE INDEX idx_post_author_date ON post_entity (author, date DESC, id);
+-- equality lookups on author are served by the prefix of the new index
+DROP INDEX idx_post_author;
+
+-- post count per author, maintained in the same transaction as every post write
+CREATE TABLE author_stats (
+    author     VARCHAR(50) NOT NULL PRIMARY KEY,
+    post_count BIGINT      NOT NULL
+);
+
+INSERT INTO author_stats (author, post_count)
+SELECT author, COUNT(*) FROM post_entity WHERE author IS NOT NULL GROUP BY author;
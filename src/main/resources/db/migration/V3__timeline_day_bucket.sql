@@ -0,0 +1,6 @@
+-- day of the post (days since 1970-01-01), derived by the database so no writer can get it wrong
+ALTER TABLE post_entity ADD COLUMN day_bucket INT
+    GENERATED ALWAYS AS (CAST(DATEDIFF('DAY', DATE '1970-01-01', date) AS INT));
+
+-- timeline: WHERE day_bucket = ? AND date in range ORDER BY date DESC, id DESC touches one bucket
+CREATE INDEX idx_post_day_bucket_date ON post_entity (day_bucket, date DESC, id DESC);
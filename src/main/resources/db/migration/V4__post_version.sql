@@ -0,0 +1,4 @@
+-- bumped by every write of the row, the ETag of a post is derived from it
+ALTER TABLE post_entity ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE post_entity ADD COLUMN last_modified TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL;
+UPDATE post_entity SET last_modified = date WHERE date IS NOT NULL;
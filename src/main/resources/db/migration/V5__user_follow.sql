@@ -0,0 +1,8 @@
+-- follow graph; both directions are held in memory, the table is the durable copy
+-- and is only read in full at startup, so the primary key is the only index
+CREATE TABLE user_follow (
+    follower VARCHAR(50)  NOT NULL,
+    followee VARCHAR(50)  NOT NULL,
+    created  TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL,
+    PRIMARY KEY (follower, followee)
+);
@@ -0,0 +1,17 @@
+-- one row per user and reaction, the primary key makes a second like by the same user a no-op
+CREATE TABLE post_reaction (
+    post_id   BIGINT       NOT NULL,
+    user_name VARCHAR(50)  NOT NULL,
+    reaction  VARCHAR(10)  NOT NULL,
+    created   TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL,
+    PRIMARY KEY (post_id, user_name, reaction),
+    FOREIGN KEY (post_id) REFERENCES post_entity (id) ON DELETE CASCADE
+);
+
+-- aggregates read with the post, kept up to date asynchronously by ReactionCountBuffer
+ALTER TABLE post_entity ADD COLUMN like_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE post_entity ADD COLUMN love_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE post_entity ADD COLUMN laugh_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE post_entity ADD COLUMN wow_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE post_entity ADD COLUMN sad_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE post_entity ADD COLUMN angry_count BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,18 @@
+-- comment threads as materialized paths: the ids from the top-level comment down to this
+-- one, each zero-padded to 19 digits. In path order a thread is read depth first, and the
+-- replies of a comment are the paths that extend its own, one range of idx_comment_post_path
+CREATE SEQUENCE comment_seq START WITH 1;
+
+CREATE TABLE post_comment (
+    id        BIGINT       NOT NULL PRIMARY KEY,
+    post_id   BIGINT       NOT NULL,
+    parent_id BIGINT,
+    path      VARCHAR(608) NOT NULL,
+    author    VARCHAR(50)  NOT NULL,
+    content   VARCHAR(500) NOT NULL,
+    created   TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL,
+    FOREIGN KEY (post_id) REFERENCES post_entity (id) ON DELETE CASCADE,
+    FOREIGN KEY (parent_id) REFERENCES post_comment (id) ON DELETE CASCADE
+);
+
+CREATE UNIQUE INDEX idx_comment_post_path ON post_comment (post_id, path);
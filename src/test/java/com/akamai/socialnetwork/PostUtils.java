@@ -3,7 +3,8 @@ package com.akamai.socialnetwork;
 import com.akamai.socialnetwork.dto.PostDTO;
 import com.akamai.socialnetwork.entity.PostEntity;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Random;
 
 public interface PostUtils {
@@ -14,18 +15,18 @@ public interface PostUtils {
         postEntity.setId(id);
         postEntity.setAuthor("Test Author");
         postEntity.setContent("Test Content");
-        postEntity.setDate(new Date());
-        postEntity.setViewCount(0);
+        postEntity.setDate(now());
+        postEntity.setViewCount(0L);
         return postEntity;
     }
 
-    static PostEntity getCustomPostEntity(String author, String content, Number viewCount) {
+    static PostEntity getCustomPostEntity(String author, String content, long viewCount) {
         PostEntity postEntity = new PostEntity();
         Long id = random.nextLong();
         postEntity.setId(id);
         postEntity.setAuthor(author);
         postEntity.setContent(content);
-        postEntity.setDate(new Date());
+        postEntity.setDate(now());
         postEntity.setViewCount(viewCount);
         return  postEntity;
     }
@@ -34,26 +35,26 @@ public interface PostUtils {
         PostDTO postDTO = new PostDTO();
         postDTO.setAuthor("Test Author");
         postDTO.setContent("Test Content");
-        postDTO.setDate(new Date());
+        postDTO.setDate(now());
         postDTO.setViewCount(0);
         return postDTO;
     }
 
-    static PostDTO getCustomPostDto(String author, String content, Number viewCount) {
+    static PostDTO getCustomPostDto(String author, String content, long viewCount) {
         PostDTO postDTO = new PostDTO();
         postDTO.setAuthor(author);
         postDTO.setContent(content);
-        postDTO.setDate(new Date());
+        postDTO.setDate(now());
         postDTO.setViewCount(viewCount);
         return postDTO;
     }
 
-    static PostDTO getCustomPostDtoWithId(String author, String content, Number viewCount, Long id) {
+    static PostDTO getCustomPostDtoWithId(String author, String content, long viewCount, Long id) {
         PostDTO postDTO = new PostDTO();
         postDTO.setId(id);
         postDTO.setAuthor(author);
         postDTO.setContent(content);
-        postDTO.setDate(new Date());
+        postDTO.setDate(now());
         postDTO.setViewCount(viewCount);
         return postDTO;
     }
@@ -64,7 +65,7 @@ public interface PostUtils {
         postDTO.setAuthor("Test Author");
         postDTO.setContent("Test Content");
         postDTO.setId(id);
-        postDTO.setDate(new Date());
+        postDTO.setDate(now());
         postDTO.setViewCount(0);
         return postDTO;
     }
@@ -72,4 +73,9 @@ public interface PostUtils {
     static Long getRandomLongId() {
         return random.nextLong();
     }
+
+    // Protobuf carries dates as epoch millis, so posts compare equal after a round trip through any wire format
+    static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
 }
\ No newline at end of file
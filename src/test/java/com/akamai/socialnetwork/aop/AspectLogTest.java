@@ -0,0 +1,150 @@
+package com.akamai.socialnetwork.aop;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AspectLogTest {
+
+    @Mock
+    private AsyncLogWriter asyncLogWriter;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private static final Logger logger = LoggerFactory.getLogger(AspectLogTest.class);
+
+    @Before
+    public void setUp() {
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(joinPoint.getArgs()).thenReturn(new Object[]{1L});
+    }
+
+    @Test
+    public void givenLargeList_whenRender_thenOutputIsCappedWithoutRenderingEveryElement() {
+        logger.info("Performing givenLargeList_whenRender_thenOutputIsCappedWithoutRenderingEveryElement() ...");
+        AspectLog aspectLog = new AspectLog(asyncLogWriter, true, 100, 1.0, "");
+        List<Object> posts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            posts.add(PostUtils.getDefaultPostDTO());
+        }
+        Object unrenderable = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("rendered past the cap");
+            }
+        };
+        posts.add(unrenderable);
+
+        String rendered = aspectLog.render(posts);
+
+        assertTrue(rendered.startsWith("(size=10001)["));
+        assertEquals(103, rendered.length());
+        assertTrue(rendered.endsWith("..."));
+        logger.info("Performed givenLargeList_whenRender_thenOutputIsCappedWithoutRenderingEveryElement() successfully");
+    }
+
+    @Test
+    public void givenLargePage_whenRender_thenOutputIsCappedWithoutRenderingEveryPost() {
+        logger.info("Performing givenLargePage_whenRender_thenOutputIsCappedWithoutRenderingEveryPost() ...");
+        AspectLog aspectLog = new AspectLog(asyncLogWriter, true, 100, 1.0, "");
+        List<PostDTO> posts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            posts.add(PostUtils.getDefaultPostDTO());
+        }
+        posts.add(new PostDTO() {
+            @Override
+            public String toString() {
+                throw new AssertionError("rendered past the cap");
+            }
+        });
+
+        String rendered = aspectLog.render(new PostPageDTO(posts, "cursor"));
+
+        assertTrue(rendered.startsWith("PostPageDTO(posts=(size=10001)["));
+        assertEquals(103, rendered.length());
+        assertTrue(rendered.endsWith("..."));
+        logger.info("Performed givenLargePage_whenRender_thenOutputIsCappedWithoutRenderingEveryPost() successfully");
+    }
+
+    @Test
+    public void givenShortValues_whenRender_thenOutputMatchesToString() {
+        logger.info("Performing givenShortValues_whenRender_thenOutputMatchesToString() ...");
+        AspectLog aspectLog = new AspectLog(asyncLogWriter, true, 256, 1.0, "");
+        PostDTO postDTO = PostUtils.getDefaultPostDTO();
+
+        assertEquals("[1, " + postDTO + "]", aspectLog.render(new Object[]{1L, postDTO}));
+        assertEquals("null", aspectLog.render(null));
+        PostPageDTO page = new PostPageDTO(null, "cursor");
+        assertEquals(page.toString(), aspectLog.render(page));
+        logger.info("Performed givenShortValues_whenRender_thenOutputMatchesToString() successfully");
+    }
+
+    @Test
+    public void givenSampledMethod_whenTrace_thenRequestAndResultAreSubmitted() throws Throwable {
+        logger.info("Performing givenSampledMethod_whenTrace_thenRequestAndResultAreSubmitted() ...");
+        AspectLog aspectLog = new AspectLog(asyncLogWriter, true, 256, 1.0, "fetchAllPosts:0");
+        when(signature.getName()).thenReturn("fetchPost");
+        when(joinPoint.proceed()).thenReturn("post");
+
+        assertEquals("post", aspectLog.trace(joinPoint));
+
+        verify(asyncLogWriter, times(2)).submit(any(Runnable.class));
+        logger.info("Performed givenSampledMethod_whenTrace_thenRequestAndResultAreSubmitted() successfully");
+    }
+
+    @Test
+    public void givenZeroSampleRate_whenTrace_thenNothingIsRenderedOrSubmitted() throws Throwable {
+        logger.info("Performing givenZeroSampleRate_whenTrace_thenNothingIsRenderedOrSubmitted() ...");
+        AspectLog aspectLog = new AspectLog(asyncLogWriter, true, 256, 1.0, "fetchAllPosts:0, fetchPost:0.5");
+        when(signature.getName()).thenReturn("fetchAllPosts");
+        when(joinPoint.proceed()).thenReturn(List.of());
+
+        aspectLog.trace(joinPoint);
+
+        verify(joinPoint, never()).getArgs();
+        verifyNoInteractions(asyncLogWriter);
+        logger.info("Performed givenZeroSampleRate_whenTrace_thenNothingIsRenderedOrSubmitted() successfully");
+    }
+
+    @Test
+    public void givenUnsampledMethod_whenTraceThrows_thenErrorIsStillSubmitted() throws Throwable {
+        logger.info("Performing givenUnsampledMethod_whenTraceThrows_thenErrorIsStillSubmitted() ...");
+        AspectLog aspectLog = new AspectLog(asyncLogWriter, true, 256, 0.0, "");
+        when(signature.getName()).thenReturn("fetchPost");
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> aspectLog.trace(joinPoint));
+
+        verify(asyncLogWriter).submit(any(Runnable.class));
+        logger.info("Performed givenUnsampledMethod_whenTraceThrows_thenErrorIsStillSubmitted() successfully");
+    }
+
+    @Test
+    public void givenInvalidSampleRate_whenCreate_thenIllegalArgumentException() {
+        logger.info("Performing givenInvalidSampleRate_whenCreate_thenIllegalArgumentException() ...");
+        assertThrows(IllegalArgumentException.class, () -> new AspectLog(asyncLogWriter, true, 256, 1.0, "fetchPost:2"));
+        assertThrows(IllegalArgumentException.class, () -> new AspectLog(asyncLogWriter, true, 256, 1.0, "fetchPost"));
+        logger.info("Performed givenInvalidSampleRate_whenCreate_thenIllegalArgumentException() successfully");
+    }
+}
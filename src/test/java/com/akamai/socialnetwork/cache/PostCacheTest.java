@@ -0,0 +1,162 @@
+package com.akamai.socialnetwork.cache;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.CacheStatsDTO;
+import com.akamai.socialnetwork.dto.PostDTO;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCacheTest.class);
+
+    @Test
+    public void givenFullCache_whenNewPostIsLoaded_thenLeastRecentlyUsedIsEvicted() {
+        logger.info("Performing givenFullCache_whenNewPostIsLoaded_thenLeastRecentlyUsedIsEvicted() ...");
+        PostCache postCache = new PostCache(2, 60_000, 60_000, 1, now::get);
+
+        postCache.get(1L, this::load);
+        postCache.get(2L, this::load);
+        postCache.get(1L, this::load);
+        postCache.get(3L, this::load);
+        postCache.get(1L, this::load);
+        postCache.get(2L, this::load);
+
+        // 1, 2, 3 and the reload of evicted 2
+        assertEquals(4, loads.get());
+        CacheStatsDTO stats = postCache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+        logger.info("Performed givenFullCache_whenNewPostIsLoaded_thenLeastRecentlyUsedIsEvicted() successfully");
+    }
+
+    @Test
+    public void givenExpiredEntry_whenGet_thenPostIsReloaded() {
+        logger.info("Performing givenExpiredEntry_whenGet_thenPostIsReloaded() ...");
+        PostCache postCache = new PostCache(10, 1_000, 1_000, 1, now::get);
+
+        postCache.get(1L, this::load);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        postCache.get(1L, this::load);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+        postCache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, postCache.getStats().getEvictions());
+        logger.info("Performed givenExpiredEntry_whenGet_thenPostIsReloaded() successfully");
+    }
+
+    @Test
+    public void givenMissingPost_whenGetRepeatedly_thenMissIsCachedForNegativeTtl() {
+        logger.info("Performing givenMissingPost_whenGetRepeatedly_thenMissIsCachedForNegativeTtl() ...");
+        PostCache postCache = new PostCache(10, 60_000, 100, 1, now::get);
+
+        assertFalse(postCache.get(1L, this::loadMissing).isPresent());
+        assertFalse(postCache.get(1L, this::loadMissing).isPresent());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(101));
+        assertFalse(postCache.get(1L, this::loadMissing).isPresent());
+
+        assertEquals(2, loads.get());
+        assertEquals(1, postCache.getStats().getNegativeHits());
+        logger.info("Performed givenMissingPost_whenGetRepeatedly_thenMissIsCachedForNegativeTtl() successfully");
+    }
+
+    @Test
+    public void givenCachedPost_whenInvalidated_thenNextGetReloads() {
+        logger.info("Performing givenCachedPost_whenInvalidated_thenNextGetReloads() ...");
+        PostCache postCache = new PostCache(10, 60_000, 60_000, 1, now::get);
+
+        postCache.get(1L, this::loadMissing);
+        postCache.invalidate(List.of(1L));
+        Optional<PostDTO> result = postCache.get(1L, this::load);
+
+        assertTrue(result.isPresent());
+        assertEquals(2, loads.get());
+        logger.info("Performed givenCachedPost_whenInvalidated_thenNextGetReloads() successfully");
+    }
+
+    @Test
+    public void givenInvalidationDuringLoad_whenLoadCompletes_thenStaleValueIsNotCached() {
+        logger.info("Performing givenInvalidationDuringLoad_whenLoadCompletes_thenStaleValueIsNotCached() ...");
+        PostCache postCache = new PostCache(10, 60_000, 60_000, 1, now::get);
+
+        postCache.get(1L, postId -> {
+            // a writer commits while this reader still holds the old row
+            postCache.invalidate(List.of(postId));
+            return load(postId);
+        });
+        postCache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        logger.info("Performed givenInvalidationDuringLoad_whenLoadCompletes_thenStaleValueIsNotCached() successfully");
+    }
+
+    @Test
+    public void givenConcurrentUpdatesAndReads_whenReadStartsAfterInvalidation_thenItNeverSeesOlderVersion() throws Exception {
+        logger.info("Performing givenConcurrentUpdatesAndReads_whenReadStartsAfterInvalidation_thenItNeverSeesOlderVersion() ...");
+        PostCache postCache = new PostCache(10, 60_000, 60_000);
+        AtomicLong database = new AtomicLong();
+        AtomicLong committed = new AtomicLong();
+        AtomicReference<String> failure = new AtomicReference<>();
+        int updates = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> {
+            for (long version = 1; version <= updates; version++) {
+                database.set(version);
+                postCache.invalidate(List.of(1L));
+                committed.set(version);
+            }
+        }));
+        for (int r = 0; r < 4; r++) {
+            futures.add(executor.submit(() -> {
+                while (committed.get() < updates) {
+                    long minimum = committed.get();
+                    long seen = postCache.get(1L, postId -> Optional.of(
+                            PostUtils.getCustomPostDtoWithId("author", "content", database.get(), postId)))
+                            .orElseThrow().getViewCount();
+                    if (seen < minimum) {
+                        failure.compareAndSet(null, "read version " + seen + " after " + minimum + " was committed");
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertNull(failure.get());
+        assertEquals(updates, postCache.get(1L, postId -> Optional.of(
+                PostUtils.getCustomPostDtoWithId("author", "content", database.get(), postId)))
+                .orElseThrow().getViewCount());
+        logger.info("Performed givenConcurrentUpdatesAndReads_whenReadStartsAfterInvalidation_thenItNeverSeesOlderVersion() successfully");
+    }
+
+    private Optional<PostDTO> load(Long postId) {
+        loads.incrementAndGet();
+        return Optional.of(PostUtils.getCustomPostDtoWithId("author", "content", 0, postId));
+    }
+
+    private Optional<PostDTO> loadMissing(Long postId) {
+        loads.incrementAndGet();
+        return Optional.empty();
+    }
+}
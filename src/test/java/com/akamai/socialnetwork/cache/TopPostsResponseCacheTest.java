@@ -0,0 +1,93 @@
+package com.akamai.socialnetwork.cache;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.index.TopPostsIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TopPostsResponseCacheTest {
+
+    @Mock
+    private TopPostsIndex topPostsIndex;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TopPostsResponseCache topPostsResponseCache;
+
+    private static final Logger logger = LoggerFactory.getLogger(TopPostsResponseCacheTest.class);
+
+    @Before
+    public void setUp() {
+        topPostsResponseCache = new TopPostsResponseCache(topPostsIndex, objectMapper, DataSize.ofBytes(0));
+    }
+
+    @Test
+    public void givenUnchangedSnapshot_whenGetRepeatedly_thenItIsEncodedOnce() throws IOException {
+        logger.info("Performing givenUnchangedSnapshot_whenGetRepeatedly_thenItIsEncodedOnce() ...");
+        List<PostDTO> snapshot = List.of(PostUtils.getCustomPostDtoWithId("author", "content", 10, 1L));
+        when(topPostsIndex.getTopPosts()).thenReturn(snapshot);
+
+        EncodedTopPosts first = topPostsResponseCache.get();
+        EncodedTopPosts second = topPostsResponseCache.get();
+
+        assertSame(first, second);
+        assertEquals(1, topPostsResponseCache.getEncodings());
+        assertArrayEquals(objectMapper.writeValueAsBytes(snapshot), first.getJson());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.getGzippedJson()))) {
+            assertArrayEquals(first.getJson(), gzip.readAllBytes());
+        }
+        assertNotEquals(first.getETag(), first.getGzipETag());
+        logger.info("Performed givenUnchangedSnapshot_whenGetRepeatedly_thenItIsEncodedOnce() successfully");
+    }
+
+    @Test
+    public void givenNewSnapshot_whenGet_thenItIsEncodedAgain() {
+        logger.info("Performing givenNewSnapshot_whenGet_thenItIsEncodedAgain() ...");
+        List<PostDTO> before = List.of(PostUtils.getCustomPostDtoWithId("author", "content", 10, 1L));
+        List<PostDTO> after = List.of(PostUtils.getCustomPostDtoWithId("author", "content", 11, 1L));
+        when(topPostsIndex.getTopPosts()).thenReturn(before, after);
+
+        EncodedTopPosts first = topPostsResponseCache.get();
+        EncodedTopPosts second = topPostsResponseCache.get();
+
+        assertNotSame(first, second);
+        assertSame(after, second.getPosts());
+        assertEquals(2, topPostsResponseCache.getEncodings());
+        logger.info("Performed givenNewSnapshot_whenGet_thenItIsEncodedAgain() successfully");
+    }
+
+    @Test
+    public void givenBodyBelowThreshold_whenGet_thenOnlyJsonIsEncoded() {
+        logger.info("Performing givenBodyBelowThreshold_whenGet_thenOnlyJsonIsEncoded() ...");
+        topPostsResponseCache = new TopPostsResponseCache(topPostsIndex, objectMapper, DataSize.ofKilobytes(2));
+        List<PostDTO> small = List.of(PostUtils.getCustomPostDtoWithId("author", "content", 10, 1L));
+        List<PostDTO> large = List.of(PostUtils.getCustomPostDtoWithId("author", "x".repeat(4096), 10, 1L));
+        when(topPostsIndex.getTopPosts()).thenReturn(small, large);
+
+        EncodedTopPosts smallEncoded = topPostsResponseCache.get();
+        EncodedTopPosts largeEncoded = topPostsResponseCache.get();
+
+        assertNotNull(smallEncoded.getJson());
+        assertNull(smallEncoded.getGzippedJson());
+        assertNotNull(largeEncoded.getGzippedJson());
+        assertTrue(largeEncoded.getGzippedJson().length < largeEncoded.getJson().length);
+        logger.info("Performed givenBodyBelowThreshold_whenGet_thenOnlyJsonIsEncoded() successfully");
+    }
+}
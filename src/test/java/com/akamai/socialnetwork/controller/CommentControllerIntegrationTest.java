@@ -0,0 +1,195 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.CommentDTO;
+import com.akamai.socialnetwork.repository.CommentJdbcRepository;
+import com.akamai.socialnetwork.service.PostService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CommentControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentControllerIntegrationTest.class);
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testThreadIsPagedDepthFirst() throws Exception {
+        logger.info("Performing testThreadIsPagedDepthFirst() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+        Long first = comment(postId, null, "first");
+        Long reply = comment(postId, first, "reply");
+        Long second = comment(postId, null, "second");
+        Long nested = comment(postId, reply, "nested");
+        Long laterReply = comment(postId, first, "later reply");
+
+        List<Long> expected = List.of(first, reply, nested, laterReply, second);
+        Assertions.assertEquals(expected, ids(get("/posts/{id}/comments", postId)));
+
+        // two comments per page, following the cursor
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = read(cursor == null
+                    ? get("/posts/{id}/comments", postId).param("size", "2")
+                    : get("/posts/{id}/comments", postId).param("size", "2").param("cursor", cursor));
+            page.get("comments").forEach(comment -> paged.add(comment.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        Assertions.assertEquals(expected, paged);
+
+        JsonNode thread = read(get("/posts/{id}/comments", postId)).get("comments");
+        Assertions.assertEquals(2, thread.get(2).get("depth").asInt());
+        Assertions.assertEquals(reply.longValue(), thread.get(2).get("parentId").asLong());
+        Assertions.assertTrue(thread.get(4).get("parentId").isNull());
+        logger.info("Performed testThreadIsPagedDepthFirst() successfully");
+    }
+
+    @Test
+    public void testGetReplies() throws Exception {
+        logger.info("Performing testGetReplies() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+        Long first = comment(postId, null, "first");
+        Long reply = comment(postId, first, "reply");
+        Long second = comment(postId, null, "second");
+        Long nested = comment(postId, reply, "nested");
+        comment(postId, second, "other thread");
+
+        Assertions.assertEquals(List.of(reply, nested), ids(get("/posts/{id}/comments/{commentId}/replies", postId, first)));
+        Assertions.assertEquals(List.of(nested), ids(get("/posts/{id}/comments/{commentId}/replies", postId, reply)));
+        Assertions.assertEquals(List.of(), ids(get("/posts/{id}/comments/{commentId}/replies", postId, nested)));
+
+        JsonNode page = read(get("/posts/{id}/comments/{commentId}/replies", postId, first).param("size", "1"));
+        String cursor = page.get("nextCursor").asText();
+        Assertions.assertEquals(List.of(nested), ids(get("/posts/{id}/comments/{commentId}/replies", postId, first)
+                .param("size", "1").param("cursor", cursor)));
+
+        Long otherPostId = postService.createPost(PostUtils.getDefaultPostDTO());
+        mockMvc.perform(get("/posts/{id}/comments/{commentId}/replies", otherPostId, first))
+                .andExpect(status().isNotFound());
+        logger.info("Performed testGetReplies() successfully");
+    }
+
+    @Test
+    public void testGetPostWithComments() throws Exception {
+        logger.info("Performing testGetPostWithComments() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+        mockMvc.perform(get("/posts/{id}", postId).param("comments", "2"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.post.id", Matchers.is(postId.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.commentCount", Matchers.is(0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.comments.comments", Matchers.empty()));
+
+        Long first = comment(postId, null, "first");
+        Long reply = comment(postId, first, "reply");
+        comment(postId, null, "second");
+        mockMvc.perform(get("/posts/{id}", postId).param("comments", "2"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.post.id", Matchers.is(postId.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.commentCount", Matchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.comments.comments[*].id",
+                        Matchers.contains(first.intValue(), reply.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.comments.nextCursor", Matchers.notNullValue()));
+
+        // without the parameter the post alone is returned
+        mockMvc.perform(get("/posts/{id}", postId))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", Matchers.is(postId.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.commentCount").doesNotExist());
+        logger.info("Performed testGetPostWithComments() successfully");
+    }
+
+    @Test
+    public void testInvalidComments() throws Exception {
+        logger.info("Performing testInvalidComments() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+        Long otherPostId = postService.createPost(PostUtils.getDefaultPostDTO());
+        Long otherComment = comment(otherPostId, null, "elsewhere");
+
+        addComment(PostUtils.getRandomLongId(), CommentDTO.builder().author("author").content("lost").build())
+                .andExpect(status().isNotFound());
+        addComment(postId, CommentDTO.builder().author("author").content("reply").parentId(otherComment).build())
+                .andExpect(status().isNotFound());
+        addComment(postId, CommentDTO.builder().author("author").content(" ").build())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/posts/{id}/comments", PostUtils.getRandomLongId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/posts/{id}/comments", postId).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/posts/{id}/comments", postId).param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        Long parent = null;
+        for (int depth = 0; depth < CommentJdbcRepository.MAX_DEPTH; depth++) {
+            parent = comment(postId, parent, "depth " + depth);
+        }
+        addComment(postId, CommentDTO.builder().author("author").content("too deep").parentId(parent).build())
+                .andExpect(status().isBadRequest());
+        Assertions.assertEquals(CommentJdbcRepository.MAX_DEPTH, ids(get("/posts/{id}/comments", postId)).size());
+
+        // comments go with their post
+        postService.deletePost(postId);
+        mockMvc.perform(get("/posts/{id}/comments", postId)).andExpect(status().isNotFound());
+        logger.info("Performed testInvalidComments() successfully");
+    }
+
+    private Long comment(Long postId, Long parentId, String content) throws Exception {
+        String body = addComment(postId, CommentDTO.builder().author("author").content(content).parentId(parentId).build())
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Long.valueOf(body);
+    }
+
+    private ResultActions addComment(Long postId, CommentDTO comment) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("author", comment.getAuthor())
+                .put("content", comment.getContent())
+                .put("parentId", comment.getParentId());
+        return mockMvc.perform(post("/posts/{id}/comments", postId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()));
+    }
+
+    private JsonNode read(MockHttpServletRequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private List<Long> ids(MockHttpServletRequestBuilder request) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        read(request).get("comments").forEach(comment -> ids.add(comment.get("id").asLong()));
+        return ids;
+    }
+}
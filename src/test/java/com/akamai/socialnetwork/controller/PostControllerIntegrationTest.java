@@ -1,26 +1,53 @@
 package com.akamai.socialnetwork.controller;
 
 import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.converter.PostMediaTypes;
+import com.akamai.socialnetwork.converter.PostProtobufCodec;
+import com.akamai.socialnetwork.counter.ViewCountBuffer;
 import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.search.PostSearchIndex;
 import com.akamai.socialnetwork.service.PostService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -34,9 +61,20 @@ public class PostControllerIntegrationTest {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @LocalServerPort
+    private int port;
+
     private static final Logger logger = LoggerFactory.getLogger(PostControllerIntegrationTest.class);
 
     ObjectMapper objectMapper = new ObjectMapper();
+    ObjectMapper cborMapper = new CBORMapper();
+    ObjectMapper smileMapper = new SmileMapper();
     @Test
     public void testGetPostById() throws Exception {
         logger.info("Performing testGetPostById() ...");
@@ -46,7 +84,7 @@ public class PostControllerIntegrationTest {
         mockMvc.perform(get("/posts/" + postId))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.id", Matchers.is(postId.intValue())))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.title", Matchers.is("Test Author")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.author", Matchers.is("Test Author")))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.content", Matchers.is("Test Content")));
 
         logger.info("Performed testGetPostById() successfully");
@@ -76,7 +114,7 @@ public class PostControllerIntegrationTest {
         updatedPostDto.setId(postId);
         String json = objectMapper.writeValueAsString(updatedPostDto);
 
-        mockMvc.perform(put("/posts/update" + postId)
+        mockMvc.perform(put("/posts/update/" + postId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(status().isOk())
@@ -90,7 +128,7 @@ public class PostControllerIntegrationTest {
         PostDTO postDTO = PostUtils.getDefaultPostDTO();
         Long postId = postService.createPost(postDTO);
 
-        mockMvc.perform(MockMvcRequestBuilders.delete("/posts/delete" + postId))
+        mockMvc.perform(MockMvcRequestBuilders.delete("/posts/delete/" + postId))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.isA(Number.class)));
         logger.info("Performed testDeletePost() successfully");
@@ -101,12 +139,448 @@ public class PostControllerIntegrationTest {
         logger.info("Performing testGetAllPost() ...");
         PostDTO postDTO = PostUtils.getDefaultPostDTO();
         postService.createPost(postDTO);
-        mockMvc.perform(get("/posts/getAll"))
+        MvcResult mvcResult = mockMvc.perform(get("/posts/getAll"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.isA(List.class)));
         logger.info("Performed testGetAllPost() successfully");
     }
 
+    @Test
+    public void testGetPostsPage() throws Exception {
+        logger.info("Performing testGetPostsPage() ...");
+        postService.createPost(PostUtils.getDefaultPostDTO());
+        postService.createPost(PostUtils.getDefaultPostDTO());
+
+        String body = mockMvc.perform(get("/posts/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts.length()", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", Matchers.notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+        Long firstId = objectMapper.readTree(body).get("posts").get(0).get("id").asLong();
+
+        mockMvc.perform(get("/posts/page").param("cursor", cursor).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts[0].id", Matchers.greaterThan(firstId.intValue())));
+        logger.info("Performed testGetPostsPage() successfully");
+    }
+
+    @Test
+    public void testGetPostsByAuthor() throws Exception {
+        logger.info("Performing testGetPostsByAuthor() ...");
+        String author = "Feed Author " + PostUtils.getRandomLongId() % 1000;
+        Long firstId = postService.createPost(PostUtils.getCustomPostDto(author, "first", 0));
+        Long secondId = postService.createPost(PostUtils.getCustomPostDto(author, "second", 0));
+        Long thirdId = postService.createPost(PostUtils.getCustomPostDto(author, "third", 0));
+        postService.deletePost(secondId);
+
+        String body = mockMvc.perform(get("/posts/by-author/{author}", author).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts.length()", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts[0].author", Matchers.is(author)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+        Long pageOneId = objectMapper.readTree(body).get("posts").get(0).get("id").asLong();
+
+        mockMvc.perform(get("/posts/by-author/{author}", author).param("cursor", cursor).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts.length()", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts[0].id",
+                        Matchers.is((pageOneId.equals(thirdId) ? firstId : thirdId).intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", Matchers.nullValue()));
+
+        mockMvc.perform(get("/posts/by-author/{author}/count", author))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.postCount", Matchers.is(2)));
+        logger.info("Performed testGetPostsByAuthor() successfully");
+    }
+
+    @Test
+    public void testGetTimeline() throws Exception {
+        logger.info("Performing testGetTimeline() ...");
+        Long olderId = postService.createPost(PostUtils.getCustomPostDto("Timeline Author", "older", 0));
+        Long newerId = postService.createPost(PostUtils.getCustomPostDto("Timeline Author", "newer", 0));
+        Instant now = Instant.now();
+
+        MvcResult mvcResult = mockMvc.perform(get("/posts/timeline")
+                        .param("from", now.minus(Duration.ofMinutes(1)).toString())
+                        .param("to", now.plus(Duration.ofMinutes(1)).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.isA(List.class)))
+                .andReturn().getResponse().getContentAsString();
+
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(body).forEach(post -> ids.add(post.get("id").asLong()));
+        Assertions.assertTrue(ids.contains(olderId));
+        Assertions.assertTrue(ids.indexOf(newerId) < ids.indexOf(olderId));
+        logger.info("Performed testGetTimeline() successfully");
+    }
+
+    @Test
+    public void testGetTimelineInvalidRange() throws Exception {
+        logger.info("Performing testGetTimelineInvalidRange() ...");
+        Instant now = Instant.now();
+        mockMvc.perform(get("/posts/timeline")
+                        .param("from", now.toString())
+                        .param("to", now.minus(Duration.ofDays(1)).toString()))
+                .andExpect(status().isBadRequest());
+        logger.info("Performed testGetTimelineInvalidRange() successfully");
+    }
+
+    @Test
+    public void testSearchPosts() throws Exception {
+        logger.info("Performing testSearchPosts() ...");
+        String word = "zebra" + Math.abs(PostUtils.getRandomLongId() % 1_000_000);
+        Long postId = postService.createPost(PostUtils.getCustomPostDto("Search Author", "A striped " + word + " crossed", 0));
+        Long deletedId = postService.createPost(PostUtils.getCustomPostDto("Search Author", "Another " + word, 0));
+        postService.deletePost(deletedId);
+        Assertions.assertTrue(postSearchIndex.awaitIndexed(10, TimeUnit.SECONDS));
+
+        mockMvc.perform(get("/posts/search").param("q", "\"striped " + word + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts.length()", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts[0].id", Matchers.is(postId.intValue())));
+        mockMvc.perform(get("/posts/search").param("q", word.substring(0, 6) + "*"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts[*].id", Matchers.hasItem(postId.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.posts[*].id", Matchers.not(Matchers.hasItem(deletedId.intValue()))));
+        mockMvc.perform(get("/posts/search").param("q", "  "))
+                .andExpect(status().isBadRequest());
+        logger.info("Performed testSearchPosts() successfully");
+    }
+
+    @Test
+    public void testGetPostByIdConditional() throws Exception {
+        logger.info("Performing testGetPostByIdConditional() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+
+        String eTag = mockMvc.perform(get("/posts/" + postId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(eTag);
+
+        mockMvc.perform(get("/posts/" + postId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)))
+                .andExpect(content().string(""));
+
+        // the CBOR bytes of the same version are another representation with a tag of its own
+        String cborETag = mockMvc.perform(get("/posts/" + postId).accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotEquals(eTag, cborETag);
+        mockMvc.perform(get("/posts/" + postId).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isNotModified());
+
+        postService.updatePost(postId, PostUtils.getCustomPostDto("Test Author", "Updated Content", 3));
+
+        String updatedETag = mockMvc.perform(get("/posts/" + postId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content", Matchers.is("Updated Content")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotEquals(eTag, updatedETag);
+        mockMvc.perform(get("/posts/" + postId).header(HttpHeaders.IF_NONE_MATCH, updatedETag))
+                .andExpect(status().isNotModified());
+        logger.info("Performed testGetPostByIdConditional() successfully");
+    }
+
+    @Test
+    public void testGetTopPostsConditional() throws Exception {
+        logger.info("Performing testGetTopPostsConditional() ...");
+        Long postId = postService.createPost(PostUtils.getCustomPostDto("Test Author", "Top Content", Integer.MAX_VALUE));
+
+        String eTag = mockMvc.perform(get("/posts/getMostViewed"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(eTag);
+        mockMvc.perform(get("/posts/getMostViewed").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        postService.updatePost(postId, PostUtils.getCustomPostDto("Test Author", "Top Content Updated", Integer.MAX_VALUE));
+
+        mockMvc.perform(get("/posts/getMostViewed").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(eTag)));
+        logger.info("Performed testGetTopPostsConditional() successfully");
+    }
+
+    @Test
+    public void testGetTopPostsGzip() throws Exception {
+        logger.info("Performing testGetTopPostsGzip() ...");
+        // above the 2KB compression threshold
+        for (int i = 0; i < 10; i++) {
+            postService.createPost(PostUtils.getCustomPostDto("Test Author", "Top Content ".repeat(40), Integer.MAX_VALUE));
+        }
+
+        byte[] plain = mockMvc.perform(get("/posts/getMostViewed"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] gzipped = mockMvc.perform(get("/posts/getMostViewed").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            Assertions.assertArrayEquals(plain, gzip.readAllBytes());
+        }
+        logger.info("Performed testGetTopPostsGzip() successfully");
+    }
+
+    @Test
+    public void testBinaryWireFormatsRoundTrip() throws Exception {
+        logger.info("Performing testBinaryWireFormatsRoundTrip() ...");
+        PostDTO postDTO = PostUtils.getCustomPostDto("Wire Author", "Wire Content", 7);
+
+        byte[] createdId = mockMvc.perform(MockMvcRequestBuilders.post("/posts/create")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(postDTO)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Long postId = cborMapper.readValue(createdId, Long.class);
+
+        byte[] smile = mockMvc.perform(get("/posts/" + postId).accept(PostMediaTypes.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PostMediaTypes.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        PostDTO fromSmile = smileMapper.readValue(smile, PostDTO.class);
+        Assertions.assertEquals(postId, fromSmile.getId());
+        Assertions.assertEquals("Wire Content", fromSmile.getContent());
+
+        byte[] protobuf = mockMvc.perform(get("/posts/" + postId).accept(PostMediaTypes.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PostMediaTypes.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+        PostDTO fromProtobuf = PostProtobufCodec.readPost(CodedInputStream.newInstance(protobuf));
+        Assertions.assertEquals(postId, fromProtobuf.getId());
+        Assertions.assertEquals("Wire Author", fromProtobuf.getAuthor());
+        Assertions.assertEquals(postDTO.getDate(), fromProtobuf.getDate());
+        Assertions.assertEquals(7L, fromProtobuf.getViewCount());
+
+        // a protobuf body is validated like a JSON one
+        fromProtobuf.setContent("Updated over protobuf");
+        fromProtobuf.setDate(Instant.now());
+        ByteArrayOutputStream update = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(update);
+        PostProtobufCodec.writePost(output, fromProtobuf);
+        output.flush();
+        mockMvc.perform(put("/posts/update/{id}", postId)
+                        .contentType(PostMediaTypes.APPLICATION_PROTOBUF)
+                        .content(update.toByteArray()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/posts/" + postId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content", Matchers.is("Updated over protobuf")));
+        logger.info("Performed testBinaryWireFormatsRoundTrip() successfully");
+    }
+
+    @Test
+    public void testGetTopPostsAndPageNegotiated() throws Exception {
+        logger.info("Performing testGetTopPostsAndPageNegotiated() ...");
+        postService.createPost(PostUtils.getCustomPostDto("Test Author", "Top Content", Integer.MAX_VALUE));
+
+        byte[] protobuf = mockMvc.perform(get("/posts/getMostViewed").accept(PostMediaTypes.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PostMediaTypes.APPLICATION_PROTOBUF))
+                .andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = mockMvc.perform(get("/posts/getMostViewed"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        List<Long> jsonIds = new ArrayList<>();
+        objectMapper.readTree(json).forEach(post -> jsonIds.add(post.get("id").asLong()));
+        List<Long> protobufIds = new ArrayList<>();
+        PostProtobufCodec.readPostList(CodedInputStream.newInstance(protobuf)).forEach(post -> protobufIds.add(post.getId()));
+        Assertions.assertEquals(jsonIds, protobufIds);
+
+        byte[] cbor = mockMvc.perform(get("/posts/page").param("size", "2").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertEquals(2, cborMapper.readValue(cbor, PostPageDTO.class).getPosts().size());
+
+        mockMvc.perform(get("/posts/getMostViewed").accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+        logger.info("Performed testGetTopPostsAndPageNegotiated() successfully");
+    }
+
+    @Test
+    public void testGetAllPostsProtobuf() throws Exception {
+        logger.info("Performing testGetAllPostsProtobuf() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+        MvcResult mvcResult = mockMvc.perform(get("/posts/getAll").accept(PostMediaTypes.APPLICATION_PROTOBUF))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PostMediaTypes.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<Long> ids = new ArrayList<>();
+        PostProtobufCodec.readPostList(CodedInputStream.newInstance(body)).forEach(post -> ids.add(post.getId()));
+        Assertions.assertTrue(ids.contains(postId));
+
+        mockMvc.perform(get("/posts/getAll").accept(MediaType.TEXT_HTML))
+                .andExpect(status().isNotAcceptable());
+        logger.info("Performed testGetAllPostsProtobuf() successfully");
+    }
+
+    @Test
+    public void testGetAllPostsCompressedByServer() throws Exception {
+        logger.info("Performing testGetAllPostsCompressedByServer() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/posts/getAll"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        // streamed, so the length was never known up front
+        Assertions.assertTrue(response.headers().firstValue(HttpHeaders.CONTENT_LENGTH).isEmpty());
+        List<Long> ids = new ArrayList<>();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            objectMapper.readTree(gzip).forEach(post -> ids.add(post.get("id").asLong()));
+        }
+        Assertions.assertTrue(ids.contains(postId));
+        logger.info("Performed testGetAllPostsCompressedByServer() successfully");
+    }
+
+    @Test
+    public void testGetPostsPageInvalidCursor() throws Exception {
+        logger.info("Performing testGetPostsPageInvalidCursor() ...");
+        mockMvc.perform(get("/posts/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        logger.info("Performed testGetPostsPageInvalidCursor() successfully");
+    }
+
+    @Test
+    public void testRecordView() throws Exception {
+        logger.info("Performing testRecordView() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/posts/{id}/view", postId))
+                .andExpect(status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.is(postId.intValue())));
+        viewCountBuffer.flush();
+
+        mockMvc.perform(get("/posts/" + postId))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.viewCount", Matchers.is(1)));
+        logger.info("Performed testRecordView() successfully");
+    }
+
+    @Test
+    public void testGetTrendingPosts() throws Exception {
+        logger.info("Performing testGetTrendingPosts() ...");
+        Long hot = postService.createPost(PostUtils.getCustomPostDto("author", "hot", 0));
+        Long warm = postService.createPost(PostUtils.getCustomPostDto("author", "warm", 0));
+        Long deleted = postService.createPost(PostUtils.getCustomPostDto("author", "deleted", 0));
+        for (int i = 0; i < 50; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/posts/{id}/view", hot)).andExpect(status().isAccepted());
+            mockMvc.perform(MockMvcRequestBuilders.post("/posts/{id}/view", deleted)).andExpect(status().isAccepted());
+        }
+        for (int i = 0; i < 40; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/posts/{id}/view", warm)).andExpect(status().isAccepted());
+        }
+        postService.deletePost(deleted);
+
+        String body = mockMvc.perform(get("/posts/trending").param("size", "100"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(body).forEach(post -> ids.add(post.get("id").asLong()));
+        // other tests record views too, only the relative order is known
+        Assertions.assertTrue(ids.indexOf(hot) >= 0 && ids.indexOf(hot) < ids.indexOf(warm));
+        Assertions.assertFalse(ids.contains(deleted));
+        mockMvc.perform(get("/posts/trending").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        logger.info("Performed testGetTrendingPosts() successfully");
+    }
+
+    @Test
+    public void testBatchCreateUpdateDelete() throws Exception {
+        logger.info("Performing testBatchCreateUpdateDelete() ...");
+        List<PostDTO> posts = List.of(PostUtils.getDefaultPostDTO(), PostUtils.getCustomPostDto("", "content", 0));
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/posts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(posts)))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", Matchers.notNullValue()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].error", Matchers.containsString("author")))
+                .andReturn().getResponse().getContentAsString();
+        Long postId = objectMapper.readTree(body).get(0).get("id").asLong();
+
+        PostDTO update = PostUtils.getCustomPostDtoWithId("author", "updated content", 3, postId);
+        mockMvc.perform(put("/posts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(update))))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", Matchers.is(postId.intValue())));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/posts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(postId, -1L))))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", Matchers.is(postId.intValue())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].error", Matchers.containsString("not found")));
+
+        mockMvc.perform(get("/posts/" + postId))
+                .andExpect(status().isNotFound());
+        logger.info("Performed testBatchCreateUpdateDelete() successfully");
+    }
+
+    @Test
+    public void testGetPoolStats() throws Exception {
+        logger.info("Performing testGetPoolStats() ...");
+        postService.createPost(PostUtils.getDefaultPostDTO());
+
+        mockMvc.perform(get("/stats/pool"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.maxSize", Matchers.is(20)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total", Matchers.greaterThan(0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.acquisitions", Matchers.greaterThan(0)));
+        logger.info("Performed testGetPoolStats() successfully");
+    }
+
+    @Test
+    public void testGetMetrics() throws Exception {
+        logger.info("Performing testGetMetrics() ...");
+        Long postId = postService.createPost(PostUtils.getDefaultPostDTO());
+        mockMvc.perform(get("/posts/" + postId)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+                        "posts_http_server_requests_seconds_count{method=\"GET\",uri=\"/posts/{id}\"}")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+                        "posts_service_method_seconds_count{method=\"PostServiceImpl.fetchPost\"}")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+                        "posts_serialization_seconds_count{type=\"PostDTO\"}")));
+        logger.info("Performed testGetMetrics() successfully");
+    }
+
     @Test
     public void testGetPostByIdNotFoundException() throws Exception {
         logger.info("Performing testGetPostByIdNotFoundException() ...");
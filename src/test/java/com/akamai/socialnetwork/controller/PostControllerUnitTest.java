@@ -1,24 +1,43 @@
 package com.akamai.socialnetwork.controller;
 
 import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.cache.EncodedTopPosts;
+import com.akamai.socialnetwork.converter.PostMediaTypes;
+import com.akamai.socialnetwork.converter.PostProtobufCodec;
 import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostVersionDTO;
 import com.akamai.socialnetwork.exception.ElementNotFoundException;
 import com.akamai.socialnetwork.service.PostService;
-import org.junit.jupiter.api.Test;
+import com.akamai.socialnetwork.wal.PostWriteAheadLog;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.protobuf.CodedInputStream;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
-
-import javax.validation.ConstraintViolation;
-import javax.validation.Validation;
-import javax.validation.Validator;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +48,12 @@ public class PostControllerUnitTest {
     @Mock
     private PostService postService;
 
+    @Mock
+    private PostWriteAheadLog postWriteAheadLog;
+
+    @Spy
+    private PostStreamWriter postStreamWriter = new PostStreamWriter(new ObjectMapper(), new CBORMapper(), new SmileMapper());
+
     @InjectMocks
     private PostController postController;
 
@@ -38,17 +63,20 @@ public class PostControllerUnitTest {
 
 
     @Test
-    public void givenValidPostId_whenGetPostById_thenReturnPost() throws ElementNotFoundException {
+    public void givenValidPostId_whenGetPostById_thenReturnPost() throws Exception {
         logger.info("Performing givenValidPostId_whenGetPostById_thenReturnPost() ...");
         Long id = PostUtils.getRandomLongId();
         PostDTO postDTO = PostUtils.getDefaultPostDTO();
+        postDTO.setId(id);
 
+        when(postService.fetchPostVersion(id)).thenReturn(new PostVersionDTO(id, postDTO.getVersion(), null));
         when(postService.fetchPost(id)).thenReturn(postDTO);
 
-        PostDTO result = postController.getPostById(id);
+        ResponseEntity<PostDTO> result = postController.getPostById(id, null, servletWebRequest());
 
-        assertNotNull(result);
-        assertEquals(id, result.getId());
+        assertNotNull(result.getBody());
+        assertEquals(id, result.getBody().getId());
+        assertEquals(MediaType.APPLICATION_JSON, result.getHeaders().getContentType());
         logger.info("Performed givenValidPostId_whenGetPostById_thenReturnPost() successfully");
     }
 
@@ -68,6 +96,22 @@ public class PostControllerUnitTest {
         logger.info("Performed givenValidPost_whenCreatePost_thenReturnPostId() successfully");
     }
 
+    @Test
+    public void givenWriteAheadLogEnabled_whenCreatePost_thenPostIsLogged() {
+        logger.info("Performing givenWriteAheadLogEnabled_whenCreatePost_thenPostIsLogged() ...");
+        Long id = PostUtils.getRandomLongId();
+        PostDTO postDTO = PostUtils.getDefaultPostDTO();
+
+        when(postWriteAheadLog.isEnabled()).thenReturn(true);
+        when(postWriteAheadLog.append(postDTO)).thenReturn(id);
+
+        Long result = postController.createPost(postDTO);
+
+        assertEquals(id, result);
+        verify(postService, never()).createPost(any());
+        logger.info("Performed givenWriteAheadLogEnabled_whenCreatePost_thenPostIsLogged() successfully");
+    }
+
     @Test
     public void givenValidPostIdAndUpdatedPost_whenUpdatePost_thenReturnUpdatedPostId() throws ElementNotFoundException {
         logger.info("Performing givenValidPostIdAndUpdatedPost_whenUpdatePost_thenReturnUpdatedPostId() ...");
@@ -99,63 +143,115 @@ public class PostControllerUnitTest {
     }
 
     @Test
-    public void givenRequest_whenFindTopPosts_thenReturnTopPosts() throws ElementNotFoundException {
+    public void givenRequest_whenFindTopPosts_thenReturnTopPosts() throws Exception {
         logger.info("Performing givenRequest_whenFindTopPosts_thenReturnTopPosts() ...");
 
         List<PostDTO> posts = new ArrayList<>();
         posts.add(PostDTO.builder()
-                .date(new Date())
+                .date(Instant.now())
                 .author("Test Author One")
                 .content("This is a test post.")
                 .viewCount(1)
                 .build());
         posts.add(PostDTO.builder()
-                .date(new Date())
+                .date(Instant.now())
                 .author("Test Author Two")
                 .content("This is another test post.")
                 .viewCount(2)
                 .build());
         posts.add(PostDTO.builder()
-                .date(new Date())
+                .date(Instant.now())
                 .author("Test Author Three")
                 .content("This is another test post.")
                 .viewCount(3)
                 .build());
 
-        when(postService.fetchTopPosts()).thenReturn(posts);
+        byte[] json = new ObjectMapper().writeValueAsBytes(posts);
+        when(postService.fetchEncodedTopPosts())
+                .thenReturn(new EncodedTopPosts(posts, json, new byte[0], "\"3-1\"", 0));
 
-        List<PostDTO> result = postController.getTopPosts();
+        ResponseEntity<byte[]> response = postController.getTopPosts(null);
+        ResponseEntity<List<PostDTO>> negotiated = postController.getTopPostsNegotiated();
 
-        assertNotNull(result);
-        assertEquals(posts.size(), result.size());
+        assertArrayEquals(json, response.getBody());
+        assertEquals("\"3-1\"", response.getHeaders().getETag());
+        assertNotNull(negotiated.getBody());
+        assertEquals(posts.size(), negotiated.getBody().size());
         logger.info("Performed givenRequest_whenFindTopPosts_thenReturnTopPosts() successfully");
     }
 
     @Test
-    public void givenRequest_whenFindAll_thenReturnAll() throws ElementNotFoundException {
+    public void givenRequest_whenFindAll_thenReturnAll() throws Exception {
         logger.info("Performing givenRequest_whenFindAll_thenReturnAll() ...");
         List<PostDTO> posts = new ArrayList<>();
         posts.add(PostDTO.builder()
-                .date(new Date())
+                .date(Instant.now())
                 .author("Test Author One")
                 .content("This is a test post.")
                 .viewCount(0)
                 .build());
         posts.add(PostDTO.builder()
-                .date(new Date())
+                .date(Instant.now())
                 .author("Test Author Two")
                 .content("This is another test post.")
                 .viewCount(0)
                 .build());
 
-        when(postService.fetchTopPosts()).thenReturn(posts);
+        when(postService.hasPosts()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<PostDTO> consumer = invocation.getArgument(0);
+            posts.forEach(consumer);
+            return null;
+        }).when(postService).streamAllPosts(any());
 
-        List<PostDTO> result = postController.getAllPosts();
+        ResponseEntity<StreamingResponseBody> response = postController.getAllPosts(null);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        List<PostDTO> result = new ObjectMapper().readValue(body.toByteArray(), new TypeReference<List<PostDTO>>() {});
         assertNotNull(result);
         assertEquals(posts.size(), result.size());
         logger.info("Performed givenRequest_whenFindAll_thenReturnAll() successfully");
     }
 
+    @Test
+    public void givenBinaryAccept_whenFindAll_thenStreamNegotiatedFormat() throws Exception {
+        logger.info("Performing givenBinaryAccept_whenFindAll_thenStreamNegotiatedFormat() ...");
+        List<PostDTO> posts = List.of(
+                PostUtils.getCustomPostDtoWithId("Test Author One", "This is a test post.", 1, 1L),
+                PostUtils.getCustomPostDtoWithId("Test Author Two", "This is another test post.", 2, 2L));
+        when(postService.hasPosts()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<PostDTO> consumer = invocation.getArgument(0);
+            posts.forEach(consumer);
+            return null;
+        }).when(postService).streamAllPosts(any());
+
+        ResponseEntity<StreamingResponseBody> cbor = postController.getAllPosts("application/json;q=0.5, application/cbor");
+        ByteArrayOutputStream cborBody = new ByteArrayOutputStream();
+        cbor.getBody().writeTo(cborBody);
+        ResponseEntity<StreamingResponseBody> protobuf = postController.getAllPosts(PostMediaTypes.APPLICATION_PROTOBUF_VALUE);
+        ByteArrayOutputStream protobufBody = new ByteArrayOutputStream();
+        protobuf.getBody().writeTo(protobufBody);
+
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals(posts, new CBORMapper().readValue(cborBody.toByteArray(), new TypeReference<List<PostDTO>>() {}));
+        assertEquals(PostMediaTypes.APPLICATION_PROTOBUF, protobuf.getHeaders().getContentType());
+        assertEquals(posts, PostProtobufCodec.readPostList(CodedInputStream.newInstance(protobufBody.toByteArray())));
+        assertThrows(HttpMediaTypeNotAcceptableException.class, () -> postController.getAllPosts("text/html, */*;q=0"));
+        logger.info("Performed givenBinaryAccept_whenFindAll_thenStreamNegotiatedFormat() successfully");
+    }
+
+
+    @Test
+    public void givenEmptyRepository_whenFindAll_thenThrowElementNotFoundException() {
+        logger.info("Performing givenEmptyRepository_whenFindAll_thenThrowElementNotFoundException() ...");
+        when(postService.hasPosts()).thenReturn(false);
+
+        assertThrows(ElementNotFoundException.class, () -> postController.getAllPosts(null));
+        verify(postService, never()).streamAllPosts(any());
+        logger.info("Performed givenEmptyRepository_whenFindAll_thenThrowElementNotFoundException() successfully");
+    }
 
     @Test
     public void givenInvalidPostDTO_thenCountViolations() {
@@ -181,15 +277,15 @@ public class PostControllerUnitTest {
         Long id = PostUtils.getRandomLongId();
 
         // Setup Mocks
-        when(postService.fetchPost(anyLong())).thenThrow(new ElementNotFoundException());
+        when(postService.fetchPostVersion(anyLong())).thenThrow(new ElementNotFoundException());
 
         // Perform a GET request to the endpoint with an invalid ID
-        assertThrows(ElementNotFoundException.class, () -> postController.getPostById(id));
+        assertThrows(ElementNotFoundException.class, () -> postController.getPostById(id, null, servletWebRequest()));
         logger.info("Performed givenInvalidPostId_whenGetPostById_thenThrowElementNotFoundException() successfully");
     }
 
     @Test
-    void givenInvalidPostId_whenDeletePost_thenThrowElementNotFoundException() throws Exception {
+    public void givenInvalidPostId_whenDeletePost_thenThrowElementNotFoundException() throws Exception {
         logger.info("Performing givenInvalidPostId_whenDeletePost_thenThrowElementNotFoundException() ...");
 
         // Generate a random id
@@ -206,11 +302,11 @@ public class PostControllerUnitTest {
     }
 
     @Test
-    void givenInvalidPostId_whenUpdatePost_thenThrowElementNotFoundException() throws Exception {
+    public void givenInvalidPostId_whenUpdatePost_thenThrowElementNotFoundException() throws Exception {
         logger.info("Performing givenInvalidPostId_whenUpdatePost_thenThrowElementNotFoundException() ...");
         Long id = PostUtils.getRandomLongId();
         PostDTO postDTO = PostDTO.builder()
-                .date(new Date())
+                .date(Instant.now())
                 .author("Test Author")
                 .content("This is a test post.")
                 .viewCount(0)
@@ -225,5 +321,7 @@ public class PostControllerUnitTest {
 
     }
 
+    private static ServletWebRequest servletWebRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
 }
-
@@ -0,0 +1,195 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.repository.AuthorStatsRepository;
+import com.akamai.socialnetwork.service.ReactivePostService;
+import com.akamai.socialnetwork.timeline.HomeTimelineIndex;
+import com.akamai.socialnetwork.timeline.TimelineEntry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@RunWith(SpringRunner.class)
+// a database of its own, so no post another test class leaves behind outranks the ones created here
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "hibernate.hikari.jdbcUrl=jdbc:h2:mem:routerdb;DB_CLOSE_DELAY=-1",
+        "posts.r2dbc.url=r2dbc:h2:mem:///routerdb?options=DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("reactive")
+public class PostRouterIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private HomeTimelineIndex homeTimelineIndex;
+
+    @Autowired
+    private ReactivePostService reactivePostService;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(PostRouterIntegrationTest.class);
+
+    @Test
+    public void testCreateGetUpdateDeletePost() {
+        logger.info("Performing testCreateGetUpdateDeletePost() ...");
+        Long postId = createPost(PostUtils.getDefaultPostDTO());
+        assertNotNull(postId);
+
+        webTestClient.get().uri("/posts/{id}", postId).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(postId)
+                .jsonPath("$.author").isEqualTo("Test Author");
+
+        PostDTO update = PostUtils.getCustomPostDto("Updated Author", "Updated Content", 5);
+        webTestClient.put().uri("/posts/update/{id}", postId).bodyValue(update).exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/posts/{id}", postId).exchange()
+                .expectBody().jsonPath("$.content").isEqualTo("Updated Content");
+
+        webTestClient.delete().uri("/posts/delete/{id}", postId).exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/posts/{id}", postId).exchange()
+                .expectStatus().isNotFound();
+        logger.info("Performed testCreateGetUpdateDeletePost() successfully");
+    }
+
+    @Test
+    public void testCreatedPostIsFannedOut() {
+        logger.info("Performing testCreatedPostIsFannedOut() ...");
+        String author = "router-author-" + PostUtils.getRandomLongId();
+        Long older = createPost(PostUtils.getCustomPostDto(author, "older", 0));
+        // the first read fills the buffer from the database, later posts only reach it as events
+        assertEquals(List.of(older), timeline(author));
+
+        Long newer = createPost(PostUtils.getCustomPostDto(author, "newer", 0));
+        assertEquals(List.of(newer, older), timeline(author));
+        logger.info("Performed testCreatedPostIsFannedOut() successfully");
+    }
+
+    @Test
+    public void testGetAllPostsAsNdjsonStream() {
+        logger.info("Performing testGetAllPostsAsNdjsonStream() ...");
+        Long first = createPost(PostUtils.getDefaultPostDTO());
+        Long second = createPost(PostUtils.getDefaultPostDTO());
+
+        Flux<PostDTO> posts = webTestClient.get().uri("/posts/getAll")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PostDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(posts.map(PostDTO::getId).filter(id -> id.equals(first) || id.equals(second)))
+                .expectNext(first, second)
+                .verifyComplete();
+        logger.info("Performed testGetAllPostsAsNdjsonStream() successfully");
+    }
+
+    @Test
+    public void testDeleteWaitsForConcurrentUpdateOfTheAuthor() throws Exception {
+        logger.info("Performing testDeleteWaitsForConcurrentUpdateOfTheAuthor() ...");
+        String author = "router-author-" + PostUtils.getRandomLongId();
+        String newAuthor = "router-author-" + PostUtils.getRandomLongId();
+        Long postId = createPost(PostUtils.getCustomPostDto(author, "moved, then deleted", 0));
+
+        CompletableFuture<Long> deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            // an update of the author holding the row, as the blocking updatePost does
+            jdbcTemplate.queryForObject("SELECT author FROM post_entity WHERE id = ? FOR UPDATE", String.class, postId);
+            CompletableFuture<Long> delete = reactivePostService.deletePost(postId)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .toFuture();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            jdbcTemplate.update("UPDATE post_entity SET author = ? WHERE id = ?", newAuthor, postId);
+            authorStatsRepository.adjustPostCounts(new TreeMap<>(Map.of(author, -1L, newAuthor, 1L)));
+            return delete;
+        });
+
+        assertEquals(postId, deleted.get(10, TimeUnit.SECONDS));
+        // the delete read the author after the update committed, so it took the post from the new one
+        assertEquals(0, authorStatsRepository.findPostCount(author));
+        assertEquals(0, authorStatsRepository.findPostCount(newAuthor));
+        logger.info("Performed testDeleteWaitsForConcurrentUpdateOfTheAuthor() successfully");
+    }
+
+    @Test
+    public void testGetMostViewed() {
+        logger.info("Performing testGetMostViewed() ...");
+        Long postId = createPost(PostUtils.getCustomPostDto("Test Author", "Test Content", 1_000_000));
+
+        webTestClient.get().uri("/posts/getMostViewed").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(postId)
+                .jsonPath("$[0].viewCount").isEqualTo(1_000_000);
+        logger.info("Performed testGetMostViewed() successfully");
+    }
+
+    @Test
+    public void testCreateInvalidPost() {
+        logger.info("Performing testCreateInvalidPost() ...");
+        PostDTO postDTO = PostUtils.getCustomPostDto("", "Test Content", 0);
+
+        webTestClient.post().uri("/posts/create").bodyValue(postDTO).exchange()
+                .expectStatus().isBadRequest();
+        logger.info("Performed testCreateInvalidPost() successfully");
+    }
+
+    @Test
+    public void testUpdatePostNotFound() {
+        logger.info("Performing testUpdatePostNotFound() ...");
+        webTestClient.put().uri("/posts/update/{id}", Long.MAX_VALUE).bodyValue(PostUtils.getDefaultPostDTO()).exchange()
+                .expectStatus().isNotFound();
+        logger.info("Performed testUpdatePostNotFound() successfully");
+    }
+
+    private List<Long> timeline(String user) {
+        return homeTimelineIndex.read(user, Long.MAX_VALUE, Long.MAX_VALUE, 10).stream()
+                .map(TimelineEntry::getPostId)
+                .toList();
+    }
+
+    private Long createPost(PostDTO postDTO) {
+        return webTestClient.post().uri("/posts/create").bodyValue(postDTO).exchange()
+                .expectStatus().isOk()
+                .expectBody(Long.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
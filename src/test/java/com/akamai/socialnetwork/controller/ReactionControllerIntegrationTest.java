@@ -0,0 +1,128 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.counter.ReactionCountBuffer;
+import com.akamai.socialnetwork.dto.Reaction;
+import com.akamai.socialnetwork.repository.ReactionJdbcRepository;
+import com.akamai.socialnetwork.service.PostService;
+import com.akamai.socialnetwork.service.ReactionService;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ReactionControllerIntegrationTest {
+
+    private static final int USERS = 4000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private ReactionCountBuffer reactionCountBuffer;
+
+    @Autowired
+    private ReactionJdbcRepository reactionJdbcRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactionControllerIntegrationTest.class);
+
+    @Test
+    public void testLikeIsIdempotentPerUser() throws Exception {
+        logger.info("Performing testLikeIsIdempotentPerUser() ...");
+        Long postId = postService.createPost(PostUtils.getCustomPostDto("author", "liked", 0));
+
+        mockMvc.perform(put("/posts/{id}/likes/{user}", postId, "alice")).andExpect(status().isCreated());
+        mockMvc.perform(put("/posts/{id}/likes/{user}", postId, "alice")).andExpect(status().isNoContent());
+        mockMvc.perform(put("/posts/{id}/likes/{user}", postId, "bob")).andExpect(status().isCreated());
+        mockMvc.perform(put("/posts/{id}/reactions/{reaction}/{user}", postId, "laugh", "alice")).andExpect(status().isCreated());
+        mockMvc.perform(put("/posts/{id}/reactions/{reaction}/{user}", postId, "shrug", "alice")).andExpect(status().isBadRequest());
+        mockMvc.perform(put("/posts/{id}/likes/{user}", Long.MAX_VALUE, "alice")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/posts/{id}/likes/{user}", postId, "bob")).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/posts/{id}/likes/{user}", postId, "bob")).andExpect(status().isNotFound());
+        reactionCountBuffer.flush();
+
+        mockMvc.perform(get("/posts/{id}", postId))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.likeCount", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.laughCount", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.loveCount", Matchers.is(0)));
+        logger.info("Performed testLikeIsIdempotentPerUser() successfully");
+    }
+
+    @Test
+    public void testConcurrentLikesOnHotPostAreCountedExactly() throws Exception {
+        logger.info("Performing testConcurrentLikesOnHotPostAreCountedExactly() ...");
+        Long postId = postService.createPost(PostUtils.getCustomPostDto("author", "hot", 0));
+
+        // every user likes twice, and every third user takes the like back
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String user = "fan-" + i;
+            boolean unlike = i % 3 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                reactionService.react(postId, user, Reaction.LIKE);
+                reactionService.react(postId, user, Reaction.LIKE);
+                if (unlike) {
+                    reactionService.unreact(postId, user, Reaction.LIKE);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        // flushes race the likes, and drop the counters whenever likes and unlikes cancel out
+        while (!futures.stream().allMatch(Future::isDone)) {
+            reactionCountBuffer.flush();
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        reactionCountBuffer.flush();
+
+        long expected = USERS - (USERS + 2) / 3;
+        Assertions.assertEquals(expected, reactionJdbcRepository.count(postId, Reaction.LIKE));
+        Assertions.assertEquals(expected, postService.fetchPost(postId).getLikeCount());
+        logger.info("Performed testConcurrentLikesOnHotPostAreCountedExactly() successfully");
+    }
+
+    @Test
+    public void testDeletedPostDropsItsReactions() throws Exception {
+        logger.info("Performing testDeletedPostDropsItsReactions() ...");
+        Long postId = postService.createPost(PostUtils.getCustomPostDto("author", "deleted", 0));
+        reactionService.react(postId, "alice", Reaction.SAD);
+        postService.deletePost(postId);
+
+        reactionCountBuffer.flush();
+
+        Assertions.assertEquals(0, reactionJdbcRepository.count(postId, Reaction.SAD));
+        Assertions.assertEquals(0, reactionCountBuffer.getUnflushed());
+        logger.info("Performed testDeletedPostDropsItsReactions() successfully");
+    }
+}
@@ -0,0 +1,153 @@
+package com.akamai.socialnetwork.controller;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.service.PostService;
+import com.akamai.socialnetwork.timeline.HomeTimelineIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "posts.timeline.fan-out-threshold=2")
+@AutoConfigureMockMvc
+public class UserControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private HomeTimelineIndex homeTimelineIndex;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserControllerIntegrationTest.class);
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testFollowAndListFollowers() throws Exception {
+        logger.info("Performing testFollowAndListFollowers() ...");
+        String star = user("star");
+        String first = user("a");
+        String second = user("b");
+
+        mockMvc.perform(put("/users/{user}/following/{followee}", first, star)).andExpect(status().isCreated());
+        mockMvc.perform(put("/users/{user}/following/{followee}", first, star)).andExpect(status().isNoContent());
+        mockMvc.perform(put("/users/{user}/following/{followee}", second, star)).andExpect(status().isCreated());
+        mockMvc.perform(put("/users/{user}/following/{followee}", star, star)).andExpect(status().isBadRequest());
+
+        String body = mockMvc.perform(get("/users/{user}/followers", star).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.users", Matchers.contains(first)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+        mockMvc.perform(get("/users/{user}/followers", star).param("cursor", cursor).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.users", Matchers.contains(second)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", Matchers.nullValue()));
+        mockMvc.perform(get("/users/{user}/following", first))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.users", Matchers.contains(star)));
+
+        mockMvc.perform(delete("/users/{user}/following/{followee}", first, star)).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/users/{user}/following/{followee}", first, star)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/{user}/followers", star))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.users", Matchers.contains(second)));
+        logger.info("Performed testFollowAndListFollowers() successfully");
+    }
+
+    @Test
+    public void testHomeTimelineIsFannedOutOnWrite() throws Exception {
+        logger.info("Performing testHomeTimelineIsFannedOutOnWrite() ...");
+        String reader = user("reader");
+        String followed = user("followed");
+        String other = user("other");
+        mockMvc.perform(put("/users/{user}/following/{followee}", reader, followed)).andExpect(status().isCreated());
+        Long older = postService.createPost(PostUtils.getCustomPostDto(followed, "older", 0));
+        postService.createPost(PostUtils.getCustomPostDto(other, "not followed", 0));
+        Long own = postService.createPost(PostUtils.getCustomPostDto(reader, "own", 0));
+
+        // the first read fills the buffer from the database
+        Assertions.assertEquals(List.of(own, older), timeline(reader));
+
+        long writesBefore = homeTimelineIndex.getStats().getFanOutWrites();
+        Long newer = postService.createPost(PostUtils.getCustomPostDto(followed, "newer", 0));
+        Assertions.assertEquals(writesBefore + 1, homeTimelineIndex.getStats().getFanOutWrites());
+        Assertions.assertEquals(List.of(newer, own, older), timeline(reader));
+
+        postService.deletePost(own);
+        Assertions.assertEquals(List.of(newer, older), timeline(reader));
+
+        mockMvc.perform(delete("/users/{user}/following/{followee}", reader, followed)).andExpect(status().isNoContent());
+        Assertions.assertEquals(List.of(), timeline(reader));
+        logger.info("Performed testHomeTimelineIsFannedOutOnWrite() successfully");
+    }
+
+    @Test
+    public void testHomeTimelineFansInAuthorsAboveThreshold() throws Exception {
+        logger.info("Performing testHomeTimelineFansInAuthorsAboveThreshold() ...");
+        String celebrity = user("celebrity");
+        String regular = user("regular");
+        String reader = user("fan");
+        for (String follower : List.of(reader, user("fan"), user("fan"))) {
+            mockMvc.perform(put("/users/{user}/following/{followee}", follower, celebrity)).andExpect(status().isCreated());
+        }
+        mockMvc.perform(put("/users/{user}/following/{followee}", reader, regular)).andExpect(status().isCreated());
+        Assertions.assertEquals(List.of(), timeline(reader));
+
+        long skippedBefore = homeTimelineIndex.getStats().getSkippedPosts();
+        Long first = postService.createPost(PostUtils.getCustomPostDto(celebrity, "first", 0));
+        Long second = postService.createPost(PostUtils.getCustomPostDto(regular, "second", 0));
+        Long third = postService.createPost(PostUtils.getCustomPostDto(celebrity, "third", 0));
+        Assertions.assertEquals(skippedBefore + 2, homeTimelineIndex.getStats().getSkippedPosts());
+
+        Assertions.assertEquals(List.of(third, second, first), timeline(reader));
+
+        // one post per page, following the cursor across both sources
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = objectMapper.readTree(mockMvc.perform(cursor == null
+                            ? get("/users/{user}/timeline", reader).param("size", "1")
+                            : get("/users/{user}/timeline", reader).param("size", "1").param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("posts").forEach(post -> paged.add(post.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        Assertions.assertEquals(List.of(third, second, first), paged);
+        logger.info("Performed testHomeTimelineFansInAuthorsAboveThreshold() successfully");
+    }
+
+    private List<Long> timeline(String user) throws Exception {
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get("/users/{user}/timeline", user))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        List<Long> ids = new ArrayList<>();
+        page.get("posts").forEach(post -> ids.add(post.get("id").asLong()));
+        return ids;
+    }
+
+    private static String user(String prefix) {
+        return prefix + "-" + Math.abs(PostUtils.getRandomLongId() % 1_000_000);
+    }
+}
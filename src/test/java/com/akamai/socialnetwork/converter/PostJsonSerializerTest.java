@@ -0,0 +1,86 @@
+package com.akamai.socialnetwork.converter;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RunWith(JUnit4.class)
+public class PostJsonSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final Logger logger = LoggerFactory.getLogger(PostJsonSerializerTest.class);
+
+    @Test
+    public void givenPost_whenSerialize_thenDateIsIsoInstantAndRoundTrips() throws Exception {
+        logger.info("Performing givenPost_whenSerialize_thenDateIsIsoInstantAndRoundTrips() ...");
+        PostDTO post = PostUtils.getCustomPostDtoWithId("author", "content \"quoted\"", 42, 7L);
+        post.setVersion(3L);
+        post.setLastModified(Instant.now());
+
+        String json = objectMapper.writeValueAsString(post);
+        JsonNode tree = objectMapper.readTree(json);
+        PostDTO read = objectMapper.readValue(json, PostDTO.class);
+
+        assertEquals(post.getDate().toString(), tree.get("date").textValue());
+        assertEquals(42L, tree.get("viewCount").longValue());
+        assertFalse(tree.has("version"));
+        assertFalse(tree.has("lastModified"));
+        assertEquals(post.getId(), read.getId());
+        assertEquals(post.getDate(), read.getDate());
+        assertEquals(post.getAuthor(), read.getAuthor());
+        assertEquals(post.getContent(), read.getContent());
+        assertEquals(42L, read.getViewCount());
+        logger.info("Performed givenPost_whenSerialize_thenDateIsIsoInstantAndRoundTrips() successfully");
+    }
+
+    @Test
+    public void givenIsoDateAndNulls_whenDeserialize_thenPostIsRead() throws Exception {
+        logger.info("Performing givenIsoDateAndNulls_whenDeserialize_thenPostIsRead() ...");
+        String json = "{\"id\":null,\"date\":\"2023-04-01T10:15:30.123Z\",\"author\":\"author\","
+                + "\"content\":null,\"viewCount\":3,\"unknown\":{\"nested\":[1,2]},\"version\":5}";
+
+        PostDTO read = objectMapper.copy()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(json, PostDTO.class);
+
+        assertNull(read.getId());
+        assertEquals(Instant.parse("2023-04-01T10:15:30.123Z"), read.getDate());
+        assertEquals("author", read.getAuthor());
+        assertNull(read.getContent());
+        assertEquals(3L, read.getViewCount());
+        assertNull(read.getVersion());
+        logger.info("Performed givenIsoDateAndNulls_whenDeserialize_thenPostIsRead() successfully");
+    }
+
+    @Test
+    public void givenMissingOrNullViewCount_whenDeserialize_thenThrowMismatchedInputException() {
+        logger.info("Performing givenMissingOrNullViewCount_whenDeserialize_thenThrowMismatchedInputException() ...");
+        assertThrows(MismatchedInputException.class,
+                () -> objectMapper.readValue("{\"author\":\"author\",\"content\":\"content\"}", PostDTO.class));
+        assertThrows(MismatchedInputException.class,
+                () -> objectMapper.readValue("{\"author\":\"author\",\"viewCount\":null}", PostDTO.class));
+        logger.info("Performed givenMissingOrNullViewCount_whenDeserialize_thenThrowMismatchedInputException() successfully");
+    }
+
+    @Test
+    public void givenMalformedDate_whenDeserialize_thenThrowInvalidFormatException() {
+        logger.info("Performing givenMalformedDate_whenDeserialize_thenThrowInvalidFormatException() ...");
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"date\":\"yesterday\"}", PostDTO.class));
+        logger.info("Performed givenMalformedDate_whenDeserialize_thenThrowInvalidFormatException() successfully");
+    }
+}
@@ -0,0 +1,178 @@
+package com.akamai.socialnetwork.counter;
+
+import com.akamai.socialnetwork.dto.Reaction;
+import com.akamai.socialnetwork.event.PostsChangedEvent;
+import com.akamai.socialnetwork.event.PostsContentChangedEvent;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReactionCountBufferTest {
+
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Mock
+    private PostJdbcRepository postJdbcRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReactionCountBuffer reactionCountBuffer;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactionCountBufferTest.class);
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (reactionCountBuffer != null) {
+            reactionCountBuffer.shutdown();
+        }
+    }
+
+    @Test
+    public void givenConcurrentReactions_whenFlush_thenNetDeltasAreWrittenOnce() throws Exception {
+        logger.info("Performing givenConcurrentReactions_whenFlush_thenNetDeltasAreWrittenOnce() ...");
+        reactionCountBuffer = new ReactionCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        List<SortedMap<Long, long[]>> flushed = captureFlushes();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    reactionCountBuffer.add(1L, Reaction.LIKE, 1);
+                    reactionCountBuffer.add(2L, Reaction.LOVE, 1);
+                    reactionCountBuffer.add(2L, Reaction.LOVE, -1);
+                    reactionCountBuffer.add(2L, Reaction.SAD, i % 2);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        reactionCountBuffer.flush();
+
+        assertEquals(1, flushed.size());
+        assertEquals(Set.of(1L, 2L), flushed.get(0).keySet());
+        assertArrayEquals(new long[]{80_000, 0, 0, 0, 0, 0}, flushed.get(0).get(1L));
+        assertArrayEquals(new long[]{0, 0, 0, 0, 40_000, 0}, flushed.get(0).get(2L));
+        assertEquals(0, reactionCountBuffer.getUnflushed());
+        verify(eventPublisher).publishEvent(any(PostsChangedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(PostsContentChangedEvent.class));
+        logger.info("Performed givenConcurrentReactions_whenFlush_thenNetDeltasAreWrittenOnce() successfully");
+    }
+
+    @Test
+    public void givenFlushesDuringReactions_whenFlush_thenNetDeltasAreWrittenOnce() throws Exception {
+        logger.info("Performing givenFlushesDuringReactions_whenFlush_thenNetDeltasAreWrittenOnce() ...");
+        reactionCountBuffer = new ReactionCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        List<SortedMap<Long, long[]>> flushed = captureFlushes();
+
+        // every thread moves on to other posts, so the flushes keep dropping counters being added to
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> reactors = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            reactors.add(executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    reactionCountBuffer.add((long) (i / 10 % 50), Reaction.LIKE, 1);
+                }
+            }));
+        }
+        while (!reactors.stream().allMatch(Future::isDone)) {
+            reactionCountBuffer.flush();
+        }
+        executor.shutdown();
+        reactionCountBuffer.flush();
+
+        long written = flushed.stream().flatMap(deltas -> deltas.values().stream()).mapToLong(delta -> delta[0]).sum();
+        assertEquals(800_000, written);
+        assertEquals(0, reactionCountBuffer.getUnflushed());
+        logger.info("Performed givenFlushesDuringReactions_whenFlush_thenNetDeltasAreWrittenOnce() successfully");
+    }
+
+    @Test
+    public void givenReactionsThatCancelOut_whenFlush_thenNothingIsWritten() {
+        logger.info("Performing givenReactionsThatCancelOut_whenFlush_thenNothingIsWritten() ...");
+        reactionCountBuffer = new ReactionCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        reactionCountBuffer.add(3L, Reaction.WOW, 1);
+        reactionCountBuffer.add(3L, Reaction.WOW, -1);
+
+        reactionCountBuffer.flush();
+
+        verifyNoInteractions(postJdbcRepository, eventPublisher);
+        assertEquals(0, reactionCountBuffer.getUnflushed());
+        logger.info("Performed givenReactionsThatCancelOut_whenFlush_thenNothingIsWritten() successfully");
+    }
+
+    @Test
+    public void givenDatabaseFailure_whenFlush_thenDeltasAreRetriedOnNextFlush() {
+        logger.info("Performing givenDatabaseFailure_whenFlush_thenDeltasAreRetriedOnNextFlush() ...");
+        reactionCountBuffer = new ReactionCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        List<SortedMap<Long, long[]>> flushed = new ArrayList<>();
+        when(postJdbcRepository.incrementReactionCounts(any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenAnswer(invocation -> {
+                    flushed.add(new TreeMap<>(invocation.<SortedMap<Long, long[]>>getArgument(0)));
+                    return Collections.emptySet();
+                });
+        reactionCountBuffer.add(5L, Reaction.LAUGH, 1);
+
+        try {
+            reactionCountBuffer.flush();
+        } catch (DataAccessResourceFailureException expected) {
+            // the deltas stay buffered
+        }
+        reactionCountBuffer.add(5L, Reaction.LAUGH, 1);
+        reactionCountBuffer.flush();
+
+        assertEquals(1, flushed.size());
+        assertArrayEquals(new long[]{0, 0, 2, 0, 0, 0}, flushed.get(0).get(5L));
+        assertEquals(0, reactionCountBuffer.getUnflushed());
+        logger.info("Performed givenDatabaseFailure_whenFlush_thenDeltasAreRetriedOnNextFlush() successfully");
+    }
+
+    @Test
+    public void givenPostIdleForAFlush_whenReactedToAgain_thenReactionsAreWritten() {
+        logger.info("Performing givenPostIdleForAFlush_whenReactedToAgain_thenReactionsAreWritten() ...");
+        reactionCountBuffer = new ReactionCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        List<SortedMap<Long, long[]>> flushed = captureFlushes();
+        reactionCountBuffer.add(6L, Reaction.LAUGH, 1);
+        reactionCountBuffer.flush();
+
+        // the second flush finds no reactions and drops the counters of the post
+        reactionCountBuffer.flush();
+        reactionCountBuffer.add(6L, Reaction.LAUGH, 1);
+        reactionCountBuffer.flush();
+
+        assertEquals(2, flushed.size());
+        assertArrayEquals(new long[]{0, 0, 1, 0, 0, 0}, flushed.get(0).get(6L));
+        assertArrayEquals(new long[]{0, 0, 1, 0, 0, 0}, flushed.get(1).get(6L));
+        assertEquals(0, reactionCountBuffer.getUnflushed());
+        logger.info("Performed givenPostIdleForAFlush_whenReactedToAgain_thenReactionsAreWritten() successfully");
+    }
+
+    private List<SortedMap<Long, long[]>> captureFlushes() {
+        List<SortedMap<Long, long[]>> flushed = new ArrayList<>();
+        when(postJdbcRepository.incrementReactionCounts(any())).thenAnswer(invocation -> {
+            flushed.add(new TreeMap<>(invocation.<SortedMap<Long, long[]>>getArgument(0)));
+            return Collections.emptySet();
+        });
+        return flushed;
+    }
+}
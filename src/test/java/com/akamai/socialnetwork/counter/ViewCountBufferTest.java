@@ -0,0 +1,207 @@
+package com.akamai.socialnetwork.counter;
+
+import com.akamai.socialnetwork.event.PostsChangedEvent;
+import com.akamai.socialnetwork.event.PostsContentChangedEvent;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ViewCountBufferTest {
+
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Mock
+    private PostJdbcRepository postJdbcRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ViewCountBuffer viewCountBuffer;
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBufferTest.class);
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (viewCountBuffer != null) {
+            viewCountBuffer.shutdown();
+        }
+    }
+
+    @Test
+    public void givenConcurrentViews_whenFlush_thenEveryViewIsWrittenOnce() throws Exception {
+        logger.info("Performing givenConcurrentViews_whenFlush_thenEveryViewIsWrittenOnce() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        List<SortedMap<Long, Long>> flushed = captureFlushes();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    viewCountBuffer.increment(1L);
+                    viewCountBuffer.increment(2L + (i % 2));
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        viewCountBuffer.flush();
+
+        assertEquals(1, flushed.size());
+        assertEquals(Map.of(1L, 80_000L, 2L, 40_000L, 3L, 40_000L), flushed.get(0));
+        assertEquals(0, viewCountBuffer.getUnflushed());
+        verify(eventPublisher).publishEvent(any(PostsChangedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(PostsContentChangedEvent.class));
+        logger.info("Performed givenConcurrentViews_whenFlush_thenEveryViewIsWrittenOnce() successfully");
+    }
+
+    @Test
+    public void givenFlushesDuringViews_whenFlush_thenEveryViewIsWrittenOnce() throws Exception {
+        logger.info("Performing givenFlushesDuringViews_whenFlush_thenEveryViewIsWrittenOnce() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        List<SortedMap<Long, Long>> flushed = captureFlushes();
+
+        // every thread moves on to other posts, so the flushes keep dropping counters being added to
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> viewers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            viewers.add(executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    viewCountBuffer.increment((long) (i / 10 % 50));
+                }
+            }));
+        }
+        while (!viewers.stream().allMatch(Future::isDone)) {
+            viewCountBuffer.flush();
+        }
+        executor.shutdown();
+        viewCountBuffer.flush();
+
+        long written = flushed.stream().flatMap(deltas -> deltas.values().stream()).mapToLong(Long::longValue).sum();
+        assertEquals(800_000, written);
+        assertEquals(0, viewCountBuffer.getUnflushed());
+        logger.info("Performed givenFlushesDuringViews_whenFlush_thenEveryViewIsWrittenOnce() successfully");
+    }
+
+    @Test
+    public void givenMaxUnflushedDeltaReached_whenIncrement_thenFlushWithoutWaitingForInterval() {
+        logger.info("Performing givenMaxUnflushedDeltaReached_whenIncrement_thenFlushWithoutWaitingForInterval() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, 100, false);
+        when(postJdbcRepository.incrementViewCounts(any())).thenReturn(Collections.emptySet());
+
+        for (int i = 0; i < 100; i++) {
+            viewCountBuffer.increment(7L);
+        }
+
+        verify(postJdbcRepository, timeout(5_000)).incrementViewCounts(new TreeMap<>(Map.of(7L, 100L)));
+        logger.info("Performed givenMaxUnflushedDeltaReached_whenIncrement_thenFlushWithoutWaitingForInterval() successfully");
+    }
+
+    @Test
+    public void givenFlushInterval_whenIntervalElapses_thenBufferIsFlushed() {
+        logger.info("Performing givenFlushInterval_whenIntervalElapses_thenBufferIsFlushed() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, 50, Long.MAX_VALUE, false);
+        when(postJdbcRepository.incrementViewCounts(any())).thenReturn(Collections.emptySet());
+
+        viewCountBuffer.increment(3L);
+
+        verify(postJdbcRepository, timeout(5_000)).incrementViewCounts(new TreeMap<>(Map.of(3L, 1L)));
+        logger.info("Performed givenFlushInterval_whenIntervalElapses_thenBufferIsFlushed() successfully");
+    }
+
+    @Test
+    public void givenFlushOnShutdown_whenShutdown_thenPendingViewsAreWritten() throws InterruptedException {
+        logger.info("Performing givenFlushOnShutdown_whenShutdown_thenPendingViewsAreWritten() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, true);
+        when(postJdbcRepository.incrementViewCounts(any())).thenReturn(Collections.emptySet());
+        viewCountBuffer.increment(4L);
+        viewCountBuffer.increment(4L);
+
+        viewCountBuffer.shutdown();
+        viewCountBuffer = null;
+
+        verify(postJdbcRepository).incrementViewCounts(new TreeMap<>(Map.of(4L, 2L)));
+        logger.info("Performed givenFlushOnShutdown_whenShutdown_thenPendingViewsAreWritten() successfully");
+    }
+
+    @Test
+    public void givenFlushOnShutdownDisabled_whenShutdown_thenNothingIsWritten() throws InterruptedException {
+        logger.info("Performing givenFlushOnShutdownDisabled_whenShutdown_thenNothingIsWritten() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        viewCountBuffer.increment(4L);
+
+        viewCountBuffer.shutdown();
+        viewCountBuffer = null;
+
+        verifyNoInteractions(postJdbcRepository);
+        logger.info("Performed givenFlushOnShutdownDisabled_whenShutdown_thenNothingIsWritten() successfully");
+    }
+
+    @Test
+    public void givenDatabaseFailure_whenFlush_thenDeltasAreRetriedOnNextFlush() {
+        logger.info("Performing givenDatabaseFailure_whenFlush_thenDeltasAreRetriedOnNextFlush() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        when(postJdbcRepository.incrementViewCounts(any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(Collections.emptySet());
+        viewCountBuffer.increment(5L);
+
+        try {
+            viewCountBuffer.flush();
+        } catch (DataAccessResourceFailureException expected) {
+            // the deltas stay buffered
+        }
+        viewCountBuffer.increment(5L);
+        viewCountBuffer.flush();
+
+        verify(postJdbcRepository, times(2)).incrementViewCounts(any());
+        verify(postJdbcRepository).incrementViewCounts(new TreeMap<>(Map.of(5L, 2L)));
+        assertEquals(0, viewCountBuffer.getUnflushed());
+        logger.info("Performed givenDatabaseFailure_whenFlush_thenDeltasAreRetriedOnNextFlush() successfully");
+    }
+
+    @Test
+    public void givenPostIdleForAFlush_whenViewedAgain_thenViewsAreWritten() {
+        logger.info("Performing givenPostIdleForAFlush_whenViewedAgain_thenViewsAreWritten() ...");
+        viewCountBuffer = new ViewCountBuffer(postJdbcRepository, eventPublisher, ONE_HOUR, Long.MAX_VALUE, false);
+        List<SortedMap<Long, Long>> flushed = captureFlushes();
+        viewCountBuffer.increment(6L);
+        viewCountBuffer.flush();
+
+        // the second flush finds no views and drops the counter of the post
+        viewCountBuffer.flush();
+        viewCountBuffer.increment(6L);
+        viewCountBuffer.increment(6L);
+        viewCountBuffer.flush();
+
+        assertEquals(List.of(Map.of(6L, 1L), Map.of(6L, 2L)), flushed);
+        assertEquals(0, viewCountBuffer.getUnflushed());
+        logger.info("Performed givenPostIdleForAFlush_whenViewedAgain_thenViewsAreWritten() successfully");
+    }
+
+    private List<SortedMap<Long, Long>> captureFlushes() {
+        List<SortedMap<Long, Long>> flushed = new ArrayList<>();
+        when(postJdbcRepository.incrementViewCounts(any())).thenAnswer(invocation -> {
+            flushed.add(new TreeMap<>(invocation.<SortedMap<Long, Long>>getArgument(0)));
+            return Collections.emptySet();
+        });
+        return flushed;
+    }
+}
@@ -0,0 +1,92 @@
+package com.akamai.socialnetwork.graph;
+
+import com.akamai.socialnetwork.repository.FollowJdbcRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FollowGraphTest {
+
+    @Mock
+    private FollowJdbcRepository followJdbcRepository;
+
+    private FollowGraph followGraph;
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowGraphTest.class);
+
+    @Before
+    public void setUp() {
+        followGraph = new FollowGraph(followJdbcRepository);
+    }
+
+    @Test
+    public void givenEdges_whenAddAndRemove_thenBothDirectionsAreUpdated() {
+        logger.info("Performing givenEdges_whenAddAndRemove_thenBothDirectionsAreUpdated() ...");
+        assertTrue(followGraph.add("alice", "bob"));
+        assertFalse(followGraph.add("alice", "bob"));
+        assertTrue(followGraph.add("carol", "bob"));
+
+        assertTrue(followGraph.contains("alice", "bob"));
+        assertFalse(followGraph.contains("bob", "alice"));
+        assertEquals(2, followGraph.getFollowerCount("bob"));
+        assertEquals(1, followGraph.getFollowingCount("alice"));
+        assertEquals(2, followGraph.getEdgeCount());
+
+        assertTrue(followGraph.remove("alice", "bob"));
+        assertFalse(followGraph.remove("alice", "bob"));
+        assertFalse(followGraph.remove("alice", "nobody"));
+        assertEquals(List.of("carol"), followGraph.getFollowers("bob", null, 10));
+        assertTrue(followGraph.getFollowing("alice", null, 10).isEmpty());
+        assertEquals(1, followGraph.getEdgeCount());
+        logger.info("Performed givenEdges_whenAddAndRemove_thenBothDirectionsAreUpdated() successfully");
+    }
+
+    @Test
+    public void givenManyFollowers_whenGetFollowers_thenPagesAreInNameOrder() {
+        logger.info("Performing givenManyFollowers_whenGetFollowers_thenPagesAreInNameOrder() ...");
+        for (String follower : List.of("dave", "alice", "erin", "carol", "bob")) {
+            followGraph.add(follower, "star");
+        }
+
+        assertEquals(List.of("alice", "bob"), followGraph.getFollowers("star", null, 2));
+        assertEquals(List.of("carol", "dave"), followGraph.getFollowers("star", "bob", 2));
+        // a cursor name that left the list in between still positions the page
+        assertEquals(List.of("dave", "erin"), followGraph.getFollowers("star", "cat", 5));
+        assertTrue(followGraph.getFollowers("star", "erin", 2).isEmpty());
+        assertTrue(followGraph.getFollowers("unknown", null, 2).isEmpty());
+        logger.info("Performed givenManyFollowers_whenGetFollowers_thenPagesAreInNameOrder() successfully");
+    }
+
+    @Test
+    public void givenStoredEdges_whenRebuild_thenGraphIsReplaced() {
+        logger.info("Performing givenStoredEdges_whenRebuild_thenGraphIsReplaced() ...");
+        followGraph.add("stale", "edge");
+        doAnswer(invocation -> {
+            BiConsumer<String, String> consumer = invocation.getArgument(0);
+            consumer.accept("alice", "bob");
+            consumer.accept("bob", "alice");
+            return null;
+        }).when(followJdbcRepository).streamAll(any());
+
+        followGraph.rebuild();
+
+        assertFalse(followGraph.contains("stale", "edge"));
+        assertTrue(followGraph.contains("alice", "bob"));
+        assertTrue(followGraph.contains("bob", "alice"));
+        assertEquals(2, followGraph.getUserCount());
+        assertEquals(2, followGraph.getEdgeCount());
+        logger.info("Performed givenStoredEdges_whenRebuild_thenGraphIsReplaced() successfully");
+    }
+}
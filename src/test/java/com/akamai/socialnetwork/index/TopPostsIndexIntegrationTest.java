@@ -0,0 +1,89 @@
+package com.akamai.socialnetwork.index;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.repository.PostRepository;
+import com.akamai.socialnetwork.service.PostService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class TopPostsIndexIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 200;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TopPostsIndex topPostsIndex;
+
+    private static final Logger logger = LoggerFactory.getLogger(TopPostsIndexIntegrationTest.class);
+
+    @Test
+    public void givenConcurrentWrites_whenAllCommitted_thenIndexMatchesDatabase() throws Exception {
+        logger.info("Performing givenConcurrentWrites_whenAllCommitted_thenIndexMatchesDatabase() ...");
+        List<Long> postIds = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int operation = random.nextInt(10);
+                    try {
+                        if (operation < 5 || postIds.isEmpty()) {
+                            PostDTO postDTO = PostUtils.getCustomPostDto("author", "content", random.nextInt(1000));
+                            postIds.add(postService.createPost(postDTO));
+                        } else if (operation < 8) {
+                            Long postId = postIds.get(random.nextInt(postIds.size()));
+                            PostDTO postDTO = PostUtils.getCustomPostDto("author", "updated", random.nextInt(1000));
+                            postService.updatePost(postId, postDTO);
+                        } else {
+                            Long postId = postIds.remove(random.nextInt(postIds.size()));
+                            postService.deletePost(postId);
+                        }
+                    } catch (ElementNotFoundException | IndexOutOfBoundsException e) {
+                        // another thread deleted the post first
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Long> expected = postRepository
+                .findAllByOrderByViewCountDescIdAsc(PageRequest.of(0, topPostsIndex.getSize()))
+                .stream().map(PostEntity::getId).collect(Collectors.toList());
+        List<Long> actual = topPostsIndex.getTopPosts()
+                .stream().map(PostDTO::getId).collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+        logger.info("Performed givenConcurrentWrites_whenAllCommitted_thenIndexMatchesDatabase() successfully");
+    }
+}
@@ -0,0 +1,181 @@
+package com.akamai.socialnetwork.index;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.PostRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TopPostsIndexTest {
+
+    private static final int SIZE = 3;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostMapper postMapper;
+
+    private final Map<Long, PostEntity> table = new HashMap<>();
+
+    private TopPostsIndex topPostsIndex;
+
+    private static final Logger logger = LoggerFactory.getLogger(TopPostsIndexTest.class);
+
+    @Before
+    public void setUp() {
+        lenient().when(postRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(table::get).filter(Objects::nonNull).collect(Collectors.toList());
+        });
+        lenient().when(postRepository.findAllByOrderByViewCountDescIdAsc(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            return table.values().stream()
+                    .sorted(Comparator.comparingLong(PostEntity::getViewCount).reversed()
+                            .thenComparing(PostEntity::getId))
+                    .limit(pageable.getPageSize())
+                    .collect(Collectors.toList());
+        });
+        lenient().when(postMapper.toPostDTO(any(PostEntity.class))).thenAnswer(invocation -> {
+            PostEntity entity = invocation.getArgument(0);
+            return PostUtils.getCustomPostDtoWithId(entity.getAuthor(), entity.getContent(), entity.getViewCount(), entity.getId());
+        });
+        topPostsIndex = new TopPostsIndex(postRepository, postMapper, SIZE);
+    }
+
+    @Test
+    public void givenIndexedPosts_whenGetTopPosts_thenDatabaseIsNotQueried() {
+        logger.info("Performing givenIndexedPosts_whenGetTopPosts_thenDatabaseIsNotQueried() ...");
+        save(1L, 5);
+        save(2L, 9);
+        topPostsIndex.rebuild();
+        clearInvocations(postRepository);
+
+        List<PostDTO> topPosts = topPostsIndex.getTopPosts();
+
+        assertEquals(List.of(2L, 1L), ids(topPosts));
+        verifyNoInteractions(postRepository);
+        logger.info("Performed givenIndexedPosts_whenGetTopPosts_thenDatabaseIsNotQueried() successfully");
+    }
+
+    @Test
+    public void givenFullIndex_whenHigherPostIsSaved_thenLowestIsEvicted() {
+        logger.info("Performing givenFullIndex_whenHigherPostIsSaved_thenLowestIsEvicted() ...");
+        save(1L, 10);
+        save(2L, 20);
+        save(3L, 30);
+        topPostsIndex.rebuild();
+
+        save(4L, 25);
+        topPostsIndex.refresh(List.of(4L));
+
+        assertEquals(List.of(3L, 4L, 2L), ids(topPostsIndex.getTopPosts()));
+        verify(postRepository, times(1)).findAllByOrderByViewCountDescIdAsc(any(Pageable.class));
+        logger.info("Performed givenFullIndex_whenHigherPostIsSaved_thenLowestIsEvicted() successfully");
+    }
+
+    @Test
+    public void givenFullIndex_whenMemberIsDeleted_thenNextPostIsPulledIn() {
+        logger.info("Performing givenFullIndex_whenMemberIsDeleted_thenNextPostIsPulledIn() ...");
+        save(1L, 10);
+        save(2L, 20);
+        save(3L, 30);
+        save(4L, 40);
+        topPostsIndex.rebuild();
+
+        table.remove(3L);
+        topPostsIndex.refresh(List.of(3L));
+
+        assertEquals(List.of(4L, 2L, 1L), ids(topPostsIndex.getTopPosts()));
+        logger.info("Performed givenFullIndex_whenMemberIsDeleted_thenNextPostIsPulledIn() successfully");
+    }
+
+    @Test
+    public void givenFullIndex_whenMemberDropsBelowOutsider_thenOutsiderTakesItsPlace() {
+        logger.info("Performing givenFullIndex_whenMemberDropsBelowOutsider_thenOutsiderTakesItsPlace() ...");
+        save(1L, 10);
+        save(2L, 20);
+        save(3L, 30);
+        save(4L, 40);
+        topPostsIndex.rebuild();
+
+        save(4L, 0);
+        topPostsIndex.refresh(List.of(4L));
+
+        assertEquals(List.of(3L, 2L, 1L), ids(topPostsIndex.getTopPosts()));
+        logger.info("Performed givenFullIndex_whenMemberDropsBelowOutsider_thenOutsiderTakesItsPlace() successfully");
+    }
+
+    @Test
+    public void givenIndexHoldsWholeTable_whenMemberIsDeleted_thenNoRebuildIsNeeded() {
+        logger.info("Performing givenIndexHoldsWholeTable_whenMemberIsDeleted_thenNoRebuildIsNeeded() ...");
+        save(1L, 10);
+        save(2L, 20);
+        topPostsIndex.rebuild();
+
+        table.remove(2L);
+        topPostsIndex.refresh(List.of(2L));
+
+        assertEquals(List.of(1L), ids(topPostsIndex.getTopPosts()));
+        verify(postRepository, times(1)).findAllByOrderByViewCountDescIdAsc(any(Pageable.class));
+        logger.info("Performed givenIndexHoldsWholeTable_whenMemberIsDeleted_thenNoRebuildIsNeeded() successfully");
+    }
+
+    @Test
+    public void givenFullIndex_whenOutsiderStaysOutside_thenSnapshotIsNotReplaced() {
+        logger.info("Performing givenFullIndex_whenOutsiderStaysOutside_thenSnapshotIsNotReplaced() ...");
+        save(1L, 10);
+        save(2L, 20);
+        save(3L, 30);
+        save(4L, 5);
+        topPostsIndex.rebuild();
+        List<PostDTO> before = topPostsIndex.getTopPosts();
+
+        save(4L, 6);
+        topPostsIndex.refresh(List.of(4L));
+        assertSame(before, topPostsIndex.getTopPosts());
+
+        save(1L, 11);
+        topPostsIndex.refresh(List.of(1L));
+        assertNotSame(before, topPostsIndex.getTopPosts());
+        logger.info("Performed givenFullIndex_whenOutsiderStaysOutside_thenSnapshotIsNotReplaced() successfully");
+    }
+
+    @Test
+    public void givenEmptyTable_whenRebuild_thenIndexIsEmpty() {
+        logger.info("Performing givenEmptyTable_whenRebuild_thenIndexIsEmpty() ...");
+        topPostsIndex.rebuild();
+        assertTrue(topPostsIndex.getTopPosts().isEmpty());
+        logger.info("Performed givenEmptyTable_whenRebuild_thenIndexIsEmpty() successfully");
+    }
+
+    private void save(Long id, long viewCount) {
+        PostEntity postEntity = PostUtils.getCustomPostEntity("Test Author", "Test Content", viewCount);
+        postEntity.setId(id);
+        table.put(id, postEntity);
+    }
+
+    private static List<Long> ids(List<PostDTO> posts) {
+        return posts.stream().map(PostDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+package com.akamai.socialnetwork.metrics;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyHistogramTest.class);
+
+    @Test
+    public void givenUniformValues_whenGetValueAtQuantile_thenWithinRelativeError() {
+        logger.info("Performing givenUniformValues_whenGetValueAtQuantile_thenWithinRelativeError() ...");
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_000_000, snapshot.getCount());
+        assertEquals(1_000_000_000L, snapshot.getMax());
+        assertEquals(500_000_000L, snapshot.getValueAtQuantile(0.5), 500_000_000L * 0.04);
+        assertEquals(990_000_000L, snapshot.getValueAtQuantile(0.99), 990_000_000L * 0.04);
+        assertEquals(1_000_000_000L, snapshot.getValueAtQuantile(1.0));
+        logger.info("Performed givenUniformValues_whenGetValueAtQuantile_thenWithinRelativeError() successfully");
+    }
+
+    @Test
+    public void givenAnyValue_whenIndexed_thenBucketContainsIt() {
+        logger.info("Performing givenAnyValue_whenIndexed_thenBucketContainsIt() ...");
+        long[] values = {0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+        logger.info("Performed givenAnyValue_whenIndexed_thenBucketContainsIt() successfully");
+    }
+
+    @Test
+    public void givenEmptyHistogram_whenSnapshot_thenZeroes() {
+        logger.info("Performing givenEmptyHistogram_whenSnapshot_thenZeroes() ...");
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtQuantile(0.99));
+        logger.info("Performed givenEmptyHistogram_whenSnapshot_thenZeroes() successfully");
+    }
+
+    @Test
+    public void givenTimerFamily_whenScrape_thenPrometheusSummaryIsWritten() {
+        logger.info("Performing givenTimerFamily_whenScrape_thenPrometheusSummaryIsWritten() ...");
+        TimerFamily family = new TimerFamily("test_seconds", "Test timer.", "method", "uri");
+        family.get("GET", "/posts/{id}").record(2_000_000, false);
+        family.get("GET", "/posts/{id}").record(4_000_000, true);
+        StringBuilder out = new StringBuilder();
+
+        family.writeTo(out);
+
+        String scrape = out.toString();
+        assertTrue(scrape.contains("# TYPE test_seconds summary\n"));
+        assertTrue(scrape.contains("test_seconds_count{method=\"GET\",uri=\"/posts/{id}\"} 2\n"));
+        assertTrue(scrape.contains("test_seconds_sum{method=\"GET\",uri=\"/posts/{id}\"} 0.006\n"));
+        assertTrue(scrape.contains("test_seconds_errors_total{method=\"GET\",uri=\"/posts/{id}\"} 1\n"));
+        assertTrue(scrape.contains("test_seconds{method=\"GET\",uri=\"/posts/{id}\",quantile=\"0.5\"} "));
+        logger.info("Performed givenTimerFamily_whenScrape_thenPrometheusSummaryIsWritten() successfully");
+    }
+}
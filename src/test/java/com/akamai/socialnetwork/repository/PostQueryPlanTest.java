@@ -0,0 +1,122 @@
+package com.akamai.socialnetwork.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the indexes of the post table: each query below must be answered through its
+ * index rather than a full scan and sort.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class PostQueryPlanTest {
+
+    private static final String SELECT_COLUMNS = "SELECT id, date, author, content, view_count FROM post_entity ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final Logger logger = LoggerFactory.getLogger(PostQueryPlanTest.class);
+
+    @Before
+    public void setUp() {
+        // negative ids stay clear of the sequence; enough rows that a scan is never cheaper
+        jdbcTemplate.update("INSERT INTO post_entity (id, date, author, content, view_count) "
+                + "SELECT -X, DATEADD('SECOND', -X, CURRENT_TIMESTAMP), 'plan-author-' || MOD(X, 100), 'content', "
+                + "MOD(X * 7919, 10000) FROM SYSTEM_RANGE(1, 10000)");
+        jdbcTemplate.execute("ANALYZE TABLE post_entity");
+    }
+
+    @After
+    public void tearDown() {
+        // the comments go with their posts
+        jdbcTemplate.update("DELETE FROM post_entity WHERE id < 0");
+    }
+
+    @Test
+    public void givenTopPostsQuery_whenExplain_thenViewCountIndexIsReadInOrder() {
+        logger.info("Performing givenTopPostsQuery_whenExplain_thenViewCountIndexIsReadInOrder() ...");
+        String plan = explain(SELECT_COLUMNS + "ORDER BY view_count DESC, id FETCH FIRST 10 ROWS ONLY");
+
+        assertTrue(plan.contains("IDX_POST_VIEW_COUNT"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+        logger.info("Performed givenTopPostsQuery_whenExplain_thenViewCountIndexIsReadInOrder() successfully");
+    }
+
+    @Test
+    public void givenAuthorQuery_whenExplain_thenAuthorIndexIsUsed() {
+        logger.info("Performing givenAuthorQuery_whenExplain_thenAuthorIndexIsUsed() ...");
+        String plan = explain(SELECT_COLUMNS + "WHERE author = 'plan-author-7'");
+
+        assertTrue(plan.contains("IDX_POST_AUTHOR_DATE"), plan);
+        logger.info("Performed givenAuthorQuery_whenExplain_thenAuthorIndexIsUsed() successfully");
+    }
+
+    @Test
+    public void givenAuthorFeedKeysetQuery_whenExplain_thenAuthorDateIndexIsReadInOrder() {
+        logger.info("Performing givenAuthorFeedKeysetQuery_whenExplain_thenAuthorDateIndexIsReadInOrder() ...");
+        String plan = explain(SELECT_COLUMNS + "WHERE author = 'plan-author-7' "
+                + "AND (date < CURRENT_TIMESTAMP OR (date = CURRENT_TIMESTAMP AND id > 0)) "
+                + "ORDER BY author, date DESC, id FETCH FIRST 50 ROWS ONLY");
+
+        assertTrue(plan.contains("IDX_POST_AUTHOR_DATE"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+        logger.info("Performed givenAuthorFeedKeysetQuery_whenExplain_thenAuthorDateIndexIsReadInOrder() successfully");
+    }
+
+    @Test
+    public void givenDateRangeQuery_whenExplain_thenDateIndexIsUsed() {
+        logger.info("Performing givenDateRangeQuery_whenExplain_thenDateIndexIsUsed() ...");
+        String plan = explain(SELECT_COLUMNS + "WHERE date >= DATEADD('MINUTE', -1, CURRENT_TIMESTAMP)");
+
+        assertTrue(plan.contains("IDX_POST_DATE"), plan);
+        logger.info("Performed givenDateRangeQuery_whenExplain_thenDateIndexIsUsed() successfully");
+    }
+
+    @Test
+    public void givenTimelineBucketQuery_whenExplain_thenDayBucketIndexIsReadInOrder() {
+        logger.info("Performing givenTimelineBucketQuery_whenExplain_thenDayBucketIndexIsReadInOrder() ...");
+        String plan = explain(SELECT_COLUMNS + "WHERE day_bucket = " + PostJdbcRepository.dayBucketOf(Instant.now()) + " "
+                + "AND date >= DATEADD('HOUR', -1, CURRENT_TIMESTAMP) AND date < CURRENT_TIMESTAMP "
+                + "ORDER BY day_bucket, date DESC, id DESC");
+
+        assertTrue(plan.contains("IDX_POST_DAY_BUCKET_DATE"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+        logger.info("Performed givenTimelineBucketQuery_whenExplain_thenDayBucketIndexIsReadInOrder() successfully");
+    }
+
+    @Test
+    public void givenCommentSubtreeQuery_whenExplain_thenPathIndexIsReadInOrder() {
+        logger.info("Performing givenCommentSubtreeQuery_whenExplain_thenPathIndexIsReadInOrder() ...");
+        jdbcTemplate.update("INSERT INTO post_comment (id, post_id, path, author, content) "
+                + "SELECT -X, -1 - MOD(X, 10), LPAD(CAST(X AS VARCHAR), 19, '0'), 'plan-author', 'content' "
+                + "FROM SYSTEM_RANGE(1, 10000)");
+        jdbcTemplate.execute("ANALYZE TABLE post_comment");
+        String subtree = CommentJdbcRepository.pathOf(null, 1);
+        String plan = explain("SELECT id, post_id, parent_id, path, author, content, created FROM post_comment "
+                + "WHERE post_id = -2 AND path > '" + subtree + "' "
+                + "AND path < '" + CommentJdbcRepository.subtreeEnd(subtree) + "' ORDER BY post_id, path FETCH FIRST 50 ROWS ONLY");
+
+        assertTrue(plan.contains("IDX_COMMENT_POST_PATH"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+        logger.info("Performed givenCommentSubtreeQuery_whenExplain_thenPathIndexIsReadInOrder() successfully");
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        logger.info("Plan: {}", plan);
+        return plan;
+    }
+}
@@ -40,9 +40,10 @@ public class PostRepositoryTest {
 
         // Call the method and verify that it returns the top posts by view count
         List<PostEntity> topPosts = postRepository.findTop10ByOrderByViewCountDesc();
-        assertEquals(2, topPosts.size());
+        assertEquals(3, topPosts.size());
         assertEquals(post3.getId(), topPosts.get(0).getId());
         assertEquals(post1.getId(), topPosts.get(1).getId());
+        assertEquals(post2.getId(), topPosts.get(2).getId());
         logger.info("Performed whenFindTop10ByOrderByView_thenReturnsTop10ByViewCount() successfully");
     }
 
@@ -0,0 +1,111 @@
+package com.akamai.socialnetwork.search;
+
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    private static final Logger logger = LoggerFactory.getLogger(InvertedIndexTest.class);
+
+    @Before
+    public void setUp() {
+        index = new InvertedIndex();
+        index.put(1L, "Coffee brewing at home: a guide to pour-over coffee.");
+        index.put(2L, "The best home office setup for remote work.");
+        index.put(3L, "Cold brew coffee recipe.");
+        index.put(4L, "Working from home with a cup of coffee, brewing ideas all day long, "
+                + "while the rest of this rather long post talks about other things entirely.");
+    }
+
+    @Test
+    public void givenTermQuery_whenSearch_thenMatchesAreRankedByRelevance() {
+        logger.info("Performing givenTermQuery_whenSearch_thenMatchesAreRankedByRelevance() ...");
+        List<Long> ids = ids(search("coffee", 10));
+
+        // post 1 mentions coffee twice, post 4 once in a much longer text
+        assertEquals(List.of(1L, 3L, 4L), ids);
+        logger.info("Performed givenTermQuery_whenSearch_thenMatchesAreRankedByRelevance() successfully");
+    }
+
+    @Test
+    public void givenSeveralTerms_whenSearch_thenEveryTermMustMatch() {
+        logger.info("Performing givenSeveralTerms_whenSearch_thenEveryTermMustMatch() ...");
+        assertEquals(List.of(1L, 4L), sorted(ids(search("COFFEE home", 10))));
+        logger.info("Performed givenSeveralTerms_whenSearch_thenEveryTermMustMatch() successfully");
+    }
+
+    @Test
+    public void givenPhraseQuery_whenSearch_thenOnlyAdjacentTermsInOrderMatch() {
+        logger.info("Performing givenPhraseQuery_whenSearch_thenOnlyAdjacentTermsInOrderMatch() ...");
+        assertEquals(List.of(3L), ids(search("\"brew coffee\"", 10)));
+        assertEquals(List.of(1L), ids(search("\"pour over\"", 10)));
+        assertTrue(search("\"coffee brew\"", 10).isEmpty());
+        logger.info("Performed givenPhraseQuery_whenSearch_thenOnlyAdjacentTermsInOrderMatch() successfully");
+    }
+
+    @Test
+    public void givenPrefixQuery_whenSearch_thenAllTermsWithPrefixMatch() {
+        logger.info("Performing givenPrefixQuery_whenSearch_thenAllTermsWithPrefixMatch() ...");
+        // brewing, brew
+        assertEquals(List.of(1L, 3L, 4L), sorted(ids(search("brew*", 10))));
+        assertEquals(List.of(2L, 4L), sorted(ids(search("work*", 10))));
+        logger.info("Performed givenPrefixQuery_whenSearch_thenAllTermsWithPrefixMatch() successfully");
+    }
+
+    @Test
+    public void givenCursorOfPreviousPage_whenSearch_thenNextPageContinuesRanking() {
+        logger.info("Performing givenCursorOfPreviousPage_whenSearch_thenNextPageContinuesRanking() ...");
+        List<SearchHit> all = search("coffee", 10);
+        List<SearchHit> firstPage = search("coffee", 2);
+        SearchHit last = firstPage.get(1);
+
+        List<SearchHit> secondPage = index.search(SearchQuery.parse("coffee"), last.getScore(), last.getPostId(), 2);
+
+        assertEquals(all.subList(0, 2), firstPage);
+        assertEquals(all.subList(2, 3), secondPage);
+        logger.info("Performed givenCursorOfPreviousPage_whenSearch_thenNextPageContinuesRanking() successfully");
+    }
+
+    @Test
+    public void givenUpdatedAndRemovedPosts_whenSearch_thenOnlyCurrentContentMatches() {
+        logger.info("Performing givenUpdatedAndRemovedPosts_whenSearch_thenOnlyCurrentContentMatches() ...");
+        index.put(3L, "Iced tea recipe.");
+        index.remove(1L);
+
+        assertEquals(List.of(4L), ids(search("coffee", 10)));
+        assertEquals(List.of(3L), ids(search("tea", 10)));
+        assertEquals(3, index.getDocumentCount());
+        logger.info("Performed givenUpdatedAndRemovedPosts_whenSearch_thenOnlyCurrentContentMatches() successfully");
+    }
+
+    @Test
+    public void givenQueryWithoutTerms_whenParse_thenThrowInvalidRequestException() {
+        logger.info("Performing givenQueryWithoutTerms_whenParse_thenThrowInvalidRequestException() ...");
+        assertThrows(InvalidRequestException.class, () -> SearchQuery.parse(" "));
+        assertThrows(InvalidRequestException.class, () -> SearchQuery.parse("*** \"\""));
+        assertThrows(InvalidRequestException.class, () -> SearchQuery.parse("a".repeat(SearchQuery.MAX_QUERY_LENGTH + 1)));
+        logger.info("Performed givenQueryWithoutTerms_whenParse_thenThrowInvalidRequestException() successfully");
+    }
+
+    private List<SearchHit> search(String query, int limit) {
+        return index.search(SearchQuery.parse(query), Double.POSITIVE_INFINITY, Long.MIN_VALUE, limit);
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getPostId).collect(Collectors.toList());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+}
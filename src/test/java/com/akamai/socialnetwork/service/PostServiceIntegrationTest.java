@@ -4,15 +4,24 @@ import com.akamai.socialnetwork.PostUtils;
 import com.akamai.socialnetwork.controller.PostControllerIntegrationTest;
 import com.akamai.socialnetwork.dto.PostDTO;
 import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.index.TopPostsIndex;
+import com.akamai.socialnetwork.repository.AuthorStatsRepository;
 import com.akamai.socialnetwork.repository.PostRepository;
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.transaction.Transactional;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 
 @RunWith(SpringRunner.class)
+@SpringBootTest
 @Transactional
 public class PostServiceIntegrationTest {
 
@@ -32,6 +42,22 @@ public class PostServiceIntegrationTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private TopPostsIndex topPostsIndex;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("streamingDataSource")
+    private DataSource streamingDataSource;
+
     private static final Logger logger = LoggerFactory.getLogger(PostControllerIntegrationTest.class);
 
 
@@ -52,6 +78,26 @@ public class PostServiceIntegrationTest {
         logger.info("Performed testCreatePost() successfully");
     }
 
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void testCreatePostRollsBackWithAuthorCount() {
+        logger.info("Performing testCreatePostRollsBackWithAuthorCount() ...");
+        String author = "rollback-" + PostUtils.getRandomLongId();
+        PostDTO postDTO = PostUtils.getCustomPostDto(author, "Rolled back post", 0);
+
+        // the JPA insert and the JDBC counter update run on the same connection, or neither sticks
+        Long postId = new TransactionTemplate(transactionManager).execute(status -> {
+            Long id = postService.createPost(postDTO);
+            assertEquals(1, authorStatsRepository.findPostCount(author));
+            status.setRollbackOnly();
+            return id;
+        });
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_entity WHERE id = ?", Long.class, postId));
+        assertEquals(0, authorStatsRepository.findPostCount(author));
+        logger.info("Performed testCreatePostRollsBackWithAuthorCount() successfully");
+    }
+
     @Test
     public void testFetchPost() {
         logger.info("Performing testFetchPost() ...");
@@ -133,6 +179,9 @@ public class PostServiceIntegrationTest {
         PostEntity postEntity3 = PostUtils.getCustomPostEntity("Test Author 3", "Test Content", 5);
         postRepository.save(postEntity3);
 
+        // posts saved through the repository bypass the service, so refresh the in-memory index
+        topPostsIndex.rebuild();
+
         // fetch the top posts from db
         List<PostDTO> topPosts = postService.fetchTopPosts();
 
@@ -153,5 +202,23 @@ public class PostServiceIntegrationTest {
         logger.info("Performed testFetchTopPosts() successfully");
 
     }
-}
 
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void testStreamedPostsAreReadOnTheStreamingPool() {
+        logger.info("Performing testStreamedPostsAreReadOnTheStreamingPool() ...");
+        // committed, the streaming pool does not see the test's transaction
+        postService.createPost(PostUtils.getDefaultPostDTO());
+
+        // the cursor is open while the consumer runs, like while a client reads the response
+        List<Integer> activeConnections = new ArrayList<>();
+        postService.streamAllPosts(post -> {
+            if (activeConnections.isEmpty()) {
+                activeConnections.add(((HikariDataSource) streamingDataSource).getHikariPoolMXBean().getActiveConnections());
+            }
+        });
+
+        assertEquals(List.of(1), activeConnections);
+        logger.info("Performed testStreamedPostsAreReadOnTheStreamingPool() successfully");
+    }
+}
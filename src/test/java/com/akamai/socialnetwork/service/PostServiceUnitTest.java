@@ -1,24 +1,51 @@
 package com.akamai.socialnetwork.service;
 
 import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.cache.EncodedTopPosts;
+import com.akamai.socialnetwork.cache.PostCache;
+import com.akamai.socialnetwork.cache.TopPostsResponseCache;
+import com.akamai.socialnetwork.counter.ViewCountBuffer;
 import com.akamai.socialnetwork.controller.PostControllerIntegrationTest;
+import com.akamai.socialnetwork.dto.BatchItemResultDTO;
+import com.akamai.socialnetwork.dto.CommentDTO;
+import com.akamai.socialnetwork.dto.CommentPageDTO;
 import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.PostPageDTO;
+import com.akamai.socialnetwork.dto.PostVersionDTO;
+import com.akamai.socialnetwork.dto.PostWithCommentsDTO;
 import com.akamai.socialnetwork.entity.PostEntity;
 import com.akamai.socialnetwork.exception.ElementNotFoundException;
+import com.akamai.socialnetwork.exception.InvalidRequestException;
+import com.akamai.socialnetwork.index.TopPostsIndex;
 import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.AuthorStatsRepository;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
 import com.akamai.socialnetwork.repository.PostRepository;
+import com.akamai.socialnetwork.search.PostSearchIndex;
+import com.akamai.socialnetwork.search.SearchHit;
+import com.akamai.socialnetwork.trending.TrendingPostsIndex;
+import com.akamai.socialnetwork.util.CursorCodec;
 import com.akamai.socialnetwork.service.impl.PostServiceImpl;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,9 +59,42 @@ public class PostServiceUnitTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private PostJdbcRepository postJdbcRepository;
+
+    @Mock
+    private AuthorStatsRepository authorStatsRepository;
+
     @Mock
     private PostMapper postMapper;
 
+    @Mock
+    private TopPostsIndex topPostsIndex;
+
+    @Mock
+    private ViewCountBuffer viewCountBuffer;
+
+    @Mock
+    private TrendingPostsIndex trendingPostsIndex;
+
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private TopPostsResponseCache topPostsResponseCache;
+
+    @Spy
+    private PostCache postCache = new PostCache(100, 60_000, 5_000);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private PostServiceImpl postService;
 
@@ -87,26 +147,26 @@ public class PostServiceUnitTest {
     }
 
     @Test
-    void givenExistingPost_whenUpdatePost_thenPostIsUpdated() {
+    public void givenExistingPost_whenUpdatePost_thenPostIsUpdated() {
         logger.info("Performing givenExistingPost_whenUpdatePost_thenPostIsUpdated()");
 
         // Given
         Random random = new Random();
         Long postId = random.nextLong();
         String newContent = "New content";
-        int newViewCount = 10;
+        long newViewCount = 10;
 
         PostEntity existingPostEntity = new PostEntity();
         existingPostEntity.setId(postId);
         existingPostEntity.setAuthor("Author");
         existingPostEntity.setContent("Content");
-        existingPostEntity.setViewCount(5);
+        existingPostEntity.setViewCount(5L);
 
         PostDTO postDTO = new PostDTO();
         postDTO.setContent(newContent);
         postDTO.setViewCount(newViewCount);
 
-        when(postRepository.findById(postId)).thenReturn(Optional.of(existingPostEntity));
+        when(postRepository.findLockedById(postId)).thenReturn(Optional.of(existingPostEntity));
 
         // When
         Long updatedPostId = postService.updatePost(postId, postDTO);
@@ -125,20 +185,14 @@ public class PostServiceUnitTest {
         logger.info("Performing givenPosts_whenFetchTop10Posts_thenReturnTop10Posts()...");
 
         // Given
-        PostDTO post1 = new PostDTO();
-        post1.setContent("Post 1");
-        post1.setViewCount(10);
-        Long postId1 = postService.createPost(post1);
-
         PostDTO post2 = new PostDTO();
         post2.setContent("Post 2");
         post2.setViewCount(20);
-        Long postId2 = postService.createPost(post2);
 
         PostDTO post3 = new PostDTO();
         post3.setContent("Post 3");
         post3.setViewCount(30);
-        Long postId3 = postService.createPost(post3);
+        when(topPostsIndex.getTopPosts()).thenReturn(List.of(post3, post2));
 
         // When
         List<PostDTO> topPosts = postService.fetchTopPosts();
@@ -157,7 +211,7 @@ public class PostServiceUnitTest {
     public void fetchTopPosts_emptyList() {
         logger.info("Performing fetchTopPosts_emptyList()...");
 
-        when(postRepository.findTop10ByOrderByViewCountDesc()).thenReturn(Collections.emptyList());
+        when(topPostsIndex.getTopPosts()).thenReturn(Collections.emptyList());
 
         postService.fetchTopPosts();
         logger.info("Performed fetchTopPosts_emptyList() successfully");
@@ -165,12 +219,15 @@ public class PostServiceUnitTest {
     }
 
     @Test
-    void givenValidPostId_whenDeletePost_thenPostIsDeleted() {
+    public void givenValidPostId_whenDeletePost_thenPostIsDeleted() {
         logger.info("Performing givenValidPostId_whenDeletePost_thenPostIsDeleted() ...");
 
         // Given
         Random random = new Random();
         Long postId = random.nextLong();
+        PostEntity postEntity = PostUtils.getDefaultPostEntity();
+        postEntity.setId(postId);
+        when(postRepository.findLockedById(postId)).thenReturn(Optional.of(postEntity));
 
         // When
         Long deletedPostId = postService.deletePost(postId);
@@ -188,7 +245,7 @@ public class PostServiceUnitTest {
         // Given
         Random random = new Random();
         Long nonExistingId = random.nextLong();
-        when(postRepository.findById(nonExistingId)).thenReturn(Optional.empty());
+        when(postRepository.findLockedById(nonExistingId)).thenReturn(Optional.empty());
 
         // When
         Assertions.assertThrows(ElementNotFoundException.class, () -> {
@@ -216,9 +273,9 @@ public class PostServiceUnitTest {
         postEntity.setId(postId);
         postEntity.setAuthor("John Doe");
         postEntity.setContent("Original Content");
-        postEntity.setViewCount(5);
+        postEntity.setViewCount(5L);
 
-        when(postRepository.findById(nonExistentPostId)).thenReturn(Optional.empty());
+        when(postRepository.findLockedById(nonExistentPostId)).thenReturn(Optional.empty());
 
         // When
         assertThrows(ElementNotFoundException.class, () -> {
@@ -226,7 +283,7 @@ public class PostServiceUnitTest {
         });
 
         // Then
-        verify(postRepository, times(1)).findById(nonExistentPostId);
+        verify(postRepository, times(1)).findLockedById(nonExistentPostId);
         verify(postRepository, never()).save(any(PostEntity.class));
         logger.info("Performed givenInvalidId_whenUpdatePost_thenThrowElementNotFoundException() successfully");
     }
@@ -250,6 +307,16 @@ public class PostServiceUnitTest {
 
     }
 
+    @Test
+    public void givenNoTopPosts_whenFetchEncodedTopPosts_thenThrowElementNotFoundException() {
+        logger.info("Performing givenNoTopPosts_whenFetchEncodedTopPosts_thenThrowElementNotFoundException() ...");
+        when(topPostsResponseCache.get()).thenReturn(
+                new EncodedTopPosts(Collections.emptyList(), new byte[0], new byte[0], "\"0-0\"", -1));
+
+        assertThrows(ElementNotFoundException.class, () -> postService.fetchEncodedTopPosts());
+        logger.info("Performed givenNoTopPosts_whenFetchEncodedTopPosts_thenThrowElementNotFoundException() successfully");
+    }
+
     @Test
     public void givenRepositoryHasPost_whenFetchAll_returnAll() {
         logger.info("Performing givenRepositoryHasPost_whenFetchAll_returnAll() ...");
@@ -261,8 +328,10 @@ public class PostServiceUnitTest {
 
         List<PostDTO> expectedPosts = Arrays.asList(
                 PostUtils.getCustomPostDtoWithId("author1", "content1", 10, postEntity1.getId()),
-                PostUtils.getCustomPostDtoWithId("author1", "content1", 30, postEntity2.getId())
+                PostUtils.getCustomPostDtoWithId("author2", "content2", 30, postEntity2.getId())
         );
+        Mockito.when(postMapper.toPostDTO(postEntity1)).thenReturn(expectedPosts.get(0));
+        Mockito.when(postMapper.toPostDTO(postEntity2)).thenReturn(expectedPosts.get(1));
 
         List<PostDTO> actualPosts = postService.fetchAllPosts();
         assertEquals(expectedPosts, actualPosts);
@@ -270,7 +339,7 @@ public class PostServiceUnitTest {
     }
 
     @Test
-    void givenEmptyRepository_whenFetchAll_throwElementNotFoundException() {
+    public void givenEmptyRepository_whenFetchAll_throwElementNotFoundException() {
         logger.info("Performing givenEmptyRepository_whenFetchAll_throwElementNotFoundException() ...");
 
         Mockito.when(postRepository.findAll()).thenReturn(Collections.emptyList());
@@ -278,5 +347,346 @@ public class PostServiceUnitTest {
         logger.info("Performed givenEmptyRepository_whenFetchAll_throwElementNotFoundException() successfully");
     }
 
+    @Test
+    public void givenMorePostsThanPageSize_whenFetchPostsPage_thenReturnNextCursor() {
+        logger.info("Performing givenMorePostsThanPageSize_whenFetchPostsPage_thenReturnNextCursor() ...");
+
+        PostEntity postEntity1 = PostUtils.getCustomPostEntity("author1", "content1", 10);
+        postEntity1.setId(1L);
+        PostEntity postEntity2 = PostUtils.getCustomPostEntity("author2", "content2", 20);
+        postEntity2.setId(2L);
+        when(postRepository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(postEntity1, postEntity2));
+        when(postMapper.toPostDTO(postEntity1))
+                .thenReturn(PostUtils.getCustomPostDtoWithId("author1", "content1", 10, 1L));
+
+        PostPageDTO page = postService.fetchPostsPage(null, 1);
+
+        assertEquals(1, page.getPosts().size());
+        assertEquals(1L, CursorCodec.decode(page.getNextCursor(), 1)[0]);
+        verify(postMapper, never()).toPostDTO(postEntity2);
+        logger.info("Performed givenMorePostsThanPageSize_whenFetchPostsPage_thenReturnNextCursor() successfully");
+    }
+
+    @Test
+    public void givenMoreHitsThanPageSize_whenSearchPosts_thenPostsKeepRankingAndCursorContinuesAfterLastHit() {
+        logger.info("Performing givenMoreHitsThanPageSize_whenSearchPosts_thenPostsKeepRankingAndCursorContinuesAfterLastHit() ...");
+        PostEntity postEntity1 = PostUtils.getCustomPostEntity("author1", "coffee", 10);
+        postEntity1.setId(1L);
+        PostEntity postEntity2 = PostUtils.getCustomPostEntity("author2", "coffee coffee", 20);
+        postEntity2.setId(2L);
+        when(postSearchIndex.search("coffee", Double.POSITIVE_INFINITY, Long.MIN_VALUE, 3))
+                .thenReturn(List.of(new SearchHit(2L, 2.0), new SearchHit(1L, 1.0), new SearchHit(3L, 0.5)));
+        when(postRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(postEntity1, postEntity2));
+        when(postMapper.toPostDTO(postEntity1))
+                .thenReturn(PostUtils.getCustomPostDtoWithId("author1", "coffee", 10, 1L));
+        when(postMapper.toPostDTO(postEntity2))
+                .thenReturn(PostUtils.getCustomPostDtoWithId("author2", "coffee coffee", 20, 2L));
+
+        PostPageDTO page = postService.searchPosts("coffee", null, 2);
+
+        assertEquals(List.of(2L, 1L), page.getPosts().stream().map(PostDTO::getId).toList());
+        long[] position = CursorCodec.decode(page.getNextCursor(), 2);
+        assertEquals(1.0, Double.longBitsToDouble(position[0]));
+        assertEquals(1L, position[1]);
+        logger.info("Performed givenMoreHitsThanPageSize_whenSearchPosts_thenPostsKeepRankingAndCursorContinuesAfterLastHit() successfully");
+    }
+
+    @Test
+    public void givenLastPage_whenFetchPostsPage_thenNextCursorIsNull() {
+        logger.info("Performing givenLastPage_whenFetchPostsPage_thenNextCursorIsNull() ...");
+
+        PostEntity postEntity = PostUtils.getCustomPostEntity("author1", "content1", 10);
+        postEntity.setId(5L);
+        when(postRepository.findByIdGreaterThanOrderByIdAsc(4L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(postEntity));
+        when(postMapper.toPostDTO(postEntity))
+                .thenReturn(PostUtils.getCustomPostDtoWithId("author1", "content1", 10, 5L));
+
+        PostPageDTO page = postService.fetchPostsPage(CursorCodec.encode(4L), 10);
+
+        assertEquals(1, page.getPosts().size());
+        assertEquals(null, page.getNextCursor());
+        logger.info("Performed givenLastPage_whenFetchPostsPage_thenNextCursorIsNull() successfully");
+    }
+
+    @Test
+    public void givenMorePostsByAuthorThanPageSize_whenFetchPostsByAuthor_thenCursorContinuesAfterLastPost() {
+        logger.info("Performing givenMorePostsByAuthorThanPageSize_whenFetchPostsByAuthor_thenCursorContinuesAfterLastPost() ...");
+        PostEntity newer = PostUtils.getCustomPostEntity("author1", "newer", 0);
+        newer.setId(7L);
+        newer.setDate(Instant.ofEpochMilli(2_000));
+        PostEntity older = PostUtils.getCustomPostEntity("author1", "older", 0);
+        older.setId(3L);
+        older.setDate(Instant.ofEpochMilli(1_000));
+        PostDTO newerDTO = PostUtils.getCustomPostDtoWithId("author1", "newer", 0, 7L);
+        newerDTO.setDate(newer.getDate());
+        when(postRepository.findByAuthorOrderByDateDescIdAsc("author1", PageRequest.of(0, 2)))
+                .thenReturn(List.of(newer, older));
+        when(postMapper.toPostDTO(newer)).thenReturn(newerDTO);
+
+        PostPageDTO page = postService.fetchPostsByAuthor("author1", null, 1);
+        postService.fetchPostsByAuthor("author1", page.getNextCursor(), 1);
+
+        assertEquals(1, page.getPosts().size());
+        verify(postRepository).findByAuthorAfter("author1", Instant.ofEpochMilli(2_000), 7L, PageRequest.of(0, 2));
+        logger.info("Performed givenMorePostsByAuthorThanPageSize_whenFetchPostsByAuthor_thenCursorContinuesAfterLastPost() successfully");
+    }
+
+    @Test
+    public void givenPostMovedToAnotherAuthor_whenUpdatePost_thenBothAuthorCountsAreAdjusted() {
+        logger.info("Performing givenPostMovedToAnotherAuthor_whenUpdatePost_thenBothAuthorCountsAreAdjusted() ...");
+        PostEntity postEntity = PostUtils.getCustomPostEntity("author1", "content", 0);
+        postEntity.setId(1L);
+        when(postRepository.findLockedById(1L)).thenReturn(Optional.of(postEntity));
+
+        postService.updatePost(1L, PostUtils.getCustomPostDto("author2", "content", 0));
+
+        verify(authorStatsRepository).adjustPostCounts(new TreeMap<>(Map.of("author1", -1L, "author2", 1L)));
+        logger.info("Performed givenPostMovedToAnotherAuthor_whenUpdatePost_thenBothAuthorCountsAreAdjusted() successfully");
+    }
+
+    @Test
+    public void givenAuthor_whenFetchAuthorStats_thenCountComesFromCounterTable() {
+        logger.info("Performing givenAuthor_whenFetchAuthorStats_thenCountComesFromCounterTable() ...");
+        when(authorStatsRepository.findPostCount("author1")).thenReturn(42L);
+
+        assertEquals(42L, postService.fetchAuthorStats("author1").getPostCount());
+        verifyNoInteractions(postRepository);
+        logger.info("Performed givenAuthor_whenFetchAuthorStats_thenCountComesFromCounterTable() successfully");
+    }
+
+    @Test(expected = InvalidRequestException.class)
+    public void givenTooLargePageSize_whenFetchPostsPage_thenThrowInvalidRequestException() {
+        logger.info("Performing givenTooLargePageSize_whenFetchPostsPage_thenThrowInvalidRequestException() ...");
+        postService.fetchPostsPage(null, 100_000);
+    }
+
+    @Test
+    public void givenThreeDayRange_whenStreamTimeline_thenBucketsAreReadNewestFirst() {
+        logger.info("Performing givenThreeDayRange_whenStreamTimeline_thenBucketsAreReadNewestFirst() ...");
+        Instant from = Instant.parse("2023-03-10T12:00:00Z");
+        Instant to = from.plus(Duration.ofDays(2));
+        int firstBucket = PostJdbcRepository.dayBucketOf(from);
+
+        postService.streamTimeline(from, to, post -> { });
+
+        InOrder inOrder = inOrder(postJdbcRepository);
+        for (int dayBucket = firstBucket + 2; dayBucket >= firstBucket; dayBucket--) {
+            inOrder.verify(postJdbcRepository).streamDayBucket(eq(dayBucket),
+                    eq(Timestamp.from(from)), eq(Timestamp.from(to)), any());
+        }
+        verifyNoMoreInteractions(postJdbcRepository);
+        logger.info("Performed givenThreeDayRange_whenStreamTimeline_thenBucketsAreReadNewestFirst() successfully");
+    }
+
+    @Test
+    public void givenInvalidRange_whenCheckTimelineRange_thenThrowInvalidRequestException() {
+        logger.info("Performing givenInvalidRange_whenCheckTimelineRange_thenThrowInvalidRequestException() ...");
+        Instant now = Instant.now();
+        assertThrows(InvalidRequestException.class, () -> postService.checkTimelineRange(now, now));
+        assertThrows(InvalidRequestException.class, () -> postService.checkTimelineRange(now, now.minusSeconds(1)));
+        assertThrows(InvalidRequestException.class,
+                () -> postService.checkTimelineRange(now.minus(Duration.ofDays(400)), now));
+        logger.info("Performed givenInvalidRange_whenCheckTimelineRange_thenThrowInvalidRequestException() successfully");
+    }
+
+    @Test
+    public void givenPostId_whenRecordView_thenViewIsBufferedWithoutDatabaseAccess() {
+        logger.info("Performing givenPostId_whenRecordView_thenViewIsBufferedWithoutDatabaseAccess() ...");
+        Long postId = PostUtils.getRandomLongId();
+
+        postService.recordView(postId);
+
+        verify(viewCountBuffer).increment(postId);
+        verify(trendingPostsIndex).record(postId);
+        verifyNoInteractions(postRepository);
+        logger.info("Performed givenPostId_whenRecordView_thenViewIsBufferedWithoutDatabaseAccess() successfully");
+    }
+
+    @Test
+    public void givenTrendingIdsOfDeletedPosts_whenFetchTrendingPosts_thenOnlyExistingPostsAreReturned() {
+        logger.info("Performing givenTrendingIdsOfDeletedPosts_whenFetchTrendingPosts_thenOnlyExistingPostsAreReturned() ...");
+        PostEntity first = PostUtils.getCustomPostEntity("author", "first", 0);
+        PostEntity second = PostUtils.getCustomPostEntity("author", "second", 0);
+        PostDTO firstDTO = PostUtils.getCustomPostDtoWithId("author", "first", 0, first.getId());
+        PostDTO secondDTO = PostUtils.getCustomPostDtoWithId("author", "second", 0, second.getId());
+        Long deletedId = PostUtils.getRandomLongId();
+        // the deleted post leaves the index, the ranking read again fills its place
+        when(trendingPostsIndex.getTrending(2)).thenReturn(List.of(first.getId(), deletedId), List.of(first.getId(), second.getId()));
+        when(postRepository.findById(first.getId())).thenReturn(Optional.of(first));
+        when(postRepository.findById(deletedId)).thenReturn(Optional.empty());
+        when(postRepository.findById(second.getId())).thenReturn(Optional.of(second));
+        when(postMapper.toPostDTO(first)).thenReturn(firstDTO);
+        when(postMapper.toPostDTO(second)).thenReturn(secondDTO);
+
+        List<PostDTO> trending = postService.fetchTrendingPosts(2);
+
+        assertEquals(List.of(firstDTO, secondDTO), trending);
+        verify(trendingPostsIndex).remove(deletedId);
+        verify(trendingPostsIndex, never()).remove(first.getId());
+        assertThrows(InvalidRequestException.class, () -> postService.fetchTrendingPosts(0));
+        logger.info("Performed givenTrendingIdsOfDeletedPosts_whenFetchTrendingPosts_thenOnlyExistingPostsAreReturned() successfully");
+    }
+
+    @Test
+    public void givenBatchWithInvalidItem_whenCreatePosts_thenOnlyValidItemsAreSaved() {
+        logger.info("Performing givenBatchWithInvalidItem_whenCreatePosts_thenOnlyValidItemsAreSaved() ...");
+        PostDTO validPost = PostUtils.getDefaultPostDTO();
+        PostDTO invalidPost = PostUtils.getCustomPostDto("", "content", -1);
+        PostEntity postEntity = PostUtils.getDefaultPostEntity();
+        when(postMapper.toPostEntity(validPost)).thenReturn(postEntity);
+        when(postRepository.saveAll(List.of(postEntity))).thenAnswer(invocation -> {
+            postEntity.setId(42L);
+            return List.of(postEntity);
+        });
+
+        List<BatchItemResultDTO> results = postService.createPosts(Arrays.asList(validPost, invalidPost));
+
+        assertEquals(BatchItemResultDTO.success(0, 42L), results.get(0));
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(null, results.get(1).getId());
+        Assertions.assertTrue(results.get(1).getError().contains("author"));
+        Assertions.assertTrue(results.get(1).getError().contains("viewCount"));
+        verify(postMapper, never()).toPostEntity(invalidPost);
+        logger.info("Performed givenBatchWithInvalidItem_whenCreatePosts_thenOnlyValidItemsAreSaved() successfully");
+    }
+
+    @Test
+    public void givenBatchWithUnknownId_whenUpdatePosts_thenReportNotFoundForThatItem() {
+        logger.info("Performing givenBatchWithUnknownId_whenUpdatePosts_thenReportNotFoundForThatItem() ...");
+        PostEntity existing = PostUtils.getCustomPostEntity("author", "content", 1);
+        existing.setId(1L);
+        PostDTO update = PostUtils.getCustomPostDtoWithId("author", "updated", 5, 1L);
+        PostDTO unknown = PostUtils.getCustomPostDtoWithId("author", "updated", 5, 2L);
+        when(postRepository.findLockedByIdIn(Set.of(1L, 2L))).thenReturn(List.of(existing));
+
+        List<BatchItemResultDTO> results = postService.updatePosts(Arrays.asList(update, unknown));
+
+        assertEquals(BatchItemResultDTO.success(0, 1L), results.get(0));
+        assertEquals(BatchItemResultDTO.failure(1, "Element not found with id: 2"), results.get(1));
+        assertEquals("updated", existing.getContent());
+        verify(postRepository).flush();
+        logger.info("Performed givenBatchWithUnknownId_whenUpdatePosts_thenReportNotFoundForThatItem() successfully");
+    }
+
+    @Test
+    public void givenBatchOfIds_whenDeletePosts_thenExistingPostsAreDeletedInOneStatement() {
+        logger.info("Performing givenBatchOfIds_whenDeletePosts_thenExistingPostsAreDeletedInOneStatement() ...");
+        PostEntity existing = PostUtils.getDefaultPostEntity();
+        existing.setId(1L);
+        when(postRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(existing));
+
+        List<BatchItemResultDTO> results = postService.deletePosts(Arrays.asList(1L, 2L));
+
+        assertEquals(BatchItemResultDTO.success(0, 1L), results.get(0));
+        assertEquals(BatchItemResultDTO.failure(1, "Element not found with id: 2"), results.get(1));
+        verify(postRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(postRepository, never()).deleteById(any());
+        logger.info("Performed givenBatchOfIds_whenDeletePosts_thenExistingPostsAreDeletedInOneStatement() successfully");
+    }
+
+    @Test(expected = InvalidRequestException.class)
+    public void givenOversizedBatch_whenCreatePosts_thenThrowInvalidRequestException() {
+        logger.info("Performing givenOversizedBatch_whenCreatePosts_thenThrowInvalidRequestException() ...");
+        postService.createPosts(Collections.nCopies(100_000, PostUtils.getDefaultPostDTO()));
+    }
+
+    @Test
+    public void givenCachedPost_whenFetchPostAgain_thenRepositoryIsQueriedOnce() {
+        logger.info("Performing givenCachedPost_whenFetchPostAgain_thenRepositoryIsQueriedOnce() ...");
+        PostEntity postEntity = PostUtils.getDefaultPostEntity();
+        PostDTO postDTO = PostUtils.getDefaultPostDTOWithId();
+        when(postRepository.findById(postEntity.getId())).thenReturn(Optional.of(postEntity));
+        when(postMapper.toPostDTO(postEntity)).thenReturn(postDTO);
+
+        postService.fetchPost(postEntity.getId());
+        PostDTO result = postService.fetchPost(postEntity.getId());
+
+        assertEquals(postDTO, result);
+        verify(postRepository, times(1)).findById(postEntity.getId());
+        verify(postMapper, times(1)).toPostDTO(postEntity);
+        logger.info("Performed givenCachedPost_whenFetchPostAgain_thenRepositoryIsQueriedOnce() successfully");
+    }
+
+    @Test
+    public void givenPostWithComments_whenFetchPostWithCommentPage_thenCountAndFirstPageAreIncluded() {
+        logger.info("Performing givenPostWithComments_whenFetchPostWithCommentPage_thenCountAndFirstPageAreIncluded() ...");
+        PostEntity postEntity = PostUtils.getDefaultPostEntity();
+        PostDTO postDTO = PostUtils.getDefaultPostDTOWithId();
+        CommentPageDTO comments = new CommentPageDTO(List.of(new CommentDTO()), "cursor");
+        when(postRepository.findById(postEntity.getId())).thenReturn(Optional.of(postEntity));
+        when(postMapper.toPostDTO(postEntity)).thenReturn(postDTO);
+        when(commentService.countComments(postEntity.getId())).thenReturn(3L);
+        when(commentService.fetchComments(postEntity.getId(), null, 1)).thenReturn(comments);
+
+        PostWithCommentsDTO result = postService.fetchPost(postEntity.getId(), 1);
+
+        assertEquals(postDTO, result.getPost());
+        assertEquals(3L, result.getCommentCount());
+        assertEquals(comments, result.getComments());
+        logger.info("Performed givenPostWithComments_whenFetchPostWithCommentPage_thenCountAndFirstPageAreIncluded() successfully");
+    }
+
+    @Test
+    public void givenPostWithoutComments_whenFetchPostWithCommentPage_thenPageIsNotRead() {
+        logger.info("Performing givenPostWithoutComments_whenFetchPostWithCommentPage_thenPageIsNotRead() ...");
+        PostEntity postEntity = PostUtils.getDefaultPostEntity();
+        when(postRepository.findById(postEntity.getId())).thenReturn(Optional.of(postEntity));
+        when(postMapper.toPostDTO(postEntity)).thenReturn(PostUtils.getDefaultPostDTOWithId());
+
+        PostWithCommentsDTO result = postService.fetchPost(postEntity.getId(), 10);
+
+        assertEquals(0L, result.getCommentCount());
+        Assertions.assertTrue(result.getComments().getComments().isEmpty());
+        Assertions.assertNull(result.getComments().getNextCursor());
+        verify(commentService, never()).fetchComments(anyLong(), any(), anyInt());
+        logger.info("Performed givenPostWithoutComments_whenFetchPostWithCommentPage_thenPageIsNotRead() successfully");
+    }
+
+    @Test
+    public void givenCachedPost_whenFetchPostVersion_thenVersionComesFromCache() {
+        logger.info("Performing givenCachedPost_whenFetchPostVersion_thenVersionComesFromCache() ...");
+        PostEntity postEntity = PostUtils.getDefaultPostEntity();
+        PostDTO postDTO = PostUtils.getDefaultPostDTOWithId();
+        postDTO.setVersion(7L);
+        when(postRepository.findById(postEntity.getId())).thenReturn(Optional.of(postEntity));
+        when(postMapper.toPostDTO(postEntity)).thenReturn(postDTO);
+        postService.fetchPost(postEntity.getId());
+
+        PostVersionDTO postVersion = postService.fetchPostVersion(postEntity.getId());
+
+        assertEquals(7L, postVersion.getVersion());
+        verifyNoInteractions(postJdbcRepository);
+        logger.info("Performed givenCachedPost_whenFetchPostVersion_thenVersionComesFromCache() successfully");
+    }
+
+    @Test
+    public void givenUncachedPost_whenFetchPostVersion_thenOnlyVersionIsRead() {
+        logger.info("Performing givenUncachedPost_whenFetchPostVersion_thenOnlyVersionIsRead() ...");
+        Long postId = PostUtils.getRandomLongId();
+        when(postJdbcRepository.findVersion(postId)).thenReturn(Optional.of(new PostVersionDTO(postId, 3L, Instant.now())));
+
+        PostVersionDTO postVersion = postService.fetchPostVersion(postId);
+
+        assertEquals(3L, postVersion.getVersion());
+        verify(postRepository, never()).findById(any());
+        assertThrows(ElementNotFoundException.class, () -> postService.fetchPostVersion(postId + 1));
+        logger.info("Performed givenUncachedPost_whenFetchPostVersion_thenOnlyVersionIsRead() successfully");
+    }
+
+    @Test
+    public void givenMissingPost_whenFetchPostRepeatedly_thenMissIsCached() {
+        logger.info("Performing givenMissingPost_whenFetchPostRepeatedly_thenMissIsCached() ...");
+        Long postId = PostUtils.getRandomLongId();
+        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ElementNotFoundException.class, () -> postService.fetchPost(postId));
+        }
+
+        verify(postRepository, times(1)).findById(postId);
+        logger.info("Performed givenMissingPost_whenFetchPostRepeatedly_thenMissIsCached() successfully");
+    }
 
 }
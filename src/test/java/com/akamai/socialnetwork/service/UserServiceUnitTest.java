@@ -0,0 +1,78 @@
+package com.akamai.socialnetwork.service;
+
+import com.akamai.socialnetwork.graph.FollowGraph;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.FollowJdbcRepository;
+import com.akamai.socialnetwork.repository.PostRepository;
+import com.akamai.socialnetwork.service.impl.UserServiceImpl;
+import com.akamai.socialnetwork.timeline.HomeTimelineIndex;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserServiceUnitTest {
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Mock
+    private FollowJdbcRepository followJdbcRepository;
+
+    @Mock
+    private HomeTimelineIndex homeTimelineIndex;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostMapper postMapper;
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceUnitTest.class);
+
+    @Test
+    public void givenFollowBeingWritten_whenUnfollow_thenGraphIsUpdatedInTheOrderOfTheWrites() throws Exception {
+        logger.info("Performing givenFollowBeingWritten_whenUnfollow_thenGraphIsUpdatedInTheOrderOfTheWrites() ...");
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(followJdbcRepository.insert("fan", "star")).thenAnswer(invocation -> {
+            inserting.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return true;
+        });
+        when(followJdbcRepository.delete("fan", "star")).thenReturn(true);
+
+        CompletableFuture<Boolean> follow = CompletableFuture.supplyAsync(() -> userService.follow("fan", "star"));
+        assertTrue(inserting.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> unfollow = CompletableFuture.runAsync(() -> userService.unfollow("fan", "star"));
+        // the unfollow waits for the follow of the same pair to reach the graph
+        Thread.sleep(200);
+        assertFalse(unfollow.isDone());
+        release.countDown();
+        assertTrue(follow.get(10, TimeUnit.SECONDS));
+        unfollow.get(10, TimeUnit.SECONDS);
+
+        InOrder inOrder = inOrder(followJdbcRepository, followGraph);
+        inOrder.verify(followJdbcRepository).insert("fan", "star");
+        inOrder.verify(followGraph).add("fan", "star");
+        inOrder.verify(followJdbcRepository).delete("fan", "star");
+        inOrder.verify(followGraph).remove("fan", "star");
+        logger.info("Performed givenFollowBeingWritten_whenUnfollow_thenGraphIsUpdatedInTheOrderOfTheWrites() successfully");
+    }
+}
@@ -0,0 +1,59 @@
+package com.akamai.socialnetwork.timeline;
+
+import com.akamai.socialnetwork.dto.TimelineStatsDTO;
+import com.akamai.socialnetwork.graph.FollowGraph;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HomeTimelineIndexTest {
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Mock
+    private PostJdbcRepository postJdbcRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeTimelineIndexTest.class);
+
+    @Test
+    public void givenMaxBuffersHeld_whenNewUserReads_thenLeastRecentlyReadBufferIsEvicted() {
+        logger.info("Performing givenMaxBuffersHeld_whenNewUserReads_thenLeastRecentlyReadBufferIsEvicted() ...");
+        when(followGraph.getFollowing(anyString(), isNull(), anyInt())).thenReturn(List.of());
+        when(postJdbcRepository.findRecentByAuthors(anyCollection(), anyLong(), anyLong(), anyInt()))
+                .thenReturn(List.of(new TimelineEntry(1, 1)));
+        HomeTimelineIndex index = new HomeTimelineIndex(followGraph, postJdbcRepository, 10, 10, 2, 1);
+
+        index.read("first", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        index.read("second", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        // first is now the most recently read
+        index.read("first", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        index.read("third", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        TimelineStatsDTO stats = index.getStats();
+        assertEquals(2, stats.getBuffers());
+        assertEquals(1, stats.getEvictedBuffers());
+
+        // both kept buffers serve reads; the evicted user is filled again instead of falling back for good
+        index.read("first", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        index.read("third", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        index.read("second", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        index.read("second", Long.MAX_VALUE, Long.MAX_VALUE, 10);
+        stats = index.getStats();
+        assertEquals(2, stats.getBuffers());
+        // a fill is served from the new buffer as well
+        assertEquals(8, stats.getBufferReads());
+        assertEquals(4, stats.getDatabaseReads());
+        logger.info("Performed givenMaxBuffersHeld_whenNewUserReads_thenLeastRecentlyReadBufferIsEvicted() successfully");
+    }
+}
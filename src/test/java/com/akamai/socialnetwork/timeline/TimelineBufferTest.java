@@ -0,0 +1,54 @@
+package com.akamai.socialnetwork.timeline;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimelineBufferTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineBufferTest.class);
+
+    @Test
+    public void givenEntriesOutOfOrder_whenBefore_thenNewestFirst() {
+        logger.info("Performing givenEntriesOutOfOrder_whenBefore_thenNewestFirst() ...");
+        TimelineBuffer buffer = new TimelineBuffer(10);
+        buffer.add(20, 2);
+        buffer.add(10, 1);
+        buffer.add(30, 3);
+        buffer.add(20, 4);
+        assertFalse(buffer.add(30, 3));
+
+        assertEquals(List.of(3L, 4L, 2L, 1L), ids(buffer.before(Long.MAX_VALUE, Long.MAX_VALUE, 10)));
+        assertEquals(List.of(2L, 1L), ids(buffer.before(20, 4, 10)));
+        assertEquals(List.of(4L), ids(buffer.before(30, 3, 1)));
+        assertFalse(buffer.isTruncated());
+        logger.info("Performed givenEntriesOutOfOrder_whenBefore_thenNewestFirst() successfully");
+    }
+
+    @Test
+    public void givenFullBuffer_whenAdd_thenOldestIsDroppedAndBufferIsTruncated() {
+        logger.info("Performing givenFullBuffer_whenAdd_thenOldestIsDroppedAndBufferIsTruncated() ...");
+        TimelineBuffer buffer = new TimelineBuffer(3);
+        for (long id = 1; id <= 5; id++) {
+            buffer.add(id * 10, id);
+        }
+        // older than everything held
+        assertFalse(buffer.add(5, 99));
+        // between the held entries, the oldest one makes room
+        assertTrue(buffer.add(45, 6));
+
+        assertEquals(3, buffer.size());
+        assertTrue(buffer.isTruncated());
+        assertEquals(List.of(5L, 6L, 4L), ids(buffer.before(Long.MAX_VALUE, Long.MAX_VALUE, 10)));
+        logger.info("Performed givenFullBuffer_whenAdd_thenOldestIsDroppedAndBufferIsTruncated() successfully");
+    }
+
+    private static List<Long> ids(List<TimelineEntry> entries) {
+        return entries.stream().map(TimelineEntry::getPostId).collect(Collectors.toList());
+    }
+}
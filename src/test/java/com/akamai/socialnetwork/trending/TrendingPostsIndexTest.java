@@ -0,0 +1,119 @@
+package com.akamai.socialnetwork.trending;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@RunWith(JUnit4.class)
+public class TrendingPostsIndexTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(20_000));
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingPostsIndexTest.class);
+
+    @Test
+    public void givenOlderAndNewerViews_whenGetTrending_thenRankedByDecayedScore() {
+        logger.info("Performing givenOlderAndNewerViews_whenGetTrending_thenRankedByDecayedScore() ...");
+        TrendingPostsIndex index = index(16);
+        record(index, 1L, 100);
+        now.addAndGet(50 * MINUTE);
+        // 100 views 50 minutes ago weigh about 31.5 with a half-life of 30 minutes
+        record(index, 2L, 40);
+        record(index, 3L, 20);
+
+        assertEquals(List.of(2L, 1L, 3L), index.getTrending(10));
+        assertEquals(List.of(2L, 1L), index.getTrending(2));
+        logger.info("Performed givenOlderAndNewerViews_whenGetTrending_thenRankedByDecayedScore() successfully");
+    }
+
+    @Test
+    public void givenViewsOlderThanWindow_whenGetTrending_thenPostIsDropped() {
+        logger.info("Performing givenViewsOlderThanWindow_whenGetTrending_thenPostIsDropped() ...");
+        TrendingPostsIndex index = index(16);
+        record(index, 1L, 1000);
+        now.addAndGet(30 * MINUTE);
+        record(index, 2L, 1);
+
+        assertEquals(List.of(1L, 2L), index.getTrending(10));
+        now.addAndGet(31 * MINUTE);
+        assertEquals(List.of(2L), index.getTrending(10));
+        now.addAndGet(30 * MINUTE);
+        assertEquals(List.of(), index.getTrending(10));
+        assertEquals(0, index.getStats().getTrackedPosts());
+        logger.info("Performed givenViewsOlderThanWindow_whenGetTrending_thenPostIsDropped() successfully");
+    }
+
+    @Test
+    public void givenLongTailAboveCapacity_whenRecord_thenHeavyHittersAreKept() {
+        logger.info("Performing givenLongTailAboveCapacity_whenRecord_thenHeavyHittersAreKept() ...");
+        TrendingPostsIndex index = index(4);
+        for (long tail = 1000; tail < 11_000; tail++) {
+            index.record(tail);
+            if (tail % 100 == 0) {
+                index.record(1L);
+                index.record(2L);
+                index.record(2L);
+                index.record(3L);
+                index.record(3L);
+                index.record(3L);
+            }
+        }
+
+        assertEquals(List.of(3L, 2L, 1L), index.getTrending(3));
+        assertEquals(4, index.getStats().getTrackedPosts());
+        assertEquals(10_600, index.getStats().getViews());
+        logger.info("Performed givenLongTailAboveCapacity_whenRecord_thenHeavyHittersAreKept() successfully");
+    }
+
+    @Test
+    public void givenMonthsOfViews_whenGetTrending_thenScoresStayComparable() {
+        logger.info("Performing givenMonthsOfViews_whenGetTrending_thenScoresStayComparable() ...");
+        TrendingPostsIndex index = index(16);
+        for (int day = 0; day < 90; day++) {
+            record(index, 1L, 3);
+            record(index, 2L, 2);
+            now.addAndGet(TimeUnit.DAYS.toMillis(1));
+        }
+        record(index, 2L, 2);
+        record(index, 1L, 1);
+
+        assertEquals(List.of(2L, 1L), index.getTrending(10));
+        logger.info("Performed givenMonthsOfViews_whenGetTrending_thenScoresStayComparable() successfully");
+    }
+
+    @Test
+    public void givenRemovedPost_whenGetTrending_thenPostIsNotTracked() {
+        logger.info("Performing givenRemovedPost_whenGetTrending_thenPostIsNotTracked() ...");
+        TrendingPostsIndex index = index(16);
+        record(index, 1L, 30);
+        record(index, 2L, 20);
+        record(index, 3L, 10);
+
+        index.remove(1L);
+        index.remove(4L);
+
+        assertEquals(List.of(2L, 3L), index.getTrending(10));
+        assertEquals(2, index.getStats().getTrackedPosts());
+        logger.info("Performed givenRemovedPost_whenGetTrending_thenPostIsNotTracked() successfully");
+    }
+
+    private TrendingPostsIndex index(int capacity) {
+        return new TrendingPostsIndex(60, 30, capacity, 1024, 4, 1, now::get);
+    }
+
+    private static void record(TrendingPostsIndex index, long postId, int views) {
+        for (int i = 0; i < views; i++) {
+            index.record(postId);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.akamai.socialnetwork.wal;
+
+import com.akamai.socialnetwork.PostUtils;
+import com.akamai.socialnetwork.dto.PostDTO;
+import com.akamai.socialnetwork.dto.WriteAheadLogStatsDTO;
+import com.akamai.socialnetwork.entity.PostEntity;
+import com.akamai.socialnetwork.exception.ServiceUnavailableException;
+import com.akamai.socialnetwork.mapper.PostMapper;
+import com.akamai.socialnetwork.repository.AuthorStatsRepository;
+import com.akamai.socialnetwork.repository.PostJdbcRepository;
+import com.akamai.socialnetwork.service.PostService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class PostWriteAheadLogIntegrationTest {
+
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private PostJdbcRepository postJdbcRepository;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final Logger logger = LoggerFactory.getLogger(PostWriteAheadLogIntegrationTest.class);
+
+    @Test
+    public void testUncommittedPostsAreCommittedAfterRestart() throws Exception {
+        logger.info("Performing testUncommittedPostsAreCommittedAfterRestart() ...");
+        Path directory = folder.getRoot().toPath();
+        String author = "wal-author-" + PostUtils.getRandomLongId();
+
+        // stopped without committing, like a process killed after acknowledging the posts
+        PostWriteAheadLog crashed = postWriteAheadLog(directory, 1000, false);
+        List<Long> ids = append(crashed, author, 5);
+        crashed.shutdown();
+        assertEquals(0, countPosts(ids));
+
+        PostWriteAheadLog restarted = postWriteAheadLog(directory, 1000, false);
+        restarted.commit();
+        restarted.shutdown();
+
+        assertEquals(5, countPosts(ids));
+        assertEquals(5, authorStatsRepository.findPostCount(author));
+        for (Long id : ids) {
+            assertEquals(author, postService.fetchPost(id).getAuthor());
+        }
+        WriteAheadLogStatsDTO stats = restarted.getStats();
+        assertEquals(5, stats.getReplayedPosts());
+        assertEquals(5, stats.getCommittedPosts());
+        assertEquals(0, stats.getUncommittedPosts());
+
+        // the checkpoint moved past them, a further start has nothing to replay
+        PostWriteAheadLog again = postWriteAheadLog(directory, 1000, false);
+        again.shutdown();
+        assertEquals(0, again.getStats().getReplayedPosts());
+        logger.info("Performed testUncommittedPostsAreCommittedAfterRestart() successfully");
+    }
+
+    @Test
+    public void testCommittedPostsAreNotWrittenTwiceWithoutCheckpoint() throws Exception {
+        logger.info("Performing testCommittedPostsAreNotWrittenTwiceWithoutCheckpoint() ...");
+        Path directory = folder.getRoot().toPath();
+        String author = "wal-author-" + PostUtils.getRandomLongId();
+
+        PostWriteAheadLog crashed = postWriteAheadLog(directory, 2, false);
+        List<Long> ids = append(crashed, author, 5);
+        crashed.commit();
+        crashed.shutdown();
+        assertEquals(3, crashed.getStats().getCommits());
+        // the batches were committed, the checkpoint never made it to disk
+        Files.delete(directory.resolve("checkpoint"));
+
+        PostWriteAheadLog restarted = postWriteAheadLog(directory, 2, false);
+        restarted.commit();
+        restarted.shutdown();
+
+        assertEquals(5, restarted.getStats().getReplayedPosts());
+        assertEquals(0, restarted.getStats().getCommittedPosts());
+        assertEquals(5, countPosts(ids));
+        assertEquals(5, authorStatsRepository.findPostCount(author));
+        logger.info("Performed testCommittedPostsAreNotWrittenTwiceWithoutCheckpoint() successfully");
+    }
+
+    @Test
+    public void testConcurrentAppendsAreCommittedInBatches() throws Exception {
+        logger.info("Performing testConcurrentAppendsAreCommittedInBatches() ...");
+        String author = "wal-author-" + PostUtils.getRandomLongId();
+        PostWriteAheadLog postWriteAheadLog = postWriteAheadLog(folder.getRoot().toPath(), 500, true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> append(postWriteAheadLog, author, 250)));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<List<Long>> future : futures) {
+            ids.addAll(future.get());
+        }
+        executor.shutdown();
+        assertEquals(2000, ids.size());
+
+        postWriteAheadLog.commit();
+        postWriteAheadLog.shutdown();
+
+        WriteAheadLogStatsDTO stats = postWriteAheadLog.getStats();
+        assertEquals(2000, stats.getAppendedPosts());
+        assertEquals(2000, stats.getCommittedPosts());
+        assertEquals(4, stats.getCommits());
+        assertEquals(2000, countPosts(ids));
+        assertEquals(2000, authorStatsRepository.findPostCount(author));
+        assertTrue(ids.stream().allMatch(id -> id > 0));
+        logger.info("Performed testConcurrentAppendsAreCommittedInBatches() successfully");
+    }
+
+    @Test
+    public void testLoggedIdsDoNotCollideWithCreatedPosts() throws Exception {
+        logger.info("Performing testLoggedIdsDoNotCollideWithCreatedPosts() ...");
+        String author = "wal-author-" + PostUtils.getRandomLongId();
+        PostWriteAheadLog postWriteAheadLog = postWriteAheadLog(folder.getRoot().toPath(), 1000, false);
+
+        // both take ids from post_seq, block after block
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 120; i++) {
+            PostDTO post = PostUtils.getCustomPostDto(author, "Created post " + i, 0);
+            assertTrue(ids.add(postService.createPost(post)));
+            assertTrue(ids.addAll(append(postWriteAheadLog, author, 1)));
+        }
+        postWriteAheadLog.commit();
+        postWriteAheadLog.shutdown();
+
+        assertEquals(120, postWriteAheadLog.getStats().getCommittedPosts());
+        assertEquals(240, countPosts(ids));
+        assertEquals(240, authorStatsRepository.findPostCount(author));
+        logger.info("Performed testLoggedIdsDoNotCollideWithCreatedPosts() successfully");
+    }
+
+    @Test
+    public void testPostWithTakenIdIsMovedToDeadLetters() throws Exception {
+        logger.info("Performing testPostWithTakenIdIsMovedToDeadLetters() ...");
+        Path directory = folder.getRoot().toPath();
+        String author = "wal-author-" + PostUtils.getRandomLongId();
+        PostWriteAheadLog postWriteAheadLog = postWriteAheadLog(directory, 1000, false);
+        List<Long> ids = append(postWriteAheadLog, author, 3);
+
+        // another post took the id of the second one, which the database refuses on every commit
+        PostEntity other = new PostEntity();
+        other.setId(ids.get(1));
+        other.setDate(Instant.now().minusSeconds(60));
+        other.setAuthor("other-author");
+        other.setContent("Not a logged post");
+        postJdbcRepository.insertAbsent(List.of(other));
+
+        postWriteAheadLog.commit();
+        postWriteAheadLog.shutdown();
+
+        WriteAheadLogStatsDTO stats = postWriteAheadLog.getStats();
+        assertEquals(2, stats.getCommittedPosts());
+        assertEquals(1, stats.getDeadLetteredPosts());
+        assertEquals(0, stats.getUncommittedPosts());
+        assertEquals(2, authorStatsRepository.findPostCount(author));
+        assertEquals(author, postService.fetchPost(ids.get(2)).getAuthor());
+        assertEquals("other-author", postService.fetchPost(ids.get(1)).getAuthor());
+        try (Stream<Path> deadLetters = Files.list(directory.resolve("dead-letter"))) {
+            assertTrue(deadLetters.findAny().isPresent());
+        }
+
+        // the checkpoint moved past it, a further start has nothing to replay
+        PostWriteAheadLog again = postWriteAheadLog(directory, 1000, false);
+        again.shutdown();
+        assertEquals(0, again.getStats().getReplayedPosts());
+        logger.info("Performed testPostWithTakenIdIsMovedToDeadLetters() successfully");
+    }
+
+    @Test
+    public void testAppendsAreRefusedWhileTooManyPostsArePending() throws Exception {
+        logger.info("Performing testAppendsAreRefusedWhileTooManyPostsArePending() ...");
+        String author = "wal-author-" + PostUtils.getRandomLongId();
+        PostWriteAheadLog postWriteAheadLog = postWriteAheadLog(folder.getRoot().toPath(), 1000, false, 2);
+        append(postWriteAheadLog, author, 2);
+
+        assertThrows(ServiceUnavailableException.class, () -> append(postWriteAheadLog, author, 1));
+        postWriteAheadLog.commit();
+        append(postWriteAheadLog, author, 1);
+        postWriteAheadLog.commit();
+        postWriteAheadLog.shutdown();
+
+        assertEquals(3, postWriteAheadLog.getStats().getCommittedPosts());
+        assertEquals(3, authorStatsRepository.findPostCount(author));
+        logger.info("Performed testAppendsAreRefusedWhileTooManyPostsArePending() successfully");
+    }
+
+    private PostWriteAheadLog postWriteAheadLog(Path directory, int batchSize, boolean fsync) throws Exception {
+        return postWriteAheadLog(directory, batchSize, fsync, Long.MAX_VALUE);
+    }
+
+    private PostWriteAheadLog postWriteAheadLog(Path directory, int batchSize, boolean fsync, long maxPending)
+            throws Exception {
+        return new PostWriteAheadLog(postMapper, postJdbcRepository, authorStatsRepository, transactionManager,
+                eventPublisher, true, directory.toString(), 1024 * 1024, batchSize, ONE_HOUR, fsync, false, maxPending);
+    }
+
+    private static List<Long> append(PostWriteAheadLog postWriteAheadLog, String author, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PostDTO post = PostUtils.getCustomPostDto(author, "Logged post " + i, 0);
+            ids.add(postWriteAheadLog.append(post));
+        }
+        return ids;
+    }
+
+    private long countPosts(Collection<Long> ids) {
+        long count = 0;
+        for (Long id : ids) {
+            Long found = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_entity WHERE id = ?", Long.class, id);
+            count += found == null ? 0 : found;
+        }
+        return count;
+    }
+}
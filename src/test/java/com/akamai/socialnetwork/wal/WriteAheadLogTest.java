@@ -0,0 +1,149 @@
+package com.akamai.socialnetwork.wal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(JUnit4.class)
+public class WriteAheadLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLogTest.class);
+
+    @Test
+    public void givenAppendedRecords_whenReplay_thenRecordsAreReadInOrder() throws IOException {
+        logger.info("Performing givenAppendedRecords_whenReplay_thenRecordsAreReadInOrder() ...");
+        Path directory = folder.getRoot().toPath();
+        List<Long> positions = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_SIZE, false)) {
+            for (int i = 0; i < 3; i++) {
+                positions.add(log.append(record(i)));
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        List<Long> replayedPositions = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_SIZE, false)) {
+            log.replay((record, position) -> {
+                replayed.add(new String(record, StandardCharsets.UTF_8));
+                replayedPositions.add(position);
+            });
+            // appends after a replay start a new segment
+            long position = log.append(record(3));
+            assertEquals(WriteAheadLog.segmentOf(positions.get(2)) + 1, WriteAheadLog.segmentOf(position));
+        }
+
+        assertEquals(List.of("record-0", "record-1", "record-2"), replayed);
+        assertEquals(positions, replayedPositions);
+        assertEquals(List.of("record-0", "record-1", "record-2", "record-3"), replay(directory));
+        logger.info("Performed givenAppendedRecords_whenReplay_thenRecordsAreReadInOrder() successfully");
+    }
+
+    @Test
+    public void givenTornRecord_whenReplay_thenSegmentEndsBeforeIt() throws IOException {
+        logger.info("Performing givenTornRecord_whenReplay_thenSegmentEndsBeforeIt() ...");
+        Path directory = folder.getRoot().toPath();
+        long second;
+        try (WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_SIZE, false)) {
+            log.append(record(0));
+            log.append(record(1));
+            second = log.append(record(2));
+            log.append(record(3));
+        }
+        // the third record lost a byte of its payload, as if the crash came mid-write
+        Path segment = segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0}), WriteAheadLog.offsetOf(second) - 1);
+        }
+
+        assertEquals(List.of("record-0", "record-1"), replay(directory));
+        logger.info("Performed givenTornRecord_whenReplay_thenSegmentEndsBeforeIt() successfully");
+    }
+
+    @Test
+    public void givenCheckpoint_whenReplay_thenOnlyLaterRecordsAreRead() throws IOException {
+        logger.info("Performing givenCheckpoint_whenReplay_thenOnlyLaterRecordsAreRead() ...");
+        Path directory = folder.getRoot().toPath();
+        try (WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_SIZE, false)) {
+            log.append(record(0));
+            long position = log.append(record(1));
+            log.append(record(2));
+            log.checkpoint(position);
+            assertEquals(position, log.getCheckpoint());
+        }
+
+        assertEquals(List.of("record-2"), replay(directory));
+        assertTrue(Files.exists(directory.resolve("checkpoint")));
+        assertTrue(Files.notExists(directory.resolve("checkpoint.tmp")));
+        logger.info("Performed givenCheckpoint_whenReplay_thenOnlyLaterRecordsAreRead() successfully");
+    }
+
+    @Test
+    public void givenSmallSegments_whenAppendAndCheckpoint_thenLogRollsAndOldSegmentsAreDeleted() throws IOException {
+        logger.info("Performing givenSmallSegments_whenAppendAndCheckpoint_thenLogRollsAndOldSegmentsAreDeleted() ...");
+        Path directory = folder.getRoot().toPath();
+        List<Long> positions = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(directory, 64, false)) {
+            for (int i = 0; i < 20; i++) {
+                positions.add(log.append(record(i)));
+                expected.add("record-" + i);
+            }
+            assertTrue(segments(directory).size() > 1);
+            assertEquals(expected, replay(directory));
+
+            long checkpoint = positions.get(14);
+            log.checkpoint(checkpoint);
+            for (Path segment : segments(directory)) {
+                String name = segment.getFileName().toString();
+                long number = Long.parseLong(name.substring(0, name.length() - WriteAheadLog.SEGMENT_SUFFIX.length()));
+                assertTrue(number >= WriteAheadLog.segmentOf(checkpoint));
+            }
+        }
+
+        assertEquals(expected.subList(15, 20), replay(directory));
+        logger.info("Performed givenSmallSegments_whenAppendAndCheckpoint_thenLogRollsAndOldSegmentsAreDeleted() successfully");
+    }
+
+    private static byte[] record(int i) {
+        return ("record-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> replay(Path directory) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_SIZE, false)) {
+            log.replay((record, position) -> records.add(new String(record, StandardCharsets.UTF_8)));
+        }
+        return records;
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(WriteAheadLog.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+}